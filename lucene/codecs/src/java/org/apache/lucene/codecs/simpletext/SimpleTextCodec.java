@@ -28,6 +28,7 @@ import org.apache.lucene.codecs.PostingsFormat;
 import org.apache.lucene.codecs.SegmentInfoFormat;
 import org.apache.lucene.codecs.StoredFieldsFormat;
 import org.apache.lucene.codecs.TermVectorsFormat;
+import org.apache.lucene.codecs.VectorFormat;
 
 /**
  * plain text index format.
@@ -100,4 +101,9 @@ public final class SimpleTextCodec extends Codec {
   public PointsFormat pointsFormat() {
     return pointsFormat;
   }
+
+  @Override
+  public VectorFormat vectorFormat() {
+    return VectorFormat.EMPTY;
+  }
 }
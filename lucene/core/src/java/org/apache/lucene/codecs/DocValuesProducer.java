@@ -21,6 +21,7 @@ import java.io.Closeable;
 import java.io.IOException;
 
 import org.apache.lucene.index.BinaryDocValues;
+import org.apache.lucene.index.DocValuesSkipper;
 import org.apache.lucene.index.FieldInfo;
 import org.apache.lucene.index.NumericDocValues;
 import org.apache.lucene.index.SortedDocValues;
@@ -63,6 +64,17 @@ public abstract class DocValuesProducer implements Closeable, Accountable {
    *  The returned instance need not be thread-safe: it will only be
    *  used by a single thread. */
   public abstract SortedSetDocValues getSortedSet(FieldInfo field) throws IOException;
+
+  /** Returns a {@link DocValuesSkipper} for this numeric or sorted numeric
+   *  field, or {@code null} if this producer doesn't record a skip index.
+   *  The returned instance need not be thread-safe: it will only be
+   *  used by a single thread.
+   *  <p>
+   *  The default implementation returns {@code null}.
+   *  @lucene.experimental */
+  public DocValuesSkipper getSkipper(FieldInfo field) throws IOException {
+    return null;
+  }
   
   /** 
    * Checks consistency of this producer
@@ -39,6 +39,18 @@ public abstract class StoredFieldsReader implements Cloneable, Closeable, Accoun
   /** Visit the stored fields for document <code>docID</code> */
   public abstract void visitDocument(int docID, StoredFieldVisitor visitor) throws IOException;
 
+  /**
+   * Optional method: Give a hint that the stored fields of the given
+   * documents, e.g. a page of hits, are about to be visited, so that the
+   * storage may fetch them in parallel. Callers should give a single hint for
+   * all documents before visiting any of them. {@code docIDs} may be in any
+   * order and is not modified.
+   * <p>
+   * The default implementation does nothing.
+   * @see org.apache.lucene.store.IndexInput#prefetch(long, long)
+   */
+  public void prefetch(int[] docIDs) throws IOException {}
+
   @Override
   public abstract StoredFieldsReader clone();
   
@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.codecs;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.lucene.index.DocIDMerger;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.MergeState;
+import org.apache.lucene.index.VectorValues;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.util.BytesRef;
+
+import static org.apache.lucene.search.DocIdSetIterator.NO_MORE_DOCS;
+
+/**
+ * Writes vectors to an index.
+ *
+ * @lucene.experimental
+ */
+public abstract class VectorWriter implements Closeable {
+
+  /** Sole constructor */
+  protected VectorWriter() {}
+
+  /** Write all values contained in the provided reader */
+  public abstract void writeField(FieldInfo fieldInfo, VectorValues values) throws IOException;
+
+  /** Called once at the end before close */
+  public abstract void finish() throws IOException;
+
+  /** Merge the vector values from multiple segments, for all fields */
+  public void merge(MergeState mergeState) throws IOException {
+    for (VectorReader reader : mergeState.vectorReaders) {
+      if (reader != null) {
+        reader.checkIntegrity();
+      }
+    }
+    for (FieldInfo fieldInfo : mergeState.mergeFieldInfos) {
+      if (fieldInfo.hasVectorValues()) {
+        mergeVectors(fieldInfo, mergeState);
+      }
+    }
+    finish();
+  }
+
+  private void mergeVectors(FieldInfo mergeFieldInfo, final MergeState mergeState) throws IOException {
+    if (mergeState.infoStream.isEnabled("VV")) {
+      mergeState.infoStream.message("VV", "merging " + mergeState.segmentInfo);
+    }
+    List<VectorValuesSub> subs = new ArrayList<>();
+    for (int i = 0; i < mergeState.vectorReaders.length; i++) {
+      VectorReader vectorReader = mergeState.vectorReaders[i];
+      if (vectorReader == null) {
+        // This segment has no vectors
+        continue;
+      }
+      FieldInfo readerFieldInfo = mergeState.fieldInfos[i].fieldInfo(mergeFieldInfo.name);
+      if (readerFieldInfo == null || readerFieldInfo.hasVectorValues() == false) {
+        // This segment never saw this field, or did not index vectors for it
+        continue;
+      }
+      if (readerFieldInfo.getVectorDimension() != mergeFieldInfo.getVectorDimension()) {
+        throw new IllegalStateException("Varying dimensions for vector-valued field " + mergeFieldInfo.name
+            + ": " + mergeFieldInfo.getVectorDimension() + "!=" + readerFieldInfo.getVectorDimension());
+      }
+      if (readerFieldInfo.getVectorSearchStrategy() != mergeFieldInfo.getVectorSearchStrategy()) {
+        throw new IllegalStateException("Varying search strategies for vector-valued field " + mergeFieldInfo.name
+            + ": " + mergeFieldInfo.getVectorSearchStrategy() + "!=" + readerFieldInfo.getVectorSearchStrategy());
+      }
+      VectorValues values = vectorReader.getVectorValues(mergeFieldInfo.name);
+      if (values != null) {
+        subs.add(new VectorValuesSub(mergeState.docMaps[i], values));
+      }
+    }
+    // Create a new VectorValues by iterating over the sub vectors, mapping the resulting
+    // docids using docMaps in the mergeState.
+    if (subs.size() > 0) {
+      writeField(mergeFieldInfo, new VectorValuesMerger(subs, mergeState));
+    }
+    if (mergeState.infoStream.isEnabled("VV")) {
+      mergeState.infoStream.message("VV", "merge done " + mergeState.segmentInfo);
+    }
+  }
+
+  /** Tracks state of one sub-reader that we are merging */
+  private static class VectorValuesSub extends DocIDMerger.Sub {
+
+    final VectorValues values;
+
+    VectorValuesSub(MergeState.DocMap docMap, VectorValues values) {
+      super(docMap);
+      this.values = values;
+      assert values.docID() == -1;
+    }
+
+    @Override
+    public int nextDoc() throws IOException {
+      return values.nextDoc();
+    }
+  }
+
+  /**
+   * View over multiple VectorValues supporting iterator-style access via DocIdMerger. Deleted documents
+   * are skipped while iterating, so {@link #size()} is only an upper bound on the number of vectors
+   * returned when the merged segments have deletions.
+   */
+  private static class VectorValuesMerger extends VectorValues {
+    private final List<VectorValuesSub> subs;
+    private final DocIDMerger<VectorValuesSub> docIdMerger;
+    private final int size;
+
+    private int docId;
+    private VectorValuesSub current;
+
+    VectorValuesMerger(List<VectorValuesSub> subs, MergeState mergeState) throws IOException {
+      this.subs = subs;
+      docIdMerger = DocIDMerger.of(subs, mergeState.needsIndexSort);
+      int totalSize = 0;
+      for (VectorValuesSub sub : subs) {
+        totalSize += sub.values.size();
+      }
+      size = totalSize;
+      docId = -1;
+    }
+
+    @Override
+    public int docID() {
+      return docId;
+    }
+
+    @Override
+    public int nextDoc() throws IOException {
+      current = docIdMerger.next();
+      if (current == null) {
+        docId = NO_MORE_DOCS;
+      } else {
+        docId = current.mappedDocID;
+      }
+      return docId;
+    }
+
+    @Override
+    public float[] vectorValue() throws IOException {
+      return current.values.vectorValue();
+    }
+
+    @Override
+    public BytesRef binaryValue() throws IOException {
+      return current.values.binaryValue();
+    }
+
+    @Override
+    public int advance(int target) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public long cost() {
+      return size;
+    }
+
+    @Override
+    public int dimension() {
+      return subs.get(0).values.dimension();
+    }
+
+    @Override
+    public SearchStrategy searchStrategy() {
+      return subs.get(0).values.searchStrategy();
+    }
+
+    @Override
+    public TopDocs search(float[] target, int k, int fanout) {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
@@ -129,12 +129,53 @@ public final class BlockTreeTermsReader extends FieldsProducer {
   
   final int version;
 
-  /** Sole constructor. */
+  // Cache of the states of frequently looked up terms, or null if disabled
+  final TermStateCache termStateCache;
+
+  /**
+   * Reader attribute that sets the maximum number of terms whose
+   * {@link org.apache.lucene.codecs.BlockTermState}s are cached per segment,
+   * {@code 0} (the default) to not cache term states.
+   * @see org.apache.lucene.index.DirectoryReader#open(org.apache.lucene.store.Directory, Map)
+   * @see org.apache.lucene.index.IndexWriterConfig#setReaderAttributes(Map)
+   */
+  public static final String TERM_STATE_CACHE_SIZE_KEY = "blocktree.termStateCacheSize";
+
+  /** Create a reader that caches term states if the
+   *  {@link #TERM_STATE_CACHE_SIZE_KEY} reader attribute is set. */
   public BlockTreeTermsReader(PostingsReaderBase postingsReader, SegmentReadState state) throws IOException {
+    this(postingsReader, state, getTermStateCacheSize(state));
+  }
+
+  private static int getTermStateCacheSize(SegmentReadState state) {
+    final String value = state.readerAttributes.get(TERM_STATE_CACHE_SIZE_KEY);
+    if (value == null) {
+      return 0;
+    }
+    try {
+      return Integer.parseInt(value);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid value for " + TERM_STATE_CACHE_SIZE_KEY + ": " + value, e);
+    }
+  }
+
+  /**
+   * Create a reader that caches the {@link org.apache.lucene.codecs.BlockTermState}s
+   * of up to {@code termStateCacheSize} terms, or that doesn't cache term
+   * states if {@code termStateCacheSize} is {@code 0}. This helps queries that
+   * repeatedly look up the same terms skip the terms index and the decoding of
+   * terms blocks.
+   * @see TermStateCache
+   */
+  public BlockTreeTermsReader(PostingsReaderBase postingsReader, SegmentReadState state, int termStateCacheSize) throws IOException {
+    if (termStateCacheSize < 0) {
+      throw new IllegalArgumentException("termStateCacheSize must be >= 0, got " + termStateCacheSize);
+    }
     boolean success = false;
     
     this.postingsReader = postingsReader;
     this.segment = state.segmentInfo.name;
+    this.termStateCache = termStateCacheSize == 0 ? null : new TermStateCache(termStateCacheSize);
 
     try {
       String termsName = IndexFileNames.segmentFileName(segment, state.segmentSuffix, TERMS_EXTENSION);
@@ -297,6 +338,14 @@ public final class BlockTreeTermsReader extends FieldsProducer {
     return fieldList.iterator();
   }
 
+  /**
+   * Return the cache of term states of this segment, or {@code null} if term
+   * states are not cached.
+   */
+  public TermStateCache getTermStateCache() {
+    return termStateCache;
+  }
+
   @Override
   public Terms terms(String field) throws IOException {
     assert field != null;
@@ -330,6 +379,9 @@ public final class BlockTreeTermsReader extends FieldsProducer {
     for(FieldReader reader : fieldMap.values()) {
       sizeInBytes += reader.ramBytesUsed();
     }
+    if (termStateCache != null) {
+      sizeInBytes += termStateCache.ramBytesUsed();
+    }
     return sizeInBytes;
   }
 
@@ -337,6 +389,9 @@ public final class BlockTreeTermsReader extends FieldsProducer {
   public Collection<Accountable> getChildResources() {
     List<Accountable> resources = new ArrayList<>(Accountables.namedAccountables("field", fieldMap));
     resources.add(Accountables.namedAccountable("delegate", postingsReader));
+    if (termStateCache != null) {
+      resources.add(Accountables.namedAccountable("term state cache", termStateCache));
+    }
     return Collections.unmodifiableList(resources);
   }
 
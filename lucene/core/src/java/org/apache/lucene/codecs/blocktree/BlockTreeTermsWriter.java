@@ -206,6 +206,11 @@ public final class BlockTreeTermsWriter extends FieldsConsumer {
    *  #BlockTreeTermsWriter(SegmentWriteState,PostingsWriterBase,int,int)}. */
   public final static int DEFAULT_MAX_BLOCK_SIZE = 48;
 
+  /** Approximate max RAM used to share suffixes while compiling the terms
+   *  index FSTs, so that fields with many terms don't need an unbounded
+   *  hash; beyond this limit the index may be slightly larger than minimal. */
+  static final double INDEX_SUFFIX_RAM_LIMIT_MB = 32;
+
   //public static boolean DEBUG = false;
   //public static boolean DEBUG2 = false;
 
@@ -401,7 +406,12 @@ public final class BlockTreeTermsWriter extends FieldsConsumer {
       return "BLOCK: prefix=" + brToString(prefix);
     }
 
-    public void compileIndex(List<PendingBlock> blocks, ByteBuffersDataOutput scratchBytes, IntsRefBuilder scratchIntsRef) throws IOException {
+    /** Compiles the index of this block, writing its bytes to {@code indexOut}
+     *  as they are produced if it is not null, which is only done for the
+     *  root block since the indices of other blocks are read back when
+     *  appended to their parent's index. */
+    public void compileIndex(List<PendingBlock> blocks, ByteBuffersDataOutput scratchBytes, IntsRefBuilder scratchIntsRef,
+                             DataOutput indexOut) throws IOException {
 
       assert (isFloor && blocks.size() > 1) || (isFloor == false && blocks.size() == 1): "isFloor=" + isFloor + " blocks=" + blocks;
       assert this == blocks.get(0);
@@ -427,7 +437,11 @@ public final class BlockTreeTermsWriter extends FieldsConsumer {
       }
 
       final ByteSequenceOutputs outputs = ByteSequenceOutputs.getSingleton();
-      final FSTCompiler<BytesRef> fstCompiler = new FSTCompiler.Builder<>(FST.INPUT_TYPE.BYTE1, outputs).shouldShareNonSingletonNodes(false).build();
+      final FSTCompiler<BytesRef> fstCompiler = new FSTCompiler.Builder<>(FST.INPUT_TYPE.BYTE1, outputs)
+          .shouldShareNonSingletonNodes(false)
+          .suffixRAMLimitMB(INDEX_SUFFIX_RAM_LIMIT_MB)
+          .dataOutput(indexOut)
+          .build();
       //if (DEBUG) {
       //  System.out.println("  compile index for prefix=" + prefix);
       //}
@@ -630,7 +644,8 @@ public final class BlockTreeTermsWriter extends FieldsConsumer {
 
       assert firstBlock.isFloor || newBlocks.size() == 1;
 
-      firstBlock.compileIndex(newBlocks, scratchBytes, scratchIntsRef);
+      // The root block's index is streamed to the index file directly:
+      firstBlock.compileIndex(newBlocks, scratchBytes, scratchIntsRef, prefixLength == 0 ? indexOut : null);
 
       // Remove slice from the top of the pending stack, that we just wrote:
       pending.subList(pending.size()-count, pending.size()).clear();
@@ -969,6 +984,7 @@ public final class BlockTreeTermsWriter extends FieldsConsumer {
         // we can save writing a "degenerate" root block, but we have to
         // fix all the places that assume the root block's prefix is the empty string:
         pushTerm(new BytesRef());
+        final long indexStartFP = indexOut.getFilePointer();
         writeBlocks(0, pending.size());
 
         // We better have one final "root" block:
@@ -993,9 +1009,9 @@ public final class BlockTreeTermsWriter extends FieldsConsumer {
         metaOut.writeVInt(docsSeen.cardinality());
         writeBytesRef(metaOut, new BytesRef(firstPendingTerm.termBytes));
         writeBytesRef(metaOut, new BytesRef(lastPendingTerm.termBytes));
-        metaOut.writeVLong(indexOut.getFilePointer());
-        // Write FST to index
-        root.index.save(metaOut, indexOut);
+        metaOut.writeVLong(indexStartFP);
+        // The FST was already written to the index while it was compiled
+        root.index.saveMetadata(metaOut);
         //System.out.println("  write FST " + indexStartFP + " field=" + fieldInfo.name);
 
         /*
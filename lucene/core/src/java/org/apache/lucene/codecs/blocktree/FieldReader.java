@@ -117,6 +117,15 @@ public final class FieldReader extends Terms implements Accountable {
     }
   }
 
+  /**
+   * Return the cache of term states of the segment, or {@code null} if term
+   * states are not cached.
+   * @see BlockTreeTermsReader#BlockTreeTermsReader(org.apache.lucene.codecs.PostingsReaderBase, org.apache.lucene.index.SegmentReadState, int)
+   */
+  public TermStateCache getTermStateCache() {
+    return parent.termStateCache;
+  }
+
   /** For debugging -- used by CheckIndex too*/
   @Override
   public Stats getStats() throws IOException {
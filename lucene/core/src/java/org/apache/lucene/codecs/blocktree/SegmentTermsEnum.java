@@ -19,6 +19,7 @@ package org.apache.lucene.codecs.blocktree;
 
 import java.io.IOException;
 import java.io.PrintStream;
+import java.util.Arrays;
 
 import org.apache.lucene.codecs.BlockTermState;
 import org.apache.lucene.index.BaseTermsEnum;
@@ -30,6 +31,7 @@ import org.apache.lucene.store.IndexInput;
 import org.apache.lucene.util.ArrayUtil;
 import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.BytesRefBuilder;
+import org.apache.lucene.util.BytesRefIterator;
 import org.apache.lucene.util.RamUsageEstimator;
 import org.apache.lucene.util.fst.FST;
 import org.apache.lucene.util.fst.Util;
@@ -325,6 +327,129 @@ final class SegmentTermsEnum extends BaseTermsEnum {
         return false;
     }
 
+    return seekExactInBounds(target);
+  }
+
+  @Override
+  public BytesRefIterator seekExact(BytesRefIterator sortedTerms) throws IOException {
+
+    if (fr.index == null) {
+      throw new IllegalStateException("terms index was not loaded");
+    }
+
+    final BytesRef min = fr.size() > 0 ? fr.getMin() : null;
+    final BytesRef max = fr.size() > 0 ? fr.getMax() : null;
+
+    // Since targets are sorted, every seek after the first one is after the
+    // current term: seekExactInBounds re-uses the frames of the common prefix
+    // of consecutive targets. When the target can only be in the leaf block
+    // that the previous seek loaded, we keep scanning this block and skip the
+    // terms index entirely
+    return new BytesRefIterator() {
+      boolean positioned;
+      boolean exhausted;
+
+      @Override
+      public BytesRef next() throws IOException {
+        if (exhausted) {
+          return null;
+        }
+        for (BytesRef target = sortedTerms.next(); target != null; target = sortedTerms.next()) {
+          if (min != null) {
+            if (target.compareTo(min) < 0) {
+              continue;
+            }
+            if (target.compareTo(max) > 0) {
+              // no other target can exist
+              break;
+            }
+          }
+          final boolean found;
+          if (positioned && isInCurrentLeafBlock(target)) {
+            found = scanCurrentLeafBlock(target);
+          } else {
+            found = seekExactInBounds(target);
+          }
+          positioned = true;
+          if (found) {
+            return target;
+          }
+        }
+        exhausted = true;
+        return null;
+      }
+    };
+  }
+
+  // true if the target shares the prefix of the current block, which is a loaded
+  // leaf block, and belongs to the same floor block: then no other block may
+  // contain it
+  private boolean isInCurrentLeafBlock(BytesRef target) {
+    if (currentFrame == staticFrame || termExists == false
+        || currentFrame.isLeafBlock == false || currentFrame.nextEnt == -1) {
+      return false;
+    }
+    final int prefix = currentFrame.prefix;
+    if (target.length <= prefix || term.length() < prefix
+        || Arrays.equals(term.bytes(), 0, prefix, target.bytes, target.offset, target.offset + prefix) == false) {
+      return false;
+    }
+    return currentFrame.isFloor == false || (target.bytes[target.offset + prefix] & 0xFF) < currentFrame.nextFloorLabel;
+  }
+
+  // seekExact for a target of a batch that is in the current leaf block, which
+  // the previous target of the batch was looked up in: scan forward from where
+  // the previous seek stopped
+  private boolean scanCurrentLeafBlock(BytesRef target) throws IOException {
+    final int cmp = term.get().compareTo(target);
+    if (cmp > 0) {
+      // the previous seek stopped on the term that follows its target, which is
+      // also after this target
+      return false;
+    } else if (cmp < 0 && currentFrame.scanToTerm(target, true) != SeekStatus.FOUND) {
+      return false;
+    }
+    cacheTermState(target);
+    return true;
+  }
+
+  // seekExact, for a target that is known to be within the min and max terms of the field
+  private boolean seekExactInBounds(BytesRef target) throws IOException {
+
+    final TermStateCache termStateCache = fr.parent.termStateCache;
+    if (termStateCache != null) {
+      final BlockTermState cachedState = termStateCache.get(fr.fieldInfo.number, target);
+      if (cachedState != null) {
+        // no need to walk the terms index and to load the block, but next() needs the input to tell
+        // a positioned enum from a fresh one
+        initIndexInput();
+        seekExact(target, cachedState);
+        return true;
+      }
+    }
+
+    if (seekExactUncached(target) == false) {
+      return false;
+    }
+    cacheTermState(target);
+    return true;
+  }
+
+  // offers the state of the current term, which was just looked up, to the term state cache
+  private void cacheTermState(BytesRef target) throws IOException {
+    final TermStateCache termStateCache = fr.parent.termStateCache;
+    if (termStateCache != null && currentFrame != staticFrame) {
+      // only terms that are looked up are offered to the cache, not the terms that are iterated, e.g. by a
+      // multi-term query rewrite, as they are unlikely to be looked up again
+      currentFrame.decodeMetaData();
+      termStateCache.put(fr.fieldInfo.number, target, currentFrame.state);
+    }
+  }
+
+  // seekExact that always walks the terms index and loads the block of the target, so that the enum can
+  // keep iterating from the target
+  private boolean seekExactUncached(BytesRef target) throws IOException {
+
     term.grow(1 + target.length);
 
     assert clearEOF();
@@ -912,7 +1037,8 @@ final class SegmentTermsEnum extends BaseTermsEnum {
       // this method catches up all internal state so next()
       // works properly:
       //if (DEBUG) System.out.println("  re-seek to pending term=" + term.utf8ToString() + " " + term);
-      final boolean result = seekExact(term.get());
+      // the cache would position us on the static frame again
+      final boolean result = seekExactUncached(term.get());
       assert result;
     }
 
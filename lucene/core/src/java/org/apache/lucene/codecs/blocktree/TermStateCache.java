@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.codecs.blocktree;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.lucene.codecs.BlockTermState;
+import org.apache.lucene.util.Accountable;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.RamUsageEstimator;
+import org.apache.lucene.util.StringHelper;
+
+/**
+ * A bounded cache of the {@link BlockTermState}s of the terms of a segment,
+ * which allows {@link SegmentTermsEnum#seekExact(BytesRef)} to skip the terms
+ * index and the decoding of a terms block for frequently looked up terms.
+ * <p>
+ * This cache is direct-mapped: every term may only be stored in a single
+ * slot that depends on its hash code, and adding a term replaces whatever
+ * term was in its slot. A term is only added the second time in a row that it
+ * misses its slot, so that terms that are looked up only once, e.g. by a
+ * large {@link org.apache.lucene.search.TermInSetQuery}, don't evict the
+ * frequently looked up terms. Entries are immutable so lookups and
+ * insertions do not need any locking.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @see BlockTreeTermsReader#TERM_STATE_CACHE_SIZE_KEY
+ * @lucene.experimental
+ */
+public final class TermStateCache implements Accountable {
+
+  private static final long BASE_RAM_BYTES_USED = RamUsageEstimator.shallowSizeOfInstance(TermStateCache.class)
+      + 2 * RamUsageEstimator.shallowSizeOfInstance(LongAdder.class);
+
+  private static final long ENTRY_RAM_BYTES_USED = RamUsageEstimator.shallowSizeOfInstance(Entry.class)
+      + RamUsageEstimator.shallowSizeOfInstance(BytesRef.class)
+      + RamUsageEstimator.NUM_BYTES_ARRAY_HEADER;
+
+  private static final class Entry {
+    // all fields are final so that entries are safely published through the racy slots array
+    final int field;
+    final BytesRef term;
+    final BlockTermState state;
+    final long ramBytesUsed;
+
+    Entry(int field, BytesRef term, BlockTermState state) {
+      this.field = field;
+      this.term = term;
+      this.state = state;
+      // the state is usually a small object with a handful of primitive fields
+      this.ramBytesUsed = ENTRY_RAM_BYTES_USED + term.length + RamUsageEstimator.shallowSizeOf(state);
+    }
+  }
+
+  private final Entry[] slots;
+  // hash of the last term that missed each slot
+  private final int[] doorkeeper;
+  private final int mask;
+  private final LongAdder hitCount = new LongAdder();
+  private final LongAdder missCount = new LongAdder();
+
+  /**
+   * Create a new cache that holds at most {@code maxSize} terms. The
+   * effective size is {@code maxSize} rounded up to a power of two.
+   */
+  TermStateCache(int maxSize) {
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("maxSize must be > 0, got " + maxSize);
+    }
+    if (maxSize > 1 << 30) {
+      throw new IllegalArgumentException("maxSize must be <= 2^30, got " + maxSize);
+    }
+    final int size = maxSize == 1 ? 1 : Integer.highestOneBit(maxSize - 1) << 1;
+    slots = new Entry[size];
+    doorkeeper = new int[size];
+    mask = size - 1;
+  }
+
+  private static int hash(int field, BytesRef term) {
+    return StringHelper.murmurhash3_x86_32(term, field);
+  }
+
+  /**
+   * Return the cached state of the given term, or {@code null} if the term is
+   * not cached. The returned state must not be modified.
+   */
+  BlockTermState get(int field, BytesRef term) {
+    final Entry entry = slots[hash(field, term) & mask];
+    if (entry != null && entry.field == field && entry.term.bytesEquals(term)) {
+      hitCount.increment();
+      return entry.state;
+    }
+    missCount.increment();
+    return null;
+  }
+
+  /**
+   * Offer the state of the given term, which was just looked up and not
+   * found in the cache. The state is only cached if the same term was the
+   * previous one to be offered for its slot. Both {@code term} and
+   * {@code state} are copied.
+   */
+  void put(int field, BytesRef term, BlockTermState state) {
+    final int hash = hash(field, term);
+    final int slot = hash & mask;
+    if (doorkeeper[slot] != hash) {
+      doorkeeper[slot] = hash;
+      return;
+    }
+    slots[slot] = new Entry(field, BytesRef.deepCopyOf(term), (BlockTermState) state.clone());
+  }
+
+  /** Return the maximum number of terms that this cache may hold. */
+  public int maxSize() {
+    return slots.length;
+  }
+
+  /** Return the number of lookups that found the term in the cache. */
+  public long getHitCount() {
+    return hitCount.sum();
+  }
+
+  /** Return the number of lookups that did not find the term in the cache. */
+  public long getMissCount() {
+    return missCount.sum();
+  }
+
+  /** Return the ratio of lookups that found the term in the cache, or
+   *  {@code 0} if there were no lookups. */
+  public double getHitRate() {
+    final long hits = getHitCount();
+    final long total = hits + getMissCount();
+    return total == 0 ? 0 : (double) hits / total;
+  }
+
+  @Override
+  public long ramBytesUsed() {
+    long ramBytesUsed = BASE_RAM_BYTES_USED + RamUsageEstimator.shallowSizeOf(slots)
+        + RamUsageEstimator.sizeOf(doorkeeper);
+    for (Entry entry : slots) {
+      if (entry != null) {
+        ramBytesUsed += entry.ramBytesUsed;
+      }
+    }
+    return ramBytesUsed;
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "(maxSize=" + maxSize() + ",hits=" + getHitCount() + ",misses=" + getMissCount() + ")";
+  }
+}
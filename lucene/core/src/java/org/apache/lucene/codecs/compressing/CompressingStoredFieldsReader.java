@@ -78,6 +78,9 @@ import org.apache.lucene.util.packed.PackedInts;
  */
 public final class CompressingStoredFieldsReader extends StoredFieldsReader {
 
+  // number of bytes to hint at the start of a block in order to read its header, which is usually small
+  private static final int BLOCK_HEADER_PREFETCH_LENGTH = 4096;
+
   private final int version;
   private final FieldInfos fieldInfos;
   private final FieldsIndex indexReader;
@@ -611,6 +614,33 @@ public final class CompressingStoredFieldsReader extends StoredFieldsReader {
       return new SerializedDocument(documentInput, length, numStoredFields);
     }
 
+    /**
+     * Hint the compressed bytes that {@link #document} reads for the given
+     * docID. This docID has to be contained in the current block.
+     */
+    void prefetch(int docID) throws IOException {
+      if (contains(docID) == false) {
+        throw new IllegalArgumentException();
+      }
+      assert merging == false;
+
+      final int index = docID - docBase;
+      final int offset = Math.toIntExact(offsets[index]);
+      final int length = Math.toIntExact(offsets[index+1]) - offset;
+      final int totalLength = Math.toIntExact(offsets[chunkDocs]);
+
+      if (length == 0) {
+        return;
+      }
+      fieldsStream.seek(startPointer);
+      if (sliced) {
+        // only the first slice, the next ones are read as the document is consumed
+        decompressor.prefetch(fieldsStream, chunkSize, offset, Math.min(length, chunkSize - offset));
+      } else {
+        decompressor.prefetch(fieldsStream, totalLength, offset, length);
+      }
+    }
+
   }
 
   SerializedDocument document(int docID) throws IOException {
@@ -622,6 +652,37 @@ public final class CompressingStoredFieldsReader extends StoredFieldsReader {
     return state.document(docID);
   }
 
+  @Override
+  public void prefetch(int[] docIDs) throws IOException {
+    ensureOpen();
+    if (merging) {
+      // blocks are decompressed sequentially
+      return;
+    }
+    final int[] sortedDocIDs = ArrayUtil.copyOfSubArray(docIDs, 0, docIDs.length);
+    Arrays.sort(sortedDocIDs);
+
+    // First hint the headers of all blocks, which tell which compressed bytes the documents need, so that
+    // they can be read in parallel rather than one block after the other
+    final long[] startPointers = new long[sortedDocIDs.length];
+    for (int i = 0; i < sortedDocIDs.length; ++i) {
+      startPointers[i] = indexReader.getStartPointer(sortedDocIDs[i]);
+      if (i == 0 || startPointers[i] != startPointers[i - 1]) {
+        fieldsStream.prefetch(startPointers[i], Math.min(BLOCK_HEADER_PREFETCH_LENGTH, maxPointer - startPointers[i]));
+      }
+    }
+
+    // Then hint the compressed bytes that each document needs
+    for (int i = 0; i < sortedDocIDs.length; ++i) {
+      final int docID = sortedDocIDs[i];
+      if (state.contains(docID) == false) {
+        fieldsStream.seek(startPointers[i]);
+        state.reset(docID);
+      }
+      state.prefetch(docID);
+    }
+  }
+
   @Override
   public void visitDocument(int docID, StoredFieldVisitor visitor)
       throws IOException {
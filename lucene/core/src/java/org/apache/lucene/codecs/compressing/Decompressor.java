@@ -20,6 +20,7 @@ package org.apache.lucene.codecs.compressing;
 import java.io.IOException;
 
 import org.apache.lucene.store.DataInput;
+import org.apache.lucene.store.IndexInput;
 import org.apache.lucene.util.BytesRef;
 
 /**
@@ -46,6 +47,22 @@ public abstract class Decompressor implements Cloneable {
    */
   public abstract void decompress(DataInput in, int originalLength, int offset, int length, BytesRef bytes) throws IOException;
 
+  /**
+   * Give a hint to <code>in</code> that the compressed bytes that
+   * {@link #decompress} reads in order to decompress the bytes between offsets
+   * <code>offset</code> and <code>offset+length</code> are about to be read,
+   * see {@link IndexInput#prefetch(long, long)}. <code>in</code> is positioned
+   * like for {@link #decompress} and this method may move it.
+   * <p>
+   * The default implementation does nothing.
+   *
+   * @param in the input that stores the compressed stream
+   * @param originalLength the length of the original data (before compression)
+   * @param offset bytes before this offset do not need to be decompressed
+   * @param length bytes after <code>offset+length</code> do not need to be decompressed
+   */
+  public void prefetch(IndexInput in, int originalLength, int offset, int length) throws IOException {}
+
   @Override
   public abstract Decompressor clone();
 
@@ -60,6 +60,7 @@ import org.apache.lucene.util.packed.DirectWriter;
 import static org.apache.lucene.codecs.lucene80.Lucene80DocValuesFormat.DIRECT_MONOTONIC_BLOCK_SHIFT;
 import static org.apache.lucene.codecs.lucene80.Lucene80DocValuesFormat.NUMERIC_BLOCK_SHIFT;
 import static org.apache.lucene.codecs.lucene80.Lucene80DocValuesFormat.NUMERIC_BLOCK_SIZE;
+import static org.apache.lucene.codecs.lucene80.Lucene80DocValuesFormat.SKIP_INDEX_INTERVAL_SHIFT;
 
 /** writer for {@link Lucene80DocValuesFormat} */
 final class Lucene80DocValuesConsumer extends DocValuesConsumer implements Closeable {
@@ -165,9 +166,17 @@ final class Lucene80DocValuesConsumer extends DocValuesConsumer implements Close
     MinMaxTracker blockMinMax = new MinMaxTracker();
     long gcd = 0;
     Set<Long> uniqueValues = new HashSet<>();
+    final int numSkipIntervals = (int) (((long) maxDoc + (1 << SKIP_INDEX_INTERVAL_SHIFT) - 1) >>> SKIP_INDEX_INTERVAL_SHIFT);
+    final long[] skipMins = new long[numSkipIntervals];
+    final long[] skipMaxs = new long[numSkipIntervals];
+    Arrays.fill(skipMins, Long.MAX_VALUE);
+    Arrays.fill(skipMaxs, Long.MIN_VALUE);
     for (int doc = values.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = values.nextDoc()) {
+      final int skipInterval = doc >>> SKIP_INDEX_INTERVAL_SHIFT;
       for (int i = 0, count = values.docValueCount(); i < count; ++i) {
         long v = values.nextValue();
+        skipMins[skipInterval] = Math.min(skipMins[skipInterval], v);
+        skipMaxs[skipInterval] = Math.max(skipMaxs[skipInterval], v);
 
         if (gcd != 1) {
           if (v < Long.MIN_VALUE / 2 || v > Long.MAX_VALUE / 2) {
@@ -279,9 +288,26 @@ final class Lucene80DocValuesConsumer extends DocValuesConsumer implements Close
     }
     meta.writeLong(data.getFilePointer() - startOffset); // valuesLength
     meta.writeLong(jumpTableOffset);
+    writeSkipIndex(numDocsWithValue, skipMins, skipMaxs);
     return new long[] {numDocsWithValue, numValues};
   }
 
+  // Write the min and max values of every interval of doc IDs, empty intervals have min > max
+  private void writeSkipIndex(int numDocsWithValue, long[] skipMins, long[] skipMaxs) throws IOException {
+    if (numDocsWithValue == 0) {
+      meta.writeLong(-1); // skipIndexOffset
+      meta.writeLong(0L); // skipIndexLength
+      return;
+    }
+    long start = data.getFilePointer();
+    meta.writeLong(start); // skipIndexOffset
+    for (int i = 0; i < skipMins.length; ++i) {
+      data.writeLong(skipMins[i]);
+      data.writeLong(skipMaxs[i]);
+    }
+    meta.writeLong(data.getFilePointer() - start); // skipIndexLength
+  }
+
   private void writeValuesSingleBlock(SortedNumericDocValues values, long numValues, int numBitsPerValue,
       long min, long gcd, Map<Long, Integer> encode) throws IOException {
     DirectWriter writer = DirectWriter.getInstance(data, numValues, numBitsPerValue);
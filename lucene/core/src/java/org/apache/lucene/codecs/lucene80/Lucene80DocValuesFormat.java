@@ -90,6 +90,11 @@ import org.apache.lucene.util.packed.DirectWriter;
  * a jump-table with block offsets is appended to the blocks for O(1) access to the needed block.
  * </p>
  * <p>
+ * Numeric values are followed by a skip index that records the minimum and maximum value of every
+ * interval of 4096 doc IDs, so that range queries can skip intervals that cannot match. See
+ * {@link org.apache.lucene.index.DocValuesSkipper}.
+ * </p>
+ * <p>
  * {@link DocValuesType#BINARY BINARY}:
  * <ul>
  *    <li>Fixed-width Binary: one large concatenated byte[] is written, along with the fixed length.
@@ -152,7 +157,8 @@ public final class Lucene80DocValuesFormat extends DocValuesFormat {
   static final String META_EXTENSION = "dvm";
   static final int VERSION_START = 0;
   static final int VERSION_BIN_COMPRESSED = 1;  
-  static final int VERSION_CURRENT = VERSION_BIN_COMPRESSED;
+  static final int VERSION_SKIP_INDEX = 2;
+  static final int VERSION_CURRENT = VERSION_SKIP_INDEX;
 
   // indicates docvalues type
   static final byte NUMERIC = 0;
@@ -166,6 +172,9 @@ public final class Lucene80DocValuesFormat extends DocValuesFormat {
   static final int NUMERIC_BLOCK_SHIFT = 14;
   static final int NUMERIC_BLOCK_SIZE = 1 << NUMERIC_BLOCK_SHIFT;
 
+  static final int SKIP_INDEX_INTERVAL_SHIFT = 12;
+  static final int SKIP_INDEX_INTERVAL_SIZE = 1 << SKIP_INDEX_INTERVAL_SHIFT;
+
   static final int BINARY_BLOCK_SHIFT = 5;
   static final int BINARY_DOCS_PER_COMPRESSED_BLOCK = 1 << BINARY_BLOCK_SHIFT;
   
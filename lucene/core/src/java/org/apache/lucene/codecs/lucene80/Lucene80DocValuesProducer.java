@@ -18,6 +18,7 @@ package org.apache.lucene.codecs.lucene80;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -27,6 +28,7 @@ import org.apache.lucene.index.BaseTermsEnum;
 import org.apache.lucene.index.BinaryDocValues;
 import org.apache.lucene.index.CorruptIndexException;
 import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.DocValuesSkipper;
 import org.apache.lucene.index.FieldInfo;
 import org.apache.lucene.index.FieldInfos;
 import org.apache.lucene.index.ImpactsEnum;
@@ -39,6 +41,7 @@ import org.apache.lucene.index.SortedNumericDocValues;
 import org.apache.lucene.index.SortedSetDocValues;
 import org.apache.lucene.index.TermsEnum;
 import org.apache.lucene.index.TermsEnum.SeekStatus;
+import org.apache.lucene.search.DocIdSetIterator;
 import org.apache.lucene.store.ChecksumIndexInput;
 import org.apache.lucene.store.IndexInput;
 import org.apache.lucene.store.RandomAccessInput;
@@ -170,6 +173,12 @@ final class Lucene80DocValuesProducer extends DocValuesProducer implements Close
     entry.valuesOffset = meta.readLong();
     entry.valuesLength = meta.readLong();
     entry.valueJumpTableOffset = meta.readLong();
+    if (version >= Lucene80DocValuesFormat.VERSION_SKIP_INDEX) {
+      entry.skipIndexOffset = meta.readLong();
+      entry.skipIndexLength = meta.readLong();
+    } else {
+      entry.skipIndexOffset = -1;
+    }
   }
 
   private BinaryEntry readBinary(ChecksumIndexInput meta) throws IOException {
@@ -300,6 +309,8 @@ final class Lucene80DocValuesProducer extends DocValuesProducer implements Close
     long valuesOffset;
     long valuesLength;
     long valueJumpTableOffset; // -1 if no jump-table
+    long skipIndexOffset; // -1 if no skip index
+    long skipIndexLength;
   }
 
   private static class BinaryEntry {
@@ -419,6 +430,13 @@ final class Lucene80DocValuesProducer extends DocValuesProducer implements Close
       return maxDoc;
     }
 
+    /** Position this iterator on the last document of a bulk read. */
+    final void setLastDoc(int size, int[] docs) {
+      if (size > 0) {
+        doc = docs[size - 1];
+      }
+    }
+
   }
 
   private static abstract class SparseNumericDocValues extends NumericDocValues {
@@ -453,6 +471,13 @@ final class Lucene80DocValuesProducer extends DocValuesProducer implements Close
     public long cost() {
       return disi.cost();
     }
+
+    @Override
+    public void longValues(int size, int[] docs, long[] values, long defaultValue) throws IOException {
+      for (int i = 0; i < size; ++i) {
+        values[i] = disi.advanceExact(docs[i]) ? longValue() : defaultValue;
+      }
+    }
   }
 
   private NumericDocValues getNumeric(NumericEntry entry) throws IOException {
@@ -467,6 +492,12 @@ final class Lucene80DocValuesProducer extends DocValuesProducer implements Close
           public long longValue() throws IOException {
             return entry.minValue;
           }
+
+          @Override
+          public void longValues(int size, int[] docs, long[] values, long defaultValue) {
+            Arrays.fill(values, 0, size, entry.minValue);
+            setLastDoc(size, docs);
+          }
         };
       } else {
         final RandomAccessInput slice = data.randomAccessSlice(entry.valuesOffset, entry.valuesLength);
@@ -479,6 +510,14 @@ final class Lucene80DocValuesProducer extends DocValuesProducer implements Close
             public long longValue() throws IOException {
               return vBPVReader.getLongValue(doc);
             }
+
+            @Override
+            public void longValues(int size, int[] docs, long[] values, long defaultValue) throws IOException {
+              for (int i = 0; i < size; ++i) {
+                values[i] = vBPVReader.getLongValue(docs[i]);
+              }
+              setLastDoc(size, docs);
+            }
           };
         } else {
           final LongValues values = DirectReader.getInstance(slice, entry.bitsPerValue);
@@ -489,6 +528,14 @@ final class Lucene80DocValuesProducer extends DocValuesProducer implements Close
               public long longValue() throws IOException {
                 return table[(int) values.get(doc)];
               }
+
+              @Override
+              public void longValues(int size, int[] docs, long[] longs, long defaultValue) {
+                for (int i = 0; i < size; ++i) {
+                  longs[i] = table[(int) values.get(docs[i])];
+                }
+                setLastDoc(size, docs);
+              }
             };
           } else {
             final long mul = entry.gcd;
@@ -498,6 +545,14 @@ final class Lucene80DocValuesProducer extends DocValuesProducer implements Close
               public long longValue() throws IOException {
                 return mul * values.get(doc) + delta;
               }
+
+              @Override
+              public void longValues(int size, int[] docs, long[] longs, long defaultValue) {
+                for (int i = 0; i < size; ++i) {
+                  longs[i] = mul * values.get(docs[i]) + delta;
+                }
+                setLastDoc(size, docs);
+              }
             };
           }
         }
@@ -1249,6 +1304,62 @@ final class Lucene80DocValuesProducer extends DocValuesProducer implements Close
     }
   }
 
+  @Override
+  public DocValuesSkipper getSkipper(FieldInfo field) throws IOException {
+    NumericEntry entry = numerics.get(field.name);
+    if (entry == null) {
+      entry = sortedNumerics.get(field.name);
+    }
+    if (entry == null || entry.skipIndexOffset == -1) {
+      return null;
+    }
+    final RandomAccessInput slice = data.randomAccessSlice(entry.skipIndexOffset, entry.skipIndexLength);
+    final int numIntervals = Math.toIntExact(entry.skipIndexLength / (2 * Long.BYTES));
+    return new DocValuesSkipper() {
+      int minDocID = -1;
+      int maxDocID = -1;
+      long minValue, maxValue;
+
+      @Override
+      public void advance(int target) throws IOException {
+        assert target > maxDocID;
+        final int firstInterval = target >= maxDoc ? numIntervals : target >>> Lucene80DocValuesFormat.SKIP_INDEX_INTERVAL_SHIFT;
+        for (int interval = firstInterval; interval < numIntervals; ++interval) {
+          final long min = slice.readLong(interval * 2L * Long.BYTES);
+          final long max = slice.readLong((interval * 2L + 1) * Long.BYTES);
+          if (min <= max) { // else there are no values in this interval
+            minDocID = interval << Lucene80DocValuesFormat.SKIP_INDEX_INTERVAL_SHIFT;
+            maxDocID = (int) Math.min(maxDoc, (long) minDocID + Lucene80DocValuesFormat.SKIP_INDEX_INTERVAL_SIZE) - 1;
+            minValue = min;
+            maxValue = max;
+            return;
+          }
+        }
+        minDocID = maxDocID = DocIdSetIterator.NO_MORE_DOCS;
+      }
+
+      @Override
+      public int minDocID() {
+        return minDocID;
+      }
+
+      @Override
+      public int maxDocID() {
+        return maxDocID;
+      }
+
+      @Override
+      public long minValue() {
+        return minValue;
+      }
+
+      @Override
+      public long maxValue() {
+        return maxValue;
+      }
+    };
+  }
+
   @Override
   public SortedNumericDocValues getSortedNumeric(FieldInfo field) throws IOException {
     SortedNumericEntry entry = sortedNumerics.get(field.name);
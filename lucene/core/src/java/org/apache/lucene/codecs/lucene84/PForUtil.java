@@ -28,6 +28,9 @@ import org.apache.lucene.util.packed.PackedInts;
  */
 final class PForUtil {
 
+  // The number of exceptions is stored on the 3 upper bits of the token
+  private static final int MAX_EXCEPTIONS = 7;
+
   static boolean allEqual(long[] l) {
     for (int i = 1; i < ForUtil.BLOCK_SIZE; ++i) {
       if (l[i] != l[0]) {
@@ -38,6 +41,8 @@ final class PForUtil {
   }
 
   private final ForUtil forUtil;
+  // scratch buffer to read all exceptions of a block at once
+  private final byte[] exceptionBuff = new byte[MAX_EXCEPTIONS * 2];
 
   PForUtil(ForUtil forUtil) {
     this.forUtil = forUtil;
@@ -107,8 +112,20 @@ final class PForUtil {
     } else {
       forUtil.decode(bitsPerValue, in, longs);
     }
+    if (numExceptions > 0) {
+      patchExceptions(in, bitsPerValue, numExceptions, longs);
+    }
+  }
+
+  /**
+   * Read the exceptions of a block with a single call to {@link DataInput#readBytes} rather than
+   * two virtual {@link DataInput#readByte} calls per exception, then patch the decoded values.
+   */
+  private void patchExceptions(DataInput in, int bitsPerValue, int numExceptions, long[] longs) throws IOException {
+    final byte[] exceptions = exceptionBuff;
+    in.readBytes(exceptions, 0, numExceptions << 1);
     for (int i = 0; i < numExceptions; ++i) {
-      longs[Byte.toUnsignedInt(in.readByte())] |= Byte.toUnsignedLong(in.readByte()) << bitsPerValue;
+      longs[Byte.toUnsignedInt(exceptions[i << 1])] |= Byte.toUnsignedLong(exceptions[(i << 1) + 1]) << bitsPerValue;
     }
   }
 
@@ -18,12 +18,15 @@ package org.apache.lucene.codecs.lucene86;
 
 
 import java.io.IOException;
+import java.util.concurrent.Executor;
 
 import org.apache.lucene.codecs.PointsFormat;
 import org.apache.lucene.codecs.PointsReader;
 import org.apache.lucene.codecs.PointsWriter;
 import org.apache.lucene.index.SegmentReadState;
 import org.apache.lucene.index.SegmentWriteState;
+import org.apache.lucene.util.bkd.BKDConfig;
+import org.apache.lucene.util.bkd.BKDWriter;
 
 /**
  * Lucene 8.6 point format, which encodes dimensional values in a block KD-tree structure
@@ -64,13 +67,27 @@ public final class Lucene86PointsFormat extends PointsFormat {
   static final int VERSION_START = 0;
   static final int VERSION_CURRENT = VERSION_START;
 
-  /** Sole constructor */
+  private final Executor buildExecutor;
+
+  /** Create a format that builds BKD trees sequentially */
   public Lucene86PointsFormat() {
+    this(null);
+  }
+
+  /**
+   * Create a format that uses the given {@link Executor} to build independent
+   * subtrees of BKD trees concurrently when merging, or sequentially if
+   * {@code null}. The format of the written files does not depend on the
+   * executor.
+   */
+  public Lucene86PointsFormat(Executor buildExecutor) {
+    this.buildExecutor = buildExecutor;
   }
 
   @Override
   public PointsWriter fieldsWriter(SegmentWriteState state) throws IOException {
-    return new Lucene86PointsWriter(state);
+    return new Lucene86PointsWriter(state, BKDConfig.DEFAULT_MAX_POINTS_IN_LEAF_NODE,
+        BKDWriter.DEFAULT_MAX_MB_SORT_IN_HEAP, buildExecutor);
   }
 
   @Override
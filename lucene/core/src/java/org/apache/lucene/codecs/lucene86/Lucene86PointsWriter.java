@@ -21,6 +21,7 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import org.apache.lucene.codecs.CodecUtil;
 import org.apache.lucene.codecs.MutablePointValues;
@@ -49,14 +50,17 @@ public class Lucene86PointsWriter extends PointsWriter implements Closeable {
   final SegmentWriteState writeState;
   final int maxPointsInLeafNode;
   final double maxMBSortInHeap;
+  final Executor buildExecutor;
   private boolean finished;
 
-  /** Full constructor */
-  public Lucene86PointsWriter(SegmentWriteState writeState, int maxPointsInLeafNode, double maxMBSortInHeap) throws IOException {
+  /** Full constructor, {@code buildExecutor} may be {@code null} to build BKD trees sequentially */
+  public Lucene86PointsWriter(SegmentWriteState writeState, int maxPointsInLeafNode, double maxMBSortInHeap,
+                              Executor buildExecutor) throws IOException {
     assert writeState.fieldInfos.hasPointValues();
     this.writeState = writeState;
     this.maxPointsInLeafNode = maxPointsInLeafNode;
     this.maxMBSortInHeap = maxMBSortInHeap;
+    this.buildExecutor = buildExecutor;
     String dataFileName = IndexFileNames.segmentFileName(writeState.segmentInfo.name,
                                                          writeState.segmentSuffix,
                                                          Lucene86PointsFormat.DATA_EXTENSION);
@@ -97,6 +101,11 @@ public class Lucene86PointsWriter extends PointsWriter implements Closeable {
     }
   }
 
+  /** Builds BKD trees sequentially */
+  public Lucene86PointsWriter(SegmentWriteState writeState, int maxPointsInLeafNode, double maxMBSortInHeap) throws IOException {
+    this(writeState, maxPointsInLeafNode, maxMBSortInHeap, null);
+  }
+
   /** Uses the defaults values for {@code maxPointsInLeafNode} (1024) and {@code maxMBSortInHeap} (16.0) */
   public Lucene86PointsWriter(SegmentWriteState writeState) throws IOException {
     this(writeState, BKDConfig.DEFAULT_MAX_POINTS_IN_LEAF_NODE, BKDWriter.DEFAULT_MAX_MB_SORT_IN_HEAP);
@@ -117,7 +126,8 @@ public class Lucene86PointsWriter extends PointsWriter implements Closeable {
                                           writeState.segmentInfo.name,
                                           config,
                                           maxMBSortInHeap,
-                                          values.size())) {
+                                          values.size(),
+                                          buildExecutor)) {
 
       if (values instanceof MutablePointValues) {
         Runnable finalizer = writer.writeField(metaOut, indexOut, dataOut, fieldInfo.name, (MutablePointValues) values);
@@ -206,7 +216,8 @@ public class Lucene86PointsWriter extends PointsWriter implements Closeable {
                                                 writeState.segmentInfo.name,
                                                 config,
                                                 maxMBSortInHeap,
-                                                totMaxSize)) {
+                                                totMaxSize,
+                                                buildExecutor)) {
             List<BKDReader> bkdReaders = new ArrayList<>();
             List<MergeState.DocMap> docMaps = new ArrayList<>();
             for(int i=0;i<mergeState.pointsReaders.length;i++) {
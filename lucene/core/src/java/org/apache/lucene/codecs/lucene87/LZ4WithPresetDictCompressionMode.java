@@ -25,13 +25,16 @@ import org.apache.lucene.index.CorruptIndexException;
 import org.apache.lucene.store.ByteBuffersDataOutput;
 import org.apache.lucene.store.DataInput;
 import org.apache.lucene.store.DataOutput;
+import org.apache.lucene.store.IndexInput;
 import org.apache.lucene.util.ArrayUtil;
 import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.compress.LZ4;
 
 /**
  * A compression mode that compromises on the compression ratio to provide
- * fast compression and decompression.
+ * fast compression and decompression. Optionally, matches may be searched
+ * more exhaustively at compression time, which improves the compression
+ * ratio without slowing down decompression.
  * @lucene.internal
  */
 public final class LZ4WithPresetDictCompressionMode extends CompressionMode {
@@ -41,12 +44,26 @@ public final class LZ4WithPresetDictCompressionMode extends CompressionMode {
   // And a dictionary whose size is about 16x smaller than sub blocks
   private static final int DICT_SIZE_FACTOR = 16;
 
-  /** Sole constructor. */
-  public LZ4WithPresetDictCompressionMode() {}
+  private final boolean highCompression;
+
+  /** Create a compression mode that favors compression speed. */
+  public LZ4WithPresetDictCompressionMode() {
+    this(false);
+  }
+
+  /**
+   * Create a new instance. If {@code highCompression} is true, compression
+   * uses {@link LZ4.HighCompressionHashTable}, which finds more and longer
+   * matches at the expense of compression speed. Data is decompressed the
+   * same way in both cases.
+   */
+  public LZ4WithPresetDictCompressionMode(boolean highCompression) {
+    this.highCompression = highCompression;
+  }
 
   @Override
   public Compressor newCompressor() {
-    return new LZ4WithPresetDictCompressor();
+    return new LZ4WithPresetDictCompressor(highCompression ? new LZ4.HighCompressionHashTable() : new LZ4.FastCompressionHashTable());
   }
 
   @Override
@@ -56,12 +73,13 @@ public final class LZ4WithPresetDictCompressionMode extends CompressionMode {
 
   @Override
   public String toString() {
-    return "BEST_SPEED";
+    return highCompression ? "BALANCED" : "BEST_SPEED";
   }
 
   private static final class LZ4WithPresetDictDecompressor extends Decompressor {
 
     private int[] compressedLengths;
+    private int compressedDictLength;
     private byte[] buffer;
 
     LZ4WithPresetDictDecompressor() {
@@ -70,7 +88,7 @@ public final class LZ4WithPresetDictCompressionMode extends CompressionMode {
     }
 
     private int readCompressedLengths(DataInput in,  int originalLength, int dictLength, int blockLength) throws IOException {
-      in.readVInt(); // compressed length of the dictionary, unused
+      compressedDictLength = in.readVInt();
       int totalLength = dictLength;
       int i = 0;
       while (totalLength < originalLength) {
@@ -138,6 +156,49 @@ public final class LZ4WithPresetDictCompressionMode extends CompressionMode {
       assert bytes.isValid();
     }
 
+    @Override
+    public void prefetch(IndexInput in, int originalLength, int offset, int length) throws IOException {
+      assert offset + length <= originalLength;
+
+      if (length == 0) {
+        return;
+      }
+
+      final int dictLength = in.readVInt();
+      final int blockLength = in.readVInt();
+
+      final int numBlocks = readCompressedLengths(in, originalLength, dictLength, blockLength);
+
+      // The dictionary is always decompressed
+      long pointer = in.getFilePointer();
+      prefetch(in, pointer, pointer + compressedDictLength);
+      pointer += compressedDictLength;
+
+      // Then the blocks that intersect with the interval we need, like in decompress()
+      int offsetInBlock = dictLength;
+      int i = 0;
+      if (offset >= dictLength) {
+        for (; i < numBlocks && offsetInBlock + blockLength < offset; ++i) {
+          pointer += compressedLengths[i];
+          offsetInBlock += blockLength;
+        }
+      }
+      long endPointer = pointer;
+      for (; i < numBlocks && offsetInBlock < offset + length; ++i) {
+        endPointer += compressedLengths[i];
+        offsetInBlock += blockLength;
+      }
+      prefetch(in, pointer, endPointer);
+    }
+
+    // lengths are not validated until the block is decompressed, so make sure to stay within bounds
+    private static void prefetch(IndexInput in, long from, long to) throws IOException {
+      to = Math.min(to, in.length());
+      if (from < to) {
+        in.prefetch(from, to - from);
+      }
+    }
+
     @Override
     public Decompressor clone() {
       return new LZ4WithPresetDictDecompressor();
@@ -148,12 +209,12 @@ public final class LZ4WithPresetDictCompressionMode extends CompressionMode {
   private static class LZ4WithPresetDictCompressor extends Compressor {
 
     final ByteBuffersDataOutput compressed;
-    final LZ4.FastCompressionHashTable hashTable;
+    final LZ4.HashTable hashTable;
     byte[] buffer;
 
-    LZ4WithPresetDictCompressor() {
+    LZ4WithPresetDictCompressor(LZ4.HashTable hashTable) {
       compressed = ByteBuffersDataOutput.newResettableInstance();
-      hashTable = new LZ4.FastCompressionHashTable();
+      this.hashTable = hashTable;
       buffer = BytesRef.EMPTY_BYTES;
     }
 
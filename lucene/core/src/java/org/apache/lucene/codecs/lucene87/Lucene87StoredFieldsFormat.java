@@ -46,12 +46,17 @@ import org.apache.lucene.util.packed.DirectMonotonicWriter;
  * compression, you can choose ({@link Mode#BEST_COMPRESSION BEST_COMPRESSION}),
  * which uses the <a href="http://en.wikipedia.org/wiki/DEFLATE">DEFLATE</a>
  * algorithm with 48kB blocks and shared dictionaries for a better ratio at the
- * expense of slower performance. These two options can be configured like this:
+ * expense of slower performance. In-between, {@link Mode#BALANCED BALANCED}
+ * uses the same LZ4 format as {@code BEST_SPEED}, so that retrieval is as
+ * fast, but spends more time searching for matches at index time in order to
+ * get a better compression ratio. These options can be configured like this:
  * <pre class="prettyprint">
  *   // the default: for high performance
  *   indexWriterConfig.setCodec(new Lucene87Codec(Mode.BEST_SPEED));
  *   // instead for higher performance (but slower):
  *   // indexWriterConfig.setCodec(new Lucene87Codec(Mode.BEST_COMPRESSION));
+ *   // or for better compression with fast retrieval (but slower indexing):
+ *   // indexWriterConfig.setCodec(new Lucene87Codec(Mode.BALANCED));
  * </pre>
  * <p><b>File formats</b>
  * <p>Stored fields are represented by three files:
@@ -103,7 +108,9 @@ public class Lucene87StoredFieldsFormat extends StoredFieldsFormat {
     /** Trade compression ratio for retrieval speed. */
     BEST_SPEED,
     /** Trade retrieval speed for compression ratio. */
-    BEST_COMPRESSION
+    BEST_COMPRESSION,
+    /** Trade indexing speed for compression ratio, while keeping retrieval as fast as {@link #BEST_SPEED}. */
+    BALANCED
   }
   
   /** Attribute key for compression mode. */
@@ -147,6 +154,8 @@ public class Lucene87StoredFieldsFormat extends StoredFieldsFormat {
         return new CompressingStoredFieldsFormat("Lucene87StoredFieldsFastData", BEST_SPEED_MODE, BEST_SPEED_BLOCK_LENGTH, 1024, 10);
       case BEST_COMPRESSION:
         return new CompressingStoredFieldsFormat("Lucene87StoredFieldsHighData", BEST_COMPRESSION_MODE, BEST_COMPRESSION_BLOCK_LENGTH, 4096, 10);
+      case BALANCED:
+        return new CompressingStoredFieldsFormat("Lucene87StoredFieldsBalancedData", BALANCED_MODE, BALANCED_BLOCK_LENGTH, 1024, 10);
       default: throw new AssertionError();
     }
   }
@@ -163,4 +172,10 @@ public class Lucene87StoredFieldsFormat extends StoredFieldsFormat {
   /** Compression mode for {@link Mode#BEST_SPEED} */
   public static final CompressionMode BEST_SPEED_MODE = new LZ4WithPresetDictCompressionMode();
 
+  // Same as BEST_SPEED: LZ4 can't find matches that are more than 64kB away anyway.
+  private static final int BALANCED_BLOCK_LENGTH = 10 * 60 * 1024;
+
+  /** Compression mode for {@link Mode#BALANCED} */
+  public static final CompressionMode BALANCED_MODE = new LZ4WithPresetDictCompressionMode(true);
+
 }
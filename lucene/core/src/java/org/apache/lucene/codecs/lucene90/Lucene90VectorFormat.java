@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.codecs.lucene90;
+
+import java.io.IOException;
+
+import org.apache.lucene.codecs.CodecUtil;
+import org.apache.lucene.codecs.VectorFormat;
+import org.apache.lucene.codecs.VectorReader;
+import org.apache.lucene.codecs.VectorWriter;
+import org.apache.lucene.index.SegmentReadState;
+import org.apache.lucene.index.SegmentWriteState;
+import org.apache.lucene.store.DataOutput;
+import org.apache.lucene.util.hnsw.HnswGraphBuilder;
+
+/**
+ * Lucene 9.0 vector format, which encodes dense numeric vector values and an
+ * approximate nearest-neighbor search graph over them.
+ * <p>
+ * Files:
+ * <ol>
+ *   <li><code>.vec</code>: Vector data</li>
+ *   <li><code>.vex</code>: Vector index (the search graph)</li>
+ *   <li><code>.vem</code>: Vector metadata</li>
+ * </ol>
+ * <ol>
+ *   <li><a id="vem"></a>
+ *   <p>The vector metadata or .vem file.</p>
+ *   <p>Vector metadata (.vem) --&gt; Header,&lt;Entry&gt;<sup>NumFields</sup>,Footer</p>
+ *   <ul>
+ *     <li>Header --&gt; {@link CodecUtil#writeIndexHeader IndexHeader}</li>
+ *     <li>Entry --&gt; FieldNumber, SearchStrategy, VectorDataOffset, VectorDataLength,
+ *         VectorIndexOffset, VectorIndexLength, Dimension, Count, DocIdDelta<sup>Count</sup>,
+ *         NodeOffsetDelta<sup>Count</sup></li>
+ *     <li>FieldNumber, SearchStrategy, Dimension, Count --&gt; {@link DataOutput#writeInt Int32}</li>
+ *     <li>VectorDataOffset, VectorDataLength, VectorIndexOffset, VectorIndexLength,
+ *         NodeOffsetDelta --&gt; {@link DataOutput#writeVLong VLong}</li>
+ *     <li>DocIdDelta --&gt; {@link DataOutput#writeVInt VInt}</li>
+ *     <li>Footer --&gt; {@link CodecUtil#writeFooter CodecFooter}</li>
+ *   </ul>
+ *   <p>FieldNumber of -1 indicates the end of metadata.</p>
+ *   <p>SearchStrategy is the ordinal of the field's {@link org.apache.lucene.index.VectorValues.SearchStrategy}.
+ *      NodeOffsetDeltas are only written for strategies that build a graph.</p>
+ *   <li><a id="vec"></a>
+ *   <p>The vector data or .vec file holds the vectors of each field, in docID order, with each
+ *      vector encoded as Dimension big-endian IEEE-754 floats.</p>
+ *   <li><a id="vex"></a>
+ *   <p>The vector index or .vex file holds, for each field and each vector, the list of its
+ *      neighbors in the search graph: NeighborCount ({@link DataOutput#writeInt Int32}) followed
+ *      by NeighborCount increasing neighbor ordinals, delta-encoded as {@link DataOutput#writeVInt VInts}.</p>
+ * </ol>
+ *
+ * @see HnswGraphBuilder for the graph construction parameters
+ * @lucene.experimental
+ */
+public final class Lucene90VectorFormat extends VectorFormat {
+
+  static final String META_CODEC_NAME = "Lucene90VectorFormatMeta";
+  static final String VECTOR_DATA_CODEC_NAME = "Lucene90VectorFormatData";
+  static final String VECTOR_INDEX_CODEC_NAME = "Lucene90VectorFormatIndex";
+  static final String META_EXTENSION = "vem";
+  static final String VECTOR_DATA_EXTENSION = "vec";
+  static final String VECTOR_INDEX_EXTENSION = "vex";
+
+  static final int VERSION_START = 0;
+  static final int VERSION_CURRENT = VERSION_START;
+
+  private final int maxConn;
+  private final int beamWidth;
+
+  /** Sole constructor, using the default graph construction parameters */
+  public Lucene90VectorFormat() {
+    this(HnswGraphBuilder.DEFAULT_MAX_CONN, HnswGraphBuilder.DEFAULT_BEAM_WIDTH);
+  }
+
+  /**
+   * Creates a format with the given graph construction parameters.
+   * @param maxConn the maximum number of neighbors of each node in the graph
+   * @param beamWidth the size of the queue used to search for neighbors while building the graph
+   */
+  public Lucene90VectorFormat(int maxConn, int beamWidth) {
+    if (maxConn <= 0) {
+      throw new IllegalArgumentException("maxConn must be positive; got " + maxConn);
+    }
+    if (beamWidth <= 0) {
+      throw new IllegalArgumentException("beamWidth must be positive; got " + beamWidth);
+    }
+    this.maxConn = maxConn;
+    this.beamWidth = beamWidth;
+  }
+
+  @Override
+  public VectorWriter fieldsWriter(SegmentWriteState state) throws IOException {
+    return new Lucene90VectorWriter(state, maxConn, beamWidth);
+  }
+
+  @Override
+  public VectorReader fieldsReader(SegmentReadState state) throws IOException {
+    return new Lucene90VectorReader(state);
+  }
+
+  @Override
+  public String toString() {
+    return "Lucene90VectorFormat(maxConn=" + maxConn + ", beamWidth=" + beamWidth + ")";
+  }
+}
@@ -0,0 +1,281 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.codecs.lucene90;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.lucene.codecs.CodecUtil;
+import org.apache.lucene.codecs.VectorReader;
+import org.apache.lucene.index.CorruptIndexException;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.FieldInfos;
+import org.apache.lucene.index.IndexFileNames;
+import org.apache.lucene.index.KnnGraphValues;
+import org.apache.lucene.index.SegmentReadState;
+import org.apache.lucene.index.VectorValues;
+import org.apache.lucene.store.ChecksumIndexInput;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.util.IOUtils;
+import org.apache.lucene.util.RamUsageEstimator;
+
+import static org.apache.lucene.search.DocIdSetIterator.NO_MORE_DOCS;
+
+/**
+ * Reads vectors from the index segments along with index data structures supporting KNN search.
+ *
+ * @lucene.experimental
+ */
+public final class Lucene90VectorReader extends VectorReader {
+
+  private final FieldInfos fieldInfos;
+  private final Map<String, FieldEntry> fields = new HashMap<>();
+  private final IndexInput vectorData;
+  private final IndexInput vectorIndex;
+
+  Lucene90VectorReader(SegmentReadState state) throws IOException {
+    this.fieldInfos = state.fieldInfos;
+
+    int versionMeta = -1;
+    String metaFileName = IndexFileNames.segmentFileName(state.segmentInfo.name, state.segmentSuffix, Lucene90VectorFormat.META_EXTENSION);
+    try (ChecksumIndexInput meta = state.directory.openChecksumInput(metaFileName, state.context)) {
+      Throwable priorE = null;
+      try {
+        versionMeta = CodecUtil.checkIndexHeader(meta,
+            Lucene90VectorFormat.META_CODEC_NAME,
+            Lucene90VectorFormat.VERSION_START,
+            Lucene90VectorFormat.VERSION_CURRENT,
+            state.segmentInfo.getId(),
+            state.segmentSuffix);
+        readFields(meta, state.fieldInfos);
+      } catch (Throwable exception) {
+        priorE = exception;
+      } finally {
+        CodecUtil.checkFooter(meta, priorE);
+      }
+    }
+
+    boolean success = false;
+    try {
+      vectorData = openDataInput(state, versionMeta, Lucene90VectorFormat.VECTOR_DATA_EXTENSION, Lucene90VectorFormat.VECTOR_DATA_CODEC_NAME);
+      vectorIndex = openDataInput(state, versionMeta, Lucene90VectorFormat.VECTOR_INDEX_EXTENSION, Lucene90VectorFormat.VECTOR_INDEX_CODEC_NAME);
+      success = true;
+    } finally {
+      if (success == false) {
+        IOUtils.closeWhileHandlingException(this);
+      }
+    }
+  }
+
+  private static IndexInput openDataInput(SegmentReadState state, int versionMeta, String fileExtension, String codecName) throws IOException {
+    String fileName = IndexFileNames.segmentFileName(state.segmentInfo.name, state.segmentSuffix, fileExtension);
+    IndexInput in = state.directory.openInput(fileName, state.context);
+    boolean success = false;
+    try {
+      int versionVectorData = CodecUtil.checkIndexHeader(in,
+          codecName,
+          Lucene90VectorFormat.VERSION_START,
+          Lucene90VectorFormat.VERSION_CURRENT,
+          state.segmentInfo.getId(),
+          state.segmentSuffix);
+      if (versionMeta != versionVectorData) {
+        throw new CorruptIndexException("Format versions mismatch: meta=" + versionMeta + ", " + codecName + "=" + versionVectorData, in);
+      }
+      // NOTE: data file is too costly to verify checksum against all the bytes on open,
+      // but for now we at least verify proper structure of the checksum footer: which looks
+      // for FOOTER_MAGIC + algorithmID. This is cheap and can detect some forms of corruption
+      // such as file truncation.
+      CodecUtil.retrieveChecksum(in);
+      success = true;
+      return in;
+    } finally {
+      if (success == false) {
+        IOUtils.closeWhileHandlingException(in);
+      }
+    }
+  }
+
+  private void readFields(ChecksumIndexInput meta, FieldInfos infos) throws IOException {
+    for (int fieldNumber = meta.readInt(); fieldNumber != -1; fieldNumber = meta.readInt()) {
+      FieldInfo info = infos.fieldInfo(fieldNumber);
+      if (info == null) {
+        throw new CorruptIndexException("Invalid field number: " + fieldNumber, meta);
+      }
+      int searchStrategyId = meta.readInt();
+      if (searchStrategyId < 0 || searchStrategyId >= VectorValues.SearchStrategy.values().length) {
+        throw new CorruptIndexException("Invalid search strategy id: " + searchStrategyId, meta);
+      }
+      VectorValues.SearchStrategy searchStrategy = VectorValues.SearchStrategy.values()[searchStrategyId];
+      if (searchStrategy != info.getVectorSearchStrategy()) {
+        throw new CorruptIndexException("Inconsistent search strategy for field=\"" + info.name + "\": "
+            + searchStrategy + " != " + info.getVectorSearchStrategy(), meta);
+      }
+      FieldEntry fieldEntry = new FieldEntry(meta, searchStrategy);
+      if (fieldEntry.dimension != info.getVectorDimension()) {
+        throw new CorruptIndexException("Inconsistent vector dimension for field=\"" + info.name + "\"; "
+            + fieldEntry.dimension + " != " + info.getVectorDimension(), meta);
+      }
+      long numBytes = (long) fieldEntry.size() * fieldEntry.dimension * Float.BYTES;
+      if (numBytes != fieldEntry.vectorDataLength) {
+        throw new CorruptIndexException("Vector data length " + fieldEntry.vectorDataLength +
+            " not matching size=" + fieldEntry.size() + " * dim=" + fieldEntry.dimension + " * 4 = " + numBytes, meta);
+      }
+      fields.put(info.name, fieldEntry);
+    }
+  }
+
+  @Override
+  public long ramBytesUsed() {
+    long totalBytes = RamUsageEstimator.shallowSizeOfInstance(Lucene90VectorReader.class);
+    for (FieldEntry entry : fields.values()) {
+      totalBytes += RamUsageEstimator.shallowSizeOfInstance(FieldEntry.class);
+      totalBytes += RamUsageEstimator.sizeOf(entry.ordToDoc);
+      if (entry.ordOffsets != null) {
+        totalBytes += RamUsageEstimator.sizeOf(entry.ordOffsets);
+      }
+    }
+    return totalBytes;
+  }
+
+  @Override
+  public void checkIntegrity() throws IOException {
+    CodecUtil.checksumEntireFile(vectorData);
+    CodecUtil.checksumEntireFile(vectorIndex);
+  }
+
+  @Override
+  public VectorValues getVectorValues(String field) throws IOException {
+    FieldInfo info = fieldInfos.fieldInfo(field);
+    if (info == null) {
+      return null;
+    }
+    int dimension = info.getVectorDimension();
+    if (dimension == 0) {
+      return VectorValues.EMPTY;
+    }
+    FieldEntry fieldEntry = fields.get(field);
+    if (fieldEntry == null) {
+      // There is a FieldInfo, but no vectors. Should we have deleted the FieldInfo?
+      return null;
+    }
+    IndexInput bytesSlice = vectorData.slice("vector-data", fieldEntry.vectorDataOffset, fieldEntry.vectorDataLength);
+    return new OffHeapVectorValues(fieldEntry.dimension, fieldEntry.ordToDoc, fieldEntry.searchStrategy, bytesSlice,
+        () -> getGraphValues(fieldEntry));
+  }
+
+  private KnnGraphValues getGraphValues(FieldEntry entry) throws IOException {
+    if (entry.searchStrategy.isHnsw()) {
+      IndexInput bytesSlice = vectorIndex.slice("graph-data", entry.indexDataOffset, entry.indexDataLength);
+      return new IndexedKnnGraphReader(entry, bytesSlice);
+    } else {
+      return KnnGraphValues.EMPTY;
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    IOUtils.close(vectorData, vectorIndex);
+  }
+
+  private static class FieldEntry {
+
+    final int dimension;
+    final VectorValues.SearchStrategy searchStrategy;
+
+    final long vectorDataOffset;
+    final long vectorDataLength;
+    final long indexDataOffset;
+    final long indexDataLength;
+    final int[] ordToDoc;
+    final long[] ordOffsets;
+
+    FieldEntry(IndexInput input, VectorValues.SearchStrategy searchStrategy) throws IOException {
+      this.searchStrategy = searchStrategy;
+      vectorDataOffset = input.readVLong();
+      vectorDataLength = input.readVLong();
+      indexDataOffset = input.readVLong();
+      indexDataLength = input.readVLong();
+      dimension = input.readInt();
+      int size = input.readInt();
+      if (size < 0) {
+        throw new CorruptIndexException("Invalid vector count: " + size, input);
+      }
+      ordToDoc = new int[size];
+      int lastDocId = 0;
+      for (int i = 0; i < size; i++) {
+        int docId = lastDocId + input.readVInt();
+        ordToDoc[i] = docId;
+        lastDocId = docId;
+      }
+      if (searchStrategy.isHnsw()) {
+        ordOffsets = new long[size];
+        long offset = 0;
+        for (int i = 0; i < ordOffsets.length; i++) {
+          offset += input.readVLong();
+          ordOffsets[i] = offset;
+        }
+      } else {
+        ordOffsets = null;
+      }
+    }
+
+    int size() {
+      return ordToDoc.length;
+    }
+  }
+
+  /** Read the nearest-neighbors graph from the index input */
+  private static final class IndexedKnnGraphReader extends KnnGraphValues {
+
+    final FieldEntry entry;
+    final IndexInput dataIn;
+
+    int arcCount;
+    int arcUpTo;
+    int arc;
+
+    IndexedKnnGraphReader(FieldEntry entry, IndexInput dataIn) {
+      this.entry = entry;
+      this.dataIn = dataIn;
+    }
+
+    @Override
+    public void seek(int targetOrd) throws IOException {
+      // unsafe; no bounds checking
+      dataIn.seek(entry.ordOffsets[targetOrd]);
+      arcCount = dataIn.readInt();
+      arc = 0;
+      arcUpTo = 0;
+    }
+
+    @Override
+    public int size() {
+      return entry.size();
+    }
+
+    @Override
+    public int nextNeighbor() throws IOException {
+      if (arcUpTo >= arcCount) {
+        return NO_MORE_DOCS;
+      }
+      ++arcUpTo;
+      arc += dataIn.readVInt();
+      return arc;
+    }
+  }
+}
@@ -0,0 +1,232 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.codecs.lucene90;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.apache.lucene.codecs.CodecUtil;
+import org.apache.lucene.codecs.VectorWriter;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.IndexFileNames;
+import org.apache.lucene.index.RandomAccessVectorValuesProducer;
+import org.apache.lucene.index.SegmentWriteState;
+import org.apache.lucene.index.VectorValues;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.store.IndexOutput;
+import org.apache.lucene.util.ArrayUtil;
+import org.apache.lucene.util.IOUtils;
+import org.apache.lucene.util.hnsw.HnswGraph;
+import org.apache.lucene.util.hnsw.HnswGraphBuilder;
+import org.apache.lucene.util.hnsw.NeighborArray;
+
+import static org.apache.lucene.search.DocIdSetIterator.NO_MORE_DOCS;
+
+/**
+ * Writes vector values and knn graphs to index segments.
+ *
+ * @lucene.experimental
+ */
+public final class Lucene90VectorWriter extends VectorWriter {
+
+  // seed used to build the graph, so that indexing the same vectors builds the same graph
+  private static final long GRAPH_SEED = 42;
+
+  private final SegmentWriteState segmentWriteState;
+  private final IndexOutput meta, vectorData, vectorIndex;
+  private final int maxConn;
+  private final int beamWidth;
+
+  private boolean finished;
+
+  Lucene90VectorWriter(SegmentWriteState state, int maxConn, int beamWidth) throws IOException {
+    assert state.fieldInfos.hasVectorValues();
+    this.segmentWriteState = state;
+    this.maxConn = maxConn;
+    this.beamWidth = beamWidth;
+
+    String metaFileName = IndexFileNames.segmentFileName(state.segmentInfo.name, state.segmentSuffix, Lucene90VectorFormat.META_EXTENSION);
+    String vectorDataFileName = IndexFileNames.segmentFileName(state.segmentInfo.name, state.segmentSuffix, Lucene90VectorFormat.VECTOR_DATA_EXTENSION);
+    String indexDataFileName = IndexFileNames.segmentFileName(state.segmentInfo.name, state.segmentSuffix, Lucene90VectorFormat.VECTOR_INDEX_EXTENSION);
+
+    boolean success = false;
+    try {
+      meta = state.directory.createOutput(metaFileName, state.context);
+      vectorData = state.directory.createOutput(vectorDataFileName, state.context);
+      vectorIndex = state.directory.createOutput(indexDataFileName, state.context);
+
+      CodecUtil.writeIndexHeader(meta, Lucene90VectorFormat.META_CODEC_NAME, Lucene90VectorFormat.VERSION_CURRENT, state.segmentInfo.getId(), state.segmentSuffix);
+      CodecUtil.writeIndexHeader(vectorData, Lucene90VectorFormat.VECTOR_DATA_CODEC_NAME, Lucene90VectorFormat.VERSION_CURRENT, state.segmentInfo.getId(), state.segmentSuffix);
+      CodecUtil.writeIndexHeader(vectorIndex, Lucene90VectorFormat.VECTOR_INDEX_CODEC_NAME, Lucene90VectorFormat.VERSION_CURRENT, state.segmentInfo.getId(), state.segmentSuffix);
+      success = true;
+    } finally {
+      if (success == false) {
+        IOUtils.closeWhileHandlingException(this);
+      }
+    }
+  }
+
+  @Override
+  public void writeField(FieldInfo fieldInfo, VectorValues vectors) throws IOException {
+    if (vectors.dimension() != fieldInfo.getVectorDimension()) {
+      throw new IllegalArgumentException("field=\"" + fieldInfo.name + "\" has dimension=" + fieldInfo.getVectorDimension()
+          + " but the provided values have dimension=" + vectors.dimension());
+    }
+    long vectorDataOffset = vectorData.getFilePointer();
+    int[] docIds;
+    long[] nodeOffsets = null;
+    long vectorIndexOffset = vectorIndex.getFilePointer();
+    if (vectors instanceof RandomAccessVectorValuesProducer) {
+      // flush: the vectors are already buffered in RAM, so we can build the graph from them directly
+      docIds = writeVectorData(vectorData, vectors);
+      if (fieldInfo.getVectorSearchStrategy().isHnsw()) {
+        nodeOffsets = writeGraph((RandomAccessVectorValuesProducer) vectors);
+      }
+    } else {
+      // merge: write the vectors to a temporary file first, so that the graph can be built from
+      // random access to the on-disk vectors rather than buffering them all in RAM
+      Directory directory = segmentWriteState.directory;
+      String tempFileName;
+      try (IndexOutput tempOut = directory.createTempOutput(vectorData.getName(), "temp", segmentWriteState.context)) {
+        tempFileName = tempOut.getName();
+        docIds = writeVectorData(tempOut, vectors);
+      }
+      boolean success = false;
+      try (IndexInput tempIn = directory.openInput(tempFileName, IOContext.DEFAULT)) {
+        vectorData.copyBytes(tempIn, tempIn.length());
+        if (fieldInfo.getVectorSearchStrategy().isHnsw()) {
+          OffHeapVectorValues offHeapVectors = new OffHeapVectorValues(vectors.dimension(), docIds,
+              fieldInfo.getVectorSearchStrategy(), tempIn, null);
+          nodeOffsets = writeGraph(offHeapVectors);
+        }
+        success = true;
+      } finally {
+        if (success) {
+          directory.deleteFile(tempFileName);
+        } else {
+          IOUtils.deleteFilesIgnoringExceptions(directory, tempFileName);
+        }
+      }
+    }
+    long vectorDataLength = vectorData.getFilePointer() - vectorDataOffset;
+    long vectorIndexLength = vectorIndex.getFilePointer() - vectorIndexOffset;
+    writeMeta(fieldInfo, vectorDataOffset, vectorDataLength, vectorIndexOffset, vectorIndexLength, docIds, nodeOffsets);
+  }
+
+  /** Writes the vectors in docID order and returns the docIDs that have a vector */
+  private static int[] writeVectorData(IndexOutput output, VectorValues vectors) throws IOException {
+    int dimension = vectors.dimension();
+    ByteBuffer buffer = ByteBuffer.allocate(dimension * Float.BYTES);
+    int[] docIds = new int[vectors.size()];
+    int count = 0;
+    for (int docV = vectors.nextDoc(); docV != NO_MORE_DOCS; docV = vectors.nextDoc(), count++) {
+      float[] vectorValue = vectors.vectorValue();
+      if (vectorValue.length != dimension) {
+        throw new IllegalStateException("vector for doc=" + docV + " has dimension=" + vectorValue.length + ", expected " + dimension);
+      }
+      buffer.asFloatBuffer().put(vectorValue);
+      output.writeBytes(buffer.array(), buffer.arrayOffset(), buffer.limit());
+      if (count == docIds.length) {
+        docIds = ArrayUtil.grow(docIds);
+      }
+      docIds[count] = docV;
+    }
+    return ArrayUtil.copyOfSubArray(docIds, 0, count);
+  }
+
+  /** Builds the graph over the given vectors, writes it to the vector index and returns the offset of each node */
+  private long[] writeGraph(RandomAccessVectorValuesProducer vectors) throws IOException {
+    if (vectors.randomAccess().size() == 0) {
+      // all documents having a vector were deleted
+      return new long[0];
+    }
+    HnswGraphBuilder builder = new HnswGraphBuilder(vectors, maxConn, beamWidth, GRAPH_SEED);
+    HnswGraph graph = builder.build(vectors.randomAccess());
+    long graphStart = vectorIndex.getFilePointer();
+    long[] offsets = new long[graph.size()];
+    int[] scratch = new int[maxConn + 1];
+    for (int node = 0; node < offsets.length; node++) {
+      offsets[node] = vectorIndex.getFilePointer() - graphStart;
+      NeighborArray neighbors = graph.getNeighbors(node);
+      int size = neighbors.size();
+      if (scratch.length < size) {
+        scratch = ArrayUtil.grow(scratch, size);
+      }
+      System.arraycopy(neighbors.node(), 0, scratch, 0, size);
+      // sort the neighbors so they can be delta-encoded
+      Arrays.sort(scratch, 0, size);
+      vectorIndex.writeInt(size);
+      int lastNeighbor = 0;
+      for (int i = 0; i < size; i++) {
+        vectorIndex.writeVInt(scratch[i] - lastNeighbor);
+        lastNeighbor = scratch[i];
+      }
+    }
+    return offsets;
+  }
+
+  private void writeMeta(FieldInfo field, long vectorDataOffset, long vectorDataLength,
+                         long vectorIndexOffset, long vectorIndexLength, int[] docIds, long[] nodeOffsets) throws IOException {
+    meta.writeInt(field.number);
+    meta.writeInt(field.getVectorSearchStrategy().ordinal());
+    meta.writeVLong(vectorDataOffset);
+    meta.writeVLong(vectorDataLength);
+    meta.writeVLong(vectorIndexOffset);
+    meta.writeVLong(vectorIndexLength);
+    meta.writeInt(field.getVectorDimension());
+    meta.writeInt(docIds.length);
+    int lastDocId = 0;
+    for (int docId : docIds) {
+      // the first doc is encoded as-is, then deltas
+      meta.writeVInt(docId - lastDocId);
+      lastDocId = docId;
+    }
+    if (nodeOffsets != null) {
+      assert nodeOffsets.length == docIds.length;
+      long lastOffset = 0;
+      for (long offset : nodeOffsets) {
+        meta.writeVLong(offset - lastOffset);
+        lastOffset = offset;
+      }
+    }
+  }
+
+  @Override
+  public void finish() throws IOException {
+    if (finished) {
+      throw new IllegalStateException("already finished");
+    }
+    finished = true;
+    if (meta != null) {
+      // write end of fields marker
+      meta.writeInt(-1);
+      CodecUtil.writeFooter(meta);
+    }
+    if (vectorData != null) {
+      CodecUtil.writeFooter(vectorData);
+      CodecUtil.writeFooter(vectorIndex);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    IOUtils.close(meta, vectorData, vectorIndex);
+  }
+}
@@ -0,0 +1,236 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.codecs.lucene90;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.apache.lucene.index.KnnGraphValues;
+import org.apache.lucene.index.RandomAccessVectorValues;
+import org.apache.lucene.index.RandomAccessVectorValuesProducer;
+import org.apache.lucene.index.VectorValues;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.IOSupplier;
+import org.apache.lucene.util.hnsw.HnswGraph;
+import org.apache.lucene.util.hnsw.NeighborQueue;
+
+/**
+ * Read the vector values from the index input. This supports both iterated and random access.
+ */
+final class OffHeapVectorValues extends VectorValues implements RandomAccessVectorValuesProducer {
+
+  // seed used for choosing the graph entry points, so that searches are repeatable
+  private static final long SEARCH_SEED = 42;
+
+  private final int dimension;
+  private final int[] ordToDoc;
+  private final SearchStrategy searchStrategy;
+  private final IndexInput dataIn;
+  private final IOSupplier<KnnGraphValues> graphValues;
+
+  private final BytesRef binaryValue;
+  private final ByteBuffer byteBuffer;
+  private final FloatBuffer floatBuffer;
+  private final int byteSize;
+  private final float[] value;
+
+  private int ord = -1;
+  private int doc = -1;
+
+  /**
+   * @param dimension the dimension of the vectors
+   * @param ordToDoc the docID of each vector, in increasing order
+   * @param searchStrategy the search strategy of the field
+   * @param dataIn a slice holding exactly the field's vectors
+   * @param graphValues supplies the search graph; may be null when {@link #search} is never called
+   */
+  OffHeapVectorValues(int dimension, int[] ordToDoc, SearchStrategy searchStrategy, IndexInput dataIn,
+                      IOSupplier<KnnGraphValues> graphValues) {
+    this.dimension = dimension;
+    this.ordToDoc = ordToDoc;
+    this.searchStrategy = searchStrategy;
+    this.dataIn = dataIn;
+    this.graphValues = graphValues;
+    byteSize = Float.BYTES * dimension;
+    byteBuffer = ByteBuffer.allocate(byteSize);
+    floatBuffer = byteBuffer.asFloatBuffer();
+    value = new float[dimension];
+    binaryValue = new BytesRef(byteBuffer.array(), byteBuffer.arrayOffset(), byteSize);
+  }
+
+  @Override
+  public int dimension() {
+    return dimension;
+  }
+
+  @Override
+  public int size() {
+    return ordToDoc.length;
+  }
+
+  @Override
+  public SearchStrategy searchStrategy() {
+    return searchStrategy;
+  }
+
+  @Override
+  public float[] vectorValue() throws IOException {
+    return vectorValue(ord);
+  }
+
+  @Override
+  public BytesRef binaryValue() throws IOException {
+    readValue(ord);
+    return binaryValue;
+  }
+
+  private float[] vectorValue(int targetOrd) throws IOException {
+    readValue(targetOrd);
+    floatBuffer.position(0);
+    floatBuffer.get(value, 0, dimension);
+    return value;
+  }
+
+  private void readValue(int targetOrd) throws IOException {
+    dataIn.seek((long) targetOrd * byteSize);
+    dataIn.readBytes(byteBuffer.array(), byteBuffer.arrayOffset(), byteSize);
+  }
+
+  @Override
+  public int docID() {
+    return doc;
+  }
+
+  @Override
+  public int nextDoc() {
+    if (++ord >= size()) {
+      doc = NO_MORE_DOCS;
+    } else {
+      doc = ordToDoc[ord];
+    }
+    return doc;
+  }
+
+  @Override
+  public int advance(int target) {
+    assert docID() < target;
+    ord = Arrays.binarySearch(ordToDoc, ord + 1, ordToDoc.length, target);
+    if (ord < 0) {
+      ord = -(ord + 1);
+    }
+    assert ord <= ordToDoc.length;
+    if (ord == ordToDoc.length) {
+      doc = NO_MORE_DOCS;
+    } else {
+      doc = ordToDoc[ord];
+    }
+    return doc;
+  }
+
+  @Override
+  public long cost() {
+    return ordToDoc.length;
+  }
+
+  @Override
+  public TopDocs search(float[] target, int k, int fanout) throws IOException {
+    if (searchStrategy.isHnsw() == false) {
+      throw new UnsupportedOperationException("search is not supported for vectors with search strategy " + searchStrategy);
+    }
+    if (target.length != dimension) {
+      throw new IllegalArgumentException("vector query dimension: " + target.length + " differs from field dimension: " + dimension);
+    }
+    // use a seed that is fixed for the index so we get reproducible results for the same query
+    final Random random = new Random(SEARCH_SEED);
+    NeighborQueue results = HnswGraph.search(target, k, k + fanout, randomAccess(), graphValues.get(), random);
+    int i = 0;
+    ScoreDoc[] scoreDocs = new ScoreDoc[Math.min(results.size(), k)];
+    // the queue pops the farthest result first, so fill the hits from the end
+    while (results.size() > 0) {
+      int node = results.topNode();
+      float score = results.topScore();
+      results.pop();
+      scoreDocs[scoreDocs.length - ++i] = new ScoreDoc(ordToDoc[node], score);
+    }
+    // the search is approximate, so the number of visited vectors is only a lower bound of the matches
+    return new TopDocs(new TotalHits(results.visitedCount(), TotalHits.Relation.GREATER_THAN_OR_EQUAL_TO), scoreDocs);
+  }
+
+  @Override
+  public RandomAccessVectorValues randomAccess() {
+    return new OffHeapRandomAccess(dataIn.clone());
+  }
+
+  class OffHeapRandomAccess implements RandomAccessVectorValues {
+
+    final IndexInput dataIn;
+
+    final BytesRef binaryValue;
+    final ByteBuffer byteBuffer;
+    final FloatBuffer floatBuffer;
+    final float[] value;
+
+    OffHeapRandomAccess(IndexInput dataIn) {
+      this.dataIn = dataIn;
+      byteBuffer = ByteBuffer.allocate(byteSize);
+      floatBuffer = byteBuffer.asFloatBuffer();
+      value = new float[dimension];
+      binaryValue = new BytesRef(byteBuffer.array(), byteBuffer.arrayOffset(), byteSize);
+    }
+
+    @Override
+    public int size() {
+      return ordToDoc.length;
+    }
+
+    @Override
+    public int dimension() {
+      return dimension;
+    }
+
+    @Override
+    public SearchStrategy searchStrategy() {
+      return searchStrategy;
+    }
+
+    @Override
+    public float[] vectorValue(int targetOrd) throws IOException {
+      readValue(targetOrd);
+      floatBuffer.position(0);
+      floatBuffer.get(value);
+      return value;
+    }
+
+    @Override
+    public BytesRef binaryValue(int targetOrd) throws IOException {
+      readValue(targetOrd);
+      return binaryValue;
+    }
+
+    private void readValue(int targetOrd) throws IOException {
+      dataIn.seek((long) targetOrd * byteSize);
+      dataIn.readBytes(byteBuffer.array(), byteBuffer.arrayOffset(), byteSize);
+    }
+  }
+}
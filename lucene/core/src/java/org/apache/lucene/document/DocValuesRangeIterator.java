@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.document;
+
+import java.io.IOException;
+
+import org.apache.lucene.index.DocValuesSkipper;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.TwoPhaseIterator;
+
+/**
+ * Wrapper around a {@link TwoPhaseIterator} that checks whether doc values
+ * are within a range, which uses a {@link DocValuesSkipper} in order to skip
+ * blocks of documents whose values are all out of the range, and to skip the
+ * verification of documents whose block's values are all in the range.
+ */
+final class DocValuesRangeIterator extends TwoPhaseIterator {
+
+  private enum Match {
+    /** None of the documents in the block match. */
+    NO,
+    /** Some of the documents in the block may match. */
+    MAYBE,
+    /** All documents in the block that have a value match. */
+    YES
+  }
+
+  private final Approximation approximation;
+  private final TwoPhaseIterator innerTwoPhase;
+
+  DocValuesRangeIterator(TwoPhaseIterator twoPhase, DocValuesSkipper skipper, long lowerValue, long upperValue) {
+    this(twoPhase, new Approximation(twoPhase.approximation(), skipper, lowerValue, upperValue));
+  }
+
+  private DocValuesRangeIterator(TwoPhaseIterator twoPhase, Approximation approximation) {
+    super(approximation);
+    this.approximation = approximation;
+    this.innerTwoPhase = twoPhase;
+  }
+
+  private static class Approximation extends DocIdSetIterator {
+
+    private final DocIdSetIterator innerApproximation;
+    private final DocValuesSkipper skipper;
+    private final long lowerValue;
+    private final long upperValue;
+
+    private int doc = -1;
+    // status of the documents up to upTo, inclusive
+    private int upTo = -1;
+    private Match match = Match.MAYBE;
+
+    Approximation(DocIdSetIterator innerApproximation, DocValuesSkipper skipper, long lowerValue, long upperValue) {
+      this.innerApproximation = innerApproximation;
+      this.skipper = skipper;
+      this.lowerValue = lowerValue;
+      this.upperValue = upperValue;
+    }
+
+    @Override
+    public int docID() {
+      return doc;
+    }
+
+    @Override
+    public int nextDoc() throws IOException {
+      return advance(docID() + 1);
+    }
+
+    @Override
+    public int advance(int target) throws IOException {
+      while (true) {
+        if (target > upTo) {
+          skipper.advance(target);
+          if (skipper.minDocID() == NO_MORE_DOCS) {
+            return doc = NO_MORE_DOCS;
+          }
+          upTo = skipper.maxDocID();
+          match = match(skipper.minValue(), skipper.maxValue());
+          if (match == Match.NO) {
+            target = upTo + 1;
+            continue;
+          }
+          target = Math.max(target, skipper.minDocID());
+        }
+
+        if (innerApproximation.docID() >= target) {
+          // the inner approximation went past the previous block
+          doc = innerApproximation.docID();
+        } else {
+          doc = innerApproximation.advance(target);
+        }
+        if (doc <= upTo || doc == NO_MORE_DOCS) {
+          return doc;
+        }
+        // the next document is in another block, check it
+        target = doc;
+      }
+    }
+
+    private Match match(long minValue, long maxValue) {
+      if (minValue > upperValue || maxValue < lowerValue) {
+        return Match.NO;
+      } else if (minValue >= lowerValue && maxValue <= upperValue) {
+        return Match.YES;
+      } else {
+        return Match.MAYBE;
+      }
+    }
+
+    @Override
+    public long cost() {
+      return innerApproximation.cost();
+    }
+  }
+
+  @Override
+  public boolean matches() throws IOException {
+    if (approximation.match == Match.YES) {
+      return true;
+    }
+    return innerTwoPhase.matches();
+  }
+
+  @Override
+  public float matchCost() {
+    return innerTwoPhase.matchCost();
+  }
+}
@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.util.Objects;
 
 import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.DocValuesSkipper;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.LeafReader;
 import org.apache.lucene.index.LeafReaderContext;
@@ -116,7 +117,7 @@ abstract class SortedNumericDocValuesRangeQuery extends Query {
           return null;
         }
         final NumericDocValues singleton = DocValues.unwrapSingleton(values);
-        final TwoPhaseIterator iterator;
+        TwoPhaseIterator iterator;
         if (singleton != null) {
           iterator = new TwoPhaseIterator(singleton) {
             @Override
@@ -151,6 +152,10 @@ abstract class SortedNumericDocValuesRangeQuery extends Query {
             }
           };
         }
+        final DocValuesSkipper skipper = context.reader().getDocValuesSkipper(field);
+        if (skipper != null) {
+          iterator = new DocValuesRangeIterator(iterator, skipper, lowerValue, upperValue);
+        }
         return new ConstantScoreScorer(this, score(), scoreMode, iterator);
       }
 
@@ -23,6 +23,8 @@ import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.apache.lucene.util.ArrayUtil;
+
 /** Base class for implementing {@link CompositeReader}s based on an array
  * of sub-readers. The implementing class has to add code for
  * correctly refcounting and closing the sub-readers.
@@ -134,6 +136,26 @@ public abstract class BaseCompositeReader<R extends IndexReader> extends Composi
     subReaders[i].document(docID - starts[i], visitor);    // dispatch to subreader
   }
 
+  @Override
+  public final void prefetchDocuments(int[] docIDs) throws IOException {
+    ensureOpen();
+    final int[] sortedDocIDs = ArrayUtil.copyOfSubArray(docIDs, 0, docIDs.length);
+    Arrays.sort(sortedDocIDs);
+    for (int i = 0; i < sortedDocIDs.length; ) {
+      final int readerIndex = readerIndex(sortedDocIDs[i]);  // find subreader num
+      int end = i + 1;
+      while (end < sortedDocIDs.length && sortedDocIDs[end] < starts[readerIndex + 1]) {
+        ++end;
+      }
+      final int[] subDocIDs = new int[end - i];
+      for (int j = 0; j < subDocIDs.length; ++j) {
+        subDocIDs[j] = sortedDocIDs[i + j] - starts[readerIndex];
+      }
+      subReaders[readerIndex].prefetchDocuments(subDocIDs);  // dispatch to subreader
+      i = end;
+    }
+  }
+
   @Override
   public final int docFreq(Term term) throws IOException {
     ensureOpen();
@@ -17,9 +17,11 @@
 package org.apache.lucene.index;
 
 
+import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.text.NumberFormat;
@@ -30,6 +32,12 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.lucene.codecs.Codec;
 import org.apache.lucene.codecs.DocValuesProducer;
@@ -61,8 +69,10 @@ import org.apache.lucene.util.CommandLineUtil;
 import org.apache.lucene.util.FixedBitSet;
 import org.apache.lucene.util.IOUtils;
 import org.apache.lucene.util.LongBitSet;
+import org.apache.lucene.util.NamedThreadFactory;
 import org.apache.lucene.util.StringHelper;
 import org.apache.lucene.util.SuppressForbidden;
+import org.apache.lucene.util.ThreadInterruptedException;
 import org.apache.lucene.util.Version;
 import org.apache.lucene.util.automaton.Automata;
 import org.apache.lucene.util.automaton.CompiledAutomaton;
@@ -218,6 +228,9 @@ public final class CheckIndex implements Closeable {
       /** Status for testing of PointValues (null if PointValues could not be tested). */
       public PointsStatus pointsStatus;
 
+      /** Status for testing of vectors (null if vectors could not be tested). */
+      public VectorValuesStatus vectorValuesStatus;
+
       /** Status of index sort */
       public IndexSortStatus indexSortStatus;
     }
@@ -378,6 +391,24 @@ public final class CheckIndex implements Closeable {
       public Throwable error = null;
     }
 
+    /**
+     * Status from testing vector values
+     */
+    public static final class VectorValuesStatus {
+
+      VectorValuesStatus() {
+      }
+
+      /** Total number of vector values tested. */
+      public long totalVectorValues;
+
+      /** Total number of fields with vectors. */
+      public int totalVectorFields;
+
+      /** Exception thrown during vector values test (null on success) */
+      public Throwable error = null;
+    }
+
     /**
      * Status from testing index sort
      */
@@ -464,6 +495,27 @@ public final class CheckIndex implements Closeable {
   
   private boolean checksumsOnly;
 
+  private int threadCount = 1;
+
+  /**
+   * Set the number of threads to use in order to check segments, and the
+   * different parts of each segment (postings, stored fields, doc values,
+   * etc.), concurrently. The default is {@code 1}, which checks everything
+   * sequentially in the calling thread. Messages are printed in the same
+   * order regardless of the number of threads.
+   */
+  public void setThreadCount(int threadCount) {
+    if (threadCount <= 0) {
+      throw new IllegalArgumentException("threadCount must be >= 1, got " + threadCount);
+    }
+    this.threadCount = threadCount;
+  }
+
+  /** See {@link #setThreadCount}. */
+  public int getThreadCount() {
+    return threadCount;
+  }
+
   /** Set infoStream where messages should go.  If null, no
    *  messages are printed.  If verbose is true then more
    *  details are printed. */
@@ -506,7 +558,6 @@ public final class CheckIndex implements Closeable {
   public Status checkIndex(List<String> onlySegments) throws IOException {
     ensureOpen();
     long startNS = System.nanoTime();
-    NumberFormat nf = NumberFormat.getInstance(Locale.ROOT);
     SegmentInfos sis = null;
     Status result = new Status();
     result.dir = dir;
@@ -612,180 +663,77 @@ public final class CheckIndex implements Closeable {
       if (segmentName > result.maxSegmentName) {
         result.maxSegmentName = segmentName;
       }
-      if (onlySegments != null && !onlySegments.contains(info.info.name)) {
-        continue;
-      }
-      Status.SegmentInfoStatus segInfoStat = new Status.SegmentInfoStatus();
-      result.segmentInfos.add(segInfoStat);
-      msg(infoStream, "  " + (1+i) + " of " + numSegments + ": name=" + info.info.name + " maxDoc=" + info.info.maxDoc());
-      segInfoStat.name = info.info.name;
-      segInfoStat.maxDoc = info.info.maxDoc();
-      
-      final Version version = info.info.getVersion();
-      if (info.info.maxDoc() <= 0) {
-        throw new RuntimeException("illegal number of documents: maxDoc=" + info.info.maxDoc());
-      }
-
-      int toLoseDocCount = info.info.maxDoc();
+    }
 
-      SegmentReader reader = null;
-      Sort previousIndexSort = null;
+    final List<SegmentCommitInfo> segmentsToCheck = new ArrayList<>();
+    final List<Integer> segmentOrds = new ArrayList<>();
+    for(int i=0;i<numSegments;i++) {
+      final SegmentCommitInfo info = sis.info(i);
+      if (onlySegments == null || onlySegments.contains(info.info.name)) {
+        segmentsToCheck.add(info);
+        segmentOrds.add(i);
+      }
+    }
 
+    final List<SegmentCheckResult> segmentResults = new ArrayList<>();
+    if (threadCount == 1) {
+      for (int i = 0; i < segmentsToCheck.size(); i++) {
+        segmentResults.add(testSegment(sis, segmentsToCheck.get(i), segmentOrds.get(i), infoStream, null));
+      }
+    } else {
+      // Segments are checked concurrently on segmentExecutor, and the parts of each segment on partExecutor.
+      // Using separate executors ensures that segment checks, which wait on their part checks, can't starve
+      // part checks of threads. Messages are buffered and printed in order so that the output is the same
+      // as with a single thread.
+      final ExecutorService segmentExecutor = Executors.newFixedThreadPool(threadCount, new NamedThreadFactory("CheckIndex-segment"));
+      final ExecutorService partExecutor = Executors.newFixedThreadPool(threadCount, new NamedThreadFactory("CheckIndex-part"));
       try {
-        msg(infoStream, "    version=" + (version == null ? "3.0" : version));
-        msg(infoStream, "    id=" + StringHelper.idToString(info.info.getId()));
-        final Codec codec = info.info.getCodec();
-        msg(infoStream, "    codec=" + codec);
-        segInfoStat.codec = codec;
-        msg(infoStream, "    compound=" + info.info.getUseCompoundFile());
-        segInfoStat.compound = info.info.getUseCompoundFile();
-        msg(infoStream, "    numFiles=" + info.files().size());
-        Sort indexSort = info.info.getIndexSort();
-        if (indexSort != null) {
-          msg(infoStream, "    sort=" + indexSort);
-          if (previousIndexSort != null) {
-            if (previousIndexSort.equals(indexSort) == false) {
-              throw new RuntimeException("index sort changed from " + previousIndexSort + " to " + indexSort);
+        final SegmentInfos infos = sis;
+        final List<Future<SegmentCheckResult>> futures = new ArrayList<>();
+        for (int i = 0; i < segmentsToCheck.size(); i++) {
+          final SegmentCommitInfo info = segmentsToCheck.get(i);
+          final int segmentOrd = segmentOrds.get(i);
+          futures.add(segmentExecutor.submit(() -> {
+            final ByteArrayOutputStream output = new ByteArrayOutputStream();
+            final PrintStream segmentStream = infoStream == null ? null : new PrintStream(output, true, StandardCharsets.UTF_8);
+            SegmentCheckResult segmentResult = testSegment(infos, info, segmentOrd, segmentStream, partExecutor);
+            segmentResult.output = output.toString(StandardCharsets.UTF_8);
+            return segmentResult;
+          }));
+        }
+        for (Future<SegmentCheckResult> future : futures) {
+          final SegmentCheckResult segmentResult;
+          try {
+            segmentResult = getResult(future);
+          } catch (Throwable t) {
+            // only happens with failFast
+            for (Future<SegmentCheckResult> f : futures) {
+              f.cancel(false);
             }
-          } else {
-            previousIndexSort = indexSort;
-          }
-        }
-        segInfoStat.numFiles = info.files().size();
-        segInfoStat.sizeMB = info.sizeInBytes()/(1024.*1024.);
-        msg(infoStream, "    size (MB)=" + nf.format(segInfoStat.sizeMB));
-        Map<String,String> diagnostics = info.info.getDiagnostics();
-        segInfoStat.diagnostics = diagnostics;
-        if (diagnostics.size() > 0) {
-          msg(infoStream, "    diagnostics = " + diagnostics);
-        }
-
-        if (!info.hasDeletions()) {
-          msg(infoStream, "    no deletions");
-          segInfoStat.hasDeletions = false;
-        } else {
-          msg(infoStream, "    has deletions [delGen=" + info.getDelGen() + "]");
-          segInfoStat.hasDeletions = true;
-          segInfoStat.deletionsGen = info.getDelGen();
-        }
-        
-        long startOpenReaderNS = System.nanoTime();
-        if (infoStream != null)
-          infoStream.print("    test: open reader.........");
-        reader = new SegmentReader(info, sis.getIndexCreatedVersionMajor(), IOContext.DEFAULT);
-        msg(infoStream, String.format(Locale.ROOT, "OK [took %.3f sec]", nsToSec(System.nanoTime()-startOpenReaderNS)));
-
-        segInfoStat.openReaderPassed = true;
-        
-        long startIntegrityNS = System.nanoTime();
-        if (infoStream != null)
-          infoStream.print("    test: check integrity.....");
-        reader.checkIntegrity();
-        msg(infoStream, String.format(Locale.ROOT, "OK [took %.3f sec]", nsToSec(System.nanoTime()-startIntegrityNS)));
-
-        if (reader.maxDoc() != info.info.maxDoc()) {
-          throw new RuntimeException("SegmentReader.maxDoc() " + reader.maxDoc() + " != SegmentInfo.maxDoc " + info.info.maxDoc());
-        }
-        
-        final int numDocs = reader.numDocs();
-        toLoseDocCount = numDocs;
-        
-        if (reader.hasDeletions()) {
-          if (reader.numDocs() != info.info.maxDoc() - info.getDelCount()) {
-            throw new RuntimeException("delete count mismatch: info=" + (info.info.maxDoc() - info.getDelCount()) + " vs reader=" + reader.numDocs());
-          }
-          if ((info.info.maxDoc() - reader.numDocs()) > reader.maxDoc()) {
-            throw new RuntimeException("too many deleted docs: maxDoc()=" + reader.maxDoc() + " vs del count=" + (info.info.maxDoc() - reader.numDocs()));
+            throw t;
           }
-          if (info.info.maxDoc() - reader.numDocs() != info.getDelCount()) {
-            throw new RuntimeException("delete count mismatch: info=" + info.getDelCount() + " vs reader=" + (info.info.maxDoc() - reader.numDocs()));
+          if (infoStream != null) {
+            infoStream.print(segmentResult.output);
           }
-        } else {
-          if (info.getDelCount() != 0) {
-            throw new RuntimeException("delete count mismatch: info=" + info.getDelCount() + " vs reader=" + (info.info.maxDoc() - reader.numDocs()));
-          }
-        }
-        
-        if (checksumsOnly == false) {
-          // Test Livedocs
-          segInfoStat.liveDocStatus = testLiveDocs(reader, infoStream, failFast);
-
-          // Test Fieldinfos
-          segInfoStat.fieldInfoStatus = testFieldInfos(reader, infoStream, failFast);
-
-          // Test Field Norms
-          segInfoStat.fieldNormStatus = testFieldNorms(reader, infoStream, failFast);
-
-          // Test the Term Index
-          segInfoStat.termIndexStatus = testPostings(reader, infoStream, verbose, doSlowChecks, failFast);
-
-          // Test Stored Fields
-          segInfoStat.storedFieldStatus = testStoredFields(reader, infoStream, failFast);
-
-          // Test Term Vectors
-          segInfoStat.termVectorStatus = testTermVectors(reader, infoStream, verbose, doSlowChecks, failFast);
-
-          // Test Docvalues
-          segInfoStat.docValuesStatus = testDocValues(reader, infoStream, failFast);
-
-          // Test PointValues
-          segInfoStat.pointsStatus = testPoints(reader, infoStream, failFast);
-
-          // Test index sort
-          segInfoStat.indexSortStatus = testSort(reader, indexSort, infoStream, failFast);
-
-          // Rethrow the first exception we encountered
-          //  This will cause stats for failed segments to be incremented properly
-          if (segInfoStat.liveDocStatus.error != null) {
-            throw new RuntimeException("Live docs test failed");
-          } else if (segInfoStat.fieldInfoStatus.error != null) {
-            throw new RuntimeException("Field Info test failed");
-          } else if (segInfoStat.fieldNormStatus.error != null) {
-            throw new RuntimeException("Field Norm test failed");
-          } else if (segInfoStat.termIndexStatus.error != null) {
-            throw new RuntimeException("Term Index test failed");
-          } else if (segInfoStat.storedFieldStatus.error != null) {
-            throw new RuntimeException("Stored Field test failed");
-          } else if (segInfoStat.termVectorStatus.error != null) {
-            throw new RuntimeException("Term Vector test failed");
-          } else if (segInfoStat.docValuesStatus.error != null) {
-            throw new RuntimeException("DocValues test failed");
-          } else if (segInfoStat.pointsStatus.error != null) {
-            throw new RuntimeException("Points test failed");
-          }
-        }
-        final String softDeletesField = reader.getFieldInfos().getSoftDeletesField();
-        if (softDeletesField != null) {
-          checkSoftDeletes(softDeletesField, info, reader, infoStream, failFast);
-        }
-        msg(infoStream, "");
-        
-        if (verbose) {
-          msg(infoStream, "detailed segment RAM usage: ");
-          msg(infoStream, Accountables.toString(reader));
+          segmentResults.add(segmentResult);
         }
-
-      } catch (Throwable t) {
-        if (failFast) {
-          throw IOUtils.rethrowAlways(t);
-        }
-        msg(infoStream, "FAILED");
-        String comment;
-        comment = "exorciseIndex() would remove reference to this segment";
-        msg(infoStream, "    WARNING: " + comment + "; full exception:");
-        if (infoStream != null)
-          t.printStackTrace(infoStream);
-        msg(infoStream, "");
-        result.totLoseDocCount += toLoseDocCount;
-        result.numBadSegments++;
-        continue;
       } finally {
-        if (reader != null)
-          reader.close();
+        segmentExecutor.shutdown();
+        partExecutor.shutdown();
+        awaitTermination(segmentExecutor);
+        awaitTermination(partExecutor);
       }
+    }
 
-      // Keeper
-      result.newSegments.add(info.clone());
+    for (SegmentCheckResult segmentResult : segmentResults) {
+      result.segmentInfos.add(segmentResult.status);
+      if (segmentResult.failed) {
+        result.totLoseDocCount += segmentResult.toLoseDocCount;
+        result.numBadSegments++;
+      } else {
+        // Keeper
+        result.newSegments.add(segmentResult.info.clone());
+      }
     }
 
     if (0 == result.numBadSegments) {
@@ -808,6 +756,285 @@ public final class CheckIndex implements Closeable {
     return result;
   }
 
+  /**
+   * Check a single segment, whose ordinal in {@code sis} is {@code segmentOrd}.
+   * The parts of the segment are checked on {@code partExecutor}, or in the
+   * current thread if {@code partExecutor} is {@code null}.
+   */
+  private SegmentCheckResult testSegment(SegmentInfos sis, SegmentCommitInfo info, int segmentOrd,
+      PrintStream infoStream, ExecutorService partExecutor) throws IOException {
+    NumberFormat nf = NumberFormat.getInstance(Locale.ROOT);
+    Status.SegmentInfoStatus segInfoStat = new Status.SegmentInfoStatus();
+    msg(infoStream, "  " + (1+segmentOrd) + " of " + sis.size() + ": name=" + info.info.name + " maxDoc=" + info.info.maxDoc());
+    segInfoStat.name = info.info.name;
+    segInfoStat.maxDoc = info.info.maxDoc();
+    
+    final Version version = info.info.getVersion();
+    if (info.info.maxDoc() <= 0) {
+      throw new RuntimeException("illegal number of documents: maxDoc=" + info.info.maxDoc());
+    }
+
+    int toLoseDocCount = info.info.maxDoc();
+
+    SegmentReader reader = null;
+    Sort previousIndexSort = null;
+
+    try {
+      msg(infoStream, "    version=" + (version == null ? "3.0" : version));
+      msg(infoStream, "    id=" + StringHelper.idToString(info.info.getId()));
+      final Codec codec = info.info.getCodec();
+      msg(infoStream, "    codec=" + codec);
+      segInfoStat.codec = codec;
+      msg(infoStream, "    compound=" + info.info.getUseCompoundFile());
+      segInfoStat.compound = info.info.getUseCompoundFile();
+      msg(infoStream, "    numFiles=" + info.files().size());
+      Sort indexSort = info.info.getIndexSort();
+      if (indexSort != null) {
+        msg(infoStream, "    sort=" + indexSort);
+        if (previousIndexSort != null) {
+          if (previousIndexSort.equals(indexSort) == false) {
+            throw new RuntimeException("index sort changed from " + previousIndexSort + " to " + indexSort);
+          }
+        } else {
+          previousIndexSort = indexSort;
+        }
+      }
+      segInfoStat.numFiles = info.files().size();
+      segInfoStat.sizeMB = info.sizeInBytes()/(1024.*1024.);
+      msg(infoStream, "    size (MB)=" + nf.format(segInfoStat.sizeMB));
+      Map<String,String> diagnostics = info.info.getDiagnostics();
+      segInfoStat.diagnostics = diagnostics;
+      if (diagnostics.size() > 0) {
+        msg(infoStream, "    diagnostics = " + diagnostics);
+      }
+
+      if (!info.hasDeletions()) {
+        msg(infoStream, "    no deletions");
+        segInfoStat.hasDeletions = false;
+      } else {
+        msg(infoStream, "    has deletions [delGen=" + info.getDelGen() + "]");
+        segInfoStat.hasDeletions = true;
+        segInfoStat.deletionsGen = info.getDelGen();
+      }
+      
+      long startOpenReaderNS = System.nanoTime();
+      if (infoStream != null)
+        infoStream.print("    test: open reader.........");
+      reader = new SegmentReader(info, sis.getIndexCreatedVersionMajor(), IOContext.DEFAULT);
+      msg(infoStream, String.format(Locale.ROOT, "OK [took %.3f sec]", nsToSec(System.nanoTime()-startOpenReaderNS)));
+
+      segInfoStat.openReaderPassed = true;
+      
+      long startIntegrityNS = System.nanoTime();
+      if (infoStream != null)
+        infoStream.print("    test: check integrity.....");
+      reader.checkIntegrity();
+      msg(infoStream, String.format(Locale.ROOT, "OK [took %.3f sec]", nsToSec(System.nanoTime()-startIntegrityNS)));
+
+      if (reader.maxDoc() != info.info.maxDoc()) {
+        throw new RuntimeException("SegmentReader.maxDoc() " + reader.maxDoc() + " != SegmentInfo.maxDoc " + info.info.maxDoc());
+      }
+      
+      final int numDocs = reader.numDocs();
+      toLoseDocCount = numDocs;
+      
+      if (reader.hasDeletions()) {
+        if (reader.numDocs() != info.info.maxDoc() - info.getDelCount()) {
+          throw new RuntimeException("delete count mismatch: info=" + (info.info.maxDoc() - info.getDelCount()) + " vs reader=" + reader.numDocs());
+        }
+        if ((info.info.maxDoc() - reader.numDocs()) > reader.maxDoc()) {
+          throw new RuntimeException("too many deleted docs: maxDoc()=" + reader.maxDoc() + " vs del count=" + (info.info.maxDoc() - reader.numDocs()));
+        }
+        if (info.info.maxDoc() - reader.numDocs() != info.getDelCount()) {
+          throw new RuntimeException("delete count mismatch: info=" + info.getDelCount() + " vs reader=" + (info.info.maxDoc() - reader.numDocs()));
+        }
+      } else {
+        if (info.getDelCount() != 0) {
+          throw new RuntimeException("delete count mismatch: info=" + info.getDelCount() + " vs reader=" + (info.info.maxDoc() - reader.numDocs()));
+        }
+      }
+      
+      if (checksumsOnly == false) {
+        // Test the different parts of the segment, concurrently if partExecutor is not null
+        final SegmentReader segmentReader = reader;
+        final SegmentPartChecks parts = new SegmentPartChecks(partExecutor, infoStream);
+
+        // Test Livedocs
+        final Future<Status.LiveDocStatus> liveDocStatus = parts.submit(out -> testLiveDocs(segmentReader, out, failFast));
+
+        // Test Fieldinfos
+        final Future<Status.FieldInfoStatus> fieldInfoStatus = parts.submit(out -> testFieldInfos(segmentReader, out, failFast));
+
+        // Test Field Norms
+        final Future<Status.FieldNormStatus> fieldNormStatus = parts.submit(out -> testFieldNorms(segmentReader, out, failFast));
+
+        // Test the Term Index
+        final Future<Status.TermIndexStatus> termIndexStatus = parts.submit(out -> testPostings(segmentReader, out, verbose, doSlowChecks, failFast));
+
+        // Test Stored Fields
+        final Future<Status.StoredFieldStatus> storedFieldStatus = parts.submit(out -> testStoredFields(segmentReader, out, failFast));
+
+        // Test Term Vectors
+        final Future<Status.TermVectorStatus> termVectorStatus = parts.submit(out -> testTermVectors(segmentReader, out, verbose, doSlowChecks, failFast));
+
+        // Test Docvalues
+        final Future<Status.DocValuesStatus> docValuesStatus = parts.submit(out -> testDocValues(segmentReader, out, failFast));
+
+        // Test PointValues
+        final Future<Status.PointsStatus> pointsStatus = parts.submit(out -> testPoints(segmentReader, out, failFast));
+
+        // Test VectorValues
+        final Future<Status.VectorValuesStatus> vectorValuesStatus = parts.submit(out -> testVectors(segmentReader, out, failFast));
+
+        // Test index sort
+        final Future<Status.IndexSortStatus> indexSortStatus = parts.submit(out -> testSort(segmentReader, indexSort, out, failFast));
+
+        parts.finish();
+        segInfoStat.liveDocStatus = getResult(liveDocStatus);
+        segInfoStat.fieldInfoStatus = getResult(fieldInfoStatus);
+        segInfoStat.fieldNormStatus = getResult(fieldNormStatus);
+        segInfoStat.termIndexStatus = getResult(termIndexStatus);
+        segInfoStat.storedFieldStatus = getResult(storedFieldStatus);
+        segInfoStat.termVectorStatus = getResult(termVectorStatus);
+        segInfoStat.docValuesStatus = getResult(docValuesStatus);
+        segInfoStat.pointsStatus = getResult(pointsStatus);
+        segInfoStat.vectorValuesStatus = getResult(vectorValuesStatus);
+        segInfoStat.indexSortStatus = getResult(indexSortStatus);
+
+        // Rethrow the first exception we encountered
+        //  This will cause stats for failed segments to be incremented properly
+        if (segInfoStat.liveDocStatus.error != null) {
+          throw new RuntimeException("Live docs test failed");
+        } else if (segInfoStat.fieldInfoStatus.error != null) {
+          throw new RuntimeException("Field Info test failed");
+        } else if (segInfoStat.fieldNormStatus.error != null) {
+          throw new RuntimeException("Field Norm test failed");
+        } else if (segInfoStat.termIndexStatus.error != null) {
+          throw new RuntimeException("Term Index test failed");
+        } else if (segInfoStat.storedFieldStatus.error != null) {
+          throw new RuntimeException("Stored Field test failed");
+        } else if (segInfoStat.termVectorStatus.error != null) {
+          throw new RuntimeException("Term Vector test failed");
+        } else if (segInfoStat.docValuesStatus.error != null) {
+          throw new RuntimeException("DocValues test failed");
+        } else if (segInfoStat.pointsStatus.error != null) {
+          throw new RuntimeException("Points test failed");
+        } else if (segInfoStat.vectorValuesStatus.error != null) {
+          throw new RuntimeException("Vectors test failed");
+        }
+      }
+      final String softDeletesField = reader.getFieldInfos().getSoftDeletesField();
+      if (softDeletesField != null) {
+        checkSoftDeletes(softDeletesField, info, reader, infoStream, failFast);
+      }
+      msg(infoStream, "");
+      
+      if (verbose) {
+        msg(infoStream, "detailed segment RAM usage: ");
+        msg(infoStream, Accountables.toString(reader));
+      }
+
+    } catch (Throwable t) {
+      if (failFast) {
+        throw IOUtils.rethrowAlways(t);
+      }
+      msg(infoStream, "FAILED");
+      String comment;
+      comment = "exorciseIndex() would remove reference to this segment";
+      msg(infoStream, "    WARNING: " + comment + "; full exception:");
+      if (infoStream != null)
+        t.printStackTrace(infoStream);
+      msg(infoStream, "");
+      return new SegmentCheckResult(info, segInfoStat, true, toLoseDocCount);
+    } finally {
+      if (reader != null)
+        reader.close();
+    }
+
+    return new SegmentCheckResult(info, segInfoStat, false, toLoseDocCount);
+  }
+
+  /** The result of checking a single segment. */
+  private static final class SegmentCheckResult {
+    final SegmentCommitInfo info;
+    final Status.SegmentInfoStatus status;
+    final boolean failed;
+    final int toLoseDocCount;
+    /** Buffered messages, only set when segments are checked concurrently. */
+    String output;
+
+    SegmentCheckResult(SegmentCommitInfo info, Status.SegmentInfoStatus status, boolean failed, int toLoseDocCount) {
+      this.info = info;
+      this.status = status;
+      this.failed = failed;
+      this.toLoseDocCount = toLoseDocCount;
+    }
+  }
+
+  /**
+   * Runs the checks of the different parts of a segment, either in the
+   * current thread or concurrently on an executor. In the latter case, the
+   * messages of every check are buffered and printed in the order in which
+   * checks were submitted when calling {@link #finish()}.
+   */
+  private static final class SegmentPartChecks {
+    private final ExecutorService executor;
+    private final PrintStream infoStream;
+    private final List<Future<?>> futures = new ArrayList<>();
+    private final List<ByteArrayOutputStream> outputs = new ArrayList<>();
+
+    SegmentPartChecks(ExecutorService executor, PrintStream infoStream) {
+      this.executor = executor;
+      this.infoStream = infoStream;
+    }
+
+    <T> Future<T> submit(IOUtils.IOFunction<PrintStream, T> check) throws IOException {
+      if (executor == null) {
+        // exceptions propagate immediately, like when checking parts sequentially
+        return CompletableFuture.completedFuture(check.apply(infoStream));
+      }
+      final ByteArrayOutputStream output = new ByteArrayOutputStream();
+      final PrintStream out = infoStream == null ? null : new PrintStream(output, true, StandardCharsets.UTF_8);
+      final Future<T> future = executor.submit(() -> check.apply(out));
+      futures.add(future);
+      outputs.add(output);
+      return future;
+    }
+
+    /** Wait for all checks to complete and print their messages. */
+    void finish() {
+      for (int i = 0; i < futures.size(); i++) {
+        try {
+          getResult(futures.get(i));
+        } catch (Throwable t) {
+          // rethrown when getting the status of this check
+        }
+        if (infoStream != null) {
+          infoStream.print(outputs.get(i).toString(StandardCharsets.UTF_8));
+        }
+      }
+    }
+  }
+
+  /** Get the result of a check, rethrowing its exception if it failed. */
+  private static <T> T getResult(Future<T> future) throws IOException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      throw new ThreadInterruptedException(e);
+    } catch (ExecutionException e) {
+      throw IOUtils.rethrowAlways(e.getCause());
+    }
+  }
+
+  private static void awaitTermination(ExecutorService executor) {
+    try {
+      executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    } catch (InterruptedException e) {
+      throw new ThreadInterruptedException(e);
+    }
+  }
+
   /**
    * Tests index sort order.
    * @lucene.experimental
@@ -1955,6 +2182,65 @@ public final class CheckIndex implements Closeable {
     return status;
   }
 
+  /**
+   * Test the vectors index
+   * @lucene.experimental
+   */
+  public static Status.VectorValuesStatus testVectors(CodecReader reader, PrintStream infoStream, boolean failFast) throws IOException {
+    if (infoStream != null) {
+      infoStream.print("    test: vectors.............");
+    }
+    long startNS = System.nanoTime();
+    FieldInfos fieldInfos = reader.getFieldInfos();
+    Status.VectorValuesStatus status = new Status.VectorValuesStatus();
+    try {
+
+      if (fieldInfos.hasVectorValues()) {
+        for (FieldInfo fieldInfo : fieldInfos) {
+          if (fieldInfo.hasVectorValues()) {
+            int dimension = fieldInfo.getVectorDimension();
+            if (dimension <= 0) {
+              throw new RuntimeException("Field \"" + fieldInfo.name + "\" has vector values but dimension is " + dimension);
+            }
+            VectorValues values = reader.getVectorValues(fieldInfo.name);
+            if (values == null) {
+              continue;
+            }
+
+            status.totalVectorFields++;
+
+            int docCount = 0;
+            while (values.nextDoc() != NO_MORE_DOCS) {
+              int valueLength = values.vectorValue().length;
+              if (valueLength != dimension) {
+                throw new RuntimeException("Field \"" + fieldInfo.name + "\" has a value whose dimension=" + valueLength + " not matching the field's dimension=" + dimension);
+              }
+              ++docCount;
+            }
+            if (docCount != values.size()) {
+              throw new RuntimeException("Field \"" + fieldInfo.name + "\" has size=" + values.size() + " but when iterated, returns " + docCount + " docs with values");
+            }
+            status.totalVectorValues += docCount;
+          }
+        }
+      }
+
+      msg(infoStream, String.format(Locale.ROOT, "OK [%d fields, %d vectors] [took %.3f sec]", status.totalVectorFields, status.totalVectorValues, nsToSec(System.nanoTime()-startNS)));
+
+    } catch (Throwable e) {
+      if (failFast) {
+        throw IOUtils.rethrowAlways(e);
+      }
+      msg(infoStream, "ERROR: " + e);
+      status.error = e;
+      if (infoStream != null) {
+        e.printStackTrace(infoStream);
+      }
+    }
+
+    return status;
+  }
+
   /** Walks the entire N-dimensional points space, verifying that all points fall within the last cell's boundaries.
    *
    * @lucene.internal */
@@ -2762,7 +3048,7 @@ public final class CheckIndex implements Closeable {
     <p>
     Run it like this:
     <pre>
-    java -ea:org.apache.lucene... org.apache.lucene.index.CheckIndex pathToIndex [-exorcise] [-verbose] [-segment X] [-segment Y]
+    java -ea:org.apache.lucene... org.apache.lucene.index.CheckIndex pathToIndex [-exorcise] [-verbose] [-segment X] [-segment Y] [-threadCount X]
     </pre>
     <ul>
     <li><code>-exorcise</code>: actually write a new segments_N file, removing any problematic segments. *LOSES DATA*
@@ -2772,6 +3058,10 @@ public final class CheckIndex implements Closeable {
     to check more than one segment, eg <code>-segment _2
     -segment _a</code>.  You can't use this with the -exorcise
     option.
+
+    <li><code>-threadCount X</code>: number of threads used to check
+    segments, and the different parts of each segment, concurrently.
+    Defaults to 1.
     </ul>
 
     <p><b>WARNING</b>: <code>-exorcise</code> should only be used on an emergency basis as it will cause
@@ -2802,6 +3092,7 @@ public final class CheckIndex implements Closeable {
     boolean doSlowChecks = false;
     boolean verbose = false;
     boolean doChecksumsOnly = false;
+    int threadCount = 1;
     List<String> onlySegments = new ArrayList<>();
     String indexPath = null;
     String dirImpl = null;
@@ -2898,6 +3189,19 @@ public final class CheckIndex implements Closeable {
         }
         i++;
         opts.onlySegments.add(args[i]);
+      } else if ("-threadCount".equals(arg)) {
+        if (i == args.length - 1) {
+          throw new IllegalArgumentException("ERROR: missing value for -threadCount option");
+        }
+        i++;
+        try {
+          opts.threadCount = Integer.parseInt(args[i]);
+        } catch (NumberFormatException e) {
+          throw new IllegalArgumentException("ERROR: invalid value for -threadCount option: " + args[i]);
+        }
+        if (opts.threadCount <= 0) {
+          throw new IllegalArgumentException("ERROR: -threadCount must be >= 1, got " + opts.threadCount);
+        }
       } else if ("-dir-impl".equals(arg)) {
         if (i == args.length - 1) {
           throw new IllegalArgumentException("ERROR: missing value for -dir-impl option");
@@ -2915,7 +3219,7 @@ public final class CheckIndex implements Closeable {
 
     if (opts.indexPath == null) {
       throw new IllegalArgumentException("\nERROR: index path not specified" +
-                         "\nUsage: java org.apache.lucene.index.CheckIndex pathToIndex [-exorcise] [-slow] [-segment X] [-segment Y] [-dir-impl X]\n" +
+                         "\nUsage: java org.apache.lucene.index.CheckIndex pathToIndex [-exorcise] [-slow] [-segment X] [-segment Y] [-threadCount X] [-dir-impl X]\n" +
                          "\n" +
                          "  -exorcise: actually write a new segments_N file, removing any problematic segments\n" +
                          "  -fast: just verify file checksums, omitting logical integrity checks\n" + 
@@ -2925,6 +3229,7 @@ public final class CheckIndex implements Closeable {
                          "  -segment X: only check the specified segments.  This can be specified multiple\n" + 
                          "              times, to check more than one segment, eg '-segment _2 -segment _a'.\n" +
                          "              You can't use this with the -exorcise option\n" +
+                         "  -threadCount X: number of threads used to check segments and their parts concurrently (default: 1)\n" +
                          "  -dir-impl X: use a specific " + FSDirectory.class.getSimpleName() + " implementation. " +
                          "If no package is specified the " + FSDirectory.class.getPackage().getName() + " package will be used.\n" +
                          "\n" +
@@ -2965,6 +3270,7 @@ public final class CheckIndex implements Closeable {
     setDoSlowChecks(opts.doSlowChecks);
     setChecksumsOnly(opts.doChecksumsOnly);
     setInfoStream(opts.out, opts.verbose);
+    setThreadCount(opts.threadCount);
 
     Status result = checkIndex(opts.onlySegments);
     if (result.missingSegments) {
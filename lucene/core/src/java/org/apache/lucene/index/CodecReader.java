@@ -28,6 +28,7 @@ import org.apache.lucene.codecs.DocValuesProducer;
 import org.apache.lucene.codecs.FieldsProducer;
 import org.apache.lucene.codecs.NormsProducer;
 import org.apache.lucene.codecs.PointsReader;
+import org.apache.lucene.codecs.VectorReader;
 import org.apache.lucene.codecs.StoredFieldsReader;
 import org.apache.lucene.codecs.TermVectorsReader;
 import org.apache.lucene.util.Accountable;
@@ -77,12 +78,27 @@ public abstract class CodecReader extends LeafReader implements Accountable {
    * @lucene.internal
    */
   public abstract PointsReader getPointsReader();
+
+  /**
+   * Expert: retrieve underlying VectorReader
+   * @lucene.internal
+   */
+  public abstract VectorReader getVectorReader();
   
   @Override
   public final void document(int docID, StoredFieldVisitor visitor) throws IOException {
     checkBounds(docID);
     getFieldsReader().visitDocument(docID, visitor);
   }
+
+  @Override
+  public final void prefetchDocuments(int[] docIDs) throws IOException {
+    ensureOpen();
+    for (int docID : docIDs) {
+      checkBounds(docID);
+    }
+    getFieldsReader().prefetch(docIDs);
+  }
   
   @Override
   public final Fields getTermVectors(int docID) throws IOException {
@@ -177,6 +193,21 @@ public abstract class CodecReader extends LeafReader implements Accountable {
     }
     return getDocValuesReader().getSortedSet(fi);
   }
+
+  @Override
+  public final DocValuesSkipper getDocValuesSkipper(String field) throws IOException {
+    ensureOpen();
+    FieldInfo fi = getFieldInfos().fieldInfo(field);
+    if (fi == null) {
+      // Field does not exist
+      return null;
+    }
+    if (fi.getDocValuesType() != DocValuesType.NUMERIC && fi.getDocValuesType() != DocValuesType.SORTED_NUMERIC) {
+      // Field has no numeric doc values
+      return null;
+    }
+    return getDocValuesReader().getSkipper(fi);
+  }
   
   @Override
   public final NumericDocValues getNormValues(String field) throws IOException {
@@ -202,6 +233,18 @@ public abstract class CodecReader extends LeafReader implements Accountable {
     return getPointsReader().getValues(field);
   }
 
+  @Override
+  public final VectorValues getVectorValues(String field) throws IOException {
+    ensureOpen();
+    FieldInfo fi = getFieldInfos().fieldInfo(field);
+    if (fi == null || fi.getVectorDimension() == 0) {
+      // Field does not exist or does not index vectors
+      return null;
+    }
+
+    return getVectorReader().getVectorValues(field);
+  }
+
   @Override
   protected void doClose() throws IOException {
   }
@@ -237,6 +280,11 @@ public abstract class CodecReader extends LeafReader implements Accountable {
     if (getPointsReader() != null) {
       ramBytesUsed += getPointsReader().ramBytesUsed();
     }
+
+    // vectors
+    if (getVectorReader() != null) {
+      ramBytesUsed += getVectorReader().ramBytesUsed();
+    }
     
     return ramBytesUsed;
   }
@@ -244,7 +292,7 @@ public abstract class CodecReader extends LeafReader implements Accountable {
   @Override
   public Collection<Accountable> getChildResources() {
     ensureOpen();
-    final List<Accountable> resources = new ArrayList<>(6);
+    final List<Accountable> resources = new ArrayList<>(7);
     
     // terms/postings
     resources.add(Accountables.namedAccountable("postings", getPostingsReader()));
@@ -273,6 +321,11 @@ public abstract class CodecReader extends LeafReader implements Accountable {
     if (getPointsReader() != null) {
       resources.add(Accountables.namedAccountable("points", getPointsReader()));
     }
+
+    // vectors
+    if (getVectorReader() != null) {
+      resources.add(Accountables.namedAccountable("vectors", getVectorReader()));
+    }
     
     return Collections.unmodifiableList(resources);
   }
@@ -308,5 +361,10 @@ public abstract class CodecReader extends LeafReader implements Accountable {
     if (getPointsReader() != null) {
       getPointsReader().checkIntegrity();
     }
+
+    // vectors
+    if (getVectorReader() != null) {
+      getVectorReader().checkIntegrity();
+    }
   }
 }
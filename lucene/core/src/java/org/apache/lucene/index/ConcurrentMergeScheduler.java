@@ -22,6 +22,7 @@ import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.Executor;
 
 import org.apache.lucene.index.MergePolicy.OneMerge;
 import org.apache.lucene.store.AlreadyClosedException;
@@ -122,6 +123,8 @@ public class ConcurrentMergeScheduler extends MergeScheduler {
 
   private double forceMergeMBPerSec = Double.POSITIVE_INFINITY;
 
+  private Executor intraMergeExecutor;
+
   /** Sole constructor, with all settings set to default
    *  values. */
   public ConcurrentMergeScheduler() {
@@ -203,6 +206,32 @@ public class ConcurrentMergeScheduler extends MergeScheduler {
     return forceMergeMBPerSec;
   }
 
+  /**
+   * Set the {@link Executor} to use in order to run the independent parts of
+   * each merge concurrently, or {@code null} (the default) to run them
+   * sequentially in the merge thread. The executor is not owned by this merge
+   * scheduler: it is not shut down by {@link #close()}.
+   *
+   * @see MergeScheduler#getIntraMergeExecutor(OneMerge)
+   * @lucene.experimental
+   */
+  public synchronized void setIntraMergeExecutor(Executor executor) {
+    this.intraMergeExecutor = executor;
+  }
+
+  /** Get the {@link Executor} that is used to run the independent parts of
+   *  each merge concurrently, or {@code null} if merges run sequentially.
+   *
+   * @see #setIntraMergeExecutor(Executor) */
+  public synchronized Executor getIntraMergeExecutor() {
+    return intraMergeExecutor;
+  }
+
+  @Override
+  public synchronized Executor getIntraMergeExecutor(OneMerge merge) {
+    return intraMergeExecutor;
+  }
+
   /** Turn on dynamic IO throttling, to adaptively rate limit writes
    *  bytes/sec to the minimal rate necessary so merges do not fall behind.
    *  By default this is enabled. */
@@ -281,10 +310,9 @@ public class ConcurrentMergeScheduler extends MergeScheduler {
         // somewhere that is failing to pass down the right IOContext:
         assert context.context == IOContext.Context.MERGE: "got context=" + context.context;
         
-        // Because rateLimiter is bound to a particular merge thread, this method should
-        // always be called from that context. Verify this.
-        assert mergeThread == Thread.currentThread() : "Not the same merge thread, current="
-          + Thread.currentThread() + ", expected=" + mergeThread;
+        // NOTE: rateLimiter is bound to the merge of mergeThread, but this method may be
+        // called from another thread if the merge runs on an intra-merge executor, in
+        // which case all threads that write files for this merge share its rate limit.
 
         return new RateLimitedIndexOutput(rateLimiter, in.createOutput(name, context));
       }
@@ -22,7 +22,9 @@ import java.io.IOException;
 import java.nio.file.NoSuchFileException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.lucene.search.SearcherManager; // javadocs
 import org.apache.lucene.store.Directory;
@@ -60,7 +62,21 @@ public abstract class DirectoryReader extends BaseCompositeReader<LeafReader> {
    * @throws IOException if there is a low-level IO error
    */
   public static DirectoryReader open(final Directory directory) throws IOException {
-    return StandardDirectoryReader.open(directory, null);
+    return StandardDirectoryReader.open(directory, null, Collections.emptyMap());
+  }
+
+  /** Expert: returns an IndexReader reading the index in the given
+   *  Directory, with the given reader attributes. Codecs may use these
+   *  attributes to configure how they read segments, for instance
+   *  {@link org.apache.lucene.codecs.blocktree.BlockTreeTermsReader#TERM_STATE_CACHE_SIZE_KEY}.
+   *  Readers reopened from the returned reader use the same attributes.
+   * @param directory the index directory
+   * @param readerAttributes the reader attributes
+   * @throws IOException if there is a low-level IO error
+   * @lucene.experimental
+   */
+  public static DirectoryReader open(final Directory directory, final Map<String,String> readerAttributes) throws IOException {
+    return StandardDirectoryReader.open(directory, null, Collections.unmodifiableMap(new HashMap<>(readerAttributes)));
   }
   
   /**
@@ -109,7 +125,7 @@ public abstract class DirectoryReader extends BaseCompositeReader<LeafReader> {
    * @throws IOException if there is a low-level IO error
    */
   public static DirectoryReader open(final IndexCommit commit) throws IOException {
-   return StandardDirectoryReader.open(commit.getDirectory(), commit);
+   return StandardDirectoryReader.open(commit.getDirectory(), commit, Collections.emptyMap());
   }
 
   /**
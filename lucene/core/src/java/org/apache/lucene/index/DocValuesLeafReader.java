@@ -47,6 +47,11 @@ abstract class DocValuesLeafReader extends LeafReader {
     throw new UnsupportedOperationException();
   }
 
+  @Override
+  public final VectorValues getVectorValues(String field) throws IOException {
+    throw new UnsupportedOperationException();
+  }
+
   @Override
   public final void checkIntegrity() throws IOException {
     throw new UnsupportedOperationException();
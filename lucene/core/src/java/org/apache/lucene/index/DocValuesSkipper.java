@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.index;
+
+import java.io.IOException;
+
+import org.apache.lucene.search.DocIdSetIterator;
+
+/**
+ * Skip index over {@link NumericDocValues} or {@link SortedNumericDocValues}.
+ * It splits the doc ID space into blocks of consecutive doc IDs and records
+ * the minimum and maximum value of each block, so that queries may skip
+ * blocks whose values cannot match without decoding them.
+ * <p>
+ * Blocks may contain documents that have no value, and values of deleted
+ * documents are included in the bounds.
+ *
+ * @lucene.experimental
+ */
+public abstract class DocValuesSkipper {
+
+  /** Sole constructor. (For invocation by subclass
+   *  constructors, typically implicit.) */
+  protected DocValuesSkipper() {}
+
+  /**
+   * Move to the block that contains {@code target}, or to the next block
+   * that contains at least one value if the block of {@code target} has no
+   * values. If there is no such block, {@link #minDocID()} and
+   * {@link #maxDocID()} return {@link DocIdSetIterator#NO_MORE_DOCS}.
+   * {@code target} must be greater than the {@link #maxDocID()} of the
+   * current block.
+   */
+  public abstract void advance(int target) throws IOException;
+
+  /** Return the first doc ID of the current block, or {@code -1} if
+   *  {@link #advance} has not been called yet. */
+  public abstract int minDocID();
+
+  /** Return the last doc ID (inclusive) of the current block, or {@code -1}
+   *  if {@link #advance} has not been called yet. */
+  public abstract int maxDocID();
+
+  /** Return a lower bound of the values of the current block. */
+  public abstract long minValue();
+
+  /** Return an upper bound of the values of the current block. */
+  public abstract long maxValue();
+
+}
@@ -54,17 +54,34 @@ public final class FieldInfo {
   private int pointIndexDimensionCount;
   private int pointNumBytes;
 
+  /** If positive, this field indexed vectors (see {@link org.apache.lucene.codecs.VectorFormat}). */
+  private int vectorDimension;
+  private VectorValues.SearchStrategy vectorSearchStrategy = VectorValues.SearchStrategy.NONE;
+
   // whether this field is used as the soft-deletes field
   private final boolean softDeletesField;
 
   /**
-   * Sole constructor.
+   * Creates a field that does not index vectors.
    *
    * @lucene.experimental
    */
   public FieldInfo(String name, int number, boolean storeTermVector, boolean omitNorms, boolean storePayloads,
                    IndexOptions indexOptions, DocValuesType docValues, long dvGen, Map<String,String> attributes,
                    int pointDimensionCount, int pointIndexDimensionCount, int pointNumBytes, boolean softDeletesField) {
+    this(name, number, storeTermVector, omitNorms, storePayloads, indexOptions, docValues, dvGen, attributes,
+        pointDimensionCount, pointIndexDimensionCount, pointNumBytes, 0, VectorValues.SearchStrategy.NONE, softDeletesField);
+  }
+
+  /**
+   * Sole full constructor.
+   *
+   * @lucene.experimental
+   */
+  public FieldInfo(String name, int number, boolean storeTermVector, boolean omitNorms, boolean storePayloads,
+                   IndexOptions indexOptions, DocValuesType docValues, long dvGen, Map<String,String> attributes,
+                   int pointDimensionCount, int pointIndexDimensionCount, int pointNumBytes,
+                   int vectorDimension, VectorValues.SearchStrategy vectorSearchStrategy, boolean softDeletesField) {
     this.name = Objects.requireNonNull(name);
     this.number = number;
     this.docValuesType = Objects.requireNonNull(docValues, "DocValuesType must not be null (field: \"" + name + "\")");
@@ -83,6 +100,8 @@ public final class FieldInfo {
     this.pointDimensionCount = pointDimensionCount;
     this.pointIndexDimensionCount = pointIndexDimensionCount;
     this.pointNumBytes = pointNumBytes;
+    this.vectorDimension = vectorDimension;
+    this.vectorSearchStrategy = Objects.requireNonNull(vectorSearchStrategy, "SearchStrategy must not be null (field: \"" + name + "\")");
     this.softDeletesField = softDeletesField;
     this.checkConsistency();
   }
@@ -133,6 +152,18 @@ public final class FieldInfo {
       throw new IllegalStateException("pointDimensionCount must be > 0 when pointNumBytes=" + pointNumBytes);
     }
     
+    if (vectorDimension < 0) {
+      throw new IllegalStateException("vectorDimension must be >= 0; got " + vectorDimension);
+    }
+
+    if (vectorDimension == 0 && vectorSearchStrategy != VectorValues.SearchStrategy.NONE) {
+      throw new IllegalStateException("vector search strategy must be NONE when dimension = 0; got " + vectorSearchStrategy);
+    }
+
+    if (vectorDimension != 0 && vectorSearchStrategy == VectorValues.SearchStrategy.NONE) {
+      throw new IllegalStateException("vector search strategy must not be NONE when vectorDimension=" + vectorDimension);
+    }
+
     if (dvGen != -1 && docValuesType == DocValuesType.NONE) {
       throw new IllegalStateException("field '" + name + "' cannot have a docvalues update generation without having docvalues");
     }
@@ -232,6 +263,48 @@ public final class FieldInfo {
     return pointNumBytes;
   }
 
+  /** Record that this field is indexed with vectors, with the specified number of dimensions and search strategy */
+  public void setVectorDimensionAndSearchStrategy(int dimension, VectorValues.SearchStrategy searchStrategy) {
+    if (dimension <= 0) {
+      throw new IllegalArgumentException("vector dimension must be > 0; got " + dimension + " for field=\"" + name + "\"");
+    }
+    if (dimension > VectorValues.MAX_DIMENSIONS) {
+      throw new IllegalArgumentException("vector dimension must be <= VectorValues.MAX_DIMENSIONS (= " + VectorValues.MAX_DIMENSIONS + "); got " + dimension + " for field=\"" + name + "\"");
+    }
+    if (searchStrategy == null || searchStrategy == VectorValues.SearchStrategy.NONE) {
+      throw new IllegalArgumentException("vector search strategy must be set; got " + searchStrategy + " for field=\"" + name + "\"");
+    }
+    if (vectorDimension != 0 && vectorDimension != dimension) {
+      throw new IllegalArgumentException("cannot change vector dimension from " + vectorDimension + " to " + dimension + " for field=\"" + name + "\"");
+    }
+    if (vectorSearchStrategy != VectorValues.SearchStrategy.NONE && vectorSearchStrategy != searchStrategy) {
+      throw new IllegalArgumentException("cannot change vector search strategy from " + vectorSearchStrategy + " to " + searchStrategy + " for field=\"" + name + "\"");
+    }
+
+    vectorDimension = dimension;
+    vectorSearchStrategy = searchStrategy;
+
+    this.checkConsistency();
+  }
+
+  /** Returns the number of dimensions of the vector value, or 0 if the field does not index vectors */
+  public int getVectorDimension() {
+    return vectorDimension;
+  }
+
+  /** Returns {@link VectorValues.SearchStrategy} for the field */
+  public VectorValues.SearchStrategy getVectorSearchStrategy() {
+    return vectorSearchStrategy;
+  }
+
+  /**
+   * Returns true if this field indexes vector values (not to be confused with
+   * {@link #hasVectors()}, which refers to term vectors).
+   */
+  public boolean hasVectorValues() {
+    return vectorDimension > 0;
+  }
+
   /** Record that this field is indexed with docvalues, with the specified type */
   public void setDocValuesType(DocValuesType type) {
     if (type == null) {
@@ -341,7 +414,9 @@ public final class FieldInfo {
    * Get a codec attribute value, or null if it does not exist
    */
   public String getAttribute(String key) {
-    return attributes.get(key);
+    synchronized (attributes) {
+      return attributes.get(key);
+    }
   }
   
   /**
@@ -356,7 +431,11 @@ public final class FieldInfo {
    * the documents, the behaviour after merge is undefined.
    */
   public String putAttribute(String key, String value) {
-    return attributes.put(key, value);
+    // per-field formats may write attributes from different threads when a
+    // segment is flushed or merged concurrently
+    synchronized (attributes) {
+      return attributes.put(key, value);
+    }
   }
   
   /**
@@ -48,6 +48,7 @@ public class FieldInfos implements Iterable<FieldInfo> {
   private final boolean hasNorms;
   private final boolean hasDocValues;
   private final boolean hasPointValues;
+  private final boolean hasVectorValues;
   private final String softDeletesField;
   
   // used only by fieldInfo(int)
@@ -68,6 +69,7 @@ public class FieldInfos implements Iterable<FieldInfo> {
     boolean hasNorms = false;
     boolean hasDocValues = false;
     boolean hasPointValues = false;
+    boolean hasVectorValues = false;
     String softDeletesField = null;
 
     int size = 0; // number of elements in byNumberTemp, number of used array slots
@@ -99,6 +101,7 @@ public class FieldInfos implements Iterable<FieldInfo> {
       hasDocValues |= info.getDocValuesType() != DocValuesType.NONE;
       hasPayloads |= info.hasPayloads();
       hasPointValues |= (info.getPointDimensionCount() != 0);
+      hasVectorValues |= (info.getVectorDimension() != 0);
       if (info.isSoftDeletesField()) {
         if (softDeletesField != null && softDeletesField.equals(info.name) == false) {
           throw new IllegalArgumentException("multiple soft-deletes fields [" + info.name + ", " + softDeletesField + "]");
@@ -115,6 +118,7 @@ public class FieldInfos implements Iterable<FieldInfo> {
     this.hasNorms = hasNorms;
     this.hasDocValues = hasDocValues;
     this.hasPointValues = hasPointValues;
+    this.hasVectorValues = hasVectorValues;
     this.softDeletesField = softDeletesField;
 
     List<FieldInfo> valuesTemp = new ArrayList<>();
@@ -204,6 +208,11 @@ public class FieldInfos implements Iterable<FieldInfo> {
     return hasPointValues;
   }
 
+  /** Returns true if any fields have VectorValues */
+  public boolean hasVectorValues() {
+    return hasVectorValues;
+  }
+
   /** Returns the soft-deletes field name if exists; otherwise returns null */
   public String getSoftDeletesField() {
     return softDeletesField;
@@ -262,6 +271,16 @@ public class FieldInfos implements Iterable<FieldInfo> {
     }
   }
   
+  static final class FieldVectorProperties {
+    public final int numDimensions;
+    public final VectorValues.SearchStrategy searchStrategy;
+
+    FieldVectorProperties(int numDimensions, VectorValues.SearchStrategy searchStrategy) {
+      this.numDimensions = numDimensions;
+      this.searchStrategy = searchStrategy;
+    }
+  }
+
   static final class FieldNumbers {
     
     private final Map<Integer,String> numberToName;
@@ -274,6 +293,8 @@ public class FieldInfos implements Iterable<FieldInfo> {
 
     private final Map<String,FieldDimensions> dimensions;
 
+    private final Map<String,FieldVectorProperties> vectorProps;
+
     // TODO: we should similarly catch an attempt to turn
     // norms back on after they were already committed; today
     // we silently discard the norm but this is badly trappy
@@ -288,6 +309,7 @@ public class FieldInfos implements Iterable<FieldInfo> {
       this.indexOptions = new HashMap<>();
       this.docValuesType = new HashMap<>();
       this.dimensions = new HashMap<>();
+      this.vectorProps = new HashMap<>();
       this.softDeletesFieldName = softDeletesFieldName;
     }
     
@@ -428,6 +450,7 @@ public class FieldInfos implements Iterable<FieldInfo> {
       indexOptions.clear();
       docValuesType.clear();
       dimensions.clear();
+      vectorProps.clear();
     }
 
     synchronized void setIndexOptions(int number, String name, IndexOptions indexOptions) {
@@ -456,6 +479,29 @@ public class FieldInfos implements Iterable<FieldInfo> {
       verifyConsistentDimensions(number, name, dimensionCount, indexDimensionCount, dimensionNumBytes);
       dimensions.put(name, new FieldDimensions(dimensionCount, indexDimensionCount, dimensionNumBytes));
     }
+
+    synchronized void setVectorDimensionsAndSearchStrategy(int number, String name, int numDimensions, VectorValues.SearchStrategy searchStrategy) {
+      if (numDimensions <= 0) {
+        throw new IllegalArgumentException("vector numDimensions must be > 0; got " + numDimensions + " for field=\"" + name + "\"");
+      }
+      if (numDimensions > VectorValues.MAX_DIMENSIONS) {
+        throw new IllegalArgumentException("vector numDimensions must be <= VectorValues.MAX_DIMENSIONS (= " + VectorValues.MAX_DIMENSIONS + "); got " + numDimensions + " for field=\"" + name + "\"");
+      }
+      if (name.equals(numberToName.get(number)) == false) {
+        throw new IllegalArgumentException("field number " + number + " is already mapped to field name \"" + numberToName.get(number) + "\", not \"" + name + "\"");
+      }
+      FieldVectorProperties props = vectorProps.get(name);
+      if (props == null) {
+        vectorProps.put(name, new FieldVectorProperties(numDimensions, searchStrategy));
+      } else {
+        if (props.numDimensions != numDimensions) {
+          throw new IllegalArgumentException("cannot change vector dimension from " + props.numDimensions + " to " + numDimensions + " for field=\"" + name + "\"");
+        }
+        if (props.searchStrategy != searchStrategy) {
+          throw new IllegalArgumentException("cannot change vector search strategy from " + props.searchStrategy + " to " + searchStrategy + " for field=\"" + name + "\"");
+        }
+      }
+    }
   }
   
   static final class Builder {
@@ -553,12 +599,19 @@ public class FieldInfos implements Iterable<FieldInfo> {
 
     public FieldInfo add(FieldInfo fi, long dvGen) {
       // IMPORTANT - reuse the field number if possible for consistent field numbers across segments
-      return addOrUpdateInternal(fi.name, fi.number, fi.hasVectors(),
+      FieldInfo added = addOrUpdateInternal(fi.name, fi.number, fi.hasVectors(),
                                  fi.omitsNorms(), fi.hasPayloads(),
                                  fi.getIndexOptions(), fi.getDocValuesType(), dvGen,
                                  fi.attributes(),
                                  fi.getPointDimensionCount(), fi.getPointIndexDimensionCount(), fi.getPointNumBytes(),
                                  fi.isSoftDeletesField());
+      if (fi.hasVectorValues()) {
+        // This will throw IllegalArgumentException if the vector dimension or search strategy
+        // conflicts with what was previously recorded for this field.
+        globalFieldNumbers.setVectorDimensionsAndSearchStrategy(added.number, added.name, fi.getVectorDimension(), fi.getVectorSearchStrategy());
+        added.setVectorDimensionAndSearchStrategy(fi.getVectorDimension(), fi.getVectorSearchStrategy());
+      }
+      return added;
     }
     
     public FieldInfo fieldInfo(String fieldName) {
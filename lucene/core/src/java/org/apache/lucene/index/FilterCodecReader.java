@@ -25,6 +25,7 @@ import org.apache.lucene.codecs.DocValuesProducer;
 import org.apache.lucene.codecs.FieldsProducer;
 import org.apache.lucene.codecs.NormsProducer;
 import org.apache.lucene.codecs.PointsReader;
+import org.apache.lucene.codecs.VectorReader;
 import org.apache.lucene.codecs.StoredFieldsReader;
 import org.apache.lucene.codecs.TermVectorsReader;
 import org.apache.lucene.util.Accountable;
@@ -101,6 +102,11 @@ public abstract class FilterCodecReader extends CodecReader {
     return in.getPointsReader();
   }
 
+  @Override
+  public VectorReader getVectorReader() {
+    return in.getVectorReader();
+  }
+
   @Override
   public int numDocs() {
     return in.numDocs();
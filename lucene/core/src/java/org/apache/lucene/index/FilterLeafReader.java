@@ -330,6 +330,11 @@ public abstract class FilterLeafReader extends LeafReader {
     return in.getPointValues(field);
   }
 
+  @Override
+  public VectorValues getVectorValues(String field) throws IOException {
+    return in.getVectorValues(field);
+  }
+
   @Override
   public Fields getTermVectors(int docID)
           throws IOException {
@@ -355,6 +360,12 @@ public abstract class FilterLeafReader extends LeafReader {
     in.document(docID, visitor);
   }
 
+  @Override
+  public void prefetchDocuments(int[] docIDs) throws IOException {
+    ensureOpen();
+    in.prefetchDocuments(docIDs);
+  }
+
   @Override
   protected void doClose() throws IOException {
     in.close();
@@ -404,6 +415,12 @@ public abstract class FilterLeafReader extends LeafReader {
     return in.getSortedSetDocValues(field);
   }
 
+  @Override
+  public DocValuesSkipper getDocValuesSkipper(String field) throws IOException {
+    ensureOpen();
+    return in.getDocValuesSkipper(field);
+  }
+
   @Override
   public NumericDocValues getNormValues(String field) throws IOException {
     ensureOpen();
@@ -360,19 +360,20 @@ class FreqProxFields extends Fields {
         docID = 0;
       }
       if (reader.eof()) {
-        if (ended) {
-          return NO_MORE_DOCS;
+        if (ended || !readTermFreq) {
+          // without freqs, the last doc is in the stream too
+          return docID = NO_MORE_DOCS;
         } else {
           ended = true;
           docID = postingsArray.lastDocIDs[termID];
-          if (readTermFreq) {
-            freq = postingsArray.termFreqs[termID];
-          }
+          freq = postingsArray.termFreqs[termID];
         }
       } else {
         int code = reader.readVInt();
         if (!readTermFreq) {
           docID += code;
+          assert docID <= postingsArray.lastDocIDs[termID];
+          return docID;
         } else {
           docID += code >>> 1;
           if ((code & 1) != 0) {
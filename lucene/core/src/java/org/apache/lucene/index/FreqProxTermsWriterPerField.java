@@ -107,7 +107,10 @@ final class FreqProxTermsWriterPerField extends TermsHashPerField {
     postings.lastDocIDs[termID] = docID;
     if (!hasFreq) {
       assert postings.termFreqs == null;
-      postings.lastDocCodes[termID] = docID;
+      assert postings.lastDocCodes == null;
+      // There is no freq to wait for, so write the doc delta right away
+      // instead of keeping it in the postings array
+      writeVInt(0, docID);
       fieldState.maxTermFrequency = Math.max(1, fieldState.maxTermFrequency);
     } else {
       postings.lastDocCodes[termID] = docID << 1;
@@ -138,8 +141,7 @@ final class FreqProxTermsWriterPerField extends TermsHashPerField {
       if (docID != postings.lastDocIDs[termID]) {
         // New document; now encode docCode for previous doc:
         assert docID > postings.lastDocIDs[termID];
-        writeVInt(0, postings.lastDocCodes[termID]);
-        postings.lastDocCodes[termID] = docID - postings.lastDocIDs[termID];
+        writeVInt(0, docID - postings.lastDocIDs[termID]);
         postings.lastDocIDs[termID] = docID;
         fieldState.uniqueTermCount++;
       }
@@ -215,7 +217,10 @@ final class FreqProxTermsWriterPerField extends TermsHashPerField {
         termFreqs = new int[size];
       }
       lastDocIDs = new int[size];
-      lastDocCodes = new int[size];
+      if (writeFreqs) {
+        // without freqs, doc deltas are written eagerly
+        lastDocCodes = new int[size];
+      }
       if (writeProx) {
         lastPositions = new int[size];
         if (writeOffsets) {
@@ -229,7 +234,7 @@ final class FreqProxTermsWriterPerField extends TermsHashPerField {
 
     int termFreqs[];                                   // # times this term occurs in the current doc
     int lastDocIDs[];                                  // Last docID where this term occurred
-    int lastDocCodes[];                                // Code for prior doc
+    int lastDocCodes[];                                // Code for prior doc, only with freqs
     int lastPositions[];                               // Last position where this term occurred
     int lastOffsets[];                                 // Last endOffset where this term occurred
 
@@ -246,7 +251,10 @@ final class FreqProxTermsWriterPerField extends TermsHashPerField {
       super.copyTo(toArray, numToCopy);
 
       System.arraycopy(lastDocIDs, 0, to.lastDocIDs, 0, numToCopy);
-      System.arraycopy(lastDocCodes, 0, to.lastDocCodes, 0, numToCopy);
+      if (lastDocCodes != null) {
+        assert to.lastDocCodes != null;
+        System.arraycopy(lastDocCodes, 0, to.lastDocCodes, 0, numToCopy);
+      }
       if (lastPositions != null) {
         assert to.lastPositions != null;
         System.arraycopy(lastPositions, 0, to.lastPositions, 0, numToCopy);
@@ -263,7 +271,10 @@ final class FreqProxTermsWriterPerField extends TermsHashPerField {
 
     @Override
     int bytesPerPosting() {
-      int bytes = ParallelPostingsArray.BYTES_PER_POSTING + 2 * Integer.BYTES;
+      int bytes = ParallelPostingsArray.BYTES_PER_POSTING + Integer.BYTES;
+      if (lastDocCodes != null) {
+        bytes += Integer.BYTES;
+      }
       if (lastPositions != null) {
         bytes += Integer.BYTES;
       }
@@ -324,6 +324,18 @@ public abstract class IndexReader implements Closeable {
    *  #document(int)}.  If you want to load a subset, use
    *  {@link DocumentStoredFieldVisitor}.  */
   public abstract void document(int docID, StoredFieldVisitor visitor) throws IOException;
+
+  /** Expert: gives a hint that the stored fields of the
+   *  given documents, e.g. a page of hits, are about to be
+   *  loaded, so that the storage may fetch them in parallel.
+   *  Call it once for all documents, before loading any of
+   *  them. {@code docIDs} may be in any order and is not
+   *  modified.
+   *  <p>The default implementation does nothing.
+   *  @see org.apache.lucene.codecs.StoredFieldsReader#prefetch(int[]) */
+  public void prefetchDocuments(int[] docIDs) throws IOException {
+    ensureOpen();
+  }
   
   /**
    * Returns the stored fields of the <code>n</code><sup>th</sup>
@@ -19,6 +19,11 @@ package org.apache.lucene.index;
 
 import java.io.PrintStream;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 import org.apache.lucene.analysis.Analyzer;
@@ -478,6 +483,48 @@ public final class IndexWriterConfig extends LiveIndexWriterConfig {
     return this;
   }
 
+  /**
+   * Expert: sets the {@link Executor} to use in order to write the independent
+   * parts of each flushed segment concurrently, such as postings, doc values,
+   * points and stored fields, or {@code null} (the default) to write them
+   * sequentially in the flushing thread. The flushing thread writes norms and
+   * postings itself and waits for the other parts to be written, so this mostly
+   * helps when segments are large, e.g. with a large RAM buffer. Tasks that the
+   * executor rejects run in the flushing thread.
+   * <p>
+   * The executor is not owned by the writer: it is not shut down when the
+   * writer is closed.
+   *
+   * @lucene.experimental
+   */
+  public IndexWriterConfig setFlushExecutor(Executor flushExecutor) {
+    this.flushExecutor = flushExecutor;
+    return this;
+  }
+
+  @Override
+  public Executor getFlushExecutor() {
+    return flushExecutor;
+  }
+
+  /**
+   * Expert: sets the attributes of the segment readers that the writer opens,
+   * including those of near real-time readers. Codecs may use these attributes
+   * to configure how they read segments. The default is an empty map.
+   *
+   * @see DirectoryReader#open(org.apache.lucene.store.Directory, Map)
+   * @lucene.experimental
+   */
+  public IndexWriterConfig setReaderAttributes(Map<String,String> readerAttributes) {
+    this.readerAttributes = Collections.unmodifiableMap(new HashMap<>(Objects.requireNonNull(readerAttributes)));
+    return this;
+  }
+
+  @Override
+  public Map<String,String> getReaderAttributes() {
+    return readerAttributes;
+  }
+
   /**
    * Set the {@link Sort} order to use for all (flushed and merged) segments.
    */
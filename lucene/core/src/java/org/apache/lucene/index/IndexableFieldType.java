@@ -114,6 +114,16 @@ public interface IndexableFieldType {
    */
   public int pointNumBytes();
 
+  /**
+   * The number of dimensions of the field's vector value
+   */
+  public int vectorDimension();
+
+  /**
+   * The {@link org.apache.lucene.index.VectorValues.SearchStrategy} of the field's vector value
+   */
+  public VectorValues.SearchStrategy vectorSearchStrategy();
+
   /**
    * Attributes for the field type.
    *
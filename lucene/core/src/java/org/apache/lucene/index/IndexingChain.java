@@ -26,6 +26,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Consumer;
 
 import org.apache.lucene.analysis.Analyzer;
@@ -37,7 +41,10 @@ import org.apache.lucene.codecs.NormsFormat;
 import org.apache.lucene.codecs.NormsProducer;
 import org.apache.lucene.codecs.PointsFormat;
 import org.apache.lucene.codecs.PointsWriter;
+import org.apache.lucene.codecs.VectorFormat;
+import org.apache.lucene.codecs.VectorWriter;
 import org.apache.lucene.document.FieldType;
+import org.apache.lucene.document.VectorField;
 import org.apache.lucene.search.DocIdSetIterator;
 import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.SortField;
@@ -54,6 +61,7 @@ import org.apache.lucene.util.IOUtils;
 import org.apache.lucene.util.InfoStream;
 import org.apache.lucene.util.IntBlockPool;
 import org.apache.lucene.util.RamUsageEstimator;
+import org.apache.lucene.util.ThreadInterruptedException;
 
 /** Default general purpose indexing chain, which handles
  *  indexing all types of fields. */
@@ -212,34 +220,111 @@ final class IndexingChain implements Accountable {
     // aborting on any exception from this method
     Sorter.DocMap sortMap = maybeSortSegment(state);
     int maxDoc = state.segmentInfo.maxDoc();
+
+    // Postings need the flushed norms, so norms and postings are written in the
+    // same task. All other tasks write different files and are independent of
+    // each other.
+    final FlushTask normsAndPostings = () -> {
+      flushWithLogging(() -> writeNorms(state, sortMap), "write norms");
+      flushWithLogging(() -> writePostings(state, sortMap), "write postings and finish vectors");
+    };
+
+    final List<FlushTask> tasks = new ArrayList<>();
+    tasks.add(normsAndPostings);
+    tasks.add(() -> flushWithLogging(() -> writeDocValues(state, sortMap), "write docValues"));
+    tasks.add(() -> flushWithLogging(() -> writePoints(state, sortMap), "write points"));
+    tasks.add(() -> flushWithLogging(() -> writeVectors(state, sortMap), "write vectors"));
+    // it's possible all docs hit non-aborting exceptions...
+    tasks.add(() -> flushWithLogging(() -> {
+      storedFieldsConsumer.finish(maxDoc);
+      storedFieldsConsumer.flush(state, sortMap);
+    }, "finish stored fields"));
+
+    final Executor flushExecutor = indexWriterConfig.getFlushExecutor();
+    if (flushExecutor == null) {
+      for (FlushTask task : tasks) {
+        task.flush();
+      }
+    } else {
+      // postings are usually the most expensive part of the flush, write them in the current thread
+      tasks.remove(normsAndPostings);
+      runConcurrently(flushExecutor, normsAndPostings, tasks);
+    }
+
+    // Important to save after asking consumer to flush so
+    // consumer can alter the FieldInfo* if necessary.  EG,
+    // FreqProxTermsWriter does this with
+    // FieldInfo.storePayload.
+    flushWithLogging(() -> indexWriterConfig.getCodec().fieldInfosFormat().write(state.directory, state.segmentInfo, "", state.fieldInfos, IOContext.DEFAULT),
+        "write fieldInfos");
+
+    return sortMap;
+  }
+
+  @FunctionalInterface
+  private interface FlushTask {
+    void flush() throws IOException;
+  }
+
+  private void flushWithLogging(FlushTask task, String action) throws IOException {
     long t0 = System.nanoTime();
-    writeNorms(state, sortMap);
+    task.flush();
     if (infoStream.isEnabled("IW")) {
-      infoStream.message("IW", ((System.nanoTime()-t0)/1000000) + " msec to write norms");
+      infoStream.message("IW", ((System.nanoTime()-t0)/1000000) + " msec to " + action);
     }
-    SegmentReadState readState = new SegmentReadState(state.directory, state.segmentInfo, state.fieldInfos, IOContext.READ, state.segmentSuffix);
-    
-    t0 = System.nanoTime();
-    writeDocValues(state, sortMap);
-    if (infoStream.isEnabled("IW")) {
-      infoStream.message("IW", ((System.nanoTime()-t0)/1000000) + " msec to write docValues");
+  }
+
+  /**
+   * Run {@code tasks} on {@code executor} and {@code callerTask} in the current
+   * thread, then wait for all tasks to complete, even if some of them failed, so
+   * that no files are still being written when this method returns and the
+   * segment can safely be aborted.
+   */
+  private static void runConcurrently(Executor executor, FlushTask callerTask, List<FlushTask> tasks) throws IOException {
+    final List<FutureTask<Void>> futures = new ArrayList<>(tasks.size());
+    for (FlushTask task : tasks) {
+      FutureTask<Void> future = new FutureTask<>(() -> {
+        task.flush();
+        return null;
+      });
+      futures.add(future);
+      try {
+        executor.execute(future);
+      } catch (RejectedExecutionException e) {
+        // the executor is saturated or shut down, flush in the current thread
+        future.run();
+      }
     }
 
-    t0 = System.nanoTime();
-    writePoints(state, sortMap);
-    if (infoStream.isEnabled("IW")) {
-      infoStream.message("IW", ((System.nanoTime()-t0)/1000000) + " msec to write points");
+    Throwable th = null;
+    try {
+      callerTask.flush();
+    } catch (Throwable t) {
+      th = t;
     }
-    
-    // it's possible all docs hit non-aborting exceptions...
-    t0 = System.nanoTime();
-    storedFieldsConsumer.finish(maxDoc);
-    storedFieldsConsumer.flush(state, sortMap);
-    if (infoStream.isEnabled("IW")) {
-      infoStream.message("IW", ((System.nanoTime()-t0)/1000000) + " msec to finish stored fields");
+
+    for (FutureTask<Void> future : futures) {
+      while (true) {
+        try {
+          future.get();
+          break;
+        } catch (ExecutionException e) {
+          th = IOUtils.useOrSuppress(th, e.getCause());
+          break;
+        } catch (InterruptedException e) {
+          // keep waiting, the task might still be writing files
+          th = IOUtils.useOrSuppress(th, new ThreadInterruptedException(e));
+        }
+      }
+    }
+
+    if (th != null) {
+      throw IOUtils.rethrowAlways(th);
     }
+  }
 
-    t0 = System.nanoTime();
+  /** Writes all buffered postings and term vectors. */
+  private void writePostings(SegmentWriteState state, Sorter.DocMap sortMap) throws IOException {
     Map<String,TermsHashPerField> fieldsToFlush = new HashMap<>();
     for (int i=0;i<fieldHash.length;i++) {
       PerField perField = fieldHash[i];
@@ -251,6 +336,7 @@ final class IndexingChain implements Accountable {
       }
     }
 
+    SegmentReadState readState = new SegmentReadState(state.directory, state.segmentInfo, state.fieldInfos, IOContext.READ, state.segmentSuffix);
     try (NormsProducer norms = readState.fieldInfos.hasNorms()
         ? state.segmentInfo.getCodec().normsFormat().normsProducer(readState)
         : null) {
@@ -261,21 +347,6 @@ final class IndexingChain implements Accountable {
       }
       termsHash.flush(fieldsToFlush, state, sortMap, normsMergeInstance);
     }
-    if (infoStream.isEnabled("IW")) {
-      infoStream.message("IW", ((System.nanoTime()-t0)/1000000) + " msec to write postings and finish vectors");
-    }
-
-    // Important to save after asking consumer to flush so
-    // consumer can alter the FieldInfo* if necessary.  EG,
-    // FreqProxTermsWriter does this with
-    // FieldInfo.storePayload.
-    t0 = System.nanoTime();
-    indexWriterConfig.getCodec().fieldInfosFormat().write(state.directory, state.segmentInfo, "", state.fieldInfos, IOContext.DEFAULT);
-    if (infoStream.isEnabled("IW")) {
-      infoStream.message("IW", ((System.nanoTime()-t0)/1000000) + " msec to write fieldInfos");
-    }
-
-    return sortMap;
   }
 
   /** Writes all buffered points. */
@@ -322,6 +393,50 @@ final class IndexingChain implements Accountable {
     }
   }
 
+  /** Writes all buffered vectors. */
+  private void writeVectors(SegmentWriteState state, Sorter.DocMap sortMap) throws IOException {
+    VectorWriter vectorWriter = null;
+    boolean success = false;
+    try {
+      for (int i=0;i<fieldHash.length;i++) {
+        PerField perField = fieldHash[i];
+        while (perField != null) {
+          if (perField.vectorValuesWriter != null) {
+            if (perField.fieldInfo.getVectorDimension() == 0) {
+              // BUG
+              throw new AssertionError("segment=" + state.segmentInfo + ": field=\"" + perField.fieldInfo.name + "\" has no vectors but wrote them");
+            }
+            if (vectorWriter == null) {
+              // lazy init
+              VectorFormat fmt = state.segmentInfo.getCodec().vectorFormat();
+              if (fmt == null) {
+                throw new IllegalStateException("field=\"" + perField.fieldInfo.name + "\" was indexed as vectors but codec does not support vectors");
+              }
+              vectorWriter = fmt.fieldsWriter(state);
+            }
+
+            perField.vectorValuesWriter.flush(sortMap, vectorWriter);
+            perField.vectorValuesWriter = null;
+          } else if (perField.fieldInfo.getVectorDimension() != 0) {
+            // BUG
+            throw new AssertionError("segment=" + state.segmentInfo + ": field=\"" + perField.fieldInfo.name + "\" has vectors but did not write them");
+          }
+          perField = perField.next;
+        }
+      }
+      if (vectorWriter != null) {
+        vectorWriter.finish();
+      }
+      success = true;
+    } finally {
+      if (success) {
+        IOUtils.close(vectorWriter);
+      } else {
+        IOUtils.closeWhileHandlingException(vectorWriter);
+      }
+    }
+  }
+
   /** Writes all buffered doc values (called from {@link #flush}). */
   private void writeDocValues(SegmentWriteState state, Sorter.DocMap sortMap) throws IOException {
     DocValuesConsumer dvConsumer = null;
@@ -562,6 +677,12 @@ final class IndexingChain implements Accountable {
       }
       indexPoint(docID, fp, field);
     }
+    if (fieldType.vectorDimension() != 0) {
+      if (fp == null) {
+        fp = getOrAddField(fieldName, fieldType, false);
+      }
+      indexVector(docID, fp, field);
+    }
     
     return fieldCount;
   }
@@ -606,6 +727,27 @@ final class IndexingChain implements Accountable {
     fp.pointValuesWriter.addPackedValue(docID, field.binaryValue());
   }
 
+  /** Called from processDocument to index one field's vector value */
+  private void indexVector(int docID, PerField fp, IndexableField field) {
+    if (field instanceof VectorField == false) {
+      throw new IllegalArgumentException("field=\"" + fp.fieldInfo.name + "\": vector values must be indexed with a VectorField");
+    }
+    int dimension = field.fieldType().vectorDimension();
+    VectorValues.SearchStrategy searchStrategy = field.fieldType().vectorSearchStrategy();
+
+    // Record dimensions and search strategy for this field; this setter will throw IllegalArgExc if
+    // the dimensions or search strategy were already set to something different:
+    if (fp.fieldInfo.getVectorDimension() == 0) {
+      fieldInfos.globalFieldNumbers.setVectorDimensionsAndSearchStrategy(fp.fieldInfo.number, fp.fieldInfo.name, dimension, searchStrategy);
+    }
+    fp.fieldInfo.setVectorDimensionAndSearchStrategy(dimension, searchStrategy);
+
+    if (fp.vectorValuesWriter == null) {
+      fp.vectorValuesWriter = new VectorValuesWriter(fp.fieldInfo, bytesUsed);
+    }
+    fp.vectorValuesWriter.addValue(docID, ((VectorField) field).vectorValue());
+  }
+
   private void validateIndexSortDVType(Sort indexSort, String fieldToValidate, DocValuesType dvType) throws IOException {
     for (SortField sortField : indexSort.getSort()) {
       IndexSorter sorter = sortField.getIndexSorter();
@@ -820,6 +962,9 @@ final class IndexingChain implements Accountable {
     // Non-null if this field ever had points in this segment:
     PointValuesWriter pointValuesWriter;
 
+    // Non-null if this field ever had vector values in this segment:
+    VectorValuesWriter vectorValuesWriter;
+
     /** We use this to know when a PerField is seen for the
      *  first time in the current document. */
     long fieldGen = -1;
@@ -197,6 +197,17 @@ public abstract class LeafReader extends IndexReader {
    *  used by a single thread. */
   public abstract SortedSetDocValues getSortedSetDocValues(String field) throws IOException;
 
+  /** Returns a {@link DocValuesSkipper} for this numeric or sorted numeric
+   *  field, or null if the field has no such doc values or if no skip index
+   *  is available. The returned instance should only be used by a single
+   *  thread.
+   *  <p>
+   *  The default implementation returns {@code null}.
+   *  @lucene.experimental */
+  public DocValuesSkipper getDocValuesSkipper(String field) throws IOException {
+    return null;
+  }
+
   /** Returns {@link NumericDocValues} representing norms
    *  for this field, or null if no {@link NumericDocValues}
    *  were indexed. The returned instance should only be
@@ -231,6 +242,11 @@ public abstract class LeafReader extends IndexReader {
    *  are no point fields. */
   public abstract PointValues getPointValues(String field) throws IOException;
 
+  /** Returns {@link VectorValues} for this field, or
+   *  null if no {@link VectorValues} were indexed. The returned instance should only be
+   *  used by a single thread. */
+  public abstract VectorValues getVectorValues(String field) throws IOException;
+
   /**
    * Checks consistency of this reader.
    * <p>
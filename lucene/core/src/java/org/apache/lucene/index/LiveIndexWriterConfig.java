@@ -18,7 +18,9 @@ package org.apache.lucene.index;
 
 
 import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.codecs.Codec;
@@ -107,6 +109,12 @@ public class LiveIndexWriterConfig {
   /** Amount of time to wait for merges returned by MergePolicy.findFullFlushMerges(...) */
   protected volatile long maxFullFlushMergeWaitMillis;
 
+  /** {@link Executor} to write the independent parts of flushed segments concurrently, or {@code null}. */
+  protected volatile Executor flushExecutor;
+
+  /** Attributes of the segment readers that the writer opens. */
+  protected Map<String,String> readerAttributes = Collections.emptyMap();
+
   // used by IndexWriterConfig
   LiveIndexWriterConfig(Analyzer analyzer) {
     this.analyzer = analyzer;
@@ -460,6 +468,23 @@ public class LiveIndexWriterConfig {
     return maxFullFlushMergeWaitMillis;
   }
 
+  /**
+   * Returns the {@link Executor} that was set by
+   * {@link IndexWriterConfig#setFlushExecutor(Executor)}, or {@code null} if
+   * segments are flushed sequentially in the flushing thread.
+   */
+  public Executor getFlushExecutor() {
+    return flushExecutor;
+  }
+
+  /**
+   * Returns the attributes of the segment readers that the writer opens, as
+   * set by {@link IndexWriterConfig#setReaderAttributes(Map)}.
+   */
+  public Map<String,String> getReaderAttributes() {
+    return readerAttributes;
+  }
+
   @Override
   public String toString() {
     StringBuilder sb = new StringBuilder();
@@ -484,6 +509,8 @@ public class LiveIndexWriterConfig {
     sb.append("checkPendingFlushOnUpdate=").append(isCheckPendingFlushOnUpdate()).append("\n");
     sb.append("softDeletesField=").append(getSoftDeletesField()).append("\n");
     sb.append("maxFullFlushMergeWaitMillis=").append(getMaxFullFlushMergeWaitMillis()).append("\n");
+    sb.append("flushExecutor=").append(getFlushExecutor()).append("\n");
+    sb.append("readerAttributes=").append(getReaderAttributes()).append("\n");
     return sb.toString();
   }
 }
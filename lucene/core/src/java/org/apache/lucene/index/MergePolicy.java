@@ -103,9 +103,8 @@ public abstract class MergePolicy {
     private volatile boolean aborted;
 
     /**
-     * This field is for sanity-check purposes only. Only the same thread that invoked
-     * {@link OneMerge#mergeInit()} is permitted to be calling 
-     * {@link #pauseNanos}. This is always verified at runtime. 
+     * The thread that invoked {@link OneMerge#mergeInit()}. This field is for
+     * sanity-check purposes only.
      */
     private Thread owner;
 
@@ -149,10 +148,11 @@ public abstract class MergePolicy {
      *      condition 
      */
     public void pauseNanos(long pauseNanos, PauseReason reason, BooleanSupplier condition) throws InterruptedException {
-      if (Thread.currentThread() != owner) {
-        throw new RuntimeException("Only the merge owner thread can call pauseNanos(). This thread: "
-            + Thread.currentThread().getName() + ", owner thread: "
-            + owner);
+      // NOTE: this is not necessarily called by the owner thread, since parts of a
+      // merge may run on the executor returned by MergeScheduler#getIntraMergeExecutor
+      if (owner == null) {
+        throw new IllegalStateException("pauseNanos() may only be called on an initialized merge, this thread: "
+            + Thread.currentThread().getName());
       }
 
       long start = System.nanoTime();
@@ -19,6 +19,7 @@ package org.apache.lucene.index;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.concurrent.Executor;
 
 import org.apache.lucene.index.MergePolicy.OneMerge;
 import org.apache.lucene.store.Directory;
@@ -52,6 +53,23 @@ public abstract class MergeScheduler implements Closeable {
     return in;
   }
 
+  /**
+   * Returns the {@link Executor} that should be used to run the independent
+   * parts of the given merge concurrently, such as merging stored fields,
+   * postings, doc values and points, or {@code null} to run them sequentially
+   * in the merging thread. Files that are written by the returned executor's
+   * threads are still created through the {@link Directory} returned by
+   * {@link #wrapForMerge} and share the merge's rate limit. The merging thread
+   * waits for the tasks that it submits to complete.
+   * <p>
+   * Returns {@code null} by default.
+   *
+   * @lucene.experimental
+   */
+  public Executor getIntraMergeExecutor(OneMerge merge) {
+    return null;
+  }
+
   /** Close this MergeScheduler. */
   @Override
   public abstract void close() throws IOException;
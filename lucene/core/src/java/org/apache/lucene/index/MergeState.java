@@ -26,6 +26,7 @@ import org.apache.lucene.codecs.DocValuesProducer;
 import org.apache.lucene.codecs.FieldsProducer;
 import org.apache.lucene.codecs.NormsProducer;
 import org.apache.lucene.codecs.PointsReader;
+import org.apache.lucene.codecs.VectorReader;
 import org.apache.lucene.codecs.StoredFieldsReader;
 import org.apache.lucene.codecs.TermVectorsReader;
 import org.apache.lucene.search.Sort;
@@ -77,6 +78,9 @@ public class MergeState {
   /** Point readers to merge */
   public final PointsReader[] pointsReaders;
 
+  /** Vector readers to merge */
+  public final VectorReader[] vectorReaders;
+
   /** Max docs per reader */
   public final int[] maxDocs;
 
@@ -86,7 +90,7 @@ public class MergeState {
   /** Indicates if the index needs to be sorted **/
   public boolean needsIndexSort;
 
-  /** Sole constructor. */
+  /** Create the merge state of the given readers. */
   MergeState(List<CodecReader> originalReaders, SegmentInfo segmentInfo, InfoStream infoStream) throws IOException {
 
     this.infoStream = infoStream;
@@ -103,6 +107,7 @@ public class MergeState {
     termVectorsReaders = new TermVectorsReader[numReaders];
     docValuesProducers = new DocValuesProducer[numReaders];
     pointsReaders = new PointsReader[numReaders];
+    vectorReaders = new VectorReader[numReaders];
     fieldInfos = new FieldInfos[numReaders];
     liveDocs = new Bits[numReaders];
 
@@ -139,6 +144,11 @@ public class MergeState {
       if (pointsReaders[i] != null) {
         pointsReaders[i] = pointsReaders[i].getMergeInstance();
       }
+
+      vectorReaders[i] = reader.getVectorReader();
+      if (vectorReaders[i] != null) {
+        vectorReaders[i] = vectorReaders[i].getMergeInstance();
+      }
       numDocs += reader.numDocs();
     }
 
@@ -148,6 +158,32 @@ public class MergeState {
     this.docMaps = buildDocMaps(readers, indexSort);
   }
 
+  /**
+   * Create a copy of {@code other} that shares its producers, but whose
+   * {@link #mergeFieldInfos}, {@link #fieldInfos} and {@link #fieldsProducers}
+   * may be modified, e.g. by per-field formats, without affecting
+   * {@code other}. This allows independent parts of a segment to be merged
+   * concurrently.
+   */
+  MergeState(MergeState other) {
+    this.docMaps = other.docMaps;
+    this.leafDocMaps = other.leafDocMaps;
+    this.segmentInfo = other.segmentInfo;
+    this.mergeFieldInfos = other.mergeFieldInfos;
+    this.storedFieldsReaders = other.storedFieldsReaders;
+    this.termVectorsReaders = other.termVectorsReaders;
+    this.normsProducers = other.normsProducers;
+    this.docValuesProducers = other.docValuesProducers;
+    this.fieldInfos = other.fieldInfos.clone();
+    this.liveDocs = other.liveDocs;
+    this.fieldsProducers = other.fieldsProducers.clone();
+    this.pointsReaders = other.pointsReaders;
+    this.vectorReaders = other.vectorReaders;
+    this.maxDocs = other.maxDocs;
+    this.infoStream = other.infoStream;
+    this.needsIndexSort = other.needsIndexSort;
+  }
+
   // Remap docIDs around deletions
   private DocMap[] buildDeletionDocMaps(List<CodecReader> readers) {
 
@@ -36,4 +36,29 @@ public abstract class NumericDocValues extends DocValuesIterator {
    */
   public abstract long longValue() throws IOException;
 
+  /**
+   * Bulk retrieval of numeric values: fill {@code values[0:size)} with the
+   * values of documents {@code docs[0:size)}, or with {@code defaultValue}
+   * for documents that do not have a value. Implementations can retrieve
+   * values more efficiently than through one {@link #advanceExact} and
+   * {@link #longValue} call per document, e.g. by skipping the iterator
+   * entirely when all documents have a value. This is equivalent to:
+   * <pre class="prettyprint">
+   * for (int i = 0; i &lt; size; ++i) {
+   *   values[i] = advanceExact(docs[i]) ? longValue() : defaultValue;
+   * }
+   * </pre>
+   * {@code docs[0:size)} must be sorted in strictly increasing order, and
+   * follow the same rules as {@link #advanceExact} targets. After this method
+   * returns, {@link #docID()} returns {@code docs[size-1]} if {@code size > 0},
+   * and {@link #longValue()} may not be called until the iterator is moved
+   * again.
+   * @lucene.experimental
+   */
+  public void longValues(int size, int[] docs, long[] values, long defaultValue) throws IOException {
+    for (int i = 0; i < size; ++i) {
+      values[i] = advanceExact(docs[i]) ? longValue() : defaultValue;
+    }
+  }
+
 }
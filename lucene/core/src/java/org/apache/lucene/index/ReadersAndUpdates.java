@@ -65,6 +65,7 @@ final class ReadersAndUpdates {
 
   // the major version this index was created with
   private final int indexCreatedVersionMajor;
+  private final Map<String,String> readerAttributes;
 
   // Indicates whether this segment is currently being merged. While a segment
   // is merging, all field updates are also registered in the
@@ -88,17 +89,20 @@ final class ReadersAndUpdates {
 
   final AtomicLong ramBytesUsed = new AtomicLong();
 
-  ReadersAndUpdates(int indexCreatedVersionMajor, SegmentCommitInfo info, PendingDeletes pendingDeletes) {
+  ReadersAndUpdates(int indexCreatedVersionMajor, Map<String,String> readerAttributes, SegmentCommitInfo info,
+                    PendingDeletes pendingDeletes) {
     this.info = info;
     this.pendingDeletes = pendingDeletes;
     this.indexCreatedVersionMajor = indexCreatedVersionMajor;
+    this.readerAttributes = readerAttributes;
   }
 
   /** Init from a previously opened SegmentReader.
    *
    * <p>NOTE: steals incoming ref from reader. */
-  ReadersAndUpdates(int indexCreatedVersionMajor, SegmentReader reader, PendingDeletes pendingDeletes) throws IOException {
-    this(indexCreatedVersionMajor, reader.getOriginalSegmentInfo(), pendingDeletes);
+  ReadersAndUpdates(int indexCreatedVersionMajor, Map<String,String> readerAttributes, SegmentReader reader,
+                    PendingDeletes pendingDeletes) throws IOException {
+    this(indexCreatedVersionMajor, readerAttributes, reader.getOriginalSegmentInfo(), pendingDeletes);
     this.reader = reader;
     pendingDeletes.onNewReader(reader, info);
   }
@@ -168,7 +172,7 @@ final class ReadersAndUpdates {
   public synchronized SegmentReader getReader(IOContext context) throws IOException {
     if (reader == null) {
       // We steal returned ref:
-      reader = new SegmentReader(info, indexCreatedVersionMajor, context);
+      reader = new SegmentReader(info, indexCreatedVersionMajor, context, readerAttributes);
       pendingDeletes.onNewReader(reader, info);
     }
 
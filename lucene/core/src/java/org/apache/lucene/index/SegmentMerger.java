@@ -18,7 +18,12 @@ package org.apache.lucene.index;
 
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.apache.lucene.codecs.Codec;
 import org.apache.lucene.codecs.DocValuesConsumer;
@@ -28,9 +33,12 @@ import org.apache.lucene.codecs.NormsProducer;
 import org.apache.lucene.codecs.PointsWriter;
 import org.apache.lucene.codecs.StoredFieldsWriter;
 import org.apache.lucene.codecs.TermVectorsWriter;
+import org.apache.lucene.codecs.VectorWriter;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.IOContext;
+import org.apache.lucene.util.IOUtils;
 import org.apache.lucene.util.InfoStream;
+import org.apache.lucene.util.ThreadInterruptedException;
 import org.apache.lucene.util.Version;
 
 /**
@@ -50,9 +58,21 @@ final class SegmentMerger {
   final MergeState mergeState;
   private final FieldInfos.Builder fieldInfosBuilder;
 
+  private final Executor intraMergeExecutor;
+
   // note, just like in codec apis Directory 'dir' is NOT the same as segmentInfo.dir!!
   SegmentMerger(List<CodecReader> readers, SegmentInfo segmentInfo, InfoStream infoStream, Directory dir,
                 FieldInfos.FieldNumbers fieldNumbers, IOContext context) throws IOException {
+    this(readers, segmentInfo, infoStream, dir, fieldNumbers, context, null);
+  }
+
+  /**
+   * Create a merger that merges the independent parts of the segment
+   * concurrently using {@code intraMergeExecutor}, or sequentially if
+   * {@code intraMergeExecutor} is {@code null}.
+   */
+  SegmentMerger(List<CodecReader> readers, SegmentInfo segmentInfo, InfoStream infoStream, Directory dir,
+                FieldInfos.FieldNumbers fieldNumbers, IOContext context, Executor intraMergeExecutor) throws IOException {
     if (context.context != IOContext.Context.MERGE) {
       throw new IllegalArgumentException("IOContext.context should be MERGE; got: " + context.context);
     }
@@ -61,6 +81,7 @@ final class SegmentMerger {
     this.codec = segmentInfo.getCodec();
     this.context = context;
     this.fieldInfosBuilder = new FieldInfos.Builder(fieldNumbers);
+    this.intraMergeExecutor = intraMergeExecutor;
     Version minVersion = Version.LATEST;
     for (CodecReader reader : readers) {
       Version leafMinVersion = reader.getMetaData().getMinVersion();
@@ -98,111 +119,152 @@ final class SegmentMerger {
       throw new IllegalStateException("Merge would result in 0 document segment");
     }
     mergeFieldInfos();
-    long t0 = 0;
-    if (mergeState.infoStream.isEnabled("SM")) {
-      t0 = System.nanoTime();
-    }
-    int numMerged = mergeFields();
-    if (mergeState.infoStream.isEnabled("SM")) {
-      long t1 = System.nanoTime();
-      mergeState.infoStream.message("SM", ((t1-t0)/1000000) + " msec to merge stored fields [" + numMerged + " docs]");
-    }
-    assert numMerged == mergeState.segmentInfo.maxDoc(): "numMerged=" + numMerged + " vs mergeState.segmentInfo.maxDoc()=" + mergeState.segmentInfo.maxDoc();
 
     final SegmentWriteState segmentWriteState = new SegmentWriteState(mergeState.infoStream, directory, mergeState.segmentInfo,
                                                                       mergeState.mergeFieldInfos, null, context);
     final SegmentReadState segmentReadState = new SegmentReadState(directory, mergeState.segmentInfo, mergeState.mergeFieldInfos,
         IOContext.READ, segmentWriteState.segmentSuffix);
 
-    if (mergeState.mergeFieldInfos.hasNorms()) {
-      if (mergeState.infoStream.isEnabled("SM")) {
-        t0 = System.nanoTime();
+    // Postings need the merged norms, so norms and postings are merged in the
+    // same task. All other tasks are independent of each other.
+    final IOUtils.IOConsumer<MergeState> normsAndTerms = state -> {
+      if (state.mergeFieldInfos.hasNorms()) {
+        mergeWithLogging(() -> mergeNorms(state, segmentWriteState), "norms");
       }
-      mergeNorms(segmentWriteState);
-      if (mergeState.infoStream.isEnabled("SM")) {
-        long t1 = System.nanoTime();
-        mergeState.infoStream.message("SM", ((t1-t0)/1000000) + " msec to merge norms [" + numMerged + " docs]");
-      }
-    }
+      mergeWithLogging(() -> mergeTerms(state, segmentWriteState, segmentReadState), "postings");
+    };
 
-    if (mergeState.infoStream.isEnabled("SM")) {
-      t0 = System.nanoTime();
-    }
-    try (NormsProducer norms = mergeState.mergeFieldInfos.hasNorms()
-        ? codec.normsFormat().normsProducer(segmentReadState)
-        : null) {
-      NormsProducer normsMergeInstance = null;
-      if (norms != null) {
-        // Use the merge instance in order to reuse the same IndexInput for all terms
-        normsMergeInstance = norms.getMergeInstance();
-      }
-      mergeTerms(segmentWriteState, normsMergeInstance);
+    final List<IOUtils.IOConsumer<MergeState>> tasks = new ArrayList<>();
+    tasks.add(state -> mergeWithLogging(() -> {
+      int numMerged = mergeFields(state);
+      assert numMerged == state.segmentInfo.maxDoc(): "numMerged=" + numMerged + " vs mergeState.segmentInfo.maxDoc()=" + state.segmentInfo.maxDoc();
+    }, "stored fields"));
+    tasks.add(normsAndTerms);
+    if (mergeState.mergeFieldInfos.hasDocValues()) {
+      tasks.add(state -> mergeWithLogging(() -> mergeDocValues(state, segmentWriteState), "doc values"));
     }
-    if (mergeState.infoStream.isEnabled("SM")) {
-      long t1 = System.nanoTime();
-      mergeState.infoStream.message("SM", ((t1-t0)/1000000) + " msec to merge postings [" + numMerged + " docs]");
+    if (mergeState.mergeFieldInfos.hasPointValues()) {
+      tasks.add(state -> mergeWithLogging(() -> mergePoints(state, segmentWriteState), "points"));
     }
-
-    if (mergeState.infoStream.isEnabled("SM")) {
-      t0 = System.nanoTime();
+    if (mergeState.mergeFieldInfos.hasVectorValues()) {
+      tasks.add(state -> mergeWithLogging(() -> mergeVectorValues(state, segmentWriteState), "vector values"));
     }
-    if (mergeState.mergeFieldInfos.hasDocValues()) {
-      mergeDocValues(segmentWriteState);
+    if (mergeState.mergeFieldInfos.hasVectors()) {
+      tasks.add(state -> mergeWithLogging(() -> {
+        int numMerged = mergeVectors(state);
+        assert numMerged == state.segmentInfo.maxDoc();
+      }, "vectors"));
     }
-    if (mergeState.infoStream.isEnabled("SM")) {
-      long t1 = System.nanoTime();
-      mergeState.infoStream.message("SM", ((t1-t0)/1000000) + " msec to merge doc values [" + numMerged + " docs]");
+
+    if (intraMergeExecutor == null) {
+      for (IOUtils.IOConsumer<MergeState> task : tasks) {
+        task.accept(mergeState);
+      }
+    } else {
+      // postings are usually the most expensive part of the merge, merge them in the current thread
+      tasks.remove(normsAndTerms);
+      runConcurrently(normsAndTerms, tasks);
     }
 
+    // write the merged infos
+    mergeWithLogging(() -> codec.fieldInfosFormat().write(directory, mergeState.segmentInfo, "", mergeState.mergeFieldInfos, context),
+        "field infos", "write");
+
+    return mergeState;
+  }
+
+  @FunctionalInterface
+  private interface MergeTask {
+    void merge() throws IOException;
+  }
+
+  private void mergeWithLogging(MergeTask task, String formatName) throws IOException {
+    mergeWithLogging(task, formatName, "merge");
+  }
+
+  private void mergeWithLogging(MergeTask task, String formatName, String action) throws IOException {
+    long t0 = 0;
     if (mergeState.infoStream.isEnabled("SM")) {
       t0 = System.nanoTime();
     }
-    if (mergeState.mergeFieldInfos.hasPointValues()) {
-      mergePoints(segmentWriteState);
-    }
+    task.merge();
     if (mergeState.infoStream.isEnabled("SM")) {
       long t1 = System.nanoTime();
-      mergeState.infoStream.message("SM", ((t1-t0)/1000000) + " msec to merge points [" + numMerged + " docs]");
+      mergeState.infoStream.message("SM", ((t1-t0)/1000000) + " msec to " + action + " " + formatName
+          + " [" + mergeState.segmentInfo.maxDoc() + " docs]");
     }
+  }
 
-    if (mergeState.mergeFieldInfos.hasVectors()) {
-      if (mergeState.infoStream.isEnabled("SM")) {
-        t0 = System.nanoTime();
-      }
-      numMerged = mergeVectors();
-      if (mergeState.infoStream.isEnabled("SM")) {
-        long t1 = System.nanoTime();
-        mergeState.infoStream.message("SM", ((t1-t0)/1000000) + " msec to merge vectors [" + numMerged + " docs]");
+  /**
+   * Run {@code tasks} on the intra-merge executor and {@code callerTask} in
+   * the current thread, then wait for all tasks to complete, even if some of
+   * them failed, so that no files are still being written when this method
+   * returns. Every task gets its own copy of the {@link MergeState} since
+   * per-field formats temporarily modify it while merging.
+   */
+  private void runConcurrently(IOUtils.IOConsumer<MergeState> callerTask, List<IOUtils.IOConsumer<MergeState>> tasks) throws IOException {
+    final List<FutureTask<Void>> futures = new ArrayList<>(tasks.size());
+    for (IOUtils.IOConsumer<MergeState> task : tasks) {
+      final MergeState state = new MergeState(mergeState);
+      FutureTask<Void> future = new FutureTask<>(() -> {
+        task.accept(state);
+        return null;
+      });
+      futures.add(future);
+      try {
+        intraMergeExecutor.execute(future);
+      } catch (RejectedExecutionException e) {
+        // the executor is saturated or shut down, merge in the current thread
+        future.run();
       }
-      assert numMerged == mergeState.segmentInfo.maxDoc();
     }
-    
-    // write the merged infos
-    if (mergeState.infoStream.isEnabled("SM")) {
-      t0 = System.nanoTime();
+
+    Throwable th = null;
+    try {
+      callerTask.accept(new MergeState(mergeState));
+    } catch (Throwable t) {
+      th = t;
     }
-    codec.fieldInfosFormat().write(directory, mergeState.segmentInfo, "", mergeState.mergeFieldInfos, context);
-    if (mergeState.infoStream.isEnabled("SM")) {
-      long t1 = System.nanoTime();
-      mergeState.infoStream.message("SM", ((t1-t0)/1000000) + " msec to write field infos [" + numMerged + " docs]");
+
+    for (FutureTask<Void> future : futures) {
+      while (true) {
+        try {
+          future.get();
+          break;
+        } catch (ExecutionException e) {
+          th = IOUtils.useOrSuppress(th, e.getCause());
+          break;
+        } catch (InterruptedException e) {
+          // keep waiting, the task might still be writing files
+          th = IOUtils.useOrSuppress(th, new ThreadInterruptedException(e));
+        }
+      }
     }
 
-    return mergeState;
+    if (th != null) {
+      throw IOUtils.rethrowAlways(th);
+    }
   }
 
-  private void mergeDocValues(SegmentWriteState segmentWriteState) throws IOException {
+  private void mergeDocValues(MergeState mergeState, SegmentWriteState segmentWriteState) throws IOException {
     try (DocValuesConsumer consumer = codec.docValuesFormat().fieldsConsumer(segmentWriteState)) {
       consumer.merge(mergeState);
     }
   }
 
-  private void mergePoints(SegmentWriteState segmentWriteState) throws IOException {
+  private void mergePoints(MergeState mergeState, SegmentWriteState segmentWriteState) throws IOException {
     try (PointsWriter writer = codec.pointsFormat().fieldsWriter(segmentWriteState)) {
       writer.merge(mergeState);
     }
   }
 
-  private void mergeNorms(SegmentWriteState segmentWriteState) throws IOException {
+  private void mergeVectorValues(MergeState mergeState, SegmentWriteState segmentWriteState) throws IOException {
+    try (VectorWriter writer = codec.vectorFormat().fieldsWriter(segmentWriteState)) {
+      writer.merge(mergeState);
+    }
+  }
+
+  private void mergeNorms(MergeState mergeState, SegmentWriteState segmentWriteState) throws IOException {
     try (NormsConsumer consumer = codec.normsFormat().normsConsumer(segmentWriteState)) {
       consumer.merge(mergeState);
     }
@@ -223,7 +285,7 @@ final class SegmentMerger {
    * @throws CorruptIndexException if the index is corrupt
    * @throws IOException if there is a low-level IO error
    */
-  private int mergeFields() throws IOException {
+  private int mergeFields(MergeState mergeState) throws IOException {
     try (StoredFieldsWriter fieldsWriter = codec.storedFieldsFormat().fieldsWriter(directory, mergeState.segmentInfo, context)) {
       return fieldsWriter.merge(mergeState);
     }
@@ -233,15 +295,24 @@ final class SegmentMerger {
    * Merge the TermVectors from each of the segments into the new one.
    * @throws IOException if there is a low-level IO error
    */
-  private int mergeVectors() throws IOException {
+  private int mergeVectors(MergeState mergeState) throws IOException {
     try (TermVectorsWriter termVectorsWriter = codec.termVectorsFormat().vectorsWriter(directory, mergeState.segmentInfo, context)) {
       return termVectorsWriter.merge(mergeState);
     }
   }
 
-  private void mergeTerms(SegmentWriteState segmentWriteState, NormsProducer norms) throws IOException {
-    try (FieldsConsumer consumer = codec.postingsFormat().fieldsConsumer(segmentWriteState)) {
-      consumer.merge(mergeState, norms);
+  private void mergeTerms(MergeState mergeState, SegmentWriteState segmentWriteState, SegmentReadState segmentReadState) throws IOException {
+    try (NormsProducer norms = mergeState.mergeFieldInfos.hasNorms()
+        ? codec.normsFormat().normsProducer(segmentReadState)
+        : null) {
+      NormsProducer normsMergeInstance = null;
+      if (norms != null) {
+        // Use the merge instance in order to reuse the same IndexInput for all terms
+        normsMergeInstance = norms.getMergeInstance();
+      }
+      try (FieldsConsumer consumer = codec.postingsFormat().fieldsConsumer(segmentWriteState)) {
+        consumer.merge(mergeState, normsMergeInstance);
+      }
     }
   }
 }
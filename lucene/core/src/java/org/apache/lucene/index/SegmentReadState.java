@@ -16,6 +16,9 @@
  */
 package org.apache.lucene.index;
 
+import java.util.Collections;
+import java.util.Map;
+
 import org.apache.lucene.codecs.PostingsFormat; // javadocs
 import org.apache.lucene.codecs.perfield.PerFieldPostingsFormat; // javadocs
 import org.apache.lucene.store.Directory;
@@ -48,6 +51,13 @@ public class SegmentReadState {
    *  {@link IndexFileNames#segmentFileName(String,String,String)}). */
   public final String segmentSuffix;
 
+  /** Attributes that configure how the segment is read, as passed to
+   *  {@link DirectoryReader#open(Directory, Map)} or
+   *  {@link IndexWriterConfig#setReaderAttributes(Map)}. Formats are
+   *  resolved by name when a segment is read, so this is how they get
+   *  read-time settings. Never {@code null}. */
+  public final Map<String,String> readerAttributes;
+
   /** Create a {@code SegmentReadState}. */
   public SegmentReadState(Directory dir, SegmentInfo info,
                           FieldInfos fieldInfos, IOContext context) {
@@ -60,11 +70,22 @@ public class SegmentReadState {
                           FieldInfos fieldInfos,
                           IOContext context,
                           String segmentSuffix) {
+    this(dir, info, fieldInfos, context, segmentSuffix, Collections.emptyMap());
+  }
+
+  /** Create a {@code SegmentReadState}. */
+  public SegmentReadState(Directory dir,
+                          SegmentInfo info,
+                          FieldInfos fieldInfos,
+                          IOContext context,
+                          String segmentSuffix,
+                          Map<String,String> readerAttributes) {
     this.directory = dir;
     this.segmentInfo = info;
     this.fieldInfos = fieldInfos;
     this.context = context;
     this.segmentSuffix = segmentSuffix;
+    this.readerAttributes = Collections.unmodifiableMap(readerAttributes);
   }
 
   /** Create a {@code SegmentReadState}. */
@@ -75,5 +96,6 @@ public class SegmentReadState {
     this.fieldInfos = other.fieldInfos;
     this.context = other.context;
     this.segmentSuffix = newSegmentSuffix;
+    this.readerAttributes = other.readerAttributes;
   }
 }
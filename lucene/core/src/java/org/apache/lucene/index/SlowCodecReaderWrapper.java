@@ -26,6 +26,7 @@ import org.apache.lucene.codecs.DocValuesProducer;
 import org.apache.lucene.codecs.FieldsProducer;
 import org.apache.lucene.codecs.NormsProducer;
 import org.apache.lucene.codecs.PointsReader;
+import org.apache.lucene.codecs.VectorReader;
 import org.apache.lucene.codecs.StoredFieldsReader;
 import org.apache.lucene.codecs.TermVectorsReader;
 import org.apache.lucene.util.Bits;
@@ -98,6 +99,11 @@ public final class SlowCodecReaderWrapper {
           return pointValuesToReader(reader);
         }
 
+        @Override
+        public VectorReader getVectorReader() {
+          return vectorValuesToReader(reader);
+        }
+
         @Override
         public Bits getLiveDocs() {
           return reader.getLiveDocs();
@@ -161,6 +167,31 @@ public final class SlowCodecReaderWrapper {
     };
   }
   
+  private static VectorReader vectorValuesToReader(LeafReader reader) {
+    return new VectorReader() {
+
+      @Override
+      public VectorValues getVectorValues(String field) throws IOException {
+        return reader.getVectorValues(field);
+      }
+
+      @Override
+      public void checkIntegrity() {
+        // We already checkIntegrity the entire reader up front
+      }
+
+      @Override
+      public void close() {
+      }
+
+      @Override
+      public long ramBytesUsed() {
+        return 0;
+      }
+
+    };
+  }
+
   private static NormsProducer readerToNormsProducer(final LeafReader reader) {
     return new NormsProducer() {
 
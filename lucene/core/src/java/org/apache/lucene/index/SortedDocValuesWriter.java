@@ -75,6 +75,8 @@ class SortedDocValuesWriter extends DocValuesWriter<SortedDocValues> {
     addOneValue(value);
     docsWithField.add(docID);
 
+    updateBytesUsed();
+
     lastDocID = docID;
   }
 
@@ -91,7 +93,6 @@ class SortedDocValuesWriter extends DocValuesWriter<SortedDocValues> {
     }
     
     pending.add(termID);
-    updateBytesUsed();
   }
   
   private void updateBytesUsed() {
@@ -132,7 +133,8 @@ class SortedDocValuesWriter extends DocValuesWriter<SortedDocValues> {
   public void flush(SegmentWriteState state, Sorter.DocMap sortMap, DocValuesConsumer dvConsumer) throws IOException {
     final int valueCount = hash.size();
     if (finalOrds == null) {
-      updateBytesUsed();
+      // don't update bytes used, which is already up-to-date: doc values may be
+      // flushed concurrently with other parts of the segment on a flush executor
       finalSortedValues = hash.sort();
       finalOrds = pending.build();
       finalOrdMap = new int[valueCount];
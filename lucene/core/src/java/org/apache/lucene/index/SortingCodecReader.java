@@ -29,6 +29,7 @@ import org.apache.lucene.codecs.NormsProducer;
 import org.apache.lucene.codecs.PointsReader;
 import org.apache.lucene.codecs.StoredFieldsReader;
 import org.apache.lucene.codecs.TermVectorsReader;
+import org.apache.lucene.codecs.VectorReader;
 import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.SortField;
 import org.apache.lucene.util.Bits;
@@ -303,6 +304,35 @@ public final class SortingCodecReader extends FilterCodecReader {
     };
   }
 
+  @Override
+  public VectorReader getVectorReader() {
+    VectorReader delegate = in.getVectorReader();
+    if (delegate == null) {
+      return null;
+    }
+    return new VectorReader() {
+      @Override
+      public void checkIntegrity() throws IOException {
+        delegate.checkIntegrity();
+      }
+
+      @Override
+      public VectorValues getVectorValues(String field) throws IOException {
+        return new VectorValuesWriter.SortingVectorValues(delegate.getVectorValues(field), docMap);
+      }
+
+      @Override
+      public void close() throws IOException {
+        delegate.close();
+      }
+
+      @Override
+      public long ramBytesUsed() {
+        return delegate.ramBytesUsed();
+      }
+    };
+  }
+
   @Override
   public NormsProducer getNormsReader() {
     final NormsProducer delegate = in.getNormsReader();
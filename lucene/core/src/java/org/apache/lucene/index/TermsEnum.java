@@ -70,6 +70,28 @@ public abstract class TermsEnum implements BytesRefIterator {
    */
   public abstract boolean seekExact(BytesRef text) throws IOException;
 
+  /**
+   * Expert: Seeks to each of the given terms, which must be in strictly
+   * increasing order, and returns an iterator over the terms that exist. Every
+   * time the returned iterator returns a term, this enum is positioned on it.
+   * This is equivalent to calling {@link #seekExact(BytesRef)} on each term,
+   * but implementations may take advantage of the order of the terms to share
+   * work across consecutive seeks, or to stop seeking once the remaining terms
+   * can't exist. The returned terms may be re-used across calls to
+   * {@link BytesRefIterator#next}.
+   * @lucene.experimental
+   */
+  public BytesRefIterator seekExact(BytesRefIterator sortedTerms) throws IOException {
+    return () -> {
+      for (BytesRef term = sortedTerms.next(); term != null; term = sortedTerms.next()) {
+        if (seekExact(term)) {
+          return term;
+        }
+      }
+      return null;
+    };
+  }
+
   /** Seeks to the specified term, if it exists, or to the
    *  next (ceiling) term.  Returns SeekStatus to
    *  indicate whether exact term was found, a different
@@ -33,6 +33,8 @@ import org.apache.lucene.util.IntBlockPool;
  * this class allocates a linked list of slices that can be read by a {@link ByteSliceReader}
  * for each term. Terms are first deduplicated in a {@link BytesRefHash} once this is done
  * internal data-structures point to the current offset of each stream that can be written to.
+ * Fields that have a single stream per term, such as fields that don't index positions, store the
+ * current offset of this stream directly in the postings array instead of the {@link IntBlockPool}.
  */
 abstract class TermsHashPerField implements Comparable<TermsHashPerField> {
   private static final int HASH_INIT_SIZE = 4;
@@ -41,6 +43,7 @@ abstract class TermsHashPerField implements Comparable<TermsHashPerField> {
   private final IntBlockPool intPool;
   final ByteBlockPool bytePool;
   // for each term we store an integer per stream that points into the bytePool above
+  // (directly in postingsArray.addressOffset[termId] if there is a single stream)
   // the address is updated once data is written to the stream to point to the next free offset
   // in the terms stream. The start address for the stream is stored in postingsArray.byteStarts[termId]
   // This is initialized in the #addTerm method, either to a brand new per term stream if the term is new or
@@ -82,6 +85,10 @@ abstract class TermsHashPerField implements Comparable<TermsHashPerField> {
 
   final void initReader(ByteSliceReader reader, int termID, int stream) {
     assert stream < streamCount;
+    if (streamCount == 1) {
+      reader.init(bytePool, postingsArray.byteStarts[termID], postingsArray.addressOffset[termID]);
+      return;
+    }
     int streamStartOffset = postingsArray.addressOffset[termID];
     final int[] streamAddressBuffer = intPool.buffers[streamStartOffset >> IntBlockPool.INT_BLOCK_SHIFT];
     final int offsetInAddressBuffer = streamStartOffset & IntBlockPool.INT_BLOCK_MASK;
@@ -132,6 +139,10 @@ abstract class TermsHashPerField implements Comparable<TermsHashPerField> {
   }
 
   private void initStreamSlices(int termID, int docID) throws IOException {
+    if (streamCount == 1) {
+      initSingleStreamSlice(termID, docID);
+      return;
+    }
     // Init stream slices
     // TODO: figure out why this is 2*streamCount here. streamCount should be enough?
     if ((2*streamCount) + intPool.intUpto > IntBlockPool.INT_BLOCK_SIZE) {
@@ -160,6 +171,18 @@ abstract class TermsHashPerField implements Comparable<TermsHashPerField> {
     newTerm(termID, docID);
   }
 
+  private void initSingleStreamSlice(int termID, int docID) throws IOException {
+    if (ByteBlockPool.BYTE_BLOCK_SIZE - bytePool.byteUpto < ByteBlockPool.FIRST_LEVEL_SIZE) {
+      bytePool.nextBuffer();
+    }
+    final int upto = bytePool.newSlice(ByteBlockPool.FIRST_LEVEL_SIZE);
+    // the postings array is the address buffer: the term ID is the offset of its only stream
+    postingsArray.addressOffset[termID] = postingsArray.byteStarts[termID] = upto + bytePool.byteOffset;
+    termStreamAddressBuffer = postingsArray.addressOffset;
+    streamAddressOffset = termID;
+    newTerm(termID, docID);
+  }
+
   private boolean assertDocId(int docId) {
     assert docId >= lastDocID : "docID must be >= " + lastDocID + " but was: " + docId;
     lastDocID = docId;
@@ -189,6 +212,12 @@ abstract class TermsHashPerField implements Comparable<TermsHashPerField> {
 
   private int positionStreamSlice(int termID, final int docID) throws IOException {
     termID = (-termID) - 1;
+    if (streamCount == 1) {
+      termStreamAddressBuffer = postingsArray.addressOffset;
+      streamAddressOffset = termID;
+      addTerm(termID, docID);
+      return termID;
+    }
     int intStart = postingsArray.addressOffset[termID];
     termStreamAddressBuffer = intPool.buffers[intStart >> IntBlockPool.INT_BLOCK_SHIFT];
     streamAddressOffset = intStart & IntBlockPool.INT_BLOCK_MASK;
@@ -0,0 +1,262 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.index;
+
+import java.io.IOException;
+
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.util.BytesRef;
+
+/**
+ * Access to per-document dense float vectors, optionally indexed in a
+ * graph that supports approximate nearest-neighbor search.
+ * <p>
+ * Each document has at most one vector per field. Vectors are iterated in
+ * increasing docID order, like other doc values, and the index may be used
+ * to find the top-k nearest documents to a query vector via {@link #search}.
+ *
+ * @lucene.experimental
+ */
+public abstract class VectorValues extends DocIdSetIterator {
+
+  /** The maximum length of a vector */
+  public static final int MAX_DIMENSIONS = 1024;
+
+  /** Sole constructor */
+  protected VectorValues() {}
+
+  /**
+   * Return the dimension of the vectors
+   */
+  public abstract int dimension();
+
+  /**
+   * TODO: should we use cost() for this? We rely on its always being exactly the number
+   * of documents having a value for this field, which is not guaranteed by the cost() contract,
+   * but in all the implementations so far they are the same.
+   * @return the number of vectors returned by this iterator
+   */
+  public abstract int size();
+
+  /**
+   * Return the search strategy used to compare these vectors
+   */
+  public abstract SearchStrategy searchStrategy();
+
+  /**
+   * Return the vector value for the current document ID.
+   * It is illegal to call this method when the iterator is not positioned: before advancing, or after failing to advance.
+   * The returned array may be shared across calls, re-used, and modified as the iterator advances.
+   * @return the vector value
+   */
+  public abstract float[] vectorValue() throws IOException;
+
+  /**
+   * Return the binary encoded vector value for the current document ID. These are the bytes
+   * corresponding to the float array return by {@link #vectorValue}.  It is illegal to call this
+   * method when the iterator is not positioned: before advancing, or after failing to advance.  The
+   * returned storage may be shared across calls, re-used and modified as the iterator advances.
+   * @return the binary value
+   */
+  public BytesRef binaryValue() throws IOException {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Return the k nearest neighbor documents as determined by comparison of their vector values
+   * for this field, to the given vector, by the field's search strategy. If the search strategy is
+   * reversed, lower values indicate nearer vectors, otherwise higher scores indicate nearer
+   * vectors. Unlike relevance scores, vector scores may be negative.
+   * @param target the vector-valued query
+   * @param k      the number of docs to return
+   * @param fanout control the accuracy/speed tradeoff - larger values give better recall at higher cost
+   * @return the k nearest neighbor documents, along with their (searchStrategy-specific) scores.
+   */
+  public abstract TopDocs search(float[] target, int k, int fanout) throws IOException;
+
+  /**
+   * Search strategy. This is a label describing the method used during indexing and searching of the vectors
+   * in order to determine the nearest neighbors.
+   */
+  public enum SearchStrategy {
+
+    /** No search strategy is provided. Note: {@link VectorValues#search(float[], int, int)}
+     * is not supported for fields specifying this strategy. */
+    NONE,
+
+    /** HNSW graph built using Euclidean distance */
+    EUCLIDEAN_HNSW(true),
+
+    /** HNSW graph built using dot product. Vectors are expected to be normalized to unit length. */
+    DOT_PRODUCT_HNSW,
+
+    /** HNSW graph built using cosine similarity, the dot product of the vectors after normalization. */
+    COSINE_HNSW;
+
+    /** If true, the scores associated with vector comparisons in this strategy are in reverse order; that is,
+     * lower scores represent more similar vectors. Otherwise, if false, higher scores represent more similar vectors.
+     */
+    public final boolean reversed;
+
+    SearchStrategy(boolean reversed) {
+      this.reversed = reversed;
+    }
+
+    SearchStrategy() {
+      reversed = false;
+    }
+
+    /**
+     * Calculates a similarity score between the two vectors with a specified function.
+     * @param v1 a vector
+     * @param v2 another vector, of the same dimension
+     * @return the value of the strategy's score function applied to the two vectors
+     */
+    public float compare(float[] v1, float[] v2) {
+      switch (this) {
+        case EUCLIDEAN_HNSW:
+          return squareDistance(v1, v2);
+        case DOT_PRODUCT_HNSW:
+          return dotProduct(v1, v2);
+        case COSINE_HNSW:
+          return cosine(v1, v2);
+        default:
+          throw new IllegalStateException("Incomparable search strategy: " + this);
+      }
+    }
+
+    /**
+     * Return true if vectors indexed using this strategy will be indexed using an HNSW graph
+     */
+    public boolean isHnsw() {
+      switch (this) {
+        case EUCLIDEAN_HNSW:
+        case DOT_PRODUCT_HNSW:
+        case COSINE_HNSW:
+          return true;
+        default:
+          return false;
+      }
+    }
+  }
+
+  /**
+   * Calculates the dot product of the given float arrays.
+   * @throws IllegalArgumentException if the vectors' dimensions differ.
+   */
+  public static float dotProduct(float[] a, float[] b) {
+    if (a.length != b.length) {
+      throw new IllegalArgumentException("vector dimensions differ: " + a.length + "!=" + b.length);
+    }
+    float res = 0f;
+    for (int i = 0; i < a.length; i++) {
+      res += a[i] * b[i];
+    }
+    return res;
+  }
+
+  /**
+   * Returns the cosine similarity between the two vectors.
+   * @throws IllegalArgumentException if the vectors' dimensions differ.
+   */
+  public static float cosine(float[] a, float[] b) {
+    if (a.length != b.length) {
+      throw new IllegalArgumentException("vector dimensions differ: " + a.length + "!=" + b.length);
+    }
+    float sum = 0f;
+    float norm1 = 0f;
+    float norm2 = 0f;
+    for (int i = 0; i < a.length; i++) {
+      sum += a[i] * b[i];
+      norm1 += a[i] * a[i];
+      norm2 += b[i] * b[i];
+    }
+    if (norm1 == 0f || norm2 == 0f) {
+      return 0f;
+    }
+    return (float) (sum / Math.sqrt((double) norm1 * (double) norm2));
+  }
+
+  /**
+   * Returns the sum of squared differences of the two vectors.
+   * @throws IllegalArgumentException if the vectors' dimensions differ.
+   */
+  public static float squareDistance(float[] v1, float[] v2) {
+    if (v1.length != v2.length) {
+      throw new IllegalArgumentException("vector dimensions differ: " + v1.length + "!=" + v2.length);
+    }
+    float squareSum = 0.0f;
+    for (int i = 0; i < v1.length; i++) {
+      float diff = v1[i] - v2[i];
+      squareSum += diff * diff;
+    }
+    return squareSum;
+  }
+
+  /**
+   * Represents the lack of vector values. It is returned by providers that do not
+   * support VectorValues.
+   */
+  public static final VectorValues EMPTY = new VectorValues() {
+
+    @Override
+    public int size() {
+      return 0;
+    }
+
+    @Override
+    public int dimension() {
+      return 0;
+    }
+
+    @Override
+    public SearchStrategy searchStrategy() {
+      return SearchStrategy.NONE;
+    }
+
+    @Override
+    public float[] vectorValue() {
+      throw new IllegalStateException("Attempt to get vectors from EMPTY values (which was not advanced)");
+    }
+
+    @Override
+    public TopDocs search(float[] target, int k, int fanout) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int docID() {
+      throw new IllegalStateException("VectorValues is EMPTY, and not positioned on a doc");
+    }
+
+    @Override
+    public int nextDoc() {
+      return NO_MORE_DOCS;
+    }
+
+    @Override
+    public int advance(int target) {
+      return NO_MORE_DOCS;
+    }
+
+    @Override
+    public long cost() {
+      return 0;
+    }
+  };
+}
@@ -102,12 +102,22 @@ public class AutomatonQuery extends MultiTermQuery implements Accountable {
    *   will not go through the UTF32ToUTF8 conversion
    */
   public AutomatonQuery(final Term term, Automaton automaton, int maxDeterminizedStates, boolean isBinary) {
+    // TODO: we could take isFinite too, to save a bit of CPU in CompiledAutomaton ctor?:
+    this(term, automaton, new CompiledAutomaton(automaton, null, true, maxDeterminizedStates, isBinary), isBinary);
+  }
+
+  /** Create a new AutomatonQuery from an automaton that was compiled, and
+   *  possibly cached, by a {@link CompiledAutomatonCache}. */
+  AutomatonQuery(final Term term, CompiledAutomatonCache.Entry entry) {
+    this(term, entry.automaton, entry.compiled, false);
+  }
+
+  private AutomatonQuery(final Term term, Automaton automaton, CompiledAutomaton compiled, boolean isBinary) {
     super(term.field());
     this.term = term;
     this.automaton = automaton;
     this.automatonIsBinary = isBinary;
-    // TODO: we could take isFinite too, to save a bit of CPU in CompiledAutomaton ctor?:
-    this.compiled = new CompiledAutomaton(automaton, null, true, maxDeterminizedStates, isBinary);
+    this.compiled = compiled;
 
     this.ramBytesUsed = BASE_RAM_BYTES + term.ramBytesUsed() + automaton.ramBytesUsed() + compiled.ramBytesUsed();
   }
@@ -0,0 +1,231 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.search;
+
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import org.apache.lucene.util.Accountable;
+import org.apache.lucene.util.RamUsageEstimator;
+import org.apache.lucene.util.automaton.Automaton;
+import org.apache.lucene.util.automaton.CompiledAutomaton;
+
+/**
+ * A thread-safe, least-recently-used cache of the automata that
+ * {@link RegexpQuery} and {@link WildcardQuery} compile from their patterns.
+ * Parsing, determinizing and minimizing a pattern can take longer than running
+ * the query, so applications that keep running the same patterns benefit from
+ * reusing the {@link CompiledAutomaton} of a previous query.
+ * <p>
+ * Entries are keyed by the type of query, the pattern, its flags and the
+ * maximum number of determinized states, but not by the field since compiled
+ * automata don't depend on it. Patterns that fail to compile are not cached.
+ * <p>
+ * The cache is bounded both by a number of automata and by an amount of
+ * memory, since a few large automata can take more memory than many small
+ * ones.
+ *
+ * @see #setDefaultCache(CompiledAutomatonCache)
+ * @lucene.experimental
+ */
+public final class CompiledAutomatonCache implements Accountable {
+
+  /** Default maximum number of cached automata. */
+  public static final int DEFAULT_MAX_SIZE = 256;
+
+  /** Default maximum amount of memory used by cached automata: 16MB, or
+   *  1/64th of the maximum heap size if this is less. */
+  public static final long DEFAULT_MAX_RAM_BYTES_USED = Math.min(1L << 24, Runtime.getRuntime().maxMemory() / 64);
+
+  private static final long ENTRY_RAM_BYTES_USED = RamUsageEstimator.shallowSizeOfInstance(Entry.class)
+      + RamUsageEstimator.shallowSizeOfInstance(Key.class)
+      // a LinkedHashMap entry
+      + 2 * RamUsageEstimator.NUM_BYTES_OBJECT_HEADER + 6 * RamUsageEstimator.NUM_BYTES_OBJECT_REF;
+
+  private static volatile CompiledAutomatonCache defaultCache = new CompiledAutomatonCache(DEFAULT_MAX_SIZE, DEFAULT_MAX_RAM_BYTES_USED);
+
+  /**
+   * Set the cache that queries use from now on, or {@code null} to compile
+   * the automata of all queries.
+   */
+  public static void setDefaultCache(CompiledAutomatonCache cache) {
+    defaultCache = cache;
+  }
+
+  /**
+   * Return the cache that queries use, or {@code null} if automata are not
+   * cached.
+   */
+  public static CompiledAutomatonCache getDefaultCache() {
+    return defaultCache;
+  }
+
+  /** Compile the automaton of a query, or return it from the default cache
+   *  if {@code key} is not {@code null} and the same automaton was compiled
+   *  previously. */
+  static Entry compile(Key key, Supplier<Automaton> automaton, int maxDeterminizedStates) {
+    final CompiledAutomatonCache cache = defaultCache;
+    if (key == null || cache == null) {
+      return new Entry(automaton.get(), maxDeterminizedStates);
+    }
+    assert key.maxDeterminizedStates == maxDeterminizedStates;
+    return cache.get(key, automaton);
+  }
+
+  /** Identifies the automaton of a query. */
+  static final class Key {
+    final Class<? extends Query> queryClass;
+    final String pattern;
+    final int syntaxFlags, matchFlags;
+    final int maxDeterminizedStates;
+
+    Key(Class<? extends Query> queryClass, String pattern, int syntaxFlags, int matchFlags, int maxDeterminizedStates) {
+      this.queryClass = queryClass;
+      this.pattern = pattern;
+      this.syntaxFlags = syntaxFlags;
+      this.matchFlags = matchFlags;
+      this.maxDeterminizedStates = maxDeterminizedStates;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj == null || obj.getClass() != getClass()) {
+        return false;
+      }
+      Key that = (Key) obj;
+      return queryClass == that.queryClass
+          && pattern.equals(that.pattern)
+          && syntaxFlags == that.syntaxFlags
+          && matchFlags == that.matchFlags
+          && maxDeterminizedStates == that.maxDeterminizedStates;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(queryClass, pattern, syntaxFlags, matchFlags, maxDeterminizedStates);
+    }
+  }
+
+  /** An automaton and its compiled form. */
+  static final class Entry {
+    final Automaton automaton;
+    final CompiledAutomaton compiled;
+
+    Entry(Automaton automaton, int maxDeterminizedStates) {
+      this.automaton = automaton;
+      this.compiled = new CompiledAutomaton(automaton, null, true, maxDeterminizedStates, false);
+    }
+
+    long ramBytesUsed(Key key) {
+      return ENTRY_RAM_BYTES_USED + RamUsageEstimator.sizeOf(key.pattern)
+          + automaton.ramBytesUsed() + compiled.ramBytesUsed();
+    }
+  }
+
+  private final int maxSize;
+  private final long maxRamBytesUsed;
+  // access-ordered, so that iteration starts with the least recently used entry
+  private final Map<Key, Entry> cache;
+  // these variables are guarded by this
+  private long ramBytesUsed;
+  private long hitCount, missCount;
+
+  /** Create a cache that holds at most {@code maxSize} automata, which use at
+   *  most {@code maxRamBytesUsed} bytes of memory. */
+  public CompiledAutomatonCache(int maxSize, long maxRamBytesUsed) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("maxSize must be > 0, got " + maxSize);
+    }
+    if (maxRamBytesUsed < 1) {
+      throw new IllegalArgumentException("maxRamBytesUsed must be > 0, got " + maxRamBytesUsed);
+    }
+    this.maxSize = maxSize;
+    this.maxRamBytesUsed = maxRamBytesUsed;
+    this.cache = new LinkedHashMap<>(16, 0.75f, true);
+  }
+
+  Entry get(Key key, Supplier<Automaton> automaton) {
+    synchronized (this) {
+      final Entry entry = cache.get(key);
+      if (entry != null) {
+        hitCount++;
+        return entry;
+      }
+      missCount++;
+    }
+
+    // compile without holding the lock, other threads may compile the same
+    // pattern concurrently, which is harmless
+    final Entry entry = new Entry(automaton.get(), key.maxDeterminizedStates);
+
+    synchronized (this) {
+      final Entry previous = cache.put(key, entry);
+      if (previous != null) {
+        ramBytesUsed -= previous.ramBytesUsed(key);
+      }
+      ramBytesUsed += entry.ramBytesUsed(key);
+      // an automaton that is larger than the cache evicts everything, including itself
+      for (Iterator<Map.Entry<Key, Entry>> it = cache.entrySet().iterator(); cache.size() > maxSize || ramBytesUsed > maxRamBytesUsed; ) {
+        final Map.Entry<Key, Entry> eldest = it.next();
+        ramBytesUsed -= eldest.getValue().ramBytesUsed(eldest.getKey());
+        it.remove();
+      }
+    }
+    return entry;
+  }
+
+  /** Return the maximum number of automata that this cache holds. */
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  /** Return the maximum amount of memory that the automata of this cache use. */
+  public long getMaxRamBytesUsed() {
+    return maxRamBytesUsed;
+  }
+
+  /** Return the number of cached automata. */
+  public synchronized int size() {
+    return cache.size();
+  }
+
+  /** Return the number of queries whose automaton was found in this cache. */
+  public synchronized long getHitCount() {
+    return hitCount;
+  }
+
+  /** Return the number of queries whose automaton was not found in this cache
+   *  and had to be compiled. */
+  public synchronized long getMissCount() {
+    return missCount;
+  }
+
+  /** Remove all cached automata. */
+  public synchronized void clear() {
+    cache.clear();
+    ramBytesUsed = 0;
+  }
+
+  @Override
+  public synchronized long ramBytesUsed() {
+    return ramBytesUsed;
+  }
+}
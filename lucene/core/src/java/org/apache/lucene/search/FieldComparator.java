@@ -23,9 +23,13 @@ import java.io.IOException;
 import org.apache.lucene.index.BinaryDocValues;
 import org.apache.lucene.index.DocValues;
 import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.PostingsEnum;
 import org.apache.lucene.index.SortedDocValues;
+import org.apache.lucene.index.Terms;
+import org.apache.lucene.index.TermsEnum;
 import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.BytesRefBuilder;
+import org.apache.lucene.util.DocIdSetBuilder;
 
 /**
  * Expert: a FieldComparator compares hits so as to determine their
@@ -142,6 +146,16 @@ public abstract class FieldComparator<T> {
   public void setSingleSort() {
   }
 
+  /**
+   * Informs the comparator that sort is done on this field first, then on
+   * the field of {@code tieBreaker} for documents that have the same value,
+   * and that there are no other sort fields.
+   * This is useful to enable some optimizations for skipping non-competitive
+   * documents that have the same value as the bottom entry.
+   */
+  public void setTieBreaker(FieldComparator<?> tieBreaker) {
+  }
+
   /** Sorts by descending relevance.  NOTE: if you are
    *  sorting only by descending relevance and then
    *  secondarily by ascending docID, performance is faster
@@ -292,6 +306,25 @@ public abstract class FieldComparator<T> {
     /** Which ordinal to use for a missing value. */
     final int missingOrd;
 
+    /** Maximum number of competitive terms whose postings are
+     *  merged to skip non-competitive documents. */
+    private static final int MAX_COMPETITIVE_TERMS = 1024;
+
+    // if the postings of the field may be used to skip non-competitive documents
+    private final boolean enableSkipping;
+    private final boolean reverse;
+    private boolean singleSort;
+    private boolean topValueSet;
+    private boolean hitsThresholdReached;
+
+    /* Terms of the current reader, or null if the competitive
+       iterator can't be updated on this reader. */
+    private Terms terms;
+    private int maxDoc;
+    private DocIdSetIterator competitiveIterator;
+    private long iteratorCost;
+    private int updateCounter;
+
     /** Creates this, sorting missing values first. */
     public TermOrdValComparator(int numHits, String field) {
       this(numHits, field, false);
@@ -301,6 +334,23 @@ public abstract class FieldComparator<T> {
      *  are sorted.  Pass sortMissingLast=true to put
      *  missing values at the end. */
     public TermOrdValComparator(int numHits, String field, boolean sortMissingLast) {
+      this(numHits, field, sortMissingLast, false, false);
+    }
+
+    /** Creates this, with control over how missing values
+     *  are sorted, and whether the postings of the field may
+     *  be used to skip non-competitive documents when it is
+     *  the primary sort. Skipping requires every document
+     *  that has a value to be indexed with a single term that
+     *  is equal to its value, e.g. using a
+     *  {@link org.apache.lucene.document.StringField} and a
+     *  {@link org.apache.lucene.document.SortedDocValuesField}
+     *  on the same field, and is disabled on segments where
+     *  this doesn't seem to be the case. {@code reverse}
+     *  must be the order of the sort. */
+    public TermOrdValComparator(int numHits, String field, boolean sortMissingLast, boolean reverse, boolean enableSkipping) {
+      this.enableSkipping = enableSkipping;
+      this.reverse = reverse;
       ords = new int[numHits];
       values = new BytesRef[numHits];
       tempBRs = new BytesRefBuilder[numHits];
@@ -406,6 +456,8 @@ public abstract class FieldComparator<T> {
       }
       //System.out.println("  getLeafComparator topOrd=" + topOrd + " topSameReader=" + topSameReader);
 
+      initCompetitiveIterator(context);
+
       if (bottomSlot != -1) {
         // Recompute bottomOrd/SameReader
         setBottom(bottomSlot);
@@ -443,6 +495,7 @@ public abstract class FieldComparator<T> {
           }
         }
       }
+      updateCompetitiveIterator();
     }
 
     @Override
@@ -450,6 +503,7 @@ public abstract class FieldComparator<T> {
       // null is fine: it means the last doc of the prior
       // search was missing this value
       topValue = value;
+      topValueSet = true;
       //System.out.println("setTopValue " + topValue);
     }
 
@@ -494,7 +548,148 @@ public abstract class FieldComparator<T> {
     }
 
     @Override
-    public void setScorer(Scorable scorer) {}
+    public void setScorer(Scorable scorer) throws IOException {
+      if (scorer instanceof Scorer) {
+        iteratorCost = ((Scorer) scorer).iterator().cost(); // starting iterator cost is the scorer's cost
+        updateCompetitiveIterator(); // update an iterator when we have a new segment
+      }
+    }
+
+    @Override
+    public void setSingleSort() {
+      singleSort = true;
+    }
+
+    @Override
+    public void setHitsThresholdReached() throws IOException {
+      hitsThresholdReached = true;
+      updateCompetitiveIterator();
+    }
+
+    private void initCompetitiveIterator(LeafReaderContext context) throws IOException {
+      terms = null;
+      competitiveIterator = null;
+      updateCounter = 0;
+      if (enableSkipping == false) {
+        return;
+      }
+      final Terms terms = context.reader().terms(field);
+      // the postings may only be used if every document has a single term, which is its doc value
+      if (terms == null || terms.size() != termsIndex.getValueCount() || terms.getSumDocFreq() != terms.getDocCount()) {
+        return;
+      }
+      this.terms = terms;
+      maxDoc = context.reader().maxDoc();
+      competitiveIterator = DocIdSetIterator.all(maxDoc);
+      iteratorCost = maxDoc;
+    }
+
+    private boolean isMissingValueCompetitive() {
+      // in reverse (desc) sort missing values are competitive when they sort after or equal to the bottom,
+      // in asc sort missing values are competitive when they sort before or equal to the bottom
+      return reverse ? missingOrd >= bottomOrd : missingOrd <= bottomOrd;
+    }
+
+    // update the iterator to include only documents whose term is "stronger" than the current bottom entry
+    private void updateCompetitiveIterator() throws IOException {
+      if (terms == null || hitsThresholdReached == false || bottomSlot == -1) {
+        return;
+      }
+      // if some documents have a missing value, check that missing values prohibit skipping
+      if (terms.getDocCount() < maxDoc && isMissingValueCompetitive()) {
+        return;
+      }
+
+      updateCounter++;
+      if (updateCounter > 256 && (updateCounter & 0x1f) != 0x1f) { // Start sampling if we get called too much
+        return;
+      }
+
+      // compute the range of competitive ords, if the bottom or top value is not in this reader
+      // then its ord is the ord of the greatest value that is less than it
+      final boolean hasTop = topValueSet && topValue != null;
+      int minOrd, maxOrd;
+      if (reverse == false) {
+        minOrd = hasTop ? (topSameReader ? topOrd : topOrd + 1) : 0;
+        maxOrd = bottomSameReader && singleSort ? bottomOrd - 1 : bottomOrd;
+      } else {
+        minOrd = bottomSameReader && singleSort == false ? bottomOrd : bottomOrd + 1;
+        maxOrd = hasTop ? topOrd : Integer.MAX_VALUE;
+      }
+      minOrd = Math.max(minOrd, 0);
+      maxOrd = Math.min(maxOrd, termsIndex.getValueCount() - 1);
+      if (minOrd > maxOrd) {
+        competitiveIterator = DocIdSetIterator.empty(); // no remaining document is competitive
+        iteratorCost = 0;
+        return;
+      }
+      if (maxOrd - minOrd >= MAX_COMPETITIVE_TERMS) {
+        return;
+      }
+
+      final TermsEnum termsEnum = terms.iterator();
+      final BytesRef minTerm = BytesRef.deepCopyOf(termsIndex.lookupOrd(minOrd));
+      if (termsEnum.seekExact(minTerm) == false) {
+        terms = null; // the terms of the field don't match its doc values
+        return;
+      }
+      final long threshold = iteratorCost >>> 3;
+      long docCount = 0;
+      for (int ord = minOrd; ord <= maxOrd; ++ord) {
+        // the terms may still be sorted in a different order than the doc values,
+        // eg. if the indexed terms have been normalized
+        if (ord > minOrd && termsIndex.lookupOrd(ord).equals(termsEnum.next()) == false) {
+          terms = null; // the terms of the field don't match its doc values
+          return;
+        }
+        docCount += termsEnum.docFreq();
+        if (docCount >= threshold) {
+          // the new range is not selective enough to be worth materializing, it doesn't reduce number of docs at least 8x
+          return;
+        }
+      }
+
+      termsEnum.seekExact(minTerm);
+      final DocIdSetBuilder result = new DocIdSetBuilder(maxDoc, terms);
+      PostingsEnum postings = null;
+      for (int ord = minOrd; ord <= maxOrd; ++ord) {
+        if (ord > minOrd) {
+          termsEnum.next();
+        }
+        postings = termsEnum.postings(postings, PostingsEnum.NONE);
+        result.add(postings);
+      }
+      competitiveIterator = result.build().iterator();
+      iteratorCost = competitiveIterator.cost();
+    }
+
+    @Override
+    public DocIdSetIterator competitiveIterator() {
+      if (competitiveIterator == null) return null;
+      return new DocIdSetIterator() {
+        private int docID = -1;
+
+        @Override
+        public int nextDoc() throws IOException {
+          return advance(docID + 1);
+        }
+
+        @Override
+        public int docID() {
+          return docID;
+        }
+
+        @Override
+        public long cost() {
+          return competitiveIterator.cost();
+        }
+
+        @Override
+        public int advance(int target) throws IOException {
+          return docID = competitiveIterator.advance(target);
+        }
+      };
+    }
   }
   
   /** Sorts by field's natural Term sort order.  All
@@ -142,6 +142,10 @@ public abstract class FieldValueHitQueue<T extends FieldValueHitQueue.Entry> ext
       // inform a comparator that sort is based on this single field
       // to enable some optimizations for skipping over non-competitive documents
       comparators[0].setSingleSort();
+    } else if (numComparators == 2) {
+      // inform the first comparator of the comparator that breaks its ties,
+      // to enable skipping documents that have the same value as the bottom entry
+      comparators[0].setTieBreaker(comparators[1]);
     }
   }
 
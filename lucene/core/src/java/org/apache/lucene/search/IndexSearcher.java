@@ -317,6 +317,28 @@ public class IndexSearcher {
    */
   public static LeafSlice[] slices (List<LeafReaderContext> leaves, int maxDocsPerSlice,
                                     int maxSegmentsPerSlice) {
+    return slices(leaves, maxDocsPerSlice, maxSegmentsPerSlice, false);
+  }
+
+  /**
+   * Static method to segregate LeafReaderContexts amongst multiple slices. If
+   * {@code allowSegmentPartitions} is true, segments that have more than
+   * {@code maxDocsPerSlice} documents are split into several
+   * {@link LeafReaderContextPartition}s of roughly equal doc ID ranges, each
+   * searched in its own slice. This allows a single large segment, e.g. of a
+   * force-merged index, to be searched by multiple threads.
+   * <p>
+   * NOTE: every partition of a segment creates its own {@link Scorer}, so
+   * per-segment setup costs (e.g. building the doc ID set of a multi-term
+   * query) are paid once per partition.
+   *
+   * @lucene.experimental
+   */
+  public static LeafSlice[] slices (List<LeafReaderContext> leaves, int maxDocsPerSlice,
+                                    int maxSegmentsPerSlice, boolean allowSegmentPartitions) {
+    if (maxDocsPerSlice <= 0) {
+      throw new IllegalArgumentException("maxDocsPerSlice must be > 0, got " + maxDocsPerSlice);
+    }
     // Make a copy so we can sort:
     List<LeafReaderContext> sortedLeaves = new ArrayList<>(leaves);
 
@@ -327,10 +349,22 @@ public class IndexSearcher {
     final List<List<LeafReaderContext>> groupedLeaves = new ArrayList<>();
     long docSum = 0;
     List<LeafReaderContext> group = null;
+    final List<LeafSlice> partitionedSlices = new ArrayList<>();
     for (LeafReaderContext ctx : sortedLeaves) {
       if (ctx.reader().maxDoc() > maxDocsPerSlice) {
         assert group == null;
-        groupedLeaves.add(Collections.singletonList(ctx));
+        if (allowSegmentPartitions) {
+          final int maxDoc = ctx.reader().maxDoc();
+          final int numPartitions = (int) ((maxDoc + (long) maxDocsPerSlice - 1) / maxDocsPerSlice);
+          // spread docs evenly rather than having a small last partition
+          final int docsPerPartition = (int) ((maxDoc + (long) numPartitions - 1) / numPartitions);
+          for (int minDocId = 0; minDocId < maxDoc; minDocId += docsPerPartition) {
+            final int maxDocId = (int) Math.min(maxDoc, (long) minDocId + docsPerPartition);
+            partitionedSlices.add(new LeafSlice(LeafReaderContextPartition.createFromAndTo(ctx, minDocId, maxDocId)));
+          }
+        } else {
+          groupedLeaves.add(Collections.singletonList(ctx));
+        }
       } else {
         if (group == null) {
           group = new ArrayList<>();
@@ -349,8 +383,12 @@ public class IndexSearcher {
       }
     }
 
-    LeafSlice[] slices = new LeafSlice[groupedLeaves.size()];
+    LeafSlice[] slices = new LeafSlice[partitionedSlices.size() + groupedLeaves.size()];
     int upto = 0;
+    for (LeafSlice partitionedSlice : partitionedSlices) {
+      slices[upto] = partitionedSlice;
+      ++upto;
+    }
     for (List<LeafReaderContext> currentLeaf : groupedLeaves) {
       slices[upto] = new LeafSlice(currentLeaf);
       ++upto;
@@ -676,10 +714,10 @@ public class IndexSearcher {
       final Weight weight = createWeight(query, scoreMode, 1);
       final List<FutureTask<C>> listTasks = new ArrayList<>();
       for (int i = 0; i < leafSlices.length; ++i) {
-        final LeafReaderContext[] leaves = leafSlices[i].leaves;
+        final LeafReaderContextPartition[] partitions = leafSlices[i].partitions;
         final C collector = collectors.get(i);
         FutureTask<C> task = new FutureTask<>(() -> {
-          search(Arrays.asList(leaves), weight, collector);
+          search(partitions, weight, collector);
           return collector;
         });
 
@@ -747,6 +785,51 @@ public class IndexSearcher {
     }
   }
 
+  /**
+   * Lower-level search API.
+   *
+   * <p>
+   * Like {@link #search(List, Weight, Collector)}, but only collects the documents
+   * whose IDs are within the doc ID range of each {@link LeafReaderContextPartition}.
+   *
+   * @param partitions
+   *          the leaf partitions to execute the searches on
+   * @param weight
+   *          to match documents
+   * @param collector
+   *          to receive hits
+   * @throws TooManyClauses If a query would exceed
+   *         {@link IndexSearcher#getMaxClauseCount()} clauses.
+   * @lucene.experimental
+   */
+  protected void search(LeafReaderContextPartition[] partitions, Weight weight, Collector collector)
+      throws IOException {
+    for (LeafReaderContextPartition partition : partitions) {
+      if (partition.isEntireSegment()) {
+        search(Collections.singletonList(partition.ctx), weight, collector);
+        continue;
+      }
+      final LeafReaderContext ctx = partition.ctx;
+      final LeafCollector leafCollector;
+      try {
+        leafCollector = collector.getLeafCollector(ctx);
+      } catch (CollectionTerminatedException e) {
+        // there is no doc of interest in this reader context
+        // continue with the following partition
+        continue;
+      }
+      BulkScorer scorer = weight.bulkScorer(ctx);
+      if (scorer != null) {
+        try {
+          scorer.score(leafCollector, ctx.reader().getLiveDocs(), partition.minDocId, partition.maxDocId);
+        } catch (CollectionTerminatedException e) {
+          // collection was terminated prematurely
+          // continue with the following partition
+        }
+      }
+    }
+  }
+
   /** Expert: called to re-write queries into primitive queries.
    * @throws TooManyClauses If a query would exceed
    *         {@link IndexSearcher#getMaxClauseCount()} clauses.
@@ -874,10 +957,79 @@ public class IndexSearcher {
      *
      *  @lucene.experimental */
     public final LeafReaderContext[] leaves;
+
+    /** The doc ID ranges of the leaves that make up this slice. Unless the slice was
+     *  created from {@link LeafReaderContextPartition}s, each partition covers an entire leaf.
+     *
+     *  @lucene.experimental */
+    public final LeafReaderContextPartition[] partitions;
     
     public LeafSlice(List<LeafReaderContext> leavesList) {
       Collections.sort(leavesList, Comparator.comparingInt(l -> l.docBase));
       this.leaves = leavesList.toArray(new LeafReaderContext[0]);
+      this.partitions = new LeafReaderContextPartition[leaves.length];
+      for (int i = 0; i < leaves.length; ++i) {
+        partitions[i] = LeafReaderContextPartition.createForEntireSegment(leaves[i]);
+      }
+    }
+
+    /** Creates a slice that searches the given partitions. Partitions of the same segment
+     *  should be searched in different slices, since each slice collects into a single
+     *  {@link Collector}.
+     *
+     *  @lucene.experimental */
+    public LeafSlice(LeafReaderContextPartition... partitions) {
+      this.partitions = partitions.clone();
+      Arrays.sort(this.partitions, Comparator.<LeafReaderContextPartition>comparingInt(p -> p.ctx.docBase)
+          .thenComparingInt(p -> p.minDocId));
+      this.leaves = Arrays.stream(this.partitions).map(p -> p.ctx).distinct().toArray(LeafReaderContext[]::new);
+    }
+  }
+
+  /**
+   * A range of doc IDs of a {@link LeafReaderContext} that is searched within a {@link LeafSlice}.
+   * This allows a large segment to be searched concurrently by several threads.
+   *
+   * @lucene.experimental
+   */
+  public static final class LeafReaderContextPartition {
+
+    /** The leaf this partition belongs to. */
+    public final LeafReaderContext ctx;
+    /** The first doc ID (inclusive) of this partition. */
+    public final int minDocId;
+    /** The last doc ID (exclusive) of this partition. */
+    public final int maxDocId;
+
+    private LeafReaderContextPartition(LeafReaderContext ctx, int minDocId, int maxDocId) {
+      if (minDocId < 0 || minDocId >= maxDocId) {
+        throw new IllegalArgumentException("Illegal doc ID range [" + minDocId + ", " + maxDocId + ") for " + ctx);
+      }
+      this.ctx = ctx;
+      this.minDocId = minDocId;
+      this.maxDocId = maxDocId;
+    }
+
+    /** Creates a partition that covers all documents of the given leaf. */
+    public static LeafReaderContextPartition createForEntireSegment(LeafReaderContext ctx) {
+      return new LeafReaderContextPartition(ctx, 0, DocIdSetIterator.NO_MORE_DOCS);
+    }
+
+    /** Creates a partition that covers doc IDs from {@code minDocId} inclusive to {@code maxDocId} exclusive. */
+    public static LeafReaderContextPartition createFromAndTo(LeafReaderContext ctx, int minDocId, int maxDocId) {
+      if (maxDocId > ctx.reader().maxDoc()) {
+        throw new IllegalArgumentException("maxDocId=" + maxDocId + " is greater than maxDoc=" + ctx.reader().maxDoc() + " of " + ctx);
+      }
+      return new LeafReaderContextPartition(ctx, minDocId, maxDocId);
+    }
+
+    boolean isEntireSegment() {
+      return minDocId == 0 && maxDocId == DocIdSetIterator.NO_MORE_DOCS;
+    }
+
+    @Override
+    public String toString() {
+      return "LeafReaderContextPartition(ord=" + ctx.ord + ", minDocId=" + minDocId + ", maxDocId=" + maxDocId + ")";
     }
   }
 
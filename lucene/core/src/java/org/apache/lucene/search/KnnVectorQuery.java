@@ -0,0 +1,343 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.search;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.VectorValues;
+import org.apache.lucene.util.ArrayUtil;
+import org.apache.lucene.util.Bits;
+
+/**
+ * Uses {@link VectorValues#search} to perform nearest-neighbour search around a target vector.
+ * The search is run on each segment when the query is rewritten, and the top {@code k} hits
+ * across all segments are collected into a query that matches exactly those documents.
+ *
+ * <p>Scores are derived from the field's {@link VectorValues.SearchStrategy} so that higher is
+ * better and no score is negative: euclidean distances {@code d} are scored {@code 1 / (1 + d)}
+ * and dot-product and cosine similarities {@code s} are scored {@code (1 + s) / 2}.
+ *
+ * <p>Since the graph search is approximate and is run before deleted documents are filtered out,
+ * fewer than {@code k} documents may match.
+ *
+ * @lucene.experimental
+ */
+public class KnnVectorQuery extends Query {
+
+  private static final TopDocs NO_RESULTS = new TopDocs(new TotalHits(0, TotalHits.Relation.EQUAL_TO), new ScoreDoc[0]);
+
+  /** Default number of extra candidates explored by the graph search. */
+  public static final int DEFAULT_FANOUT = 0;
+
+  private final String field;
+  private final float[] target;
+  private final int k;
+  private final int fanout;
+
+  /**
+   * Find the <code>k</code> nearest documents to the <code>target</code> vector according to the
+   * vectors in the given field.
+   * @param field a field that has been indexed as a {@link org.apache.lucene.document.VectorField}.
+   * @param target the target of the search
+   * @param k the number of documents to find
+   * @throws IllegalArgumentException if <code>k</code> is less than 1
+   */
+  public KnnVectorQuery(String field, float[] target, int k) {
+    this(field, target, k, DEFAULT_FANOUT);
+  }
+
+  /**
+   * Find the <code>k</code> nearest documents to the target vector, exploring <code>fanout</code>
+   * additional candidates in the graph: higher values give better recall at the cost of speed.
+   * @param field a field that has been indexed as a {@link org.apache.lucene.document.VectorField}.
+   * @param target the target of the search
+   * @param k the number of documents to find
+   * @param fanout the number of additional candidates to explore
+   * @throws IllegalArgumentException if <code>k</code> is less than 1 or <code>fanout</code> is negative
+   */
+  public KnnVectorQuery(String field, float[] target, int k, int fanout) {
+    this.field = Objects.requireNonNull(field, "field");
+    this.target = Objects.requireNonNull(target, "target");
+    if (k < 1) {
+      throw new IllegalArgumentException("k must be at least 1, got: " + k);
+    }
+    if (fanout < 0) {
+      throw new IllegalArgumentException("fanout must be non-negative, got: " + fanout);
+    }
+    this.k = k;
+    this.fanout = fanout;
+  }
+
+  @Override
+  public Query rewrite(IndexReader reader) throws IOException {
+    TopDocs[] perLeafResults = new TopDocs[reader.leaves().size()];
+    for (LeafReaderContext ctx : reader.leaves()) {
+      perLeafResults[ctx.ord] = searchLeaf(ctx);
+    }
+    // Merge sort the results
+    TopDocs topK = TopDocs.merge(k, perLeafResults);
+    if (topK.scoreDocs.length == 0) {
+      return new MatchNoDocsQuery();
+    }
+    return createRewrittenQuery(reader, topK);
+  }
+
+  private TopDocs searchLeaf(LeafReaderContext ctx) throws IOException {
+    VectorValues vectorValues = ctx.reader().getVectorValues(field);
+    if (vectorValues == null) {
+      return NO_RESULTS;
+    }
+    TopDocs results = vectorValues.search(target, k, fanout);
+    VectorValues.SearchStrategy searchStrategy = vectorValues.searchStrategy();
+    Bits liveDocs = ctx.reader().getLiveDocs();
+    int count = 0;
+    for (ScoreDoc scoreDoc : results.scoreDocs) {
+      if (liveDocs != null && liveDocs.get(scoreDoc.doc) == false) {
+        continue;
+      }
+      scoreDoc.score = toScore(searchStrategy, scoreDoc.score);
+      scoreDoc.doc += ctx.docBase;
+      results.scoreDocs[count++] = scoreDoc;
+    }
+    if (count < results.scoreDocs.length) {
+      results.scoreDocs = ArrayUtil.copyOfSubArray(results.scoreDocs, 0, count);
+    }
+    return results;
+  }
+
+  /** Converts a raw similarity or distance into a non-negative score where higher is better. */
+  private static float toScore(VectorValues.SearchStrategy searchStrategy, float rawScore) {
+    switch (searchStrategy) {
+      case EUCLIDEAN_HNSW:
+        return 1 / (1 + rawScore);
+      case DOT_PRODUCT_HNSW:
+      case COSINE_HNSW:
+        return Math.max((1 + rawScore) / 2, 0);
+      default:
+        throw new IllegalStateException("unexpected search strategy: " + searchStrategy);
+    }
+  }
+
+  private Query createRewrittenQuery(IndexReader reader, TopDocs topK) {
+    int len = topK.scoreDocs.length;
+    Arrays.sort(topK.scoreDocs, (a, b) -> a.doc - b.doc);
+    int[] docs = new int[len];
+    float[] scores = new float[len];
+    for (int i = 0; i < len; i++) {
+      docs[i] = topK.scoreDocs[i].doc;
+      scores[i] = topK.scoreDocs[i].score;
+    }
+    int[] segmentStarts = findSegmentStarts(reader, docs);
+    return new DocAndScoreQuery(k, docs, scores, segmentStarts, reader.getContext().id());
+  }
+
+  private static int[] findSegmentStarts(IndexReader reader, int[] docs) {
+    int[] starts = new int[reader.leaves().size() + 1];
+    starts[starts.length - 1] = docs.length;
+    if (starts.length == 2) {
+      return starts;
+    }
+    int resultIndex = 0;
+    for (int i = 1; i < starts.length - 1; i++) {
+      int upper = reader.leaves().get(i).docBase;
+      resultIndex = Arrays.binarySearch(docs, resultIndex, docs.length, upper);
+      if (resultIndex < 0) {
+        resultIndex = -1 - resultIndex;
+      }
+      starts[i] = resultIndex;
+    }
+    return starts;
+  }
+
+  @Override
+  public String toString(String field) {
+    return getClass().getSimpleName() + ":" + this.field + "[" + target[0] + ",...][" + k + "]";
+  }
+
+  @Override
+  public void visit(QueryVisitor visitor) {
+    if (visitor.acceptField(field)) {
+      visitor.visitLeaf(this);
+    }
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return sameClassAs(obj) &&
+        ((KnnVectorQuery) obj).k == k &&
+        ((KnnVectorQuery) obj).fanout == fanout &&
+        ((KnnVectorQuery) obj).field.equals(field) &&
+        Arrays.equals(((KnnVectorQuery) obj).target, target);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(classHash(), field, k, fanout, Arrays.hashCode(target));
+  }
+
+  /** Caches the results of a KnnVector search: a list of docs and their scores */
+  static class DocAndScoreQuery extends Query {
+
+    private final int k;
+    private final int[] docs;
+    private final float[] scores;
+    private final int[] segmentStarts;
+    private final Object contextIdentity;
+
+    /**
+     * Constructor
+     * @param k the number of documents requested
+     * @param docs the global docids of documents that match, in ascending order
+     * @param scores the scores of the matching documents
+     * @param segmentStarts the indexes in docs and scores corresponding to the first matching
+     *                      document in each segment. If a segment has no matching documents, it should be assigned
+     *                      the index of the next segment that does. There should be a final entry that is always
+     *                      docs.length.
+     * @param contextIdentity an object identifying the reader context that was used to build this query
+     */
+    DocAndScoreQuery(int k, int[] docs, float[] scores, int[] segmentStarts, Object contextIdentity) {
+      this.k = k;
+      this.docs = docs;
+      this.scores = scores;
+      this.segmentStarts = segmentStarts;
+      this.contextIdentity = contextIdentity;
+    }
+
+    @Override
+    public Weight createWeight(IndexSearcher searcher, ScoreMode scoreMode, float boost) {
+      if (searcher.getIndexReader().getContext().id() != contextIdentity) {
+        throw new IllegalStateException("This DocAndScore query was created by a different reader");
+      }
+      return new Weight(this) {
+        @Override
+        public Explanation explain(LeafReaderContext context, int doc) {
+          int found = Arrays.binarySearch(docs, doc + context.docBase);
+          if (found < 0) {
+            return Explanation.noMatch("not in top " + k);
+          }
+          return Explanation.match(scores[found] * boost, "within top " + k);
+        }
+
+        @Override
+        public Scorer scorer(LeafReaderContext context) {
+          if (segmentStarts[context.ord] == segmentStarts[context.ord + 1]) {
+            return null;
+          }
+          return new Scorer(this) {
+            final int lower = segmentStarts[context.ord];
+            final int upper = segmentStarts[context.ord + 1];
+            int upTo = -1;
+
+            @Override
+            public DocIdSetIterator iterator() {
+              return new DocIdSetIterator() {
+                @Override
+                public int docID() {
+                  return docIdNoShadow();
+                }
+
+                @Override
+                public int nextDoc() {
+                  if (upTo == -1) {
+                    upTo = lower;
+                  } else {
+                    ++upTo;
+                  }
+                  return docIdNoShadow();
+                }
+
+                @Override
+                public int advance(int target) throws IOException {
+                  return slowAdvance(target);
+                }
+
+                @Override
+                public long cost() {
+                  return upper - lower;
+                }
+              };
+            }
+
+            @Override
+            public float getMaxScore(int docId) {
+              docId += context.docBase;
+              float maxScore = 0;
+              for (int idx = Math.max(lower, upTo); idx < upper && docs[idx] <= docId; idx++) {
+                maxScore = Math.max(maxScore, scores[idx]);
+              }
+              return maxScore * boost;
+            }
+
+            @Override
+            public float score() {
+              return scores[upTo] * boost;
+            }
+
+            @Override
+            public int docID() {
+              return docIdNoShadow();
+            }
+
+            int docIdNoShadow() {
+              if (upTo == -1) {
+                return -1;
+              }
+              if (upTo >= upper) {
+                return DocIdSetIterator.NO_MORE_DOCS;
+              }
+              return docs[upTo] - context.docBase;
+            }
+          };
+        }
+
+        @Override
+        public boolean isCacheable(LeafReaderContext ctx) {
+          return true;
+        }
+      };
+    }
+
+    @Override
+    public String toString(String field) {
+      return "DocAndScore[" + k + "]";
+    }
+
+    @Override
+    public void visit(QueryVisitor visitor) {
+      visitor.visitLeaf(this);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (sameClassAs(obj) == false) {
+        return false;
+      }
+      return contextIdentity == ((DocAndScoreQuery) obj).contextIdentity
+          && Arrays.equals(docs, ((DocAndScoreQuery) obj).docs)
+          && Arrays.equals(scores, ((DocAndScoreQuery) obj).scores);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(classHash(), contextIdentity, Arrays.hashCode(docs), Arrays.hashCode(scores));
+    }
+  }
+}
@@ -29,6 +29,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Predicate;
 
@@ -39,9 +40,13 @@ import org.apache.lucene.index.ReaderUtil;
 import org.apache.lucene.index.TieredMergePolicy;
 import org.apache.lucene.util.Accountable;
 import org.apache.lucene.util.Accountables;
+import org.apache.lucene.util.ArrayUtil;
 import org.apache.lucene.util.BitDocIdSet;
+import org.apache.lucene.util.BitSetIterator;
 import org.apache.lucene.util.FixedBitSet;
+import org.apache.lucene.util.RamUsageEstimator;
 import org.apache.lucene.util.RoaringDocIdSet;
+import org.apache.lucene.util.SparseFixedBitSet;
 
 import static org.apache.lucene.util.RamUsageEstimator.HASHTABLE_RAM_BYTES_PER_ENTRY;
 import static org.apache.lucene.util.RamUsageEstimator.LINKED_HASHTABLE_RAM_BYTES_PER_ENTRY;
@@ -84,6 +89,11 @@ import static org.apache.lucene.util.RamUsageEstimator.QUERY_DEFAULT_RAM_BYTES_U
  * It is better to not perform heavy computations in these methods though since
  * they are called synchronously and under a lock.
  *
+ * Lookups do not wait for the lock: if it is held by another thread, the
+ * query is executed without the cache and the {@link #getContentionCount()
+ * contention count} is incremented. Under heavy concurrency, consider using a
+ * {@link ShardedLRUQueryCache} instead.
+ *
  * @see QueryCachingPolicy
  * @lucene.experimental
  */
@@ -110,6 +120,8 @@ public class LRUQueryCache implements QueryCache, Accountable {
   private volatile long missCount;
   private volatile long cacheCount;
   private volatile long cacheSize;
+  // incremented without holding the lock, by definition
+  private final LongAdder contentionCount = new LongAdder();
 
   /**
    * Expert: Create a new instance that will cache at most <code>maxSize</code>
@@ -482,23 +494,69 @@ public class LRUQueryCache implements QueryCache, Accountable {
   }
 
   /**
-   * Default cache implementation: uses {@link RoaringDocIdSet} for sets that
-   * have a density &lt; 1% and a {@link BitDocIdSet} over a {@link FixedBitSet}
-   * otherwise.
+   * Default cache implementation: uses a {@link BitDocIdSet} over a
+   * {@link FixedBitSet} for sets that have a density &gt;= 1%. Sparser sets use
+   * whichever of a {@link RoaringDocIdSet} or a {@link BitDocIdSet} over a
+   * {@link SparseFixedBitSet} requires the least memory, the latter being
+   * more compact when matches are clustered. The density is that of the
+   * documents that actually match, which may differ from the
+   * {@link BulkScorer#cost() cost} of the scorer, e.g. on multi-valued fields.
    */
   protected DocIdSet cacheImpl(BulkScorer scorer, int maxDoc) throws IOException {
     if (scorer.cost() * 100 >= maxDoc) {
       // FixedBitSet is faster for dense sets and will enable the random-access
       // optimization in ConjunctionDISI
-      return cacheIntoBitSet(scorer, maxDoc);
+      final FixedBitSet bitSet = cacheIntoBitSet(scorer, maxDoc);
+      final int cardinality = bitSet.cardinality();
+      if ((long) cardinality * 100 >= maxDoc) {
+        return new BitDocIdSet(bitSet, cardinality);
+      }
+      // fewer docs matched than the cost suggested
+      final DocIdSetIterator iterator = new BitSetIterator(bitSet, cardinality);
+      final int[] docs = new int[cardinality];
+      for (int i = 0; i < cardinality; ++i) {
+        docs[i] = iterator.nextDoc();
+      }
+      return cacheIntoSparseSet(docs, cardinality, maxDoc);
     } else {
-      return cacheIntoRoaringDocIdSet(scorer, maxDoc);
+      final DocBuffer buffer = new DocBuffer((int) scorer.cost());
+      scorer.score(buffer, null);
+      if ((long) buffer.length * 100 >= maxDoc) {
+        // more docs matched than the cost suggested
+        final FixedBitSet bitSet = new FixedBitSet(maxDoc);
+        for (int i = 0; i < buffer.length; ++i) {
+          bitSet.set(buffer.docs[i]);
+        }
+        return new BitDocIdSet(bitSet, buffer.length);
+      }
+      return cacheIntoSparseSet(buffer.docs, buffer.length, maxDoc);
+    }
+  }
+
+  // Collects doc IDs into a growable array
+  private static class DocBuffer implements LeafCollector {
+    int[] docs;
+    int length;
+
+    DocBuffer(int initialCapacity) {
+      docs = new int[Math.max(1, initialCapacity)];
+    }
+
+    @Override
+    public void setScorer(Scorable scorer) throws IOException {}
+
+    @Override
+    public void collect(int doc) throws IOException {
+      if (length == docs.length) {
+        // the cost under-estimated the number of matches
+        docs = ArrayUtil.grow(docs);
+      }
+      docs[length++] = doc;
     }
   }
 
-  private static DocIdSet cacheIntoBitSet(BulkScorer scorer, int maxDoc) throws IOException {
+  private static FixedBitSet cacheIntoBitSet(BulkScorer scorer, int maxDoc) throws IOException {
     final FixedBitSet bitSet = new FixedBitSet(maxDoc);
-    long cost[] = new long[1];
     scorer.score(new LeafCollector() {
 
       @Override
@@ -506,28 +564,109 @@ public class LRUQueryCache implements QueryCache, Accountable {
 
       @Override
       public void collect(int doc) throws IOException {
-        cost[0]++;
         bitSet.set(doc);
       }
 
     }, null);
-    return new BitDocIdSet(bitSet, cost[0]);
+    return bitSet;
   }
 
-  private static DocIdSet cacheIntoRoaringDocIdSet(BulkScorer scorer, int maxDoc) throws IOException {
-    RoaringDocIdSet.Builder builder = new RoaringDocIdSet.Builder(maxDoc);
-    scorer.score(new LeafCollector() {
+  // Cache the given sorted doc IDs into the representation that needs the least memory
+  private static DocIdSet cacheIntoSparseSet(int[] docs, int length, int maxDoc) {
+    final SparseSetEstimator estimator = new SparseSetEstimator(maxDoc);
+    for (int i = 0; i < length; ) {
+      final int word = docs[i] >>> 6;
+      int end = i + 1;
+      while (end < length && docs[end] >>> 6 == word) {
+        ++end;
+      }
+      estimator.addWord(word, end - i);
+      i = end;
+    }
 
-      @Override
-      public void setScorer(Scorable scorer) throws IOException {}
+    if (estimator.sparseBytesUsed() < estimator.roaringBytesUsed()) {
+      final SparseFixedBitSet bitSet = new SparseFixedBitSet(maxDoc);
+      for (int i = 0; i < length; ++i) {
+        bitSet.set(docs[i]);
+      }
+      return new BitDocIdSet(bitSet, length);
+    } else {
+      final RoaringDocIdSet.Builder builder = new RoaringDocIdSet.Builder(maxDoc);
+      for (int i = 0; i < length; ++i) {
+        builder.add(docs[i]);
+      }
+      return builder.build();
+    }
+  }
 
-      @Override
-      public void collect(int doc) throws IOException {
-        builder.add(doc);
+  /**
+   * Estimates the memory usage of a {@link RoaringDocIdSet} and of a
+   * {@link SparseFixedBitSet} that would hold a set of doc IDs, given the
+   * non-zero 64-bit words of the set in order.
+   */
+  private static class SparseSetEstimator {
+    // array header plus the object that wraps the array
+    private static final long ARRAY_OVERHEAD = RamUsageEstimator.NUM_BYTES_ARRAY_HEADER + RamUsageEstimator.NUM_BYTES_OBJECT_HEADER;
+    private static final int ROARING_BLOCK_SIZE = 1 << 16;
+    private static final int ROARING_MAX_ARRAY_LENGTH = 1 << 12;
+
+    private long roaringBytes;
+    private int roaringBlock = -1;
+    private int roaringBlockCardinality;
+
+    private long sparseBytes;
+    private int sparseBlock = -1;
+
+    SparseSetEstimator(int maxDoc) {
+      final long numRoaringBlocks = ((long) maxDoc + ROARING_BLOCK_SIZE - 1) >>> 16;
+      roaringBytes = RamUsageEstimator.NUM_BYTES_ARRAY_HEADER + numRoaringBlocks * RamUsageEstimator.NUM_BYTES_OBJECT_REF;
+      // one long index plus one reference to the array of bits per block of 4096 docs
+      final long numSparseBlocks = ((long) maxDoc + 4095) >>> 12;
+      sparseBytes = 2 * RamUsageEstimator.NUM_BYTES_ARRAY_HEADER
+          + numSparseBlocks * (Long.BYTES + RamUsageEstimator.NUM_BYTES_OBJECT_REF);
+    }
+
+    void addWord(int wordIndex, int bitCount) {
+      assert bitCount > 0;
+      final int block4096 = wordIndex >>> 6;
+      if (block4096 != sparseBlock) {
+        assert block4096 > sparseBlock;
+        sparseBytes += RamUsageEstimator.NUM_BYTES_ARRAY_HEADER;
+        sparseBlock = block4096;
       }
+      sparseBytes += Long.BYTES;
 
-    }, null);
-    return builder.build();
+      final int block65536 = wordIndex >>> 10;
+      if (block65536 != roaringBlock) {
+        assert block65536 > roaringBlock;
+        finishRoaringBlock();
+        roaringBlock = block65536;
+      }
+      roaringBlockCardinality += bitCount;
+    }
+
+    private void finishRoaringBlock() {
+      if (roaringBlockCardinality > 0) {
+        // sorted shorts for sparse blocks, including the complement of
+        // blocks that are almost full, and a bit set otherwise
+        final int numShorts = Math.min(roaringBlockCardinality, ROARING_BLOCK_SIZE - roaringBlockCardinality);
+        if (numShorts < ROARING_MAX_ARRAY_LENGTH) {
+          roaringBytes += ARRAY_OVERHEAD + Short.BYTES * numShorts;
+        } else {
+          roaringBytes += ARRAY_OVERHEAD + ROARING_BLOCK_SIZE / Byte.SIZE;
+        }
+        roaringBlockCardinality = 0;
+      }
+    }
+
+    long roaringBytesUsed() {
+      finishRoaringBlock();
+      return roaringBytes;
+    }
+
+    long sparseBytesUsed() {
+      return sparseBytes;
+    }
   }
 
   /**
@@ -566,6 +705,19 @@ public class LRUQueryCache implements QueryCache, Accountable {
     return missCount;
   }
 
+  /**
+   * Return how many times a lookup did not check the cache, and ran the query
+   * uncached instead, because another thread was holding the lock of this
+   * cache. Such lookups are counted neither as {@link #getHitCount() hits}
+   * nor as {@link #getMissCount() misses}. A high number compared to the
+   * {@link #getTotalCount() total count} suggests that the cache is contended
+   * and that a {@link ShardedLRUQueryCache} could help.
+   * @see #getTotalCount()
+   */
+  public final long getContentionCount() {
+    return contentionCount.sum();
+  }
+
   /**
    * Return the total number of {@link DocIdSet}s which are currently stored
    * in the cache.
@@ -729,6 +881,7 @@ public class LRUQueryCache implements QueryCache, Accountable {
 
       // If the lock is already busy, prefer using the uncached version than waiting
       if (lock.tryLock() == false) {
+        contentionCount.increment();
         return in.scorerSupplier(context);
       }
 
@@ -840,6 +993,7 @@ public class LRUQueryCache implements QueryCache, Accountable {
 
       // If the lock is already busy, prefer using the uncached version than waiting
       if (lock.tryLock() == false) {
+        contentionCount.increment();
         return in.bulkScorer(context);
       }
 
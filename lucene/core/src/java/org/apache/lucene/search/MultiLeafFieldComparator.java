@@ -40,8 +40,10 @@ final class MultiLeafFieldComparator implements LeafFieldComparator {
 
   @Override
   public void setBottom(int slot) throws IOException {
-    for (LeafFieldComparator comparator : comparators) {
-      comparator.setBottom(slot);
+    // set the bottom of tie-breakers first, as the first comparator may use
+    // their bottom values to skip non-competitive documents
+    for (int i = comparators.length - 1; i >= 0; --i) {
+      comparators[i].setBottom(slot);
     }
   }
 
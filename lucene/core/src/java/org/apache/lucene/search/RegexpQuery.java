@@ -134,9 +134,14 @@ public class RegexpQuery extends AutomatonQuery {
    */
   public RegexpQuery(Term term, int syntax_flags, int match_flags, AutomatonProvider provider,
       int maxDeterminizedStates) {
-    super(term,
-          new RegExp(term.text(), syntax_flags, match_flags).toAutomaton(
-                       provider, maxDeterminizedStates), maxDeterminizedStates);
+    super(term, CompiledAutomatonCache.compile(
+        // named automata are resolved by the provider, which may return
+        // different automata over time, so only cache the default provider
+        provider == defaultProvider
+            ? new CompiledAutomatonCache.Key(RegexpQuery.class, term.text(), syntax_flags, match_flags, maxDeterminizedStates)
+            : null,
+        () -> new RegExp(term.text(), syntax_flags, match_flags).toAutomaton(provider, maxDeterminizedStates),
+        maxDeterminizedStates));
   }
 
   /** Returns the regexp of this query wrapped in a Term. */
@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.search;
+
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.util.Accountable;
+import org.apache.lucene.util.Accountables;
+
+/**
+ * A {@link QueryCache} that stripes queries across several {@link LRUQueryCache}
+ * shards, based on the hash code of the query. Each shard has its own lock,
+ * so concurrent searches mostly contend on different locks, and fewer lookups
+ * are skipped because the lock is busy.
+ *
+ * All entries of a query, regardless of the segment, are stored in the same
+ * shard, and each shard evicts entries in LRU order independently of the
+ * other shards. The configured maximum number of queries and number of bytes
+ * are evenly split across shards, so the eviction order of this cache only
+ * approximates a global LRU.
+ *
+ * Note that {@link LRUQueryCache} only caches on segments whose dense
+ * representation is small compared to its maximum RAM usage, which here is
+ * the maximum RAM usage of a single shard. Using many shards with a small RAM
+ * budget may hence prevent caching on large segments.
+ *
+ * This class is thread-safe.
+ *
+ * @see LRUQueryCache
+ * @lucene.experimental
+ */
+public class ShardedLRUQueryCache implements QueryCache, Accountable {
+
+  private final LRUQueryCache[] shards;
+
+  /**
+   * Expert: Create a new instance with {@code numShards} shards that will
+   * cache at most <code>maxSize</code> queries with at most
+   * <code>maxRamBytesUsed</code> bytes of memory in total, only on leaves that
+   * satisfy {@code leavesToCache}.
+   * @see LRUQueryCache#LRUQueryCache(int, long, Predicate, float)
+   */
+  public ShardedLRUQueryCache(int numShards, int maxSize, long maxRamBytesUsed,
+                              Predicate<LeafReaderContext> leavesToCache, float skipCacheFactor) {
+    if (numShards < 1) {
+      throw new IllegalArgumentException("numShards must be at least 1, got " + numShards);
+    }
+    shards = new LRUQueryCache[numShards];
+    for (int i = 0; i < numShards; ++i) {
+      // distribute the remainders on the first shards so that sizes add up
+      final int shardMaxSize = maxSize / numShards + (i < maxSize % numShards ? 1 : 0);
+      final long shardMaxRamBytesUsed = maxRamBytesUsed / numShards + (i < maxRamBytesUsed % numShards ? 1 : 0);
+      shards[i] = new LRUQueryCache(shardMaxSize, shardMaxRamBytesUsed, leavesToCache, skipCacheFactor);
+    }
+  }
+
+  /**
+   * Create a new instance with {@code numShards} shards that will cache at
+   * most <code>maxSize</code> queries with at most <code>maxRamBytesUsed</code>
+   * bytes of memory in total, with the same leaf selection and skip factor as
+   * {@link LRUQueryCache#LRUQueryCache(int, long)}.
+   */
+  public ShardedLRUQueryCache(int numShards, int maxSize, long maxRamBytesUsed) {
+    this(numShards, maxSize, maxRamBytesUsed, new LRUQueryCache.MinSegmentSizePredicate(10000, .03f), 250);
+  }
+
+  /** Return the number of shards of this cache. */
+  public int getNumShards() {
+    return shards.length;
+  }
+
+  // pkg-private for testing
+  LRUQueryCache shard(Query query) {
+    int h = query.hashCode();
+    // queries often have poor low bits, mix in the high bits
+    h ^= (h >>> 16);
+    return shards[Math.floorMod(h, shards.length)];
+  }
+
+  @Override
+  public Weight doCache(Weight weight, QueryCachingPolicy policy) {
+    return shard(weight.getQuery()).doCache(weight, policy);
+  }
+
+  /**
+   * Remove all cache entries for the given core cache key.
+   */
+  public void clearCoreCacheKey(Object coreKey) {
+    for (LRUQueryCache shard : shards) {
+      shard.clearCoreCacheKey(coreKey);
+    }
+  }
+
+  /**
+   * Remove all cache entries for the given query.
+   */
+  public void clearQuery(Query query) {
+    shard(query).clearQuery(query);
+  }
+
+  /**
+   * Clear the content of this cache.
+   */
+  public void clear() {
+    for (LRUQueryCache shard : shards) {
+      shard.clear();
+    }
+  }
+
+  @Override
+  public long ramBytesUsed() {
+    long ramBytesUsed = 0;
+    for (LRUQueryCache shard : shards) {
+      ramBytesUsed += shard.ramBytesUsed();
+    }
+    return ramBytesUsed;
+  }
+
+  @Override
+  public Collection<Accountable> getChildResources() {
+    final List<Accountable> resources = new ArrayList<>(shards.length);
+    for (int i = 0; i < shards.length; ++i) {
+      resources.add(Accountables.namedAccountable("shard " + i, shards[i]));
+    }
+    return Collections.unmodifiableList(resources);
+  }
+
+  /**
+   * Sum of {@link LRUQueryCache#getTotalCount()} over all shards.
+   */
+  public final long getTotalCount() {
+    return getHitCount() + getMissCount();
+  }
+
+  /**
+   * Sum of {@link LRUQueryCache#getHitCount()} over all shards.
+   */
+  public final long getHitCount() {
+    long hitCount = 0;
+    for (LRUQueryCache shard : shards) {
+      hitCount += shard.getHitCount();
+    }
+    return hitCount;
+  }
+
+  /**
+   * Sum of {@link LRUQueryCache#getMissCount()} over all shards.
+   */
+  public final long getMissCount() {
+    long missCount = 0;
+    for (LRUQueryCache shard : shards) {
+      missCount += shard.getMissCount();
+    }
+    return missCount;
+  }
+
+  /**
+   * Sum of {@link LRUQueryCache#getContentionCount()} over all shards.
+   */
+  public final long getContentionCount() {
+    long contentionCount = 0;
+    for (LRUQueryCache shard : shards) {
+      contentionCount += shard.getContentionCount();
+    }
+    return contentionCount;
+  }
+
+  /**
+   * Sum of {@link LRUQueryCache#getCacheSize()} over all shards.
+   */
+  public final long getCacheSize() {
+    long cacheSize = 0;
+    for (LRUQueryCache shard : shards) {
+      cacheSize += shard.getCacheSize();
+    }
+    return cacheSize;
+  }
+
+  /**
+   * Sum of {@link LRUQueryCache#getCacheCount()} over all shards.
+   */
+  public final long getCacheCount() {
+    long cacheCount = 0;
+    for (LRUQueryCache shard : shards) {
+      cacheCount += shard.getCacheCount();
+    }
+    return cacheCount;
+  }
+
+  /**
+   * Sum of {@link LRUQueryCache#getEvictionCount()} over all shards.
+   */
+  public final long getEvictionCount() {
+    return getCacheCount() - getCacheSize();
+  }
+
+  // pkg-private for testing
+  void assertConsistent() {
+    for (LRUQueryCache shard : shards) {
+      shard.assertConsistent();
+    }
+  }
+}
@@ -476,7 +476,7 @@ public class SortField {
       return comparatorSource.newComparator(field, numHits, sortPos, reverse);
 
     case STRING:
-      return new FieldComparator.TermOrdValComparator(numHits, field, missingValue == STRING_LAST);
+      return new FieldComparator.TermOrdValComparator(numHits, field, missingValue == STRING_LAST, reverse, sortPos == 0);
 
     case STRING_VAL:
       return new FieldComparator.TermValComparator(numHits, field, missingValue == STRING_LAST);
@@ -41,6 +41,7 @@ import org.apache.lucene.util.Accountable;
 import org.apache.lucene.util.ArrayUtil;
 import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.BytesRefBuilder;
+import org.apache.lucene.util.BytesRefIterator;
 import org.apache.lucene.util.DocIdSetBuilder;
 import org.apache.lucene.util.RamUsageEstimator;
 import org.apache.lucene.util.automaton.Automata;
@@ -270,26 +271,26 @@ public class TermInSetQuery extends Query implements Accountable {
         List<TermAndState> matchingTerms = new ArrayList<>(threshold);
         DocIdSetBuilder builder = null;
 
-        for (BytesRef term = iterator.next(); term != null; term = iterator.next()) {
+        // terms are sorted, so seek them as a batch, which only returns the terms that exist
+        BytesRefIterator matches = termsEnum.seekExact(iterator);
+        for (BytesRef term = matches.next(); term != null; term = matches.next()) {
           assert field.equals(iterator.field());
-          if (termsEnum.seekExact(term)) {
-            if (matchingTerms == null) {
-              docs = termsEnum.postings(docs, PostingsEnum.NONE);
+          if (matchingTerms == null) {
+            docs = termsEnum.postings(docs, PostingsEnum.NONE);
+            builder.add(docs);
+          } else if (matchingTerms.size() < threshold) {
+            matchingTerms.add(new TermAndState(field, termsEnum));
+          } else {
+            assert matchingTerms.size() == threshold;
+            builder = new DocIdSetBuilder(reader.maxDoc(), terms);
+            docs = termsEnum.postings(docs, PostingsEnum.NONE);
+            builder.add(docs);
+            for (TermAndState t : matchingTerms) {
+              t.termsEnum.seekExact(t.term, t.state);
+              docs = t.termsEnum.postings(docs, PostingsEnum.NONE);
               builder.add(docs);
-            } else if (matchingTerms.size() < threshold) {
-              matchingTerms.add(new TermAndState(field, termsEnum));
-            } else {
-              assert matchingTerms.size() == threshold;
-              builder = new DocIdSetBuilder(reader.maxDoc(), terms);
-              docs = termsEnum.postings(docs, PostingsEnum.NONE);
-              builder.add(docs);
-              for (TermAndState t : matchingTerms) {
-                t.termsEnum.seekExact(t.term, t.state);
-                docs = t.termsEnum.postings(docs, PostingsEnum.NONE);
-                builder.add(docs);
-              }
-              matchingTerms = null;
             }
+            matchingTerms = null;
           }
         }
         if (matchingTerms != null) {
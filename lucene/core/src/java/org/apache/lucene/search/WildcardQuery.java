@@ -53,7 +53,7 @@ public class WildcardQuery extends AutomatonQuery {
    * Constructs a query for terms matching <code>term</code>. 
    */
   public WildcardQuery(Term term) {
-    super(term, toAutomaton(term));
+    this(term, Operations.DEFAULT_MAX_DETERMINIZED_STATES);
   }
   
   /**
@@ -64,7 +64,9 @@ public class WildcardQuery extends AutomatonQuery {
    *   space but can process more complex automata.
    */
   public WildcardQuery(Term term, int maxDeterminizedStates) {
-    super(term, toAutomaton(term), maxDeterminizedStates);
+    super(term, CompiledAutomatonCache.compile(
+        new CompiledAutomatonCache.Key(WildcardQuery.class, term.text(), 0, 0, maxDeterminizedStates),
+        () -> toAutomaton(term), maxDeterminizedStates));
   }
 
   /**
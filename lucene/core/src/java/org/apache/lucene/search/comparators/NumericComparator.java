@@ -27,6 +27,7 @@ import org.apache.lucene.search.LeafFieldComparator;
 import org.apache.lucene.search.Scorable;
 import org.apache.lucene.search.Scorer;
 import org.apache.lucene.util.DocIdSetBuilder;
+import org.apache.lucene.util.FixedBitSet;
 
 import java.io.IOException;
 import java.util.Arrays;
@@ -34,6 +35,8 @@ import java.util.Arrays;
 /**
  * Abstract numeric comparator for comparing numeric values.
  * This comparator provides a skipping functionality – an iterator that can skip over non-competitive documents.
+ * When the sort is tie-broken by another numeric field, documents that have the same value as the bottom entry
+ * may also be skipped based on the values of the tie-breaker.
  */
 public abstract class NumericComparator<T extends Number> extends FieldComparator<T> {
     protected final T missingValue;
@@ -47,6 +50,10 @@ public abstract class NumericComparator<T extends Number> extends FieldComparato
     protected boolean hitsThresholdReached;
     protected boolean queueFull;
 
+    private NumericComparator<?> tieBreaker; // comparator of the second and last sort field, if it is numeric
+    private boolean isTieBreaker; // if this comparator is the tie-breaker of a numeric primary sort
+    private NumericLeafComparator leafComparator; // leaf comparator of the current segment, only set on tie-breakers
+
     protected NumericComparator(String field, T missingValue, boolean reverse, int sortPos, int bytesCount) {
         this.field = field;
         this.missingValue = missingValue;
@@ -65,10 +72,19 @@ public abstract class NumericComparator<T extends Number> extends FieldComparato
         singleSort = true;
     }
 
+    @Override
+    public void setTieBreaker(FieldComparator<?> tieBreaker) {
+        if (primarySort && tieBreaker instanceof NumericComparator) {
+            this.tieBreaker = (NumericComparator<?>) tieBreaker;
+            this.tieBreaker.isTieBreaker = true;
+        }
+    }
+
     /**
      * Leaf comparator for {@link NumericComparator} that provides skipping functionality
      */
     public abstract class NumericLeafComparator implements LeafFieldComparator {
+        private final LeafReaderContext context;
         protected final NumericDocValues docValues;
         private final PointValues pointValues;
         private final boolean enableSkipping; // if skipping functionality should be enabled
@@ -78,14 +94,17 @@ public abstract class NumericComparator<T extends Number> extends FieldComparato
 
         private DocIdSetIterator competitiveIterator;
         private long iteratorCost;
-        private int maxDocVisited = 0;
+        private int maxDocVisited = -1;
         private int updateCounter = 0;
 
         public NumericLeafComparator(LeafReaderContext context) throws IOException {
+            this.context = context;
             this.docValues = getNumericDocValues(context, field);
-            this.pointValues = primarySort ? context.reader().getPointValues(field) : null;
+            this.pointValues = primarySort || isTieBreaker ? context.reader().getPointValues(field) : null;
             if (pointValues != null) {
-                this.enableSkipping = true; // skipping is enabled on primarySort and when points are available
+                // skipping is enabled on primarySort and when points are available,
+                // tie-breakers only use points to help the primary sort skip documents
+                this.enableSkipping = primarySort;
                 this.maxDoc = context.reader().maxDoc();
                 this.maxValueAsBytes = reverse == false ? new byte[bytesCount] : topValueSet ? new byte[bytesCount] : null;
                 this.minValueAsBytes = reverse ? new byte[bytesCount] : topValueSet ? new byte[bytesCount] : null;
@@ -97,6 +116,9 @@ public abstract class NumericComparator<T extends Number> extends FieldComparato
                 this.maxValueAsBytes = null;
                 this.minValueAsBytes = null;
             }
+            if (isTieBreaker) {
+                leafComparator = this;
+            }
         }
 
         /** Retrieves the NumericDocValues for the field in this segment */
@@ -154,7 +176,40 @@ public abstract class NumericComparator<T extends Number> extends FieldComparato
             }
 
             DocIdSetBuilder result = new DocIdSetBuilder(maxDoc);
-            PointValues.IntersectVisitor visitor = new PointValues.IntersectVisitor() {
+            PointValues.IntersectVisitor visitor = newCompetitiveVisitor(result, singleSort, null);
+            final long threshold = iteratorCost >>> 3;
+            long estimatedNumberOfMatches = pointValues.estimatePointCount(visitor); // runs in O(log(numPoints))
+            if (estimatedNumberOfMatches >= threshold) {
+                final NumericComparator<?>.NumericLeafComparator tieBreakerLeaf = getTieBreakerLeafComparator();
+                if (tieBreakerLeaf == null) {
+                    // the new range is not selective enough to be worth materializing, it doesn't reduce number of docs at least 8x
+                    return;
+                }
+                // many documents may have the same value as the bottom entry, but they are only competitive if their
+                // tie-breaker value is strictly better than the bottom entry's, as the tie-breaker is the last sort field
+                estimatedNumberOfMatches = pointValues.estimatePointCount(newCompetitiveVisitor(null, true, null))
+                        + tieBreakerLeaf.estimateStrictlyCompetitiveCount();
+                if (estimatedNumberOfMatches >= threshold) {
+                    return;
+                }
+                visitor = newCompetitiveVisitor(result, false, tieBreakerLeaf.getStrictlyCompetitiveDocs());
+            }
+            pointValues.intersect(visitor);
+            competitiveIterator = result.build().iterator();
+            iteratorCost = competitiveIterator.cost();
+        }
+
+        /**
+         * Returns a visitor that collects competitive documents into {@code result}, which may be {@code null} if the
+         * visitor is only used to estimate the number of competitive documents. If {@code strict} is true, documents that
+         * have the same value as the bottom or top entry are not competitive. If {@code tieBreakerDocs} is not null,
+         * documents that have the same value as the bottom entry are only competitive if they are in this set.
+         */
+        private PointValues.IntersectVisitor newCompetitiveVisitor(DocIdSetBuilder result, boolean strict, FixedBitSet tieBreakerDocs) {
+            // the bottom value is the max value in ascending order, and the min value in descending order
+            final boolean filterTiesOnMax = tieBreakerDocs != null && reverse == false;
+            final boolean filterTiesOnMin = tieBreakerDocs != null && reverse;
+            return new PointValues.IntersectVisitor() {
                 DocIdSetBuilder.BulkAdder adder;
 
                 @Override
@@ -178,12 +233,15 @@ public abstract class NumericComparator<T extends Number> extends FieldComparato
                     if (maxValueAsBytes != null) {
                         int cmp = Arrays.compareUnsigned(packedValue, 0, bytesCount, maxValueAsBytes, 0, bytesCount);
                         // if doc's value is too high or for single sort even equal, it is not competitive and the doc can be skipped
-                        if (cmp > 0 || (singleSort && cmp == 0)) return;
+                        if (cmp > 0 || (strict && cmp == 0)) return;
+                        // if doc's value is equal to the bottom, it is only competitive if its tie-breaker is competitive
+                        if (filterTiesOnMax && cmp == 0 && tieBreakerDocs.get(docID) == false) return;
                     }
                     if (minValueAsBytes != null) {
                         int cmp = Arrays.compareUnsigned(packedValue, 0, bytesCount, minValueAsBytes, 0, bytesCount);
                         // if doc's value is too low or for single sort even equal, it is not competitive and the doc can be skipped
-                        if (cmp < 0 || (singleSort && cmp == 0)) return;
+                        if (cmp < 0 || (strict && cmp == 0)) return;
+                        if (filterTiesOnMin && cmp == 0 && tieBreakerDocs.get(docID) == false) return;
                     }
                     adder.add(docID); // doc is competitive
                 }
@@ -192,28 +250,56 @@ public abstract class NumericComparator<T extends Number> extends FieldComparato
                 public PointValues.Relation compare(byte[] minPackedValue, byte[] maxPackedValue) {
                     if (maxValueAsBytes != null) {
                         int cmp = Arrays.compareUnsigned(minPackedValue, 0, bytesCount, maxValueAsBytes, 0, bytesCount);
-                        if (cmp > 0 || (singleSort && cmp == 0)) return PointValues.Relation.CELL_OUTSIDE_QUERY;
+                        if (cmp > 0 || (strict && cmp == 0)) return PointValues.Relation.CELL_OUTSIDE_QUERY;
                     }
                     if (minValueAsBytes != null) {
                         int cmp =  Arrays.compareUnsigned(maxPackedValue, 0, bytesCount, minValueAsBytes, 0, bytesCount);
-                        if (cmp < 0 || (singleSort && cmp == 0)) return PointValues.Relation.CELL_OUTSIDE_QUERY;
+                        if (cmp < 0 || (strict && cmp == 0)) return PointValues.Relation.CELL_OUTSIDE_QUERY;
                     }
                     if ((maxValueAsBytes != null && Arrays.compareUnsigned(maxPackedValue, 0, bytesCount, maxValueAsBytes, 0, bytesCount) > 0) ||
                             (minValueAsBytes != null && Arrays.compareUnsigned(minPackedValue, 0, bytesCount, minValueAsBytes, 0, bytesCount) < 0)) {
                         return PointValues.Relation.CELL_CROSSES_QUERY;
                     }
+                    // cells that may contain the bottom value need to check the tie-breaker of these documents
+                    if ((filterTiesOnMax && Arrays.compareUnsigned(maxPackedValue, 0, bytesCount, maxValueAsBytes, 0, bytesCount) == 0) ||
+                            (filterTiesOnMin && Arrays.compareUnsigned(minPackedValue, 0, bytesCount, minValueAsBytes, 0, bytesCount) == 0)) {
+                        return PointValues.Relation.CELL_CROSSES_QUERY;
+                    }
                     return PointValues.Relation.CELL_INSIDE_QUERY;
                 }
             };
-            final long threshold = iteratorCost >>> 3;
-            long estimatedNumberOfMatches = pointValues.estimatePointCount(visitor); // runs in O(log(numPoints))
-            if (estimatedNumberOfMatches >= threshold) {
-                // the new range is not selective enough to be worth materializing, it doesn't reduce number of docs at least 8x
-                return;
+        }
+
+        // returns the leaf comparator of the tie-breaker on this segment if it can be used to skip
+        // documents that have the same value as the bottom entry, or null otherwise
+        private NumericComparator<?>.NumericLeafComparator getTieBreakerLeafComparator() {
+            if (tieBreaker == null || topValueSet || tieBreaker.topValueSet || tieBreaker.queueFull == false) {
+                return null;
             }
-            pointValues.intersect(visitor);
-            competitiveIterator = result.build().iterator();
-            iteratorCost = competitiveIterator.cost();
+            final NumericComparator<?>.NumericLeafComparator tieBreakerLeaf = tieBreaker.leafComparator;
+            if (tieBreakerLeaf == null || tieBreakerLeaf.context != context || tieBreakerLeaf.pointValues == null) {
+                return null;
+            }
+            if ((tieBreakerLeaf.pointValues.getDocCount() < maxDoc) && tieBreakerLeaf.isMissingValueCompetitive()) {
+                return null; // documents with missing values may have a competitive tie-breaker
+            }
+            return tieBreakerLeaf;
+        }
+
+        // estimates the number of documents whose value is strictly better than the bottom entry
+        private long estimateStrictlyCompetitiveCount() {
+            encodeBottom(reverse == false ? maxValueAsBytes : minValueAsBytes);
+            return pointValues.estimatePointCount(newCompetitiveVisitor(null, true, null));
+        }
+
+        // returns the documents whose value is strictly better than the bottom entry
+        private FixedBitSet getStrictlyCompetitiveDocs() throws IOException {
+            encodeBottom(reverse == false ? maxValueAsBytes : minValueAsBytes);
+            DocIdSetBuilder result = new DocIdSetBuilder(maxDoc);
+            pointValues.intersect(newCompetitiveVisitor(result, true, null));
+            FixedBitSet docs = new FixedBitSet(maxDoc);
+            docs.or(result.build().iterator());
+            return docs;
         }
 
         @Override
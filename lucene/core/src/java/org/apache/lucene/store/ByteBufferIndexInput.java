@@ -145,12 +145,32 @@ public abstract class ByteBufferIndexInput extends IndexInput implements RandomA
       // if the above call succeeded, then we know the below sum cannot overflow
       curBuf.position(position + (length << 3));
     } catch (BufferUnderflowException e) {
-      super.readLELongs(dst, offset, length);
+      readLELongsAcrossBuffers(dst, offset, length);
     } catch (NullPointerException npe) {
       throw new AlreadyClosedException("Already closed: " + this);
     }
   }
 
+  /**
+   * Slow path of {@link #readLELongs} when the longs to read cross a buffer boundary: the longs that
+   * are fully contained in the current buffer are still read in bulk, and only the long that straddles
+   * the boundary is read byte by byte, before continuing in bulk with the next buffer.
+   */
+  private void readLELongsAcrossBuffers(long[] dst, int offset, int length) throws IOException {
+    final int longsInCurBuf = Math.min(length, curBuf.remaining() >>> 3);
+    if (longsInCurBuf > 0) {
+      readLELongs(dst, offset, longsInCurBuf);
+    }
+    if (longsInCurBuf < length) {
+      // either this long straddles two buffers, or we are reading past EOF
+      dst[offset + longsInCurBuf] = Long.reverseBytes(readLong());
+      final int remaining = length - longsInCurBuf - 1;
+      if (remaining > 0) {
+        readLELongs(dst, offset + longsInCurBuf + 1, remaining);
+      }
+    }
+  }
+
   @Override
   public final short readShort() throws IOException {
     try {
@@ -227,14 +247,19 @@ public abstract class ByteBufferIndexInput extends IndexInput implements RandomA
     }
   }
   
-  // used only by random access methods to handle reads across boundaries
-  private void setPos(long pos, int bi) throws IOException {
+  // used only by random access methods to handle reads across boundaries: assembles the big-endian
+  // value byte by byte without moving the current buffer of this input, so that sequential reads
+  // (and the cached long views of the current buffer) are not disturbed
+  private long readAcrossBuffers(long pos, int numBytes) throws IOException {
     try {
-      final ByteBuffer b = buffers[bi];
-      b.position((int) (pos & chunkSizeMask));
-      this.curBufIndex = bi;
-      setCurBuf(b);
-    } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException aioobe) {
+      long value = 0;
+      for (int i = 0; i < numBytes; ++i) {
+        final long bytePos = pos + i;
+        final ByteBuffer b = buffers[(int) (bytePos >> chunkSizePower)];
+        value = (value << 8) | (guard.getByte(b, (int) (bytePos & chunkSizeMask)) & 0xFFL);
+      }
+      return value;
+    } catch (IndexOutOfBoundsException ioobe) {
       throw new EOFException("seek past EOF: " + this);
     } catch (NullPointerException npe) {
       throw new AlreadyClosedException("Already closed: " + this);
@@ -248,8 +273,7 @@ public abstract class ByteBufferIndexInput extends IndexInput implements RandomA
       return guard.getShort(buffers[bi], (int) (pos & chunkSizeMask));
     } catch (IndexOutOfBoundsException ioobe) {
       // either it's a boundary, or read past EOF, fall back:
-      setPos(pos, bi);
-      return readShort();
+      return (short) readAcrossBuffers(pos, Short.BYTES);
     } catch (NullPointerException npe) {
       throw new AlreadyClosedException("Already closed: " + this);
     }
@@ -262,8 +286,7 @@ public abstract class ByteBufferIndexInput extends IndexInput implements RandomA
       return guard.getInt(buffers[bi], (int) (pos & chunkSizeMask));
     } catch (IndexOutOfBoundsException ioobe) {
       // either it's a boundary, or read past EOF, fall back:
-      setPos(pos, bi);
-      return readInt();
+      return (int) readAcrossBuffers(pos, Integer.BYTES);
     } catch (NullPointerException npe) {
       throw new AlreadyClosedException("Already closed: " + this);
     }
@@ -276,13 +299,28 @@ public abstract class ByteBufferIndexInput extends IndexInput implements RandomA
       return guard.getLong(buffers[bi], (int) (pos & chunkSizeMask));
     } catch (IndexOutOfBoundsException ioobe) {
       // either it's a boundary, or read past EOF, fall back:
-      setPos(pos, bi);
-      return readLong();
+      return readAcrossBuffers(pos, Long.BYTES);
     } catch (NullPointerException npe) {
       throw new AlreadyClosedException("Already closed: " + this);
     }
   }
 
+  /**
+   * {@inheritDoc}
+   * <p>
+   * This implementation only checks the bounds of the range. Hinting mapped
+   * pages requires madvise(MADV_WILLNEED), which Java can't call. The
+   * closest option, {@link java.nio.MappedByteBuffer#load()}, blocks until
+   * pages are loaded, so it would serialize the reads that this hint is
+   * meant to overlap.
+   */
+  @Override
+  public void prefetch(long offset, long length) throws IOException {
+    if (offset < 0 || length < 0 || offset + length > this.length) {
+      throw new IllegalArgumentException("prefetch() out of bounds: offset=" + offset + ",length=" + length + ",fileLength=" + this.length + ": " + this);
+    }
+  }
+
   @Override
   public final long length() {
     return length;
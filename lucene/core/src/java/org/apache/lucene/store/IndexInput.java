@@ -102,6 +102,19 @@ public abstract class IndexInput extends DataInput implements Cloneable,Closeabl
    */
   public abstract IndexInput slice(String sliceDescription, long offset, long length) throws IOException;
 
+  /**
+   * Optional method: Give a hint to this input that the given range of bytes
+   * is about to be read, so that it may be loaded ahead of time. Callers may
+   * issue several hints before reading in order to let the underlying storage
+   * fetch them in parallel. This is only a hint: implementations should not wait
+   * for the data to be loaded, and may ignore it. This does not change the file pointer.
+   * <p>
+   * The default implementation does nothing.
+   * @param offset the start of the range, relative to the beginning of this input
+   * @param length the number of bytes in the range
+   */
+  public void prefetch(long offset, long length) throws IOException {}
+
   /** Subclasses call this to get the String for resourceDescription of a slice of this {@code IndexInput}. */
   protected String getFullSliceDescription(String sliceDescription) {
     if (sliceDescription == null) {
@@ -150,6 +163,11 @@ public abstract class IndexInput extends DataInput implements Cloneable,Closeabl
           return slice.readLong();
         }
 
+        @Override
+        public void prefetch(long offset, long length) throws IOException {
+          slice.prefetch(offset, length);
+        }
+
         @Override
         public String toString() {
           return "RandomAccessInput(" + IndexInput.this.toString() + ")";
@@ -46,4 +46,18 @@ public interface RandomAccessInput {
    * @see DataInput#readLong
    */
   public long readLong(long pos) throws IOException;
+
+  /**
+   * Optional method: Give a hint to this input that the given range of bytes
+   * is about to be read, so that it may be loaded ahead of time. Callers may
+   * issue several hints before reading in order to let the underlying storage
+   * fetch them in parallel. This is only a hint: implementations should not wait
+   * for the data to be loaded, and may ignore it.
+   * <p>
+   * The default implementation does nothing.
+   * @param offset the start of the range, relative to the beginning of this input
+   * @param length the number of bytes in the range
+   * @see IndexInput#prefetch(long, long)
+   */
+  default void prefetch(long offset, long length) throws IOException {}
 }
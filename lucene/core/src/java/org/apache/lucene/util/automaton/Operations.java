@@ -682,8 +682,13 @@ final public class Operations {
     //System.out.println("DET:");
     //a.writeDot("/l/la/lucene/core/detin.dot");
 
+    // like Map<Integer,Integer>, from NFA state to count
+    final StateSet statesSet = new StateSet(5);
+
     // Same initial values and state will always have the same hashCode
-    FrozenIntSet initialset = new FrozenIntSet(new int[] { 0 }, 683, 0);
+    statesSet.incr(0);
+    FrozenIntSet initialset = statesSet.freeze(0);
+    statesSet.decr(0);
 
     // Create state 0:
     b.createState();
@@ -699,9 +704,6 @@ final public class Operations {
     // like Set<Integer,PointTransitions>
     final PointTransitionSet points = new PointTransitionSet();
 
-    // like SortedMap<Integer,Integer>
-    final SortedIntSet statesSet = new SortedIntSet(5);
-
     Transition t = new Transition();
 
     while (worklist.size() > 0) {
@@ -735,11 +737,9 @@ final public class Operations {
 
         final int point = points.points[i].point;
 
-        if (statesSet.upto > 0) {
+        if (statesSet.size() > 0) {
           assert lastPoint != -1;
 
-          statesSet.computeHash();
-          
           Integer q = newstate.get(statesSet);
           if (q == null) {
             q = b.createState();
@@ -785,7 +785,7 @@ final public class Operations {
         points.points[i].starts.next = 0;
       }
       points.reset();
-      assert statesSet.upto == 0: "upto=" + statesSet.upto;
+      assert statesSet.size() == 0: "size=" + statesSet.size();
     }
 
     Automaton result = b.finish();
@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.util.automaton;
+
+import java.util.Arrays;
+
+import org.apache.lucene.util.ArrayUtil;
+
+// Holds a set of states, plus a count per state.  Used by
+// Operations.determinize to track the NFA states that the
+// current DFA state transitions to.  States and their counts
+// live in an open-addressing hash table so that incr and decr
+// are constant time regardless of how many states are in the
+// set, and the hash code is order-independent and maintained
+// as states come and go, so that it never needs to be
+// recomputed.  The sorted array of states is only built when
+// the set is compared to another set or frozen.
+final class StateSet extends IntSet {
+
+  private static final int EMPTY = -1;
+
+  private int[] keys;
+  private int[] counts;
+  private int mask;
+  private int size;
+  private int hashCode;
+
+  private int[] sortedValues = new int[0];
+  private boolean sortedValuesUpToDate = true;
+
+  StateSet(int capacity) {
+    int tableSize = Math.max(4, Integer.highestOneBit(Math.max(1, capacity)) << 2);
+    keys = new int[tableSize];
+    Arrays.fill(keys, EMPTY);
+    counts = new int[tableSize];
+    mask = tableSize - 1;
+  }
+
+  // murmur3's fmix32
+  private static int mix(int key) {
+    key ^= key >>> 16;
+    key *= 0x85ebca6b;
+    key ^= key >>> 13;
+    key *= 0xc2b2ae35;
+    key ^= key >>> 16;
+    return key;
+  }
+
+  private int slot(int state) {
+    int slot = mix(state) & mask;
+    while (keys[slot] != EMPTY && keys[slot] != state) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  // Adds this state to the set
+  void incr(int state) {
+    assert state >= 0;
+    int slot = slot(state);
+    if (keys[slot] == EMPTY) {
+      keys[slot] = state;
+      counts[slot] = 1;
+      keyAdded(state);
+      if (size << 1 > keys.length) {
+        rehash(keys.length << 1);
+      }
+    } else {
+      counts[slot]++;
+    }
+  }
+
+  // Removes this state from the set, if count decrs to 0
+  void decr(int state) {
+    int slot = slot(state);
+    assert keys[slot] == state: "state " + state + " is not in the set";
+    if (--counts[slot] == 0) {
+      keyRemoved(state);
+      // backward shift deletion, so that no entry moves before its ideal slot
+      int hole = slot;
+      for (int i = (hole + 1) & mask; keys[i] != EMPTY; i = (i + 1) & mask) {
+        final int ideal = mix(keys[i]) & mask;
+        if (((i - ideal) & mask) >= ((i - hole) & mask)) {
+          keys[hole] = keys[i];
+          counts[hole] = counts[i];
+          hole = i;
+        }
+      }
+      keys[hole] = EMPTY;
+      counts[hole] = 0;
+    }
+  }
+
+  private void keyAdded(int state) {
+    size++;
+    hashCode += mix(state);
+    sortedValuesUpToDate = false;
+  }
+
+  private void keyRemoved(int state) {
+    size--;
+    hashCode -= mix(state);
+    sortedValuesUpToDate = false;
+  }
+
+  private void rehash(int newTableSize) {
+    final int[] oldKeys = keys;
+    final int[] oldCounts = counts;
+    keys = new int[newTableSize];
+    Arrays.fill(keys, EMPTY);
+    counts = new int[newTableSize];
+    mask = newTableSize - 1;
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != EMPTY) {
+        final int slot = slot(oldKeys[i]);
+        keys[slot] = oldKeys[i];
+        counts[slot] = oldCounts[i];
+      }
+    }
+  }
+
+  /**
+   * Create a snapshot of this int set associated with a given state. The snapshot will not retain any frequency
+   * information about the elements of this set, only existence.
+   * @param state the state to associate with the frozen set.
+   * @return A new FrozenIntSet with the same values as this set.
+   */
+  FrozenIntSet freeze(int state) {
+    return new FrozenIntSet(ArrayUtil.copyOfSubArray(getArray(), 0, size), hashCode, state);
+  }
+
+  @Override
+  int[] getArray() {
+    if (sortedValuesUpToDate == false) {
+      if (sortedValues.length < size) {
+        sortedValues = new int[ArrayUtil.oversize(size, Integer.BYTES)];
+      }
+      int upto = 0;
+      for (int key : keys) {
+        if (key != EMPTY) {
+          sortedValues[upto++] = key;
+        }
+      }
+      assert upto == size;
+      Arrays.sort(sortedValues, 0, size);
+      sortedValuesUpToDate = true;
+    }
+    return sortedValues;
+  }
+
+  @Override
+  int size() {
+    return size;
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder().append('[');
+    final int[] values = getArray();
+    for(int i=0;i<size;i++) {
+      if (i > 0) {
+        sb.append(' ');
+      }
+      sb.append(values[i]).append(':').append(counts[slot(values[i])]);
+    }
+    sb.append(']');
+    return sb.toString();
+  }
+
+}
@@ -21,7 +21,13 @@ import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.IntFunction;
 
 import org.apache.lucene.codecs.CodecUtil;
@@ -30,6 +36,7 @@ import org.apache.lucene.index.MergeState;
 import org.apache.lucene.index.PointValues.IntersectVisitor;
 import org.apache.lucene.index.PointValues.Relation;
 import org.apache.lucene.store.ByteBuffersDataOutput;
+import org.apache.lucene.store.ByteBuffersIndexOutput;
 import org.apache.lucene.store.ChecksumIndexInput;
 import org.apache.lucene.store.DataOutput;
 import org.apache.lucene.store.Directory;
@@ -52,7 +59,6 @@ import org.apache.lucene.util.PriorityQueue;
 //     (monotonic) long[] leafBlockFPs; or we could use MonotonicLongValues ... but then
 //     the index is already plenty small: 60M OSM points --> 1.1 MB with 128 points
 //     per leaf, and you can reduce that by putting more points per leaf
-//   - we could use threads while building; the higher nodes are very parallelizable
 
 /**
  *  Recursively builds a block KD-tree to assign all incoming points in N-dim space to smaller
@@ -69,6 +75,10 @@ import org.apache.lucene.util.PriorityQueue;
  *  a <code>byte[numLeaves*(1+config.bytesPerDim)]</code> and then uses up to the specified
  *  {@code maxMBSortInHeap} heap space for writing.
  *
+ *  <p>If a build {@link Executor} is provided, partitions that fit in heap have their
+ *  subtrees built concurrently when merging N-dim points, see
+ *  {@link #BKDWriter(int, Directory, String, BKDConfig, double, long, Executor)}.
+ *
  *  <p>
  *  <b>NOTE</b>: This can write at most Integer.MAX_VALUE * <code>config.maxPointsInLeafNode</code> / config.bytesPerDim
  *  total points.
@@ -91,6 +101,8 @@ public class BKDWriter implements Closeable {
   private static final int SPLITS_BEFORE_EXACT_BOUNDS = 4;
   /** Default maximum heap to use, before spilling to (slower) disk */
   public static final float DEFAULT_MAX_MB_SORT_IN_HEAP = 16.0f;
+  /** Subtrees that have at most this number of leaves are built by a single task when building concurrently. */
+  static final int MAX_LEAVES_PER_BUILD_TASK = 32;
 
   /** BKD tree configuration */
   protected final BKDConfig config;
@@ -127,8 +139,27 @@ public class BKDWriter implements Closeable {
 
   private final int maxDoc;
 
+  /** Executor used to build independent subtrees concurrently, or {@code null} to build sequentially */
+  private final Executor buildExecutor;
+
   public BKDWriter(int maxDoc, Directory tempDir, String tempFileNamePrefix, BKDConfig config,
                    double maxMBSortInHeap, long totalPointCount) {
+    this(maxDoc, tempDir, tempFileNamePrefix, config, maxMBSortInHeap, totalPointCount, null);
+  }
+
+  /**
+   * Create a writer that uses the given {@link Executor} to build independent subtrees
+   * concurrently once a partition of the points fits in heap. This only applies to points
+   * that are added through {@link #add} or merged with more than one dimension:
+   * {@link #writeField} builds the tree of {@link MutablePointValues} sequentially as they are
+   * not required to be thread-safe, and 1D points are written sequentially as they are
+   * streamed in sorted order. The resulting tree is the same as if it had been built
+   * sequentially. A {@code null} executor disables concurrency.
+   * <p><b>NOTE</b>: subtrees that are built concurrently use the default {@link #split}
+   * implementation.
+   */
+  public BKDWriter(int maxDoc, Directory tempDir, String tempFileNamePrefix, BKDConfig config,
+                   double maxMBSortInHeap, long totalPointCount, Executor buildExecutor) {
     verifyParams(maxMBSortInHeap, totalPointCount);
     // We use tracking dir to deal with removing files on exception, so each place that
     // creates temp files doesn't need crazy try/finally/sucess logic:
@@ -160,6 +191,28 @@ public class BKDWriter implements Closeable {
           + maxPointsSortInHeap + ", but this is less than maxPointsInLeafNode=" + config.maxPointsInLeafNode + "; "
           + "either increase maxMBSortInHeap or decrease maxPointsInLeafNode");
     }
+
+    this.buildExecutor = buildExecutor;
+  }
+
+  /** Create a writer that shares the configuration of {@code parent} but has its own scratch space,
+   *  in order to build a subtree concurrently with other subtrees. */
+  private BKDWriter(BKDWriter parent) {
+    this.tempDir = parent.tempDir;
+    this.tempFileNamePrefix = parent.tempFileNamePrefix;
+    this.maxMBSortInHeap = parent.maxMBSortInHeap;
+    this.totalPointCount = parent.totalPointCount;
+    this.maxDoc = parent.maxDoc;
+    this.config = parent.config;
+    this.docsSeen = parent.docsSeen;
+    scratchDiff = new byte[config.bytesPerDim];
+    scratch1 = new byte[config.packedBytesLength];
+    scratch2 = new byte[config.packedBytesLength];
+    commonPrefixLengths = new int[config.numDims];
+    minPackedValue = new byte[config.packedIndexBytesLength];
+    maxPackedValue = new byte[config.packedIndexBytesLength];
+    maxPointsSortInHeap = parent.maxPointsSortInHeap;
+    buildExecutor = null;
   }
 
   private static void verifyParams(double maxMBSortInHeap, long totalPointCount) {
@@ -1479,7 +1532,11 @@ public class BKDWriter implements Closeable {
                      long[] leafBlockFPs,
                      int[] spareDocIds) throws IOException {
 
-    if (numLeaves == 1) {
+    if (buildExecutor != null && numLeaves > MAX_LEAVES_PER_BUILD_TASK && points.writer instanceof HeapPointWriter) {
+      // The partition fits in heap: its subtrees are independent from each other
+      buildConcurrently(leavesOffset, numLeaves, points, out, minPackedValue, maxPackedValue,
+          parentSplits, splitPackedValues, splitDimensionValues, leafBlockFPs);
+    } else if (numLeaves == 1) {
 
       // Leaf node: write block
       // We can write the block in any order so by default we write it sorted by the dimension that has the
@@ -1572,66 +1629,211 @@ public class BKDWriter implements Closeable {
     } else {
       // Inner node: partition/recurse
 
-      final int splitDim;
-      if (config.numIndexDims == 1) {
-        splitDim = 0;
-      } else {
-        // for dimensions > 2 we recompute the bounds for the current inner node to help the algorithm choose best
-        // split dimensions. Because it is an expensive operation, the frequency we recompute the bounds is given
-        // by SPLITS_BEFORE_EXACT_BOUNDS.
-        if (numLeaves != leafBlockFPs.length && config.numIndexDims > 2 && Arrays.stream(parentSplits).sum() % SPLITS_BEFORE_EXACT_BOUNDS == 0) {
-          computePackedValueBounds(points, minPackedValue, maxPackedValue);
-        }
-        splitDim = split(minPackedValue, maxPackedValue, parentSplits);
-      }
+      final InnerNodeSplit split = splitInnerNode(leavesOffset, numLeaves, points, radixSelector,
+          minPackedValue, maxPackedValue, parentSplits, splitPackedValues, splitDimensionValues, leafBlockFPs);
 
-      assert numLeaves <= leafBlockFPs.length : "numLeaves=" + numLeaves + " leafBlockFPs.length=" + leafBlockFPs.length;
+      parentSplits[split.splitDim]++;
+      // Recurse on left tree:
+      build(leavesOffset, split.numLeftLeafNodes, split.leftPoints,
+          out, radixSelector, minPackedValue, split.maxLeftPackedValue,
+          parentSplits, splitPackedValues, splitDimensionValues, leafBlockFPs, spareDocIds);
 
-      // How many leaves will be in the left tree:
-      final int numLeftLeafNodes = getNumLeftLeafNodes(numLeaves);
-      // How many points will be in the left tree:
-      final long leftCount = numLeftLeafNodes * config.maxPointsInLeafNode;
+      // Recurse on right tree:
+      build(leavesOffset + split.numLeftLeafNodes, numLeaves - split.numLeftLeafNodes, split.rightPoints,
+          out, radixSelector, split.minRightPackedValue, maxPackedValue,
+          parentSplits, splitPackedValues, splitDimensionValues, leafBlockFPs, spareDocIds);
 
-      BKDRadixSelector.PathSlice[] slices = new BKDRadixSelector.PathSlice[2];
+      parentSplits[split.splitDim]--;
+    }
+  }
 
-      int commonPrefixLen = Arrays.mismatch(minPackedValue, splitDim * config.bytesPerDim,
-          splitDim * config.bytesPerDim + config.bytesPerDim, maxPackedValue, splitDim * config.bytesPerDim,
-          splitDim * config.bytesPerDim + config.bytesPerDim);
-      if (commonPrefixLen == -1) {
-        commonPrefixLen = config.bytesPerDim;
+  /** The points and bounds of the children of an inner node. */
+  private static final class InnerNodeSplit {
+    final int splitDim;
+    final int numLeftLeafNodes;
+    final BKDRadixSelector.PathSlice leftPoints, rightPoints;
+    final byte[] maxLeftPackedValue, minRightPackedValue;
+
+    InnerNodeSplit(int splitDim, int numLeftLeafNodes,
+                   BKDRadixSelector.PathSlice leftPoints, BKDRadixSelector.PathSlice rightPoints,
+                   byte[] maxLeftPackedValue, byte[] minRightPackedValue) {
+      this.splitDim = splitDim;
+      this.numLeftLeafNodes = numLeftLeafNodes;
+      this.leftPoints = leftPoints;
+      this.rightPoints = rightPoints;
+      this.maxLeftPackedValue = maxLeftPackedValue;
+      this.minRightPackedValue = minRightPackedValue;
+    }
+  }
+
+  /** Partition the points of an inner node around the split value of its split dimension, and record the split
+   *  dimension and value. The left child keeps the min packed value of the inner node and the right child keeps
+   *  its max packed value. */
+  private InnerNodeSplit splitInnerNode(int leavesOffset, int numLeaves,
+                                        BKDRadixSelector.PathSlice points,
+                                        BKDRadixSelector radixSelector,
+                                        byte[] minPackedValue, byte[] maxPackedValue,
+                                        int[] parentSplits,
+                                        byte[] splitPackedValues,
+                                        byte[] splitDimensionValues,
+                                        long[] leafBlockFPs) throws IOException {
+    final int splitDim;
+    if (config.numIndexDims == 1) {
+      splitDim = 0;
+    } else {
+      // for dimensions > 2 we recompute the bounds for the current inner node to help the algorithm choose best
+      // split dimensions. Because it is an expensive operation, the frequency we recompute the bounds is given
+      // by SPLITS_BEFORE_EXACT_BOUNDS.
+      if (numLeaves != leafBlockFPs.length && config.numIndexDims > 2 && Arrays.stream(parentSplits).sum() % SPLITS_BEFORE_EXACT_BOUNDS == 0) {
+        computePackedValueBounds(points, minPackedValue, maxPackedValue);
       }
+      splitDim = split(minPackedValue, maxPackedValue, parentSplits);
+    }
 
-      byte[] splitValue = radixSelector.select(points, slices, points.start, points.start + points.count,  points.start + leftCount, splitDim, commonPrefixLen);
+    assert numLeaves <= leafBlockFPs.length : "numLeaves=" + numLeaves + " leafBlockFPs.length=" + leafBlockFPs.length;
 
-      final int rightOffset = leavesOffset + numLeftLeafNodes;
-      final int splitValueOffset = rightOffset - 1;
+    // How many leaves will be in the left tree:
+    final int numLeftLeafNodes = getNumLeftLeafNodes(numLeaves);
+    // How many points will be in the left tree:
+    final long leftCount = numLeftLeafNodes * config.maxPointsInLeafNode;
 
-      splitDimensionValues[splitValueOffset] = (byte) splitDim;
-      int address = splitValueOffset * config.bytesPerDim;
-      System.arraycopy(splitValue, 0, splitPackedValues, address, config.bytesPerDim);
+    BKDRadixSelector.PathSlice[] slices = new BKDRadixSelector.PathSlice[2];
 
-      byte[] minSplitPackedValue = new byte[config.packedIndexBytesLength];
-      System.arraycopy(minPackedValue, 0, minSplitPackedValue, 0, config.packedIndexBytesLength);
+    int commonPrefixLen = Arrays.mismatch(minPackedValue, splitDim * config.bytesPerDim,
+        splitDim * config.bytesPerDim + config.bytesPerDim, maxPackedValue, splitDim * config.bytesPerDim,
+        splitDim * config.bytesPerDim + config.bytesPerDim);
+    if (commonPrefixLen == -1) {
+      commonPrefixLen = config.bytesPerDim;
+    }
 
-      byte[] maxSplitPackedValue = new byte[config.packedIndexBytesLength];
-      System.arraycopy(maxPackedValue, 0, maxSplitPackedValue, 0, config.packedIndexBytesLength);
+    byte[] splitValue = radixSelector.select(points, slices, points.start, points.start + points.count,  points.start + leftCount, splitDim, commonPrefixLen);
 
-      System.arraycopy(splitValue, 0, minSplitPackedValue, splitDim * config.bytesPerDim, config.bytesPerDim);
-      System.arraycopy(splitValue, 0, maxSplitPackedValue, splitDim * config.bytesPerDim, config.bytesPerDim);
+    final int rightOffset = leavesOffset + numLeftLeafNodes;
+    final int splitValueOffset = rightOffset - 1;
 
-      parentSplits[splitDim]++;
-      // Recurse on left tree:
-      build(leavesOffset, numLeftLeafNodes, slices[0],
-          out, radixSelector, minPackedValue, maxSplitPackedValue,
-          parentSplits, splitPackedValues, splitDimensionValues, leafBlockFPs, spareDocIds);
+    splitDimensionValues[splitValueOffset] = (byte) splitDim;
+    int address = splitValueOffset * config.bytesPerDim;
+    System.arraycopy(splitValue, 0, splitPackedValues, address, config.bytesPerDim);
 
-      // Recurse on right tree:
-      build(rightOffset, numLeaves - numLeftLeafNodes, slices[1],
-          out, radixSelector, minSplitPackedValue, maxPackedValue,
-          parentSplits, splitPackedValues, splitDimensionValues, leafBlockFPs, spareDocIds);
+    byte[] minSplitPackedValue = new byte[config.packedIndexBytesLength];
+    System.arraycopy(minPackedValue, 0, minSplitPackedValue, 0, config.packedIndexBytesLength);
 
-      parentSplits[splitDim]--;
+    byte[] maxSplitPackedValue = new byte[config.packedIndexBytesLength];
+    System.arraycopy(maxPackedValue, 0, maxSplitPackedValue, 0, config.packedIndexBytesLength);
+
+    System.arraycopy(splitValue, 0, minSplitPackedValue, splitDim * config.bytesPerDim, config.bytesPerDim);
+    System.arraycopy(splitValue, 0, maxSplitPackedValue, splitDim * config.bytesPerDim, config.bytesPerDim);
+
+    return new InnerNodeSplit(splitDim, numLeftLeafNodes, slices[0], slices[1], maxSplitPackedValue, minSplitPackedValue);
+  }
+
+  /** The leaf blocks of a subtree that was built concurrently with other subtrees. */
+  private static final class SubtreeBlocks {
+    final int leavesOffset;
+    final int numLeaves;
+    final ByteBuffersDataOutput blocks;
+
+    SubtreeBlocks(int leavesOffset, int numLeaves, ByteBuffersDataOutput blocks) {
+      this.leavesOffset = leavesOffset;
+      this.numLeaves = numLeaves;
+      this.blocks = blocks;
+    }
+  }
+
+  /** Build the tree of a partition that fits in heap by partitioning inner nodes and building subtrees of at most
+   *  {@link #MAX_LEAVES_PER_BUILD_TASK} leaves concurrently. Subtrees write their leaf blocks to heap buffers, which
+   *  are then copied to {@code out} in leaf order so that the result is the same as a sequential build. */
+  private void buildConcurrently(int leavesOffset, int numLeaves,
+                                 BKDRadixSelector.PathSlice points,
+                                 IndexOutput out,
+                                 byte[] minPackedValue, byte[] maxPackedValue,
+                                 int[] parentSplits,
+                                 byte[] splitPackedValues,
+                                 byte[] splitDimensionValues,
+                                 long[] leafBlockFPs) throws IOException {
+    final Executor executor = task -> {
+      try {
+        buildExecutor.execute(task);
+      } catch (RejectedExecutionException e) {
+        task.run();
+      }
+    };
+    final List<SubtreeBlocks> subtrees = Collections.synchronizedList(new ArrayList<>());
+    final BKDRadixSelector.PathSlice heapPoints = new BKDRadixSelector.PathSlice(
+        ((HeapPointWriter) points.writer).view(), points.start, points.count);
+    try {
+      buildSubtree(executor, leavesOffset, numLeaves, heapPoints, minPackedValue.clone(), maxPackedValue.clone(),
+          parentSplits.clone(), splitPackedValues, splitDimensionValues, leafBlockFPs, subtrees).join();
+    } catch (CompletionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof UncheckedIOException) {
+        throw ((UncheckedIOException) cause).getCause();
+      }
+      throw IOUtils.rethrowAlways(cause);
+    }
+
+    subtrees.sort(Comparator.comparingInt(subtree -> subtree.leavesOffset));
+    for (SubtreeBlocks subtree : subtrees) {
+      final long subtreeFP = out.getFilePointer();
+      subtree.blocks.copyTo(out);
+      for (int leaf = subtree.leavesOffset; leaf < subtree.leavesOffset + subtree.numLeaves; ++leaf) {
+        leafBlockFPs[leaf] += subtreeFP;
+      }
+    }
+  }
+
+  /** Return a future that completes once the given subtree and all its children have been built. Every task works
+   *  on its own {@link HeapPointWriter#view() view} of the points and on its own copies of the bounds, while split
+   *  values and leaf block file pointers are written to disjoint slots of the shared arrays. */
+  private CompletableFuture<Void> buildSubtree(Executor executor,
+                                               int leavesOffset, int numLeaves,
+                                               BKDRadixSelector.PathSlice points,
+                                               byte[] minPackedValue, byte[] maxPackedValue,
+                                               int[] parentSplits,
+                                               byte[] splitPackedValues,
+                                               byte[] splitDimensionValues,
+                                               long[] leafBlockFPs,
+                                               List<SubtreeBlocks> subtrees) {
+    if (numLeaves <= MAX_LEAVES_PER_BUILD_TASK) {
+      return CompletableFuture.runAsync(() -> {
+        final BKDWriter writer = new BKDWriter(this);
+        final ByteBuffersDataOutput blocks = new ByteBuffersDataOutput();
+        try (IndexOutput blocksOut = new ByteBuffersIndexOutput(blocks, "BKD subtree", tempFileNamePrefix, null, null)) {
+          writer.build(leavesOffset, numLeaves, points, blocksOut,
+              new BKDRadixSelector(config, maxPointsSortInHeap, tempDir, tempFileNamePrefix),
+              minPackedValue, maxPackedValue, parentSplits, splitPackedValues, splitDimensionValues, leafBlockFPs,
+              new int[config.maxPointsInLeafNode]);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+        subtrees.add(new SubtreeBlocks(leavesOffset, numLeaves, blocks));
+      }, executor);
     }
+
+    return CompletableFuture.supplyAsync(() -> {
+      try {
+        return new BKDWriter(this).splitInnerNode(leavesOffset, numLeaves, points,
+            new BKDRadixSelector(config, maxPointsSortInHeap, tempDir, tempFileNamePrefix),
+            minPackedValue, maxPackedValue, parentSplits, splitPackedValues, splitDimensionValues, leafBlockFPs);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }, executor).thenCompose(split -> {
+      final int[] childSplits = parentSplits.clone();
+      childSplits[split.splitDim]++;
+      final HeapPointWriter heapSource = (HeapPointWriter) points.writer;
+      final BKDRadixSelector.PathSlice leftPoints = new BKDRadixSelector.PathSlice(
+          heapSource.view(), split.leftPoints.start, split.leftPoints.count);
+      final BKDRadixSelector.PathSlice rightPoints = new BKDRadixSelector.PathSlice(
+          heapSource.view(), split.rightPoints.start, split.rightPoints.count);
+      final CompletableFuture<Void> left = buildSubtree(executor, leavesOffset, split.numLeftLeafNodes, leftPoints,
+          minPackedValue, split.maxLeftPackedValue, childSplits,
+          splitPackedValues, splitDimensionValues, leafBlockFPs, subtrees);
+      final CompletableFuture<Void> right = buildSubtree(executor, leavesOffset + split.numLeftLeafNodes,
+          numLeaves - split.numLeftLeafNodes, rightPoints, split.minRightPackedValue, maxPackedValue, childSplits.clone(),
+          splitPackedValues, splitDimensionValues, leafBlockFPs, subtrees);
+      return CompletableFuture.allOf(left, right);
+    });
   }
 
   private void computeCommonPrefixLength(HeapPointWriter heapPointWriter, byte[] commonPrefix, int from, int to) {
@@ -49,6 +49,26 @@ public final class HeapPointWriter implements PointWriter {
     }
   }
 
+  private HeapPointWriter(HeapPointWriter other) {
+    this.config = other.config;
+    this.block = other.block;
+    this.size = other.size;
+    this.scratch = new byte[config.bytesPerDoc];
+    this.nextWrite = other.nextWrite;
+    this.closed = other.closed;
+    if (size > 0) {
+      pointValue = new HeapPointReader.HeapPointValue(config, block);
+    } else {
+      pointValue = null;
+    }
+  }
+
+  /** Return a writer that shares the points of this writer but has its own scratch space, so that disjoint
+   *  ranges of points may be read and reordered concurrently. */
+  HeapPointWriter view() {
+    return new HeapPointWriter(this);
+  }
+
   /** Returns a reference, in <code>result</code>, to the byte[] slice holding this value */
   public PointValue getPackedValueSlice(int index) {
     assert index < nextWrite : "nextWrite=" + (nextWrite) + " vs index=" + index;
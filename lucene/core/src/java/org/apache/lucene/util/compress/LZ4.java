@@ -185,7 +185,10 @@ public final class LZ4 {
   /**
    * A record of previous occurrences of sequences of 4 bytes.
    */
-  static abstract class HashTable {
+  public static abstract class HashTable {
+
+    // only subclassed in this package
+    HashTable() {}
 
     /** Reset this hash table in order to compress the given content. */
     abstract void reset(byte[] b, int off, int len);
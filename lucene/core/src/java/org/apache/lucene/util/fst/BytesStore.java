@@ -19,6 +19,7 @@ package org.apache.lucene.util.fst;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.apache.lucene.store.DataInput;
@@ -321,9 +322,15 @@ class BytesStore extends DataOutput implements Accountable {
     while (len > 0) {
       int chunk = blockSize - nextWrite;
       if (len <= chunk) {
+        // the current block may have been used before being truncated or flushed:
+        // clear skipped bytes so that they are the same as if the block was new
+        Arrays.fill(current, nextWrite, nextWrite + len, (byte) 0);
         nextWrite += len;
         break;
       } else {
+        if (chunk > 0) {
+          Arrays.fill(current, nextWrite, blockSize, (byte) 0);
+        }
         len -= chunk;
         current = new byte[blockSize];
         blocks.add(current);
@@ -372,6 +379,26 @@ class BytesStore extends DataOutput implements Accountable {
     }
   }
 
+  /** Writes all of our bytes to the target {@link DataOutput}, then discards
+   *  them. The first block is kept to be reused by future writes. */
+  void flushTo(DataOutput out) throws IOException {
+    long remaining = getPosition();
+    for (byte[] block : blocks) {
+      if (remaining == 0) {
+        break;
+      }
+      int len = (int) Math.min(block.length, remaining);
+      out.writeBytes(block, 0, len);
+      remaining -= len;
+    }
+    if (blocks.isEmpty() == false) {
+      current = blocks.get(0);
+      blocks.subList(1, blocks.size()).clear();
+      nextWrite = 0;
+    }
+    assert getPosition() == 0;
+  }
+
   public FST.BytesReader getForwardReader() {
     if (blocks.size() == 1) {
       return new ForwardBytesReader(blocks.get(0));
@@ -147,6 +147,10 @@ public final class FST<T> implements Accountable {
 
   private long startNode = -1;
 
+  // number of bytes of an FST whose bytes were written to a DataOutput while
+  // it was built, in which case both bytes and fstStore are null
+  private long numBytesWritten = -1;
+
   public final Outputs<T> outputs;
 
   /** Represents a single arc. */
@@ -405,6 +409,16 @@ public final class FST<T> implements Accountable {
     emptyOutput = null;
   }
 
+  // make a new empty FST, for building, whose bytes are written to a
+  // DataOutput by the FSTCompiler rather than kept in memory
+  FST(INPUT_TYPE inputType, Outputs<T> outputs) {
+    this.inputType = inputType;
+    this.outputs = outputs;
+    fstStore = null;
+    bytes = null;
+    emptyOutput = null;
+  }
+
   private static final int DEFAULT_MAX_BLOCK_BITS = Constants.JRE_IS_64BIT ? 30 : 28;
 
   /** Load a previously saved FST. */
@@ -466,7 +480,7 @@ public final class FST<T> implements Accountable {
     long size = BASE_RAM_BYTES_USED;
     if (this.fstStore != null) {
       size += this.fstStore.ramBytesUsed();
-    } else {
+    } else if (bytes != null) {
       size += bytes.ramBytesUsed();
     }
 
@@ -489,6 +503,20 @@ public final class FST<T> implements Accountable {
     startNode = newStartNode;
     bytes.finish();
   }
+
+  // finishes an FST whose numBytes bytes were written to a DataOutput
+  void finish(long newStartNode, long numBytes) {
+    assert bytes == null && fstStore == null;
+    assert newStartNode < numBytes;
+    if (startNode != -1) {
+      throw new IllegalStateException("already finished");
+    }
+    if (newStartNode == FINAL_END_NODE && emptyOutput != null) {
+      newStartNode = 0;
+    }
+    startNode = newStartNode;
+    numBytesWritten = numBytes;
+  }
   
   public T getEmptyOutput() {
     return emptyOutput;
@@ -503,6 +531,36 @@ public final class FST<T> implements Accountable {
   }
 
   public void save(DataOutput metaOut, DataOutput out) throws IOException {
+    if (bytes == null && fstStore == null) {
+      throw new IllegalStateException("the bytes of this FST were already written while it was built, call saveMetadata instead");
+    }
+    writeMetadata(metaOut);
+    if (bytes != null) {
+      long numBytes = bytes.getPosition();
+      metaOut.writeVLong(numBytes);
+      bytes.writeTo(out);
+    } else {
+      assert fstStore != null;
+      fstStore.writeTo(out);
+    }
+  }
+
+  /**
+   * Save the metadata of an FST whose bytes were written to the
+   * {@link FSTCompiler.Builder#dataOutput(DataOutput) data output} of its
+   * {@link FSTCompiler}. The FST can then be loaded with
+   * {@link #FST(DataInput, DataInput, Outputs)}, providing an input that is
+   * positioned where the FSTCompiler started writing its bytes.
+   */
+  public void saveMetadata(DataOutput metaOut) throws IOException {
+    if (numBytesWritten == -1) {
+      throw new IllegalStateException("this FST wasn't written to a DataOutput while it was built, call save instead");
+    }
+    writeMetadata(metaOut);
+    metaOut.writeVLong(numBytesWritten);
+  }
+
+  private void writeMetadata(DataOutput metaOut) throws IOException {
     if (startNode == -1) {
       throw new IllegalStateException("call finish first");
     }
@@ -543,14 +601,6 @@ public final class FST<T> implements Accountable {
     }
     metaOut.writeByte(t);
     metaOut.writeVLong(startNode);
-    if (bytes != null) {
-      long numBytes = bytes.getPosition();
-      metaOut.writeVLong(numBytes);
-      bytes.writeTo(out);
-    } else {
-      assert fstStore != null;
-      fstStore.writeTo(out);
-    }
   }
   
   /**
@@ -749,7 +799,8 @@ public final class FST<T> implements Accountable {
     final long thisNodeAddress = fstCompiler.bytes.getPosition()-1;
     fstCompiler.bytes.reverse(startAddress, thisNodeAddress);
     fstCompiler.nodeCount++;
-    return thisNodeAddress;
+    // bytes only holds the bytes that were not written to the data output yet
+    return fstCompiler.numBytesWritten + thisNodeAddress;
   }
 
   /**
@@ -1441,8 +1492,10 @@ public final class FST<T> implements Accountable {
   public BytesReader getBytesReader() {
     if (this.fstStore != null) {
       return this.fstStore.getReverseBytesReader();
-    } else {
+    } else if (bytes != null) {
       return bytes.getReverseReader();
+    } else {
+      throw new IllegalStateException("the bytes of this FST were written to a DataOutput while it was built, load it in order to read it");
     }
   }
 
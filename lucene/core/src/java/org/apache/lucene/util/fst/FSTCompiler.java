@@ -20,14 +20,12 @@ package org.apache.lucene.util.fst;
 import java.io.IOException;
 
 import org.apache.lucene.store.ByteArrayDataOutput;
+import org.apache.lucene.store.DataOutput;
 import org.apache.lucene.util.ArrayUtil;
 import org.apache.lucene.util.IntsRef;
 import org.apache.lucene.util.IntsRefBuilder;
 import org.apache.lucene.util.fst.FST.INPUT_TYPE; // javadoc
 
-// TODO: could we somehow stream an FST to disk while we
-// build it?
-
 /**
  * Builds a minimal FST (maps an IntsRef term to an arbitrary
  * output) from pre-sorted terms with outputs.  The FST
@@ -36,6 +34,11 @@ import org.apache.lucene.util.fst.FST.INPUT_TYPE; // javadoc
  * be saved to / loaded from a Directory or used directly
  * for traversal.  The FST is always finite (no cycles).
  *
+ * <p>In order to build FSTs that don't fit in memory, the FST bytes can be
+ * written to a {@link Builder#dataOutput(DataOutput) DataOutput} as nodes get
+ * frozen, and the memory used to share suffixes can be
+ * {@link Builder#suffixRAMLimitMB(double) limited}.
+ *
  * <p>NOTE: The algorithm is described at
  * http://citeseerx.ist.psu.edu/viewdoc/summary?doi=10.1.1.24.3698</p>
  *
@@ -99,30 +102,44 @@ public class FSTCompiler<T> {
   final float directAddressingMaxOversizingFactor;
   long directAddressingExpansionCredit;
 
+  // holds the FST bytes, or only the bytes of the last frozen node(s) if they are written to dataOutput
   final BytesStore bytes;
+  final DataOutput dataOutput;
+  // number of bytes that were written to dataOutput
+  long numBytesWritten;
 
   /**
    * Instantiates an FST/FSA builder with default settings and pruning options turned off.
    * For more tuning and tweaking, see {@link Builder}.
    */
   public FSTCompiler(FST.INPUT_TYPE inputType, Outputs<T> outputs) {
-    this(inputType, 0, 0, true, true, Integer.MAX_VALUE, outputs, true, 15, 1f);
+    this(inputType, 0, 0, true, true, Integer.MAX_VALUE, outputs, true, 15, 1f, Double.POSITIVE_INFINITY, null);
   }
 
   private FSTCompiler(FST.INPUT_TYPE inputType, int minSuffixCount1, int minSuffixCount2, boolean doShareSuffix,
                       boolean doShareNonSingletonNodes, int shareMaxTailLength, Outputs<T> outputs,
-                      boolean allowFixedLengthArcs, int bytesPageBits, float directAddressingMaxOversizingFactor) {
+                      boolean allowFixedLengthArcs, int bytesPageBits, float directAddressingMaxOversizingFactor,
+                      double suffixRAMLimitMB, DataOutput dataOutput) {
     this.minSuffixCount1 = minSuffixCount1;
     this.minSuffixCount2 = minSuffixCount2;
     this.doShareNonSingletonNodes = doShareNonSingletonNodes;
     this.shareMaxTailLength = shareMaxTailLength;
     this.allowFixedLengthArcs = allowFixedLengthArcs;
     this.directAddressingMaxOversizingFactor = directAddressingMaxOversizingFactor;
-    fst = new FST<>(inputType, outputs, bytesPageBits);
-    bytes = fst.bytes;
-    assert bytes != null;
+    this.dataOutput = dataOutput;
+    if (dataOutput == null) {
+      fst = new FST<>(inputType, outputs, bytesPageBits);
+      bytes = fst.bytes;
+      assert bytes != null;
+    } else {
+      fst = new FST<>(inputType, outputs);
+      bytes = new BytesStore(bytesPageBits);
+      // pad: ensure no node gets address 0 which is reserved to mean
+      // the stop state w/ no arcs
+      bytes.writeByte((byte) 0);
+    }
     if (doShareSuffix) {
-      dedupHash = new NodeHash<>(fst, bytes.getReverseReader(false));
+      dedupHash = new NodeHash<>(this, suffixRAMLimitMB);
     } else {
       dedupHash = null;
     }
@@ -154,6 +171,8 @@ public class FSTCompiler<T> {
     private boolean allowFixedLengthArcs = true;
     private int bytesPageBits = 15;
     private float directAddressingMaxOversizingFactor = DIRECT_ADDRESSING_MAX_OVERSIZING_FACTOR;
+    private double suffixRAMLimitMB = Double.POSITIVE_INFINITY;
+    private DataOutput dataOutput;
 
     /**
      * @param inputType The input type (transition labels). Can be anything from {@link INPUT_TYPE}
@@ -265,13 +284,42 @@ public class FSTCompiler<T> {
       return this;
     }
 
+    /**
+     * Only used if {@code shouldShareSuffix} is true. Limits the RAM that is used to look up shared suffixes.
+     * Once the limit is reached, the least recently used suffixes are not shared anymore: the FST may not be
+     * minimal anymore, but building it requires bounded memory regardless of the number of inputs. Pass
+     * {@link Double#POSITIVE_INFINITY} to share all suffixes.
+     * <p>
+     * Default = {@link Double#POSITIVE_INFINITY}.
+     */
+    public Builder<T> suffixRAMLimitMB(double mb) {
+      if (mb <= 0) {
+        throw new IllegalArgumentException("suffixRAMLimitMB must be > 0, got " + mb);
+      }
+      this.suffixRAMLimitMB = mb;
+      return this;
+    }
+
+    /**
+     * Write the FST bytes to the given {@link DataOutput} as nodes get frozen, instead of keeping them in
+     * memory. The {@link FST} that is returned by {@link FSTCompiler#compile()} can't be traversed: only its
+     * metadata can be {@link FST#saveMetadata(DataOutput) saved}, and the FST can then be loaded from this
+     * metadata and the written bytes.
+     * <p>
+     * Default = {@code null}, the FST is built in memory.
+     */
+    public Builder<T> dataOutput(DataOutput dataOutput) {
+      this.dataOutput = dataOutput;
+      return this;
+    }
+
     /**
      * Creates a new {@link FSTCompiler}.
      */
     public FSTCompiler<T> build() {
       FSTCompiler<T> fstCompiler =  new FSTCompiler<>(inputType, minSuffixCount1, minSuffixCount2, shouldShareSuffix,
           shouldShareNonSingletonNodes, shareMaxTailLength, outputs, allowFixedLengthArcs, bytesPageBits,
-          directAddressingMaxOversizingFactor);
+          directAddressingMaxOversizingFactor, suffixRAMLimitMB, dataOutput);
       return fstCompiler;
     }
   }
@@ -305,7 +353,7 @@ public class FSTCompiler<T> {
         node = fst.addNode(this, nodeIn);
         lastFrozenNode = node;
       } else {
-        node = dedupHash.add(this, nodeIn);
+        node = dedupHash.add(nodeIn);
       }
     } else {
       node = fst.addNode(this, nodeIn);
@@ -319,6 +367,11 @@ public class FSTCompiler<T> {
       lastFrozenNode = node;
     }
 
+    if (dataOutput != null) {
+      // the node won't change anymore
+      flushBytes();
+    }
+
     nodeIn.clear();
 
     final CompiledNode fn = new CompiledNode();
@@ -568,7 +621,10 @@ public class FSTCompiler<T> {
   }
 
   /** Returns final FST.  NOTE: this will return null if
-   *  nothing is accepted by the FST. */
+   *  nothing is accepted by the FST, in which case some bytes
+   *  may still have been written to the
+   *  {@link Builder#dataOutput(DataOutput) data output} if
+   *  inputs were pruned. */
   public FST<T> compile() throws IOException {
 
     final UnCompiledNode<T> root = frontier[0];
@@ -588,11 +644,25 @@ public class FSTCompiler<T> {
       }
     }
     //if (DEBUG) System.out.println("  builder.finish root.isFinal=" + root.isFinal + " root.output=" + root.output);
-    fst.finish(compileNode(root, lastInput.length()).node);
+    final long startNode = compileNode(root, lastInput.length()).node;
+    if (dataOutput == null) {
+      fst.finish(startNode);
+    } else {
+      flushBytes();
+      fst.finish(startNode, numBytesWritten);
+    }
 
     return fst;
   }
 
+  private void flushBytes() throws IOException {
+    final long numBytes = bytes.getPosition();
+    if (numBytes > 0) {
+      bytes.flushTo(dataOutput);
+      numBytesWritten += numBytes;
+    }
+  }
+
   private void compileAllTargets(UnCompiledNode<T> node, int tailLength) throws IOException {
     for(int arcIdx=0;arcIdx<node.numArcs;arcIdx++) {
       final Arc<T> arc = node.arcs[arcIdx];
@@ -19,27 +19,49 @@ package org.apache.lucene.util.fst;
 
 import java.io.IOException;
 
+import org.apache.lucene.util.ArrayUtil;
 import org.apache.lucene.util.packed.PackedInts;
 import org.apache.lucene.util.packed.PagedGrowableWriter;
 
 // Used to dedup states (lookup already-frozen states)
+//
+// Nodes are stored in a primary table. If a RAM limit is configured, the primary
+// table becomes the fallback table once it uses more than half of the limit, and
+// the previous fallback table is discarded. Nodes that are found in the fallback
+// table are promoted back to the primary table, so that the hash behaves like a
+// LRU cache of the frozen nodes: the FST may not be minimal anymore but the
+// memory usage is bounded.
+//
+// If the FST bytes are written to a DataOutput while the FST is being built,
+// frozen nodes can't be read back from the FST, so each table keeps a copy of
+// the bytes of its nodes.
 final class NodeHash<T> {
 
-  private PagedGrowableWriter table;
-  private long count;
-  private long mask;
+  private final FSTCompiler<T> fstCompiler;
   private final FST<T> fst;
+  private final long ramLimitBytes;
   private final FST.Arc<T> scratchArc = new FST.Arc<>();
-  private final FST.BytesReader in;
+  // reads frozen nodes from the FST, only if its bytes are kept in memory
+  private final FST.BytesReader fstReader;
+  private byte[] scratchBytes = new byte[16];
+  private final byte[] lengthBytes = new byte[Integer.BYTES];
 
-  public NodeHash(FST<T> fst, FST.BytesReader in) {
-    table = new PagedGrowableWriter(16, 1<<27, 8, PackedInts.COMPACT);
-    mask = 15;
-    this.fst = fst;
-    this.in = in;
+  private PagedGrowableHash primaryTable;
+  private PagedGrowableHash fallbackTable;
+
+  /** ramLimitMB may be {@link Double#POSITIVE_INFINITY} in order to dedup all nodes. */
+  public NodeHash(FSTCompiler<T> fstCompiler, double ramLimitMB) {
+    if (ramLimitMB <= 0) {
+      throw new IllegalArgumentException("ramLimitMB must be > 0, got " + ramLimitMB);
+    }
+    this.fstCompiler = fstCompiler;
+    this.fst = fstCompiler.fst;
+    this.ramLimitBytes = ramLimitMB == Double.POSITIVE_INFINITY ? Long.MAX_VALUE : (long) (ramLimitMB * 1024 * 1024);
+    this.fstReader = fstCompiler.dataOutput == null ? fstCompiler.bytes.getReverseReader(false) : null;
+    primaryTable = new PagedGrowableHash();
   }
 
-  private boolean nodesEqual(FSTCompiler.UnCompiledNode<T> node, long address) throws IOException {
+  private boolean nodesEqual(FSTCompiler.UnCompiledNode<T> node, long address, FST.BytesReader in) throws IOException {
     fst.readFirstRealTargetArc(address, scratchArc, in);
 
     // Fail fast for a node with fixed length arcs.
@@ -104,7 +126,7 @@ final class NodeHash<T> {
   }
 
   // hash code for a frozen node
-  private long hash(long node) throws IOException {
+  private long hash(long node, FST.BytesReader in) throws IOException {
     final int PRIME = 31;
     //System.out.println("hash frozen node=" + node);
     long h = 0;
@@ -127,61 +149,212 @@ final class NodeHash<T> {
     return h & Long.MAX_VALUE;
   }
 
-  public long add(FSTCompiler<T> fstCompiler, FSTCompiler.UnCompiledNode<T> nodeIn) throws IOException {
+  public long add(FSTCompiler.UnCompiledNode<T> nodeIn) throws IOException {
     //System.out.println("hash: add count=" + count + " vs " + table.size() + " mask=" + mask);
     final long h = hash(nodeIn);
-    long pos = h & mask;
-    int c = 0;
-    while(true) {
-      final long v = table.get(pos);
-      if (v == 0) {
-        // freeze & add
-        final long node = fst.addNode(fstCompiler, nodeIn);
-        //System.out.println("  now freeze node=" + node);
-        assert hash(node) == h : "frozenHash=" + hash(node) + " vs h=" + h;
-        count++;
-        table.set(pos, node);
-        // Rehash at 2/3 occupancy:
-        if (count > 2*table.size()/3) {
-          rehash();
-        }
-        return node;
-      } else if (nodesEqual(nodeIn, v)) {
-        // same node is already here
-        return v;
+    long slot = primaryTable.find(nodeIn, h);
+    if (slot >= 0) {
+      // same node is already here
+      return primaryTable.entries.get(slot);
+    }
+    slot = -1 - slot;
+
+    final long node;
+    int nodeLength = 0;
+    final long fallbackSlot = fallbackTable == null ? -1 : fallbackTable.find(nodeIn, h);
+    if (fallbackSlot >= 0) {
+      // promote the node to the primary table
+      node = fallbackTable.entries.get(fallbackSlot);
+      if (primaryTable.copiedNodes != null) {
+        nodeLength = fallbackTable.copyNodeBytes(fallbackSlot);
+      }
+    } else {
+      // freeze & add
+      final long startPosition = fstCompiler.bytes.getPosition();
+      node = fst.addNode(fstCompiler, nodeIn);
+      //System.out.println("  now freeze node=" + node);
+      if (primaryTable.copiedNodes != null) {
+        nodeLength = Math.toIntExact(fstCompiler.bytes.getPosition() - startPosition);
+        scratchBytes = ArrayUtil.grow(scratchBytes, nodeLength);
+        fstCompiler.bytes.copyBytes(startPosition, scratchBytes, 0, nodeLength);
       }
+    }
+    primaryTable.add(slot, node, scratchBytes, nodeLength);
+    assert hash(node, primaryTable.reader(primaryTable.find(nodeIn, h), node)) == h : "frozen hash differs from unfrozen hash";
 
-      // quadratic probe
-      pos = (pos + (++c)) & mask;
+    if (ramLimitBytes != Long.MAX_VALUE && primaryTable.ramBytesUsed() > ramLimitBytes / 2) {
+      fallbackTable = primaryTable;
+      primaryTable = new PagedGrowableHash();
     }
+    return node;
   }
 
-  // called only by rehash
-  private void addNew(long address) throws IOException {
-    long pos = hash(address) & mask;
-    int c = 0;
-    while(true) {
-      if (table.get(pos) == 0) {
-        table.set(pos, address);
-        break;
+  /** A table of frozen nodes, with open addressing. */
+  private final class PagedGrowableHash {
+    private PagedGrowableWriter entries;
+    // offsets in copiedNodes of the length and bytes of each node, only if nodes are copied
+    private PagedGrowableWriter copiedOffsets;
+    private final BytesStore copiedNodes;
+    private final RelativeReverseBytesReader copiedNodesReader;
+    private long count;
+    private long mask;
+
+    PagedGrowableHash() {
+      entries = new PagedGrowableWriter(16, 1<<27, 8, PackedInts.COMPACT);
+      mask = 15;
+      if (fstReader == null) {
+        copiedOffsets = new PagedGrowableWriter(16, 1<<27, 8, PackedInts.COMPACT);
+        copiedNodes = new BytesStore(15);
+        copiedNodesReader = new RelativeReverseBytesReader(copiedNodes.getReverseReader(false));
+      } else {
+        copiedNodes = null;
+        copiedNodesReader = null;
+      }
+    }
+
+    /** Return the slot of the node that is equal to nodeIn, or {@code -1-slot} where
+     *  slot is the empty slot where it should be added. */
+    long find(FSTCompiler.UnCompiledNode<T> nodeIn, long h) throws IOException {
+      long pos = h & mask;
+      int c = 0;
+      while(true) {
+        final long v = entries.get(pos);
+        if (v == 0) {
+          return -1 - pos;
+        } else if (nodesEqual(nodeIn, v, reader(pos, v))) {
+          return pos;
+        }
+
+        // quadratic probe
+        pos = (pos + (++c)) & mask;
       }
+    }
 
-      // quadratic probe
-      pos = (pos + (++c)) & mask;
+    /** Return a reader for the node at the given slot. */
+    FST.BytesReader reader(long slot, long node) {
+      if (copiedNodes == null) {
+        return fstReader;
+      }
+      return copiedNodeReader(copiedOffsets.get(slot), node);
     }
-  }
 
-  private void rehash() throws IOException {
-    final PagedGrowableWriter oldTable = table;
+    private FST.BytesReader copiedNodeReader(long offset, long node) {
+      final int length = readLength(offset);
+      // map the address of the last byte of the node to the last byte of its copy
+      copiedNodesReader.delta = offset + Integer.BYTES + length - 1 - node;
+      return copiedNodesReader;
+    }
+
+    private int readLength(long offset) {
+      copiedNodes.copyBytes(offset, lengthBytes, 0, Integer.BYTES);
+      return ((lengthBytes[0] & 0xFF) << 24) | ((lengthBytes[1] & 0xFF) << 16)
+          | ((lengthBytes[2] & 0xFF) << 8) | (lengthBytes[3] & 0xFF);
+    }
 
-    table = new PagedGrowableWriter(2*oldTable.size(), 1<<30, PackedInts.bitsRequired(count), PackedInts.COMPACT);
-    mask = table.size()-1;
-    for(long idx=0;idx<oldTable.size();idx++) {
-      final long address = oldTable.get(idx);
-      if (address != 0) {
-        addNew(address);
+    /** Copy the bytes of the node at the given slot into scratchBytes and return its length. */
+    int copyNodeBytes(long slot) {
+      final long offset = copiedOffsets.get(slot);
+      final int length = readLength(offset);
+      scratchBytes = ArrayUtil.grow(scratchBytes, length);
+      copiedNodes.copyBytes(offset + Integer.BYTES, scratchBytes, 0, length);
+      return length;
+    }
+
+    /** Add a node to the given empty slot. Its bytes must be provided if nodes are copied. */
+    void add(long slot, long node, byte[] nodeBytes, int nodeLength) throws IOException {
+      assert entries.get(slot) == 0;
+      entries.set(slot, node);
+      if (copiedNodes != null) {
+        assert nodeLength > 0;
+        copiedOffsets.set(slot, copiedNodes.getPosition());
+        copiedNodes.writeInt(nodeLength);
+        copiedNodes.writeBytes(nodeBytes, 0, nodeLength);
+      }
+      count++;
+      // Rehash at 2/3 occupancy:
+      if (count > 2*entries.size()/3) {
+        rehash();
+      }
+    }
+
+    long ramBytesUsed() {
+      long ramBytesUsed = entries.ramBytesUsed();
+      if (copiedNodes != null) {
+        ramBytesUsed += copiedOffsets.ramBytesUsed() + copiedNodes.getPosition();
+      }
+      return ramBytesUsed;
+    }
+
+    private void rehash() throws IOException {
+      final PagedGrowableWriter oldEntries = entries;
+      final PagedGrowableWriter oldCopiedOffsets = copiedOffsets;
+
+      entries = new PagedGrowableWriter(2*oldEntries.size(), 1<<30, PackedInts.bitsRequired(count), PackedInts.COMPACT);
+      if (copiedNodes != null) {
+        copiedOffsets = new PagedGrowableWriter(2*oldEntries.size(), 1<<30, PackedInts.bitsRequired(copiedNodes.getPosition()), PackedInts.COMPACT);
+      }
+      mask = entries.size()-1;
+      for(long idx=0;idx<oldEntries.size();idx++) {
+        final long address = oldEntries.get(idx);
+        if (address != 0) {
+          final FST.BytesReader in = copiedNodes == null ? fstReader : copiedNodeReader(oldCopiedOffsets.get(idx), address);
+          long pos = hash(address, in) & mask;
+          int c = 0;
+          while(true) {
+            if (entries.get(pos) == 0) {
+              entries.set(pos, address);
+              if (copiedNodes != null) {
+                copiedOffsets.set(pos, oldCopiedOffsets.get(idx));
+              }
+              break;
+            }
+
+            // quadratic probe
+            pos = (pos + (++c)) & mask;
+          }
+        }
       }
     }
   }
 
+  /** Reads the copy of a node as if it was at its address in the FST. */
+  private static final class RelativeReverseBytesReader extends FST.BytesReader {
+    private final FST.BytesReader in;
+    long delta;
+
+    RelativeReverseBytesReader(FST.BytesReader in) {
+      assert in.reversed();
+      this.in = in;
+    }
+
+    @Override
+    public byte readByte() throws IOException {
+      return in.readByte();
+    }
+
+    @Override
+    public void readBytes(byte[] b, int offset, int len) throws IOException {
+      in.readBytes(b, offset, len);
+    }
+
+    @Override
+    public void skipBytes(long numBytes) throws IOException {
+      in.skipBytes(numBytes);
+    }
+
+    @Override
+    public long getPosition() {
+      return in.getPosition() - delta;
+    }
+
+    @Override
+    public void setPosition(long pos) {
+      in.setPosition(pos + delta);
+    }
+
+    @Override
+    public boolean reversed() {
+      return true;
+    }
+  }
 }
@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.util.hnsw;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.lucene.index.KnnGraphValues;
+import org.apache.lucene.index.RandomAccessVectorValues;
+import org.apache.lucene.index.VectorValues;
+import org.apache.lucene.util.FixedBitSet;
+
+import static org.apache.lucene.search.DocIdSetIterator.NO_MORE_DOCS;
+
+/**
+ * Navigator for a Hierarchical Navigable Small-World graph, as described in the paper
+ * <a href="https://arxiv.org/abs/1603.09320">Efficient and robust approximate nearest neighbor
+ * search using Hierarchical Navigable Small World graphs</a> [2018] by Yu. A. Malkov and D. A. Yashunin.
+ * <p>
+ * This implementation builds a single level of the hierarchy (level 0): a navigable small-world
+ * graph in which every node has at most {@code maxConn} neighbors, selected with the paper's
+ * diversity heuristic. Searches are seeded with random entry points rather than descending through
+ * the upper levels. The differences from the paper are:
+ * <ul>
+ *  <li>Only the bottom layer of the hierarchy is built and searched.</li>
+ *  <li>Node ids are dense ordinals, assigned in docID order by the vector format.</li>
+ *  <li>The graph is built from the vectors of a single segment; merging rebuilds it.</li>
+ * </ul>
+ *
+ * @lucene.experimental
+ */
+public final class HnswGraph extends KnnGraphValues {
+
+  private final int maxConn;
+
+  // Each entry lists the top maxConn neighbors of a node. The nodes correspond to vectors added to HnswBuilder, and the
+  // node values are the ordinals of those vectors.
+  private final List<NeighborArray> graph;
+
+  // KnnGraphValues iterator members
+  private int upto;
+  private NeighborArray cur;
+
+  HnswGraph(int maxConn) {
+    graph = new ArrayList<>();
+    graph.add(new NeighborArray(maxConn + 1));
+    this.maxConn = maxConn;
+  }
+
+  /**
+   * Searches for the nearest neighbors of a query vector.
+   * @param query search query vector
+   * @param topK the number of nodes to be returned
+   * @param numSeed the size of the queue maintained while searching, and controls the number of random entry points to sample
+   * @param vectors vector values
+   * @param graphValues the graph values. May represent the entire graph, or a level in a hierarchical graph.
+   * @param random a source of randomness, used for generating entry points to the graph
+   * @return a priority queue holding the closest neighbors found
+   */
+  public static NeighborQueue search(float[] query, int topK, int numSeed, RandomAccessVectorValues vectors,
+                                     KnnGraphValues graphValues, Random random) throws IOException {
+    VectorValues.SearchStrategy searchStrategy = vectors.searchStrategy();
+    int size = graphValues.size();
+
+    // holds the top results; its top element is the worst of them
+    NeighborQueue results = new NeighborQueue(numSeed, searchStrategy.reversed);
+    if (size == 0) {
+      return results;
+    }
+
+    // set of ordinals that have been visited by search on this layer, used to avoid backtracking
+    FixedBitSet visited = new FixedBitSet(size);
+    // get initial candidates at random
+    int boundedNumSeed = Math.min(numSeed, 2 * size);
+    for (int i = 0; i < boundedNumSeed; i++) {
+      int entryPoint = random.nextInt(size);
+      if (visited.getAndSet(entryPoint) == false) {
+        // explore the topK starting points of some random numSeed probes
+        results.add(entryPoint, searchStrategy.compare(query, vectors.vectorValue(entryPoint)));
+      }
+    }
+    // best-first queue of nodes whose neighbors remain to be explored
+    NeighborQueue candidates = new NeighborQueue(Math.max(1, results.size()), !searchStrategy.reversed);
+    for (int node : results.nodes()) {
+      candidates.add(node, searchStrategy.compare(query, vectors.vectorValue(node)));
+    }
+    int numVisited = visited.cardinality();
+    while (candidates.size() > 0) {
+      // get the best candidate (closest or best scoring)
+      float topCandidateScore = candidates.topScore();
+      if (results.size() >= numSeed && isWorse(topCandidateScore, results.topScore(), searchStrategy.reversed)) {
+        break;
+      }
+      int topCandidateNode = candidates.pop();
+      graphValues.seek(topCandidateNode);
+      int friendOrd;
+      while ((friendOrd = graphValues.nextNeighbor()) != NO_MORE_DOCS) {
+        assert friendOrd < size : "friendOrd=" + friendOrd + "; size=" + size;
+        if (visited.getAndSet(friendOrd)) {
+          continue;
+        }
+        numVisited++;
+        float score = searchStrategy.compare(query, vectors.vectorValue(friendOrd));
+        if (results.size() < numSeed || isWorse(score, results.topScore(), searchStrategy.reversed) == false) {
+          candidates.add(friendOrd, score);
+          results.insertWithOverflow(friendOrd, score);
+        }
+      }
+    }
+    while (results.size() > topK) {
+      results.pop();
+    }
+    results.setVisitedCount(numVisited);
+    return results;
+  }
+
+  /** Returns true if {@code score} is strictly worse than {@code bound} */
+  static boolean isWorse(float score, float bound, boolean reversed) {
+    if (reversed) {
+      return score > bound;
+    } else {
+      return score < bound;
+    }
+  }
+
+  /**
+   * Returns the {@link NeighborArray} connected to the given node.
+   * @param node the node whose neighbors are returned
+   */
+  public NeighborArray getNeighbors(int node) {
+    return graph.get(node);
+  }
+
+  @Override
+  public int size() {
+    return graph.size();
+  }
+
+  int addNode() {
+    graph.add(new NeighborArray(maxConn + 1));
+    return graph.size() - 1;
+  }
+
+  @Override
+  public void seek(int targetNode) {
+    cur = getNeighbors(targetNode);
+    upto = -1;
+  }
+
+  @Override
+  public int nextNeighbor() {
+    if (++upto < cur.size()) {
+      return cur.node[upto];
+    }
+    return NO_MORE_DOCS;
+  }
+}
@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.util.hnsw;
+
+import java.io.IOException;
+import java.util.Random;
+
+import org.apache.lucene.index.RandomAccessVectorValues;
+import org.apache.lucene.index.RandomAccessVectorValuesProducer;
+import org.apache.lucene.index.VectorValues;
+
+/**
+ * Builder for HNSW graph. See {@link HnswGraph} for a gloss on the algorithm and the meaning of the hyperparameters.
+ *
+ * @lucene.experimental
+ */
+public final class HnswGraphBuilder {
+
+  /** Default random seed for level generation **/
+  private static final long DEFAULT_RAND_SEED = 42;
+
+  /** Default number of maximum connections per node */
+  public static final int DEFAULT_MAX_CONN = 16;
+
+  /** Default size of the queue maintained while searching during a graph construction. */
+  public static final int DEFAULT_BEAM_WIDTH = 100;
+
+  private final int maxConn;
+  private final int beamWidth;
+  private final NeighborArray scratch;
+
+  private final VectorValues.SearchStrategy searchStrategy;
+  private final RandomAccessVectorValues vectorValues;
+  private final Random random;
+  final HnswGraph hnsw;
+
+  // we need two sources of vectors in order to perform diversity check comparisons without colliding
+  private final RandomAccessVectorValues buildVectors;
+
+  /**
+   * Reads all the vectors from a VectorValues, builds a graph connecting them by their dense ordinals, using default
+   * hyperparameter settings, and returns the resulting graph.
+   * @param vectorValues the vectors whose relations are represented by the graph - must provide a different view over those vectors
+   *                     than the one used to add via addGraphNode.
+   */
+  public static HnswGraph build(RandomAccessVectorValuesProducer vectorValues) throws IOException {
+    HnswGraphBuilder builder = new HnswGraphBuilder(vectorValues, DEFAULT_MAX_CONN, DEFAULT_BEAM_WIDTH, DEFAULT_RAND_SEED);
+    return builder.build(vectorValues.randomAccess());
+  }
+
+  /**
+   * Reads all the vectors from a VectorValues, builds a graph connecting them by their dense ordinals, using the given
+   * hyperparameter settings, and returns the resulting graph.
+   * @param vectors the vectors whose relations are represented by the graph - must provide a different view over those vectors
+   *                than the one used to add via addGraphNode.
+   * @param maxConn the number of connections to make when adding a new graph node; roughly speaking the graph fanout.
+   * @param beamWidth the size of the beam search to use when finding nearest neighbors.
+   * @param seed the seed for a random number generator used during graph construction. Provide this to ensure repeatable construction.
+   */
+  public HnswGraphBuilder(RandomAccessVectorValuesProducer vectors, int maxConn, int beamWidth, long seed) {
+    vectorValues = vectors.randomAccess();
+    buildVectors = vectors.randomAccess();
+    searchStrategy = vectorValues.searchStrategy();
+    if (searchStrategy.isHnsw() == false) {
+      throw new IllegalStateException("No distance function");
+    }
+    if (maxConn <= 0) {
+      throw new IllegalArgumentException("maxConn must be positive");
+    }
+    if (beamWidth <= 0) {
+      throw new IllegalArgumentException("beamWidth must be positive");
+    }
+    this.maxConn = maxConn;
+    this.beamWidth = beamWidth;
+    this.hnsw = new HnswGraph(maxConn);
+    this.random = new Random(seed);
+    this.scratch = new NeighborArray(Math.max(beamWidth, maxConn + 1));
+  }
+
+  /**
+   * Reads all the vectors from two copies of a random access VectorValues. Providing two copies enables efficient retrieval
+   * without extra data copying, while avoiding collision of the returned values.
+   * @param vectors the vectors for which to build a nearest neighbors graph. Must be an independent accessor for the vectors
+   */
+  public HnswGraph build(RandomAccessVectorValues vectors) throws IOException {
+    if (vectors == vectorValues) {
+      throw new IllegalArgumentException("Vectors to build must be independent of the source of vectors provided to HnswGraphBuilder()");
+    }
+    for (int node = 1; node < vectors.size(); node++) {
+      addGraphNode(vectors.vectorValue(node));
+    }
+    return hnsw;
+  }
+
+  /** Inserts a doc with vector value to the graph */
+  void addGraphNode(float[] value) throws IOException {
+    NeighborQueue candidates = HnswGraph.search(value, beamWidth, beamWidth, vectorValues, hnsw, random);
+
+    int node = hnsw.addNode();
+
+    /* connect neighbors to the new node, using a diversity heuristic that chooses successive
+     * nearest neighbors that are closer to the new node than they are to the previously-selected
+     * neighbors
+     */
+    addDiverseNeighbors(node, candidates);
+  }
+
+  private void addDiverseNeighbors(int node, NeighborQueue candidates) throws IOException {
+    // For each of the beamWidth nearest candidates (going from best to worst), select it only if it
+    // is closer to target than it is to any of the already-selected neighbors (ie selected in this method,
+    // since the node is new and has no prior neighbors).
+    NeighborArray neighbors = hnsw.getNeighbors(node);
+    assert neighbors.size() == 0; // new node
+    popToScratch(candidates);
+    selectDiverse(neighbors, scratch);
+
+    // Link the selected nodes to the new node, and the new node to the selected nodes (again
+    // applying diversity heuristic)
+    int size = neighbors.size();
+    for (int i = 0; i < size; i++) {
+      int nbr = neighbors.node[i];
+      NeighborArray nbrNbr = hnsw.getNeighbors(nbr);
+      nbrNbr.add(node, neighbors.score[i]);
+      if (nbrNbr.size() > maxConn) {
+        diversityUpdate(nbrNbr);
+      }
+    }
+  }
+
+  private void selectDiverse(NeighborArray neighbors, NeighborArray candidates) throws IOException {
+    // Select the best maxConn neighbors of the new node, applying the diversity heuristic
+    for (int i = candidates.size() - 1; neighbors.size() < maxConn && i >= 0; i--) {
+      // compare each neighbor (in distance order) against the closer neighbors selected so far,
+      // only adding it if it is closer to the target than to any of the other selected neighbors
+      int cNode = candidates.node[i];
+      float cScore = candidates.score[i];
+      if (diversityCheck(vectorValues.vectorValue(cNode), cScore, neighbors)) {
+        neighbors.add(cNode, cScore);
+      }
+    }
+  }
+
+  private void popToScratch(NeighborQueue candidates) {
+    scratch.clear();
+    int candidateCount = candidates.size();
+    // extract all the Neighbors from the queue into an array; these will now be
+    // sorted from worst to best
+    for (int i = 0; i < candidateCount; i++) {
+      float score = candidates.topScore();
+      scratch.add(candidates.pop(), score);
+    }
+  }
+
+  /**
+   * @param candidate the vector of a new candidate neighbor of a node n
+   * @param score the score of the new candidate and node n, to be compared with scores of the candidate and n's neighbors
+   * @param neighbors the neighbors selected so far
+   * @return whether the candidate is diverse given the existing neighbors
+   */
+  private boolean diversityCheck(float[] candidate, float score, NeighborArray neighbors) throws IOException {
+    for (int i = 0; i < neighbors.size(); i++) {
+      float diversityCheck = searchStrategy.compare(candidate, buildVectors.vectorValue(neighbors.node[i]));
+      if (HnswGraph.isWorse(score, diversityCheck, searchStrategy.reversed)) {
+        // the candidate is closer to an already-selected neighbor than to the node
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Called when a node's neighbor list has overflowed; removes the neighbor that is least
+   * diverse, or if all are diverse, the one that is farthest from the node.
+   */
+  private void diversityUpdate(NeighborArray neighbors) throws IOException {
+    assert neighbors.size() == maxConn + 1;
+    int replacePoint = findNonDiverse(neighbors);
+    if (replacePoint == -1) {
+      // none found; check score against worst existing neighbor
+      replacePoint = findWorst(neighbors);
+    }
+    neighbors.removeIndex(replacePoint);
+  }
+
+  // scan neighbors looking for ones that are closer to the newest neighbor than to the node itself
+  private int findNonDiverse(NeighborArray neighbors) throws IOException {
+    int newest = neighbors.size() - 1;
+    float[] newestVector = vectorValues.vectorValue(neighbors.node[newest]);
+    for (int i = 0; i < newest; i++) {
+      float neighborScore = searchStrategy.compare(newestVector, buildVectors.vectorValue(neighbors.node[i]));
+      if (HnswGraph.isWorse(neighbors.score[i], neighborScore, searchStrategy.reversed)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private int findWorst(NeighborArray neighbors) {
+    int worst = 0;
+    for (int i = 1; i < neighbors.size(); i++) {
+      if (HnswGraph.isWorse(neighbors.score[i], neighbors.score[worst], searchStrategy.reversed)) {
+        worst = i;
+      }
+    }
+    return worst;
+  }
+}
@@ -45,6 +45,7 @@ import org.apache.lucene.index.BaseCompressingDocValuesFormatTestCase;
 import org.apache.lucene.index.BinaryDocValues;
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.DocValuesSkipper;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
@@ -61,6 +62,8 @@ import org.apache.lucene.index.Term;
 import org.apache.lucene.index.Terms;
 import org.apache.lucene.index.TermsEnum;
 import org.apache.lucene.index.TermsEnum.SeekStatus;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.store.ByteBuffersDataInput;
 import org.apache.lucene.store.ByteBuffersDataOutput;
 import org.apache.lucene.store.Directory;
@@ -593,6 +596,84 @@ public class TestLucene80DocValuesFormat extends BaseCompressingDocValuesFormatT
     dir.close();
   }
 
+  public void testSkipIndex() throws IOException {
+    Directory dir = newDirectory();
+    IndexWriter iw = createFastIndexWriter(dir, Integer.MAX_VALUE);
+    final int numDocs = atLeast(3 * Lucene80DocValuesFormat.SKIP_INDEX_INTERVAL_SIZE);
+    final long[][] values = new long[numDocs][];
+    for (int i = 0; i < numDocs; ++i) {
+      Document doc = new Document();
+      if (random().nextInt(10) != 0) {
+        // values are correlated with doc IDs so that blocks have narrow ranges
+        values[i] = new long[random().nextInt(3) == 0 ? 2 : 1];
+        for (int j = 0; j < values[i].length; ++j) {
+          values[i][j] = i / 16 + random().nextInt(100);
+          doc.add(new SortedNumericDocValuesField("sorted_numeric", values[i][j]));
+        }
+        doc.add(new NumericDocValuesField("numeric", values[i][0]));
+      }
+      iw.addDocument(doc);
+    }
+    iw.forceMerge(1);
+    iw.close();
+
+    DirectoryReader reader = DirectoryReader.open(dir);
+    LeafReader leafReader = getOnlyLeafReader(reader);
+    for (String field : new String[] {"numeric", "sorted_numeric"}) {
+      DocValuesSkipper skipper = leafReader.getDocValuesSkipper(field);
+      assertNotNull(skipper);
+      assertEquals(-1, skipper.minDocID());
+      int target = 0;
+      for (int doc = 0; doc < numDocs; ++doc) {
+        if (values[doc] == null) {
+          continue;
+        }
+        if (doc > skipper.maxDocID()) {
+          skipper.advance(target);
+          assertTrue(skipper.minDocID() <= doc);
+          target = skipper.maxDocID() + 1;
+        }
+        assertTrue(doc <= skipper.maxDocID());
+        for (int j = 0; j < (field.equals("numeric") ? 1 : values[doc].length); ++j) {
+          assertTrue(skipper.minValue() <= values[doc][j]);
+          assertTrue(skipper.maxValue() >= values[doc][j]);
+        }
+      }
+      skipper.advance(target);
+      assertEquals(DocIdSetIterator.NO_MORE_DOCS, skipper.minDocID());
+      assertEquals(DocIdSetIterator.NO_MORE_DOCS, skipper.maxDocID());
+    }
+    assertNull(leafReader.getDocValuesSkipper("missing"));
+
+    // range queries use the skip index, check them against brute force
+    IndexSearcher searcher = newSearcher(reader);
+    final int numIters = atLeast(10);
+    for (int iter = 0; iter < numIters; ++iter) {
+      final long min = random().nextInt(numDocs / 16 + 100);
+      final long max = min + random().nextInt(numDocs / 16);
+      int expectedNumeric = 0, expectedSortedNumeric = 0;
+      for (long[] docValues : values) {
+        if (docValues == null) {
+          continue;
+        }
+        if (docValues[0] >= min && docValues[0] <= max) {
+          expectedNumeric++;
+        }
+        for (long value : docValues) {
+          if (value >= min && value <= max) {
+            expectedSortedNumeric++;
+            break;
+          }
+        }
+      }
+      assertEquals(expectedNumeric, searcher.count(NumericDocValuesField.newSlowRangeQuery("numeric", min, max)));
+      assertEquals(expectedSortedNumeric, searcher.count(SortedNumericDocValuesField.newSlowRangeQuery("sorted_numeric", min, max)));
+    }
+
+    reader.close();
+    dir.close();
+  }
+
   private IndexWriter createFastIndexWriter(Directory dir, int maxBufferedDocs) throws IOException {
     IndexWriterConfig conf = newIndexWriterConfig(new MockAnalyzer(random()));
     conf.setMaxBufferedDocs(maxBufferedDocs);
@@ -17,15 +17,21 @@
 package org.apache.lucene.codecs.lucene84;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
 
 import org.apache.lucene.analysis.MockAnalyzer;
 import org.apache.lucene.codecs.Codec;
 import org.apache.lucene.codecs.CompetitiveImpactAccumulator;
+import org.apache.lucene.codecs.blocktree.BlockTreeTermsReader;
 import org.apache.lucene.codecs.blocktree.FieldReader;
 import org.apache.lucene.codecs.blocktree.Stats;
+import org.apache.lucene.codecs.blocktree.TermStateCache;
 import org.apache.lucene.codecs.lucene84.Lucene84ScoreSkipReader.MutableImpactList;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
@@ -34,11 +40,16 @@ import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.Impact;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.PostingsEnum;
+import org.apache.lucene.index.TermsEnum;
 import org.apache.lucene.store.ByteArrayDataInput;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.IOContext;
 import org.apache.lucene.store.IndexInput;
 import org.apache.lucene.store.IndexOutput;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.BytesRefIterator;
 import org.apache.lucene.util.TestUtil;
 
 public class TestLucene84PostingsFormat extends BasePostingsFormatTestCase {
@@ -73,6 +84,165 @@ public class TestLucene84PostingsFormat extends BasePostingsFormatTestCase {
     d.close();
   }
 
+  public void testTermStateCache() throws Exception {
+    Directory d = newDirectory();
+    IndexWriterConfig iwc = new IndexWriterConfig(new MockAnalyzer(random()));
+    iwc.setCodec(TestUtil.getDefaultCodec());
+    IndexWriter w = new IndexWriter(d, iwc);
+    final int numDocs = atLeast(100);
+    for (int i = 0; i < numDocs; i++) {
+      Document doc = new Document();
+      doc.add(newStringField("field", Integer.toString(i % 20), Field.Store.NO));
+      doc.add(newStringField("field", "z" + Integer.toString(i), Field.Store.NO));
+      w.addDocument(doc);
+    }
+    w.forceMerge(1);
+    w.commit();
+
+    // term states are only cached by readers that are opened with a cache size
+    DirectoryReader r = DirectoryReader.open(w);
+    assertNull(((FieldReader) getOnlyLeafReader(r).terms("field")).getTermStateCache());
+    r.close();
+
+    Map<String,String> readerAttributes = Collections.singletonMap(
+        BlockTreeTermsReader.TERM_STATE_CACHE_SIZE_KEY, Integer.toString(TestUtil.nextInt(random(), 64, 256)));
+    r = DirectoryReader.open(d, readerAttributes);
+    FieldReader field = (FieldReader) getOnlyLeafReader(r).terms("field");
+    TermStateCache cache = field.getTermStateCache();
+    assertNotNull(cache);
+    assertEquals(0, cache.getHitCount());
+    assertEquals(0, cache.getMissCount());
+
+    // iterated terms are not cached
+    TermsEnum iterator = field.iterator();
+    for (BytesRef term = iterator.next(); term != null; term = iterator.next()) {
+      iterator.termState();
+    }
+    assertEquals(0, cache.getHitCount());
+
+    for (int iter = 0; iter < 3; ++iter) {
+      for (int i = 0; i < 20; ++i) {
+        TermsEnum termsEnum = field.iterator();
+        assertTrue(termsEnum.seekExact(new BytesRef(Integer.toString(i))));
+        assertEquals(numDocs / 20 + (i < numDocs % 20 ? 1 : 0), termsEnum.docFreq());
+        PostingsEnum postings = termsEnum.postings(null, PostingsEnum.NONE);
+        assertEquals(i, postings.nextDoc());
+        assertFalse(termsEnum.seekExact(new BytesRef("a")));
+      }
+    }
+    assertEquals(120, cache.getHitCount() + cache.getMissCount());
+    // terms are only cached the second time they are looked up, and the cache is direct-mapped, so
+    // there may be collisions
+    assertTrue(cache.getMissCount() >= 100);
+    assertTrue(cache.getHitCount() > 0);
+    assertTrue(cache.ramBytesUsed() > 0);
+
+    // after a cached seek, the enum can keep iterating
+    for (int i = 0; i < 20; ++i) {
+      BytesRef target = new BytesRef(Integer.toString(i));
+      TermsEnum termsEnum = field.iterator();
+      assertTrue(termsEnum.seekExact(target));
+      TermsEnum expected = field.iterator();
+      assertEquals(TermsEnum.SeekStatus.FOUND, expected.seekCeil(target));
+      for (BytesRef term = expected.next(); term != null; term = expected.next()) {
+        assertEquals(term, termsEnum.next());
+        assertEquals(expected.docFreq(), termsEnum.docFreq());
+      }
+      assertNull(termsEnum.next());
+    }
+
+    // reopened readers and near real-time readers use the reader attributes too
+    w.close();
+    iwc = new IndexWriterConfig(new MockAnalyzer(random()));
+    iwc.setCodec(TestUtil.getDefaultCodec());
+    iwc.setReaderAttributes(readerAttributes);
+    w = new IndexWriter(d, iwc);
+    Document doc = new Document();
+    doc.add(newStringField("field", "foo", Field.Store.NO));
+    w.addDocument(doc);
+    w.commit();
+    DirectoryReader r2 = DirectoryReader.openIfChanged(r);
+    assertNotNull(r2);
+    r.close();
+    r = r2;
+    assertEquals(2, r.leaves().size());
+    for (LeafReaderContext context : r.leaves()) {
+      assertNotNull(((FieldReader) context.reader().terms("field")).getTermStateCache());
+    }
+    r.close();
+    w.addDocument(doc);
+    r = DirectoryReader.open(w);
+    assertEquals(3, r.leaves().size());
+    for (LeafReaderContext context : r.leaves()) {
+      assertNotNull(((FieldReader) context.reader().terms("field")).getTermStateCache());
+    }
+
+    r.close();
+    w.close();
+    d.close();
+  }
+
+  public void testBatchSeekExact() throws Exception {
+    Directory d = newDirectory();
+    IndexWriter w = new IndexWriter(d, new IndexWriterConfig(new MockAnalyzer(random())));
+    // enough terms to get several leaf and floor blocks
+    final int numDocs = atLeast(2000);
+    final List<String> values = new ArrayList<>();
+    for (int i = 0; i < numDocs; i++) {
+      Document doc = new Document();
+      values.add("b" + TestUtil.randomSimpleString(random(), 1, 5));
+      doc.add(newStringField("field", values.get(i), Field.Store.NO));
+      w.addDocument(doc);
+    }
+    w.forceMerge(1);
+
+    DirectoryReader r = DirectoryReader.open(w);
+    FieldReader field = (FieldReader) r.leaves().get(0).reader().terms("field");
+    for (int iter = 0; iter < 10; ++iter) {
+      // some targets are before the min term, others are after the max term
+      TreeSet<BytesRef> targets = new TreeSet<>();
+      final int numTargets = TestUtil.nextInt(random(), 1, 1000);
+      for (int i = 0; i < numTargets; ++i) {
+        if (random().nextBoolean()) {
+          targets.add(new BytesRef(values.get(random().nextInt(numDocs))));
+        } else {
+          final String prefix = random().nextInt(10) == 0 ? "a" : random().nextInt(10) == 0 ? "c" : "b";
+          targets.add(new BytesRef(prefix + TestUtil.randomSimpleString(random(), 1, 5)));
+        }
+      }
+
+      List<BytesRef> expected = new ArrayList<>();
+      TermsEnum termsEnum = field.iterator();
+      for (BytesRef target : targets) {
+        if (termsEnum.seekExact(target)) {
+          expected.add(target);
+        }
+      }
+
+      TermsEnum batchTermsEnum = field.iterator();
+      BytesRefIterator matches = batchTermsEnum.seekExact(new BytesRefIterator() {
+        final Iterator<BytesRef> it = targets.iterator();
+        @Override
+        public BytesRef next() {
+          return it.hasNext() ? it.next() : null;
+        }
+      });
+      List<BytesRef> actual = new ArrayList<>();
+      for (BytesRef term = matches.next(); term != null; term = matches.next()) {
+        assertEquals(term, batchTermsEnum.term());
+        assertTrue(termsEnum.seekExact(term));
+        assertEquals(termsEnum.docFreq(), batchTermsEnum.docFreq());
+        actual.add(BytesRef.deepCopyOf(term));
+      }
+      assertNull(matches.next());
+      assertEquals(expected, actual);
+    }
+
+    r.close();
+    w.close();
+    d.close();
+  }
+
   private void shouldFail(int minItemsInBlock, int maxItemsInBlock) {
     expectThrows(IllegalArgumentException.class, () -> {
       new Lucene84PostingsFormat(minItemsInBlock, maxItemsInBlock);
@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.codecs.lucene87;
+
+
+import org.apache.lucene.codecs.Codec;
+import org.apache.lucene.codecs.compressing.Compressor;
+import org.apache.lucene.codecs.compressing.Decompressor;
+import org.apache.lucene.codecs.lucene87.Lucene87StoredFieldsFormat.Mode;
+import org.apache.lucene.index.BaseStoredFieldsFormatTestCase;
+import org.apache.lucene.store.ByteBuffersDataInput;
+import org.apache.lucene.store.ByteBuffersDataOutput;
+import org.apache.lucene.util.BytesRef;
+
+public class TestLucene87StoredFieldsFormatBalanced extends BaseStoredFieldsFormatTestCase {
+  @Override
+  protected Codec getCodec() {
+    return new Lucene87Codec(Mode.BALANCED);
+  }
+
+  /** Data compressed with {@link Mode#BALANCED} can be read with the {@link Mode#BEST_SPEED} decompressor. */
+  public void testSameFormatAsBestSpeed() throws Exception {
+    final byte[] data = new byte[atLeast(100000)];
+    final String[] words = new String[] {"{\"id\":", "\"name\":", "\"value\":", "true", "false", "null", "}"};
+    for (int i = 0; i < data.length; ) {
+      final byte[] word = words[random().nextInt(words.length)].getBytes("UTF-8");
+      final int len = Math.min(word.length, data.length - i);
+      System.arraycopy(word, 0, data, i, len);
+      i += len;
+    }
+
+    final ByteBuffersDataOutput balanced = new ByteBuffersDataOutput();
+    try (Compressor compressor = Lucene87StoredFieldsFormat.BALANCED_MODE.newCompressor()) {
+      compressor.compress(data, 0, data.length, balanced);
+    }
+    final Decompressor decompressor = Lucene87StoredFieldsFormat.BEST_SPEED_MODE.newDecompressor();
+    final int offset = random().nextInt(data.length);
+    final int length = random().nextInt(data.length - offset + 1);
+    final BytesRef bytes = new BytesRef();
+    ByteBuffersDataInput in = balanced.toDataInput();
+    decompressor.decompress(in, data.length, offset, length, bytes);
+    assertEquals(new BytesRef(data, offset, length), bytes);
+  }
+}
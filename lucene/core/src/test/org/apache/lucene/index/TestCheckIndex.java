@@ -56,4 +56,9 @@ public class TestCheckIndex extends BaseTestCheckIndex {
   public void testObtainsLock() throws IOException {
     testObtainsLock(directory);
   }
+
+  @Test
+  public void testThreadCount() throws IOException {
+    testThreadCount(directory);
+  }
 }
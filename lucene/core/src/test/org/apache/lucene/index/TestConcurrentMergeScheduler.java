@@ -19,6 +19,8 @@ package org.apache.lucene.index;
 
 import java.io.IOException;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -27,14 +29,20 @@ import com.carrotsearch.randomizedtesting.generators.RandomStrings;
 import org.apache.lucene.analysis.MockAnalyzer;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
+import org.apache.lucene.document.FieldType;
+import org.apache.lucene.document.IntPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedDocValuesField;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.document.TextField;
 import org.apache.lucene.index.IndexWriterConfig.OpenMode;
 import org.apache.lucene.store.AlreadyClosedException;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.MockDirectoryWrapper;
+import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.InfoStream;
 import org.apache.lucene.util.LuceneTestCase;
+import org.apache.lucene.util.NamedThreadFactory;
 import org.apache.lucene.util.TestUtil;
 
 public class TestConcurrentMergeScheduler extends LuceneTestCase {
@@ -749,4 +757,61 @@ public class TestConcurrentMergeScheduler extends LuceneTestCase {
       }
     }
   }
+
+  public void testIntraMergeExecutor() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(TestUtil.nextInt(random(), 1, 4), new NamedThreadFactory("TestIntraMergeExecutor"));
+    AtomicInteger executedTasks = new AtomicInteger();
+    try (Directory dir = newDirectory()) {
+      IndexWriterConfig iwc = newIndexWriterConfig(new MockAnalyzer(random()));
+      ConcurrentMergeScheduler cms = new ConcurrentMergeScheduler();
+      cms.setIntraMergeExecutor(task -> {
+        executedTasks.incrementAndGet();
+        executor.execute(task);
+      });
+      assertNotNull(cms.getIntraMergeExecutor());
+      if (random().nextBoolean()) {
+        // make sure rate limiting works from intra-merge threads
+        cms.setForceMergeMBPerSec(TestUtil.nextInt(random(), 50, 100));
+      }
+      iwc.setMergeScheduler(cms);
+      iwc.setMaxBufferedDocs(TestUtil.nextInt(random(), 20, 50));
+      iwc.setMergePolicy(newLogMergePolicy());
+      FieldType termVectors = new FieldType(TextField.TYPE_NOT_STORED);
+      termVectors.setStoreTermVectors(true);
+      final int numDocs = atLeast(300);
+      try (IndexWriter w = new IndexWriter(dir, iwc)) {
+        for (int i = 0; i < numDocs; i++) {
+          Document doc = new Document();
+          doc.add(new StringField("id", Integer.toString(i), Field.Store.YES));
+          doc.add(new TextField("body", "the quick brown fox " + (i % 7), Field.Store.NO));
+          doc.add(new NumericDocValuesField("number", i));
+          doc.add(new SortedDocValuesField("sorted", new BytesRef(Integer.toString(i % 11))));
+          doc.add(new IntPoint("point", i));
+          doc.add(new Field("vectors", "jumps over the lazy dog " + (i % 5), termVectors));
+          w.addDocument(doc);
+        }
+        w.forceMerge(1);
+      }
+      assertTrue(executedTasks.get() > 0);
+
+      try (DirectoryReader reader = DirectoryReader.open(dir)) {
+        assertEquals(1, reader.leaves().size());
+        assertEquals(numDocs, reader.numDocs());
+        LeafReader leaf = reader.leaves().get(0).reader();
+        NumericDocValues numbers = leaf.getNumericDocValues("number");
+        for (int docID = 0; docID < leaf.maxDoc(); docID++) {
+          assertEquals(docID, numbers.nextDoc());
+          int id = Integer.parseInt(leaf.document(docID).get("id"));
+          assertEquals(id, numbers.longValue());
+          assertNotNull(leaf.getTermVectors(docID).terms("vectors"));
+        }
+        assertEquals(numDocs, leaf.getPointValues("point").size());
+        assertEquals(numDocs, leaf.terms("body").getDocCount());
+        assertEquals(11, leaf.getSortedDocValues("sorted").getValueCount());
+      }
+    } finally {
+      executor.shutdown();
+      assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+    }
+  }
 }
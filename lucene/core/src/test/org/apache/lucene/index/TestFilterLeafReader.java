@@ -186,7 +186,8 @@ public class TestFilterLeafReader extends LuceneTestCase {
     for (Method m : superClazz.getMethods()) {
       final int mods = m.getModifiers();
       if (Modifier.isStatic(mods) || Modifier.isAbstract(mods) || Modifier.isFinal(mods) || m.isSynthetic()
-          || m.getName().equals("attributes") || m.getName().equals("getStats")) {
+          || m.getName().equals("attributes") || m.getName().equals("getStats")
+          || m.getName().equals("prefetchDocuments")) {
         continue;
       }
       // The point of these checks is to ensure that methods that have a default
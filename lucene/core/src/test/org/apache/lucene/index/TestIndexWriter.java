@@ -41,7 +41,11 @@ import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -66,6 +70,7 @@ import org.apache.lucene.document.BinaryDocValuesField;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
 import org.apache.lucene.document.FieldType;
+import org.apache.lucene.document.IntPoint;
 import org.apache.lucene.document.LongPoint;
 import org.apache.lucene.document.NumericDocValuesField;
 import org.apache.lucene.document.SortedDocValuesField;
@@ -85,6 +90,8 @@ import org.apache.lucene.search.PhraseQuery;
 import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.SearcherFactory;
 import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
 import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.store.AlreadyClosedException;
@@ -109,6 +116,7 @@ import org.apache.lucene.util.IOSupplier;
 import org.apache.lucene.util.IOUtils;
 import org.apache.lucene.util.InfoStream;
 import org.apache.lucene.util.LuceneTestCase;
+import org.apache.lucene.util.NamedThreadFactory;
 import org.apache.lucene.util.SetOnce;
 import org.apache.lucene.util.StringHelper;
 import org.apache.lucene.util.TestUtil;
@@ -4258,4 +4266,73 @@ public class TestIndexWriter extends LuceneTestCase {
       }
     }
   }
+
+  public void testFlushExecutor() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(TestUtil.nextInt(random(), 1, 4), new NamedThreadFactory("TestFlushExecutor"));
+    AtomicInteger executedTasks = new AtomicInteger();
+    AtomicInteger rejectedTasks = new AtomicInteger();
+    try (Directory dir = newDirectory()) {
+      IndexWriterConfig iwc = newIndexWriterConfig(new MockAnalyzer(random()));
+      iwc.setFlushExecutor(task -> {
+        if (random().nextInt(5) == 0) {
+          // rejected tasks run in the flushing thread
+          rejectedTasks.incrementAndGet();
+          throw new RejectedExecutionException();
+        }
+        executedTasks.incrementAndGet();
+        executor.execute(task);
+      });
+      assertNotNull(iwc.getFlushExecutor());
+      final boolean sorted = random().nextBoolean();
+      if (sorted) {
+        iwc.setIndexSort(new Sort(new SortField("number", SortField.Type.LONG, true)));
+      }
+      iwc.setMaxBufferedDocs(TestUtil.nextInt(random(), 20, 50));
+      iwc.setMergePolicy(NoMergePolicy.INSTANCE);
+      FieldType termVectors = new FieldType(TextField.TYPE_NOT_STORED);
+      termVectors.setStoreTermVectors(true);
+      final int numDocs = atLeast(300);
+      try (IndexWriter w = new IndexWriter(dir, iwc)) {
+        for (int i = 0; i < numDocs; i++) {
+          Document doc = new Document();
+          doc.add(new StringField("id", Integer.toString(i), Field.Store.YES));
+          doc.add(new TextField("body", "the quick brown fox " + (i % 7), Field.Store.NO));
+          doc.add(new NumericDocValuesField("number", i));
+          doc.add(new SortedDocValuesField("sorted", new BytesRef(Integer.toString(i % 11))));
+          doc.add(new IntPoint("point", i));
+          doc.add(new Field("vectors", "jumps over the lazy dog " + (i % 5), termVectors));
+          w.addDocument(doc);
+        }
+        w.commit();
+      }
+      assertTrue(executedTasks.get() + rejectedTasks.get() > 0);
+
+      try (DirectoryReader reader = DirectoryReader.open(dir)) {
+        assertEquals(numDocs, reader.numDocs());
+        int numPoints = 0;
+        for (LeafReaderContext ctx : reader.leaves()) {
+          LeafReader leaf = ctx.reader();
+          NumericDocValues numbers = leaf.getNumericDocValues("number");
+          long previous = Long.MAX_VALUE;
+          for (int docID = 0; docID < leaf.maxDoc(); docID++) {
+            assertEquals(docID, numbers.nextDoc());
+            int id = Integer.parseInt(leaf.document(docID).get("id"));
+            assertEquals(id, numbers.longValue());
+            if (sorted) {
+              assertTrue(numbers.longValue() < previous);
+              previous = numbers.longValue();
+            }
+            assertNotNull(leaf.getTermVectors(docID).terms("vectors"));
+          }
+          assertEquals(leaf.maxDoc(), leaf.terms("body").getDocCount());
+          assertEquals(leaf.maxDoc(), leaf.getSortedDocValues("sorted").cost());
+          numPoints += leaf.getPointValues("point").size();
+        }
+        assertEquals(numDocs, numPoints);
+      }
+    } finally {
+      executor.shutdown();
+      assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+    }
+  }
 }
@@ -62,6 +62,8 @@ public class TestIndexWriterConfig extends LuceneTestCase {
     assertEquals(InfoStream.getDefault(), conf.getInfoStream());
     assertEquals(IndexWriterConfig.DEFAULT_USE_COMPOUND_FILE_SYSTEM, conf.getUseCompoundFile());
     assertTrue(conf.isCheckPendingFlushOnUpdate());
+    assertNull(conf.getFlushExecutor());
+    assertTrue(conf.getReaderAttributes().isEmpty());
     // Sanity check - validate that all getters are covered.
     Set<String> getters = new HashSet<>();
     getters.add("getAnalyzer");
@@ -88,6 +90,8 @@ public class TestIndexWriterConfig extends LuceneTestCase {
     getters.add("getUseCompoundFile");
     getters.add("isCheckPendingFlushOnUpdate");
     getters.add("getSoftDeletesField");
+    getters.add("getFlushExecutor");
+    getters.add("getReaderAttributes");
     
     for (Method m : IndexWriterConfig.class.getDeclaredMethods()) {
       if (m.getDeclaringClass() == IndexWriterConfig.class && m.getName().startsWith("get")) {
@@ -106,6 +106,11 @@ public class TestSegmentToThreadMapping extends LuceneTestCase {
         return null;
       }
 
+      @Override
+      public VectorValues getVectorValues(String field) {
+        return null;
+      }
+
       @Override
       protected void doClose() {
       }
@@ -38,7 +38,10 @@ import org.apache.lucene.util.LuceneTestCase;
 public class TestTermsHashPerField extends LuceneTestCase  {
 
   private static TermsHashPerField createNewHash(AtomicInteger newCalled, AtomicInteger addCalled) {
-    IntBlockPool intBlockPool = new IntBlockPool();
+    return createNewHash(new IntBlockPool(), newCalled, addCalled);
+  }
+
+  private static TermsHashPerField createNewHash(IntBlockPool intBlockPool, AtomicInteger newCalled, AtomicInteger addCalled) {
     ByteBlockPool byteBlockPool = new ByteBlockPool(new ByteBlockPool.DirectAllocator());
     ByteBlockPool termBlockPool = new ByteBlockPool(new ByteBlockPool.DirectAllocator());
 
@@ -155,6 +158,28 @@ public class TestTermsHashPerField extends LuceneTestCase  {
     assertTrue(assertDocAndFreq(reader, (FreqProxTermsWriterPerField.FreqProxPostingsArray) hash.postingsArray, 0, 6, 3, 1));
   }
 
+  public void testSingleStreamDoesNotUseIntPool() throws IOException {
+    IntBlockPool intBlockPool = new IntBlockPool();
+    TermsHashPerField hash = createNewHash(intBlockPool, new AtomicInteger(), new AtomicInteger());
+    hash.start(null, true);
+    final int numDocs = atLeast(100);
+    for (int doc = 0; doc < numDocs; doc++) {
+      hash.add(new BytesRef("common"), doc);
+      hash.add(new BytesRef(Integer.toString(doc)), doc);
+      hash.finish();
+    }
+    // the address of the only stream of each term is stored in the postings array
+    assertNull(intBlockPool.buffer);
+    final ByteSliceReader reader = new ByteSliceReader();
+    hash.initReader(reader, 0, 0);
+    int prevDoc = 0;
+    for (int doc = 0; doc < numDocs; doc++) {
+      assertEquals(doc == numDocs - 1, assertDocAndFreq(reader,
+          (FreqProxTermsWriterPerField.FreqProxPostingsArray) hash.postingsArray, prevDoc, 0, doc, 1));
+      prevDoc = doc;
+    }
+  }
+
   public void testAddAndUpdateRandom() throws IOException {
     AtomicInteger newCalled = new AtomicInteger(0);
     AtomicInteger addCalled = new AtomicInteger(0);
@@ -0,0 +1,361 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.index;
+
+import java.io.IOException;
+
+import org.apache.lucene.codecs.Codec;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.FieldType;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.VectorField;
+import org.apache.lucene.index.VectorValues.SearchStrategy;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.LuceneTestCase;
+import org.apache.lucene.util.TestUtil;
+
+import static org.apache.lucene.search.DocIdSetIterator.NO_MORE_DOCS;
+
+/** Test Indexing/IndexWriter with vectors */
+public class TestVectorValues extends LuceneTestCase {
+
+  private IndexWriterConfig createIndexWriterConfig() {
+    IndexWriterConfig iwc = newIndexWriterConfig();
+    // not all codecs support vectors
+    iwc.setCodec(Codec.forName("Lucene87"));
+    return iwc;
+  }
+
+  public void testFieldConstructor() {
+    float[] v = new float[1];
+    VectorField field = new VectorField("f", v);
+    assertEquals(1, field.fieldType().vectorDimension());
+    assertEquals(SearchStrategy.EUCLIDEAN_HNSW, field.fieldType().vectorSearchStrategy());
+    assertSame(v, field.vectorValue());
+  }
+
+  public void testFieldConstructorExceptions() {
+    expectThrows(IllegalArgumentException.class, () -> new VectorField(null, new float[1]));
+    expectThrows(IllegalArgumentException.class, () -> new VectorField("f", null));
+    expectThrows(IllegalArgumentException.class, () -> new VectorField("f", new float[1], (SearchStrategy) null));
+    expectThrows(IllegalArgumentException.class, () -> new VectorField("f", new float[0]));
+    expectThrows(IllegalArgumentException.class, () -> new VectorField("f", new float[VectorValues.MAX_DIMENSIONS + 1]));
+  }
+
+  public void testFieldSetValue() {
+    VectorField field = new VectorField("f", new float[1]);
+    float[] v1 = new float[1];
+    field.setVectorValue(v1);
+    assertSame(v1, field.vectorValue());
+    expectThrows(IllegalArgumentException.class, () -> field.setVectorValue(new float[2]));
+    expectThrows(IllegalArgumentException.class, () -> field.setVectorValue(null));
+  }
+
+  public void testFieldTypeEquality() {
+    FieldType ft1 = VectorField.createHnswType(4, SearchStrategy.DOT_PRODUCT_HNSW);
+    FieldType ft2 = VectorField.createHnswType(4, SearchStrategy.DOT_PRODUCT_HNSW);
+    assertEquals(ft1, ft2);
+    assertEquals(ft1.hashCode(), ft2.hashCode());
+    assertNotEquals(ft1, VectorField.createHnswType(5, SearchStrategy.DOT_PRODUCT_HNSW));
+    assertNotEquals(ft1, VectorField.createHnswType(4, SearchStrategy.COSINE_HNSW));
+  }
+
+  // Illegal schema change tests:
+
+  public void testIllegalDimChangeTwoDocs() throws Exception {
+    try (Directory dir = newDirectory();
+         IndexWriter w = new IndexWriter(dir, createIndexWriterConfig())) {
+      Document doc = new Document();
+      doc.add(new VectorField("f", new float[4], SearchStrategy.DOT_PRODUCT_HNSW));
+      w.addDocument(doc);
+      if (random().nextBoolean()) {
+        // sometimes test with two segments
+        w.commit();
+      }
+
+      Document doc2 = new Document();
+      doc2.add(new VectorField("f", new float[3], SearchStrategy.DOT_PRODUCT_HNSW));
+      IllegalArgumentException expected = expectThrows(IllegalArgumentException.class, () -> w.addDocument(doc2));
+      assertEquals("cannot change vector dimension from 4 to 3 for field=\"f\"", expected.getMessage());
+    }
+  }
+
+  public void testIllegalSearchStrategyChange() throws Exception {
+    try (Directory dir = newDirectory();
+         IndexWriter w = new IndexWriter(dir, createIndexWriterConfig())) {
+      Document doc = new Document();
+      doc.add(new VectorField("f", new float[4], SearchStrategy.DOT_PRODUCT_HNSW));
+      w.addDocument(doc);
+      if (random().nextBoolean()) {
+        // sometimes test with two segments
+        w.commit();
+      }
+
+      Document doc2 = new Document();
+      doc2.add(new VectorField("f", new float[4], SearchStrategy.EUCLIDEAN_HNSW));
+      IllegalArgumentException expected = expectThrows(IllegalArgumentException.class, () -> w.addDocument(doc2));
+      assertEquals("cannot change vector search strategy from DOT_PRODUCT_HNSW to EUCLIDEAN_HNSW for field=\"f\"", expected.getMessage());
+    }
+  }
+
+  public void testIllegalDimChangeViaAddIndexesDirectory() throws Exception {
+    try (Directory dir = newDirectory();
+         Directory dir2 = newDirectory()) {
+      try (IndexWriter w = new IndexWriter(dir, createIndexWriterConfig())) {
+        Document doc = new Document();
+        doc.add(new VectorField("f", new float[4], SearchStrategy.DOT_PRODUCT_HNSW));
+        w.addDocument(doc);
+      }
+      try (IndexWriter w2 = new IndexWriter(dir2, createIndexWriterConfig())) {
+        Document doc = new Document();
+        doc.add(new VectorField("f", new float[5], SearchStrategy.DOT_PRODUCT_HNSW));
+        w2.addDocument(doc);
+        IllegalArgumentException expected = expectThrows(IllegalArgumentException.class, () -> w2.addIndexes(dir));
+        assertEquals("cannot change vector dimension from 5 to 4 for field=\"f\"", expected.getMessage());
+      }
+    }
+  }
+
+  public void testIllegalMultipleValues() throws Exception {
+    try (Directory dir = newDirectory();
+         IndexWriter w = new IndexWriter(dir, createIndexWriterConfig())) {
+      Document doc = new Document();
+      doc.add(new VectorField("f", new float[4], SearchStrategy.DOT_PRODUCT_HNSW));
+      doc.add(new VectorField("f", new float[4], SearchStrategy.DOT_PRODUCT_HNSW));
+      IllegalArgumentException expected = expectThrows(IllegalArgumentException.class, () -> w.addDocument(doc));
+      assertEquals("VectorField \"f\" appears more than once in this document (only one value is allowed per field)", expected.getMessage());
+    }
+  }
+
+  public void testCodecWithoutVectors() throws Exception {
+    try (Directory dir = newDirectory()) {
+      IndexWriterConfig iwc = newIndexWriterConfig();
+      iwc.setCodec(Codec.forName("SimpleText"));
+      try (IndexWriter w = new IndexWriter(dir, iwc)) {
+        Document doc = new Document();
+        doc.add(new VectorField("f", new float[4], SearchStrategy.DOT_PRODUCT_HNSW));
+        w.addDocument(doc);
+        expectThrows(UnsupportedOperationException.class, w::commit);
+      }
+    }
+  }
+
+  public void testIndexedValueNotAliased() throws Exception {
+    // We copy indexed values (as for BinaryDocValues) so the input float[] can be reused across
+    // calls to IndexWriter.addDocument.
+    String fieldName = "field";
+    float[] v = { 0 };
+    try (Directory dir = newDirectory();
+         IndexWriter iw = new IndexWriter(dir, createIndexWriterConfig())) {
+      Document doc1 = new Document();
+      doc1.add(new VectorField(fieldName, v, SearchStrategy.EUCLIDEAN_HNSW));
+      v[0] = 1;
+      Document doc2 = new Document();
+      doc2.add(new VectorField(fieldName, v, SearchStrategy.EUCLIDEAN_HNSW));
+      iw.addDocument(doc1);
+      iw.addDocument(doc2);
+      v[0] = 2;
+      Document doc3 = new Document();
+      doc3.add(new VectorField(fieldName, v, SearchStrategy.EUCLIDEAN_HNSW));
+      iw.addDocument(doc3);
+      iw.forceMerge(1);
+      try (IndexReader reader = iw.getReader()) {
+        LeafReader r = getOnlyLeafReader(reader);
+        VectorValues vectorValues = r.getVectorValues(fieldName);
+        assertEquals(3, vectorValues.size());
+        vectorValues.nextDoc();
+        assertEquals(1, vectorValues.vectorValue()[0], 0);
+        vectorValues.nextDoc();
+        assertEquals(1, vectorValues.vectorValue()[0], 0);
+        vectorValues.nextDoc();
+        assertEquals(2, vectorValues.vectorValue()[0], 0);
+      }
+    }
+  }
+
+  public void testSortedIndex() throws Exception {
+    IndexWriterConfig iwc = createIndexWriterConfig();
+    iwc.setIndexSort(new Sort(new SortField("sortkey", SortField.Type.INT)));
+    String fieldName = "field";
+    try (Directory dir = newDirectory();
+         IndexWriter iw = new IndexWriter(dir, iwc)) {
+      add(iw, fieldName, 1, 1, new float[]{-1, 0});
+      add(iw, fieldName, 4, 4, new float[]{0, 1});
+      add(iw, fieldName, 3, 3, null);
+      add(iw, fieldName, 2, 2, new float[]{1, 0});
+      iw.forceMerge(1);
+      try (IndexReader reader = iw.getReader()) {
+        LeafReader leaf = getOnlyLeafReader(reader);
+
+        VectorValues vectorValues = leaf.getVectorValues(fieldName);
+        assertEquals(2, vectorValues.dimension());
+        assertEquals(3, vectorValues.size());
+        assertEquals("1", leaf.document(vectorValues.nextDoc()).get("id"));
+        assertEquals(-1f, vectorValues.vectorValue()[0], 0);
+        assertEquals("2", leaf.document(vectorValues.nextDoc()).get("id"));
+        assertEquals(1, vectorValues.vectorValue()[0], 0);
+        assertEquals("4", leaf.document(vectorValues.nextDoc()).get("id"));
+        assertEquals(0, vectorValues.vectorValue()[0], 0);
+        assertEquals(NO_MORE_DOCS, vectorValues.nextDoc());
+      }
+    }
+  }
+
+  public void testDeleteAllVectorDocs() throws Exception {
+    try (Directory dir = newDirectory();
+         IndexWriter w = new IndexWriter(dir, createIndexWriterConfig())) {
+      Document doc = new Document();
+      doc.add(new StringField("id", "0", Field.Store.NO));
+      doc.add(new VectorField("v", new float[]{2, 3, 5}, SearchStrategy.DOT_PRODUCT_HNSW));
+      w.addDocument(doc);
+      w.addDocument(new Document());
+      w.commit();
+
+      try (DirectoryReader r = w.getReader()) {
+        assertNotNull(r.leaves().get(0).reader().getVectorValues("v"));
+      }
+      w.deleteDocuments(new Term("id", "0"));
+      w.forceMerge(1);
+      try (DirectoryReader r = w.getReader()) {
+        VectorValues values = getOnlyLeafReader(r).getVectorValues("v");
+        assertNotNull(values);
+        assertEquals(0, values.size());
+        assertEquals(NO_MORE_DOCS, values.nextDoc());
+      }
+    }
+  }
+
+  /**
+   * Index random vectors, sometimes skipping documents, sometimes deleting a document, sometimes merging,
+   * and check that the values returned by the reader match the indexed ones.
+   */
+  public void testRandom() throws Exception {
+    IndexWriterConfig iwc = createIndexWriterConfig();
+    if (random().nextBoolean()) {
+      iwc.setIndexSort(new Sort(new SortField("sortkey", SortField.Type.INT)));
+    }
+    String fieldName = "field";
+    try (Directory dir = newDirectory();
+         IndexWriter iw = new IndexWriter(dir, iwc)) {
+      int numDoc = atLeast(100);
+      int dimension = atLeast(10);
+      float[][] values = new float[numDoc][];
+      int numValues = 0;
+      for (int i = 0; i < numDoc; i++) {
+        if (random().nextInt(7) != 3) {
+          // usually index a vector value for a doc
+          values[i] = randomVector(dimension);
+          ++numValues;
+        }
+        if (random().nextBoolean() && values[i] != null) {
+          // sometimes index a copy, so that the writer cannot rely on the caller keeping the array
+          float[] scratch = new float[dimension];
+          System.arraycopy(values[i], 0, scratch, 0, dimension);
+          add(iw, fieldName, i, scratch);
+        } else {
+          add(iw, fieldName, i, values[i]);
+        }
+        if (random().nextInt(10) == 2) {
+          // sometimes delete a random document
+          int idToDelete = random().nextInt(i + 1);
+          iw.deleteDocuments(new Term("id", Integer.toString(idToDelete)));
+          // and remember that it was deleted
+          if (values[idToDelete] != null) {
+            values[idToDelete] = null;
+            --numValues;
+          }
+        }
+        if (random().nextInt(10) == 3) {
+          iw.commit();
+        }
+      }
+      if (random().nextBoolean()) {
+        iw.forceMerge(1);
+      }
+      try (IndexReader reader = iw.getReader()) {
+        int valueCount = 0, totalSize = 0;
+        for (LeafReaderContext ctx : reader.leaves()) {
+          VectorValues vectorValues = ctx.reader().getVectorValues(fieldName);
+          if (vectorValues == null) {
+            continue;
+          }
+          totalSize += vectorValues.size();
+          int docId;
+          while ((docId = vectorValues.nextDoc()) != NO_MORE_DOCS) {
+            float[] v = vectorValues.vectorValue();
+            assertEquals(dimension, v.length);
+            String idString = ctx.reader().document(docId).getField("id").stringValue();
+            int id = Integer.parseInt(idString);
+            if (ctx.reader().getLiveDocs() == null || ctx.reader().getLiveDocs().get(docId)) {
+              assertArrayEquals(idString, values[id], v, 0);
+              ++valueCount;
+            } else {
+              assertNull(values[id]);
+            }
+          }
+        }
+        assertEquals(numValues, valueCount);
+        assertEquals(numValues, totalSize - numDeletedVectors(reader, fieldName));
+      }
+      TestUtil.checkIndex(dir);
+    }
+  }
+
+  private static int numDeletedVectors(IndexReader reader, String fieldName) throws IOException {
+    int count = 0;
+    for (LeafReaderContext ctx : reader.leaves()) {
+      VectorValues vectorValues = ctx.reader().getVectorValues(fieldName);
+      if (vectorValues == null || ctx.reader().getLiveDocs() == null) {
+        continue;
+      }
+      int docId;
+      while ((docId = vectorValues.nextDoc()) != NO_MORE_DOCS) {
+        if (ctx.reader().getLiveDocs().get(docId) == false) {
+          ++count;
+        }
+      }
+    }
+    return count;
+  }
+
+  private float[] randomVector(int dim) {
+    float[] v = new float[dim];
+    for (int i = 0; i < dim; i++) {
+      v[i] = random().nextFloat();
+    }
+    return v;
+  }
+
+  private void add(IndexWriter iw, String field, int id, float[] vector) throws IOException {
+    add(iw, field, id, random().nextInt(100), vector);
+  }
+
+  private void add(IndexWriter iw, String field, int id, int sortkey, float[] vector) throws IOException {
+    Document doc = new Document();
+    if (vector != null) {
+      doc.add(new VectorField(field, vector));
+    }
+    doc.add(new NumericDocValuesField("sortkey", sortkey));
+    String idString = Integer.toString(id);
+    doc.add(new StringField("id", idString, Field.Store.YES));
+    iw.updateDocument(new Term("id", idString), doc);
+  }
+}
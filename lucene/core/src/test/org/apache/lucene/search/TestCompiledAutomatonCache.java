@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.search;
+
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.RandomIndexWriter;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.LuceneTestCase;
+import org.apache.lucene.util.automaton.Automata;
+import org.apache.lucene.util.automaton.AutomatonProvider;
+import org.apache.lucene.util.automaton.Operations;
+import org.apache.lucene.util.automaton.RegExp;
+
+public class TestCompiledAutomatonCache extends LuceneTestCase {
+
+  private CompiledAutomatonCache previousCache;
+
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+    previousCache = CompiledAutomatonCache.getDefaultCache();
+  }
+
+  @Override
+  public void tearDown() throws Exception {
+    CompiledAutomatonCache.setDefaultCache(previousCache);
+    super.tearDown();
+  }
+
+  public void testInvalidMaxSize() {
+    expectThrows(IllegalArgumentException.class, () -> new CompiledAutomatonCache(0, CompiledAutomatonCache.DEFAULT_MAX_RAM_BYTES_USED));
+    expectThrows(IllegalArgumentException.class, () -> new CompiledAutomatonCache(10, 0));
+  }
+
+  public void testReuseAcrossFields() throws Exception {
+    CompiledAutomatonCache cache = new CompiledAutomatonCache(10, CompiledAutomatonCache.DEFAULT_MAX_RAM_BYTES_USED);
+    CompiledAutomatonCache.setDefaultCache(cache);
+
+    RegexpQuery q1 = new RegexpQuery(new Term("f1", "fo.*"));
+    RegexpQuery q2 = new RegexpQuery(new Term("f2", "fo.*"));
+    assertEquals(1, cache.getMissCount());
+    assertEquals(1, cache.getHitCount());
+    assertSame(q1.compiled, q2.compiled);
+    assertSame(q1.getAutomaton(), q2.getAutomaton());
+    assertFalse(q1.equals(q2));
+    assertEquals(q1, new RegexpQuery(new Term("f1", "fo.*")));
+
+    // same pattern, different semantics
+    WildcardQuery q3 = new WildcardQuery(new Term("f1", "fo.*"));
+    RegexpQuery q4 = new RegexpQuery(new Term("f1", "fo.*"), RegExp.NONE);
+    RegexpQuery q5 = new RegexpQuery(new Term("f1", "fo.*"), RegExp.ALL, RegExp.ASCII_CASE_INSENSITIVE, Operations.DEFAULT_MAX_DETERMINIZED_STATES);
+    assertNotSame(q1.compiled, q3.compiled);
+    assertNotSame(q1.compiled, q4.compiled);
+    assertNotSame(q1.compiled, q5.compiled);
+    assertEquals(4, cache.size());
+    assertTrue(cache.ramBytesUsed() > 0);
+
+    cache.clear();
+    assertEquals(0, cache.size());
+    assertEquals(0, cache.ramBytesUsed());
+  }
+
+  public void testEviction() {
+    CompiledAutomatonCache cache = new CompiledAutomatonCache(2, CompiledAutomatonCache.DEFAULT_MAX_RAM_BYTES_USED);
+    CompiledAutomatonCache.setDefaultCache(cache);
+
+    new WildcardQuery(new Term("f", "a*"));
+    new WildcardQuery(new Term("f", "b*"));
+    new WildcardQuery(new Term("f", "a*")); // a* is now the most recently used
+    new WildcardQuery(new Term("f", "c*")); // evicts b*
+    assertEquals(2, cache.size());
+    assertEquals(1, cache.getHitCount());
+    assertEquals(3, cache.getMissCount());
+
+    new WildcardQuery(new Term("f", "a*"));
+    assertEquals(2, cache.getHitCount());
+    new WildcardQuery(new Term("f", "b*"));
+    assertEquals(4, cache.getMissCount());
+  }
+
+  public void testEvictionByRamBytesUsed() {
+    CompiledAutomatonCache cache = new CompiledAutomatonCache(100, CompiledAutomatonCache.DEFAULT_MAX_RAM_BYTES_USED);
+    CompiledAutomatonCache.setDefaultCache(cache);
+    new WildcardQuery(new Term("f", "a*"));
+    final long ramBytesUsed = cache.ramBytesUsed();
+
+    // room for two automata of the same size
+    cache = new CompiledAutomatonCache(100, 2 * ramBytesUsed + ramBytesUsed / 2);
+    CompiledAutomatonCache.setDefaultCache(cache);
+    new WildcardQuery(new Term("f", "a*"));
+    new WildcardQuery(new Term("f", "b*"));
+    new WildcardQuery(new Term("f", "a*")); // a* is now the most recently used
+    new WildcardQuery(new Term("f", "c*")); // evicts b*
+    assertEquals(2, cache.size());
+    assertTrue(cache.ramBytesUsed() <= cache.getMaxRamBytesUsed());
+    new WildcardQuery(new Term("f", "a*"));
+    assertEquals(2, cache.getHitCount());
+
+    // an automaton that is larger than the cache is not kept
+    cache = new CompiledAutomatonCache(100, ramBytesUsed / 2);
+    CompiledAutomatonCache.setDefaultCache(cache);
+    new WildcardQuery(new Term("f", "a*"));
+    assertEquals(0, cache.size());
+    assertEquals(0, cache.ramBytesUsed());
+  }
+
+  public void testUncachedPatterns() {
+    CompiledAutomatonCache cache = new CompiledAutomatonCache(10, CompiledAutomatonCache.DEFAULT_MAX_RAM_BYTES_USED);
+    CompiledAutomatonCache.setDefaultCache(cache);
+
+    // custom providers may resolve names differently over time
+    AutomatonProvider provider = name -> Automata.makeString("foo");
+    new RegexpQuery(new Term("f", "<foo>"), RegExp.ALL, provider, Operations.DEFAULT_MAX_DETERMINIZED_STATES);
+    // invalid patterns fail every time
+    expectThrows(IllegalArgumentException.class, () -> new RegexpQuery(new Term("f", "[")));
+    assertEquals(0, cache.size());
+
+    CompiledAutomatonCache.setDefaultCache(null);
+    RegexpQuery q1 = new RegexpQuery(new Term("f", "fo.*"));
+    RegexpQuery q2 = new RegexpQuery(new Term("f", "fo.*"));
+    assertNotSame(q1.compiled, q2.compiled);
+    assertEquals(q1, q2);
+    assertEquals(0, cache.size());
+  }
+
+  public void testSearch() throws Exception {
+    CompiledAutomatonCache.setDefaultCache(new CompiledAutomatonCache(10, CompiledAutomatonCache.DEFAULT_MAX_RAM_BYTES_USED));
+    Directory dir = newDirectory();
+    RandomIndexWriter w = new RandomIndexWriter(random(), dir);
+    for (String value : new String[] { "foo", "foobar", "bar", "baz" }) {
+      Document doc = new Document();
+      doc.add(newStringField("f1", value, Field.Store.NO));
+      doc.add(newStringField("f2", value.toUpperCase(java.util.Locale.ROOT), Field.Store.NO));
+      w.addDocument(doc);
+    }
+    IndexReader reader = w.getReader();
+    w.close();
+    IndexSearcher searcher = newSearcher(reader);
+
+    for (int iter = 0; iter < 2; ++iter) {
+      assertEquals(2, searcher.count(new RegexpQuery(new Term("f1", "fo.*"))));
+      assertEquals(0, searcher.count(new RegexpQuery(new Term("f2", "fo.*"))));
+      assertEquals(2, searcher.count(new WildcardQuery(new Term("f1", "ba?"))));
+      assertEquals(2, searcher.count(new WildcardQuery(new Term("f2", "BA?"))));
+    }
+
+    reader.close();
+    dir.close();
+  }
+}
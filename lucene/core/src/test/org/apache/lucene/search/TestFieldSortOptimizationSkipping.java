@@ -23,6 +23,7 @@ import org.apache.lucene.document.LongPoint;
 import org.apache.lucene.document.IntPoint;
 import org.apache.lucene.document.FloatPoint;
 import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedDocValuesField;
 import org.apache.lucene.document.StoredField;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.index.DirectoryReader;
@@ -31,6 +32,7 @@ import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.LuceneTestCase;
 
 import java.io.IOException;
@@ -267,6 +269,160 @@ public class TestFieldSortOptimizationSkipping extends LuceneTestCase {
   }
 
 
+  public void testSortOptimizationWithTieBreaker() throws IOException {
+    final Directory dir = newDirectory();
+    final IndexWriter writer = new IndexWriter(dir, new IndexWriterConfig());
+    final int numDocs = atLeast(10000);
+    for (int i = 0; i < numDocs; ++i) {
+      final Document doc = new Document();
+      doc.add(new NumericDocValuesField("priority", i % 2)); // few distinct values of the primary sort
+      doc.add(new IntPoint("priority", i % 2));
+      doc.add(new NumericDocValuesField("timestamp", numDocs - i));
+      doc.add(new LongPoint("timestamp", numDocs - i));
+      writer.addDocument(doc);
+      if (i == 7000) writer.flush(); // two segments
+    }
+    final IndexReader reader = DirectoryReader.open(writer);
+    writer.close();
+    IndexSearcher searcher = new IndexSearcher(reader);
+    final int numHits = 3;
+    final int totalHitsThreshold = 3;
+
+    { // test that documents with the same primary value as the bottom entry are skipped based on the tie-breaker
+      final SortField sortField1 = new SortField("priority", SortField.Type.INT, true);
+      final SortField sortField2 = new SortField("timestamp", SortField.Type.LONG, true);
+      final Sort sort = new Sort(sortField1, sortField2);
+      final TopFieldCollector collector = TopFieldCollector.create(sort, numHits, null, totalHitsThreshold);
+      searcher.search(new MatchAllDocsQuery(), collector);
+      TopDocs topDocs = collector.topDocs();
+      assertEquals(topDocs.scoreDocs.length, numHits);
+      for (int i = 0; i < numHits; i++) {
+        FieldDoc fieldDoc = (FieldDoc) topDocs.scoreDocs[i];
+        assertEquals(1, fieldDoc.fields[0]); // sort on 1st field as expected
+        assertEquals((long) (numDocs - 1 - 2 * i), fieldDoc.fields[1]); // sort on 2nd field as expected
+      }
+      assertTrue(topDocs.totalHits.value < numDocs); // assert that some docs were skipped => optimization was run
+    }
+
+    { // test that the tie-breaker is not used if there are other sort fields
+      final SortField sortField1 = new SortField("priority", SortField.Type.INT, true);
+      final SortField sortField2 = new SortField("timestamp", SortField.Type.LONG, true);
+      final Sort sort = new Sort(sortField1, sortField2, FIELD_DOC);
+      final TopFieldCollector collector = TopFieldCollector.create(sort, numHits, null, totalHitsThreshold);
+      searcher.search(new MatchAllDocsQuery(), collector);
+      TopDocs topDocs = collector.topDocs();
+      assertEquals(topDocs.scoreDocs.length, numHits);
+      for (int i = 0; i < numHits; i++) {
+        FieldDoc fieldDoc = (FieldDoc) topDocs.scoreDocs[i];
+        assertEquals(1, fieldDoc.fields[0]);
+        assertEquals((long) (numDocs - 1 - 2 * i), fieldDoc.fields[1]);
+      }
+      assertEquals(topDocs.totalHits.value, numDocs); // assert that all documents were collected => optimization was not run
+    }
+
+    reader.close();
+    dir.close();
+  }
+
+  public void testStringSortOptimization() throws IOException {
+    final Directory dir = newDirectory();
+    final IndexWriter writer = new IndexWriter(dir, new IndexWriterConfig());
+    final int numDocs = atLeast(10000);
+    for (int i = 0; i < numDocs; ++i) {
+      final Document doc = new Document();
+      final String value = String.format(java.util.Locale.ROOT, "%06d", i);
+      doc.add(new SortedDocValuesField("my_field", new BytesRef(value)));
+      doc.add(new StringField("my_field", value, Field.Store.NO));
+      doc.add(new SortedDocValuesField("my_field_not_indexed", new BytesRef(value)));
+      writer.addDocument(doc);
+      if (i == 7000) writer.flush(); // two segments
+    }
+    final IndexReader reader = DirectoryReader.open(writer);
+    writer.close();
+    IndexSearcher searcher = new IndexSearcher(reader);
+    final int numHits = 3;
+    final int totalHitsThreshold = 3;
+
+    { // simple sort
+      final Sort sort = new Sort(new SortField("my_field", SortField.Type.STRING));
+      final TopFieldCollector collector = TopFieldCollector.create(sort, numHits, null, totalHitsThreshold);
+      searcher.search(new MatchAllDocsQuery(), collector);
+      TopDocs topDocs = collector.topDocs();
+      assertEquals(topDocs.scoreDocs.length, numHits);
+      for (int i = 0; i < numHits; i++) {
+        FieldDoc fieldDoc = (FieldDoc) topDocs.scoreDocs[i];
+        assertEquals(String.format(java.util.Locale.ROOT, "%06d", i), ((BytesRef) fieldDoc.fields[0]).utf8ToString());
+      }
+      assertTrue(topDocs.totalHits.value < numDocs); // assert that some docs were skipped => optimization was run
+    }
+
+    { // paging sort with after
+      final Sort sort = new Sort(new SortField("my_field", SortField.Type.STRING));
+      final int afterValue = 7500;
+      FieldDoc after = new FieldDoc(afterValue, Float.NaN,
+          new BytesRef[] {new BytesRef(String.format(java.util.Locale.ROOT, "%06d", afterValue))});
+      final TopFieldCollector collector = TopFieldCollector.create(sort, numHits, after, totalHitsThreshold);
+      searcher.search(new MatchAllDocsQuery(), collector);
+      TopDocs topDocs = collector.topDocs();
+      assertEquals(topDocs.scoreDocs.length, numHits);
+      for (int i = 0; i < numHits; i++) {
+        FieldDoc fieldDoc = (FieldDoc) topDocs.scoreDocs[i];
+        assertEquals(String.format(java.util.Locale.ROOT, "%06d", afterValue + 1 + i), ((BytesRef) fieldDoc.fields[0]).utf8ToString());
+      }
+      assertTrue(topDocs.totalHits.value < numDocs); // assert that some docs were skipped => optimization was run
+    }
+
+    { // test that if the field is not indexed, no optimization is run
+      final Sort sort = new Sort(new SortField("my_field_not_indexed", SortField.Type.STRING));
+      final TopFieldCollector collector = TopFieldCollector.create(sort, numHits, null, totalHitsThreshold);
+      searcher.search(new MatchAllDocsQuery(), collector);
+      TopDocs topDocs = collector.topDocs();
+      assertEquals(topDocs.scoreDocs.length, numHits);
+      for (int i = 0; i < numHits; i++) {
+        FieldDoc fieldDoc = (FieldDoc) topDocs.scoreDocs[i];
+        assertEquals(String.format(java.util.Locale.ROOT, "%06d", i), ((BytesRef) fieldDoc.fields[0]).utf8ToString());
+      }
+      assertEquals(topDocs.totalHits.value, numDocs); // assert that all documents were collected => optimization was not run
+    }
+
+    reader.close();
+    dir.close();
+  }
+
+  public void testStringSortOptimizationWithNormalizedTerms() throws IOException {
+    final Directory dir = newDirectory();
+    final IndexWriter writer = new IndexWriter(dir, new IndexWriterConfig());
+    final int numDocs = atLeast(10000);
+    for (int i = 0; i < numDocs; ++i) {
+      final Document doc = new Document();
+      // doc values sort "Z..." before "a...", but the lowercased terms sort "a..." before "z..."
+      final int n = numDocs - i;
+      final String value = i == 0 ? "0" : String.format(java.util.Locale.ROOT, "%s%06d", n % 2 == 0 ? "Z" : "a", n);
+      doc.add(new SortedDocValuesField("my_field", new BytesRef(value)));
+      doc.add(new StringField("my_field", value.toLowerCase(java.util.Locale.ROOT), Field.Store.NO));
+      writer.addDocument(doc);
+    }
+    final IndexReader reader = DirectoryReader.open(writer);
+    writer.close();
+    IndexSearcher searcher = new IndexSearcher(reader);
+    final int numHits = 3;
+    final int totalHitsThreshold = 3;
+
+    final Sort sort = new Sort(new SortField("my_field", SortField.Type.STRING));
+    final TopFieldCollector collector = TopFieldCollector.create(sort, numHits, null, totalHitsThreshold);
+    searcher.search(new MatchAllDocsQuery(), collector);
+    TopDocs topDocs = collector.topDocs();
+    assertEquals(topDocs.scoreDocs.length, numHits);
+    assertEquals("0", ((BytesRef) ((FieldDoc) topDocs.scoreDocs[0]).fields[0]).utf8ToString());
+    for (int i = 1; i < numHits; i++) {
+      FieldDoc fieldDoc = (FieldDoc) topDocs.scoreDocs[i];
+      assertEquals(String.format(java.util.Locale.ROOT, "Z%06d", 2 * i), ((BytesRef) fieldDoc.fields[0]).utf8ToString());
+    }
+
+    reader.close();
+    dir.close();
+  }
+
   public void testFloatSortOptimization() throws IOException {
     final Directory dir = newDirectory();
     final IndexWriter writer = new IndexWriter(dir, new IndexWriterConfig());
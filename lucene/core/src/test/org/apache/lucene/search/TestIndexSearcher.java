@@ -255,6 +255,60 @@ public class TestIndexSearcher extends LuceneTestCase {
     IOUtils.close(r, dir);
   }
 
+  public void testSegmentPartitions() throws IOException {
+    Directory dir = newDirectory();
+    RandomIndexWriter w = new RandomIndexWriter(random(), dir);
+    final int numDocs = TestUtil.nextInt(random(), 100, 500);
+    for (int i = 0; i < numDocs; ++i) {
+      Document doc = new Document();
+      doc.add(new StringField("field", Boolean.toString(i % 3 == 0), Store.NO));
+      w.addDocument(doc);
+    }
+    w.forceMerge(1);
+    IndexReader r = w.getReader();
+    w.close();
+
+    final int maxDocsPerSlice = TestUtil.nextInt(random(), 10, numDocs - 1);
+    IndexSearcher.LeafSlice[] slices = IndexSearcher.slices(r.leaves(), maxDocsPerSlice, 5, true);
+    assertEquals((numDocs + maxDocsPerSlice - 1) / maxDocsPerSlice, slices.length);
+    int expectedMinDocId = 0;
+    for (IndexSearcher.LeafSlice slice : slices) {
+      assertEquals(1, slice.leaves.length);
+      assertSame(r.leaves().get(0), slice.leaves[0]);
+      assertEquals(1, slice.partitions.length);
+      IndexSearcher.LeafReaderContextPartition partition = slice.partitions[0];
+      assertEquals(expectedMinDocId, partition.minDocId);
+      assertTrue(partition.maxDocId - partition.minDocId <= maxDocsPerSlice);
+      expectedMinDocId = partition.maxDocId;
+    }
+    assertEquals(numDocs, expectedMinDocId);
+
+    // without partitions, the segment is searched as a whole
+    slices = IndexSearcher.slices(r.leaves(), maxDocsPerSlice, 5, false);
+    assertEquals(1, slices.length);
+    assertEquals(DocIdSetIterator.NO_MORE_DOCS, slices[0].partitions[0].maxDocId);
+
+    ExecutorService service = new ThreadPoolExecutor(4, 4, 0L, TimeUnit.MILLISECONDS,
+                                   new LinkedBlockingQueue<Runnable>(),
+                                   new NamedThreadFactory("TestIndexSearcher"));
+    IndexSearcher searcher = new IndexSearcher(r, service) {
+      @Override
+      protected LeafSlice[] slices(List<LeafReaderContext> leaves) {
+        return slices(leaves, maxDocsPerSlice, 5, true);
+      }
+    };
+    IndexSearcher singleThreadedSearcher = new IndexSearcher(r);
+    for (Query query : Arrays.asList(new MatchAllDocsQuery(), new TermQuery(new Term("field", "true")))) {
+      assertEquals(singleThreadedSearcher.count(query), searcher.count(query));
+      TopDocs expected = singleThreadedSearcher.search(query, 10);
+      TopDocs actual = searcher.search(query, 10);
+      CheckHits.checkEqual(query, expected.scoreDocs, actual.scoreDocs);
+    }
+
+    service.shutdown();
+    IOUtils.close(r, dir);
+  }
+
   public void testOneSegmentExecutesOnTheCallerThread() throws IOException {
     List<LeafReaderContext> leaves = reader.leaves();
     AtomicInteger numExecutions = new AtomicInteger(0);
@@ -0,0 +1,302 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.search;
+
+import java.io.IOException;
+
+import org.apache.lucene.codecs.Codec;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.VectorField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.index.VectorValues;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.LuceneTestCase;
+
+public class TestKnnVectorQuery extends LuceneTestCase {
+
+  public void testEquals() {
+    KnnVectorQuery q1 = new KnnVectorQuery("f1", new float[]{0, 1}, 10);
+
+    assertEquals(q1, new KnnVectorQuery("f1", new float[]{0, 1}, 10));
+
+    assertNotEquals(null, q1);
+    assertNotEquals(q1, new TermQuery(new Term("f1", "x")));
+    assertNotEquals(q1, new KnnVectorQuery("f2", new float[]{0, 1}, 10));
+    assertNotEquals(q1, new KnnVectorQuery("f1", new float[]{1, 1}, 10));
+    assertNotEquals(q1, new KnnVectorQuery("f1", new float[]{0, 1}, 2));
+    assertNotEquals(q1, new KnnVectorQuery("f1", new float[]{0, 1}, 10, 5));
+    assertNotEquals(q1, new KnnVectorQuery("f1", new float[]{0}, 10));
+  }
+
+  public void testIllegalArguments() {
+    expectThrows(IllegalArgumentException.class, () -> new KnnVectorQuery("f", new float[]{0}, 0));
+    expectThrows(IllegalArgumentException.class, () -> new KnnVectorQuery("f", new float[]{0}, 1, -1));
+  }
+
+  public void testToString() {
+    KnnVectorQuery q1 = new KnnVectorQuery("f1", new float[]{0, 1}, 10);
+    assertEquals("KnnVectorQuery:f1[0.0,...][10]", q1.toString("ignored"));
+  }
+
+  /** Tests that a KnnVectorQuery whose topK &gt;= numDocs returns all the documents in score order */
+  public void testFindAll() throws IOException {
+    try (Directory indexStore = getIndexStore("field", new float[]{0, 1}, new float[]{1, 2}, new float[]{0, 0});
+         IndexReader reader = DirectoryReader.open(indexStore)) {
+      IndexSearcher searcher = newSearcher(reader);
+      KnnVectorQuery kvq = new KnnVectorQuery("field", new float[]{0, 0}, 10);
+      assertMatches(searcher, kvq, reader.numDocs());
+      TopDocs topDocs = searcher.search(kvq, 3);
+      assertEquals(2, topDocs.scoreDocs[0].doc);
+      assertEquals(0, topDocs.scoreDocs[1].doc);
+      assertEquals(1, topDocs.scoreDocs[2].doc);
+    }
+  }
+
+  /** testDimensionMismatch */
+  public void testDimensionMismatch() throws IOException {
+    try (Directory indexStore = getIndexStore("field", new float[]{0, 1}, new float[]{1, 2}, new float[]{0, 0});
+         IndexReader reader = DirectoryReader.open(indexStore)) {
+      IndexSearcher searcher = newSearcher(reader);
+      KnnVectorQuery kvq = new KnnVectorQuery("field", new float[]{0}, 10);
+      IllegalArgumentException e = expectThrows(IllegalArgumentException.class, () -> searcher.search(kvq, 10));
+      assertEquals("vector query dimension: 1 differs from field dimension: 2", e.getMessage());
+    }
+  }
+
+  /** testNonVectorField */
+  public void testNonVectorField() throws IOException {
+    try (Directory indexStore = getIndexStore("field", new float[]{0, 1}, new float[]{1, 2}, new float[]{0, 0});
+         IndexReader reader = DirectoryReader.open(indexStore)) {
+      IndexSearcher searcher = newSearcher(reader);
+      assertMatches(searcher, new KnnVectorQuery("xyzzy", new float[]{0}, 10), 0);
+      assertMatches(searcher, new KnnVectorQuery("id", new float[]{0}, 10), 0);
+    }
+  }
+
+  /** Tests the scores of the rewritten query */
+  public void testScoreEuclidean() throws IOException {
+    try (Directory d = newDirectory()) {
+      try (IndexWriter w = new IndexWriter(d, createIndexWriterConfig())) {
+        for (int j = 0; j < 5; j++) {
+          Document doc = new Document();
+          doc.add(new VectorField("field", new float[]{j, j}, VectorValues.SearchStrategy.EUCLIDEAN_HNSW));
+          w.addDocument(doc);
+        }
+      }
+      try (IndexReader reader = DirectoryReader.open(d)) {
+        assertEquals(1, reader.leaves().size());
+        IndexSearcher searcher = new IndexSearcher(reader);
+        KnnVectorQuery query = new KnnVectorQuery("field", new float[]{2, 2.5f}, 3);
+        Query rewritten = query.rewrite(reader);
+        Weight weight = searcher.createWeight(rewritten, ScoreMode.COMPLETE, 1);
+        Scorer scorer = weight.scorer(reader.leaves().get(0));
+
+        // prior to advancing, score is 0
+        assertEquals(-1, scorer.docID());
+        expectThrows(ArrayIndexOutOfBoundsException.class, scorer::score);
+
+        // test getMaxScore
+        assertEquals(0, scorer.getMaxScore(-1), 0);
+        assertEquals(0, scorer.getMaxScore(0), 0);
+        // This is 1 / (squareDistance((2, 2.5), (1, 1)) + 1) = 1 / (3.25 + 1)
+        assertEquals(1 / 4.25f, scorer.getMaxScore(1), 0);
+        // This is 1 / (squareDistance((2, 2.5), (2, 2)) + 1) = 1 / (0.25 + 1)
+        assertEquals(1 / 1.25f, scorer.getMaxScore(2), 0);
+        assertEquals(1 / 1.25f, scorer.getMaxScore(Integer.MAX_VALUE), 0);
+
+        DocIdSetIterator it = scorer.iterator();
+        assertEquals(3, it.cost());
+        assertEquals(1, it.nextDoc());
+        assertEquals(1 / 4.25f, scorer.score(), 0);
+        assertEquals(3, it.advance(3));
+        assertEquals(1 / 2.25f, scorer.score(), 0);
+        assertEquals(DocIdSetIterator.NO_MORE_DOCS, it.advance(4));
+        expectThrows(ArrayIndexOutOfBoundsException.class, scorer::score);
+      }
+    }
+  }
+
+  public void testScoreDotProduct() throws IOException {
+    try (Directory d = newDirectory()) {
+      try (IndexWriter w = new IndexWriter(d, createIndexWriterConfig())) {
+        for (int j = 1; j <= 5; j++) {
+          Document doc = new Document();
+          doc.add(new VectorField("field", normalize(new float[]{j, j * j}), VectorValues.SearchStrategy.DOT_PRODUCT_HNSW));
+          w.addDocument(doc);
+        }
+      }
+      try (IndexReader reader = DirectoryReader.open(d)) {
+        assertEquals(1, reader.leaves().size());
+        IndexSearcher searcher = new IndexSearcher(reader);
+        KnnVectorQuery query = new KnnVectorQuery("field", normalize(new float[]{2, 3}), 3);
+        TopDocs topDocs = searcher.search(query, 3);
+        assertEquals(3, topDocs.scoreDocs.length);
+        for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+          assertTrue(scoreDoc.score >= 0 && scoreDoc.score <= 1);
+        }
+        // (2, 4) is the most similar direction to (2, 3)
+        assertEquals(1, topDocs.scoreDocs[0].doc);
+      }
+    }
+  }
+
+  public void testExplain() throws IOException {
+    try (Directory d = newDirectory()) {
+      try (IndexWriter w = new IndexWriter(d, createIndexWriterConfig())) {
+        for (int j = 0; j < 5; j++) {
+          Document doc = new Document();
+          doc.add(new VectorField("field", new float[]{j, j}, VectorValues.SearchStrategy.EUCLIDEAN_HNSW));
+          w.addDocument(doc);
+        }
+      }
+      try (IndexReader reader = DirectoryReader.open(d)) {
+        IndexSearcher searcher = new IndexSearcher(reader);
+        KnnVectorQuery query = new KnnVectorQuery("field", new float[]{2, 2.5f}, 3);
+        Explanation matched = searcher.explain(query, 2);
+        assertTrue(matched.isMatch());
+        assertEquals(1 / 1.25f, matched.getValue());
+        assertEquals(0, matched.getDetails().length);
+        assertEquals("within top 3", matched.getDescription());
+
+        Explanation nomatch = searcher.explain(query, 4);
+        assertFalse(nomatch.isMatch());
+        assertEquals(0f, nomatch.getValue());
+        assertEquals(0, matched.getDetails().length);
+        assertEquals("not in top 3", nomatch.getDescription());
+      }
+    }
+  }
+
+  public void testDeletes() throws IOException {
+    try (Directory d = newDirectory()) {
+      try (IndexWriter w = new IndexWriter(d, createIndexWriterConfig())) {
+        for (int j = 0; j < 5; j++) {
+          Document doc = new Document();
+          doc.add(new VectorField("field", new float[]{j, j}));
+          doc.add(new StringField("id", Integer.toString(j), Field.Store.YES));
+          w.addDocument(doc);
+        }
+        w.deleteDocuments(new Term("id", "2"));
+      }
+      try (IndexReader reader = DirectoryReader.open(d)) {
+        IndexSearcher searcher = new IndexSearcher(reader);
+        TopDocs topDocs = searcher.search(new KnnVectorQuery("field", new float[]{2, 2}, 5), 5);
+        assertEquals(4, topDocs.scoreDocs.length);
+        for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+          assertNotEquals("2", reader.document(scoreDoc.doc).get("id"));
+        }
+      }
+    }
+  }
+
+  /** Tests with random vectors, number of documents, etc. */
+  public void testRandom() throws IOException {
+    int numDocs = atLeast(100);
+    int dimension = atLeast(5);
+    int numIters = atLeast(10);
+    boolean everyDocHasAVector = random().nextBoolean();
+    try (Directory d = newDirectory()) {
+      try (IndexWriter w = new IndexWriter(d, createIndexWriterConfig())) {
+        for (int i = 0; i < numDocs; i++) {
+          Document doc = new Document();
+          if (everyDocHasAVector || random().nextInt(10) != 2) {
+            doc.add(new VectorField("field", randomVector(dimension)));
+          }
+          w.addDocument(doc);
+          if (random().nextInt(20) == 3) {
+            w.commit();
+          }
+        }
+      }
+      try (IndexReader reader = DirectoryReader.open(d)) {
+        IndexSearcher searcher = new IndexSearcher(reader);
+        for (int i = 0; i < numIters; i++) {
+          int k = random().nextInt(80) + 1;
+          KnnVectorQuery query = new KnnVectorQuery("field", randomVector(dimension), k);
+          int n = random().nextInt(100) + 1;
+          TopDocs results = searcher.search(query, n);
+          int expected = Math.min(Math.min(n, k), reader.numDocs());
+          // we may get fewer results than requested if there are deletions, but this test doesn't test that
+          assert reader.hasDeletions() == false;
+          assertTrue(results.scoreDocs.length <= expected);
+          if (everyDocHasAVector) {
+            assertEquals(expected, results.scoreDocs.length);
+          }
+          assertTrue(results.totalHits.value > 0);
+          float last = Float.MAX_VALUE;
+          for (ScoreDoc scoreDoc : results.scoreDocs) {
+            assertTrue(scoreDoc.score <= last);
+            last = scoreDoc.score;
+          }
+        }
+      }
+    }
+  }
+
+  private Directory getIndexStore(String field, float[]... contents) throws IOException {
+    Directory indexStore = newDirectory();
+    try (IndexWriter writer = new IndexWriter(indexStore, createIndexWriterConfig())) {
+      for (int i = 0; i < contents.length; ++i) {
+        Document doc = new Document();
+        doc.add(new VectorField(field, contents[i]));
+        doc.add(new StringField("id", "id" + i, Field.Store.NO));
+        writer.addDocument(doc);
+      }
+    }
+    return indexStore;
+  }
+
+  private void assertMatches(IndexSearcher searcher, Query q, int expectedMatches) throws IOException {
+    ScoreDoc[] result = searcher.search(q, 1000).scoreDocs;
+    assertEquals(expectedMatches, result.length);
+  }
+
+  private IndexWriterConfig createIndexWriterConfig() {
+    // keep docs in insertion order within a single segment unless a test commits
+    IndexWriterConfig iwc = new IndexWriterConfig();
+    // not all codecs support vectors
+    iwc.setCodec(Codec.forName("Lucene87"));
+    return iwc;
+  }
+
+  private static float[] randomVector(int dim) {
+    float[] v = new float[dim];
+    for (int i = 0; i < dim; i++) {
+      v[i] = random().nextFloat();
+    }
+    return v;
+  }
+
+  private static float[] normalize(float[] v) {
+    double norm = 0;
+    for (float x : v) {
+      norm += x * x;
+    }
+    norm = Math.sqrt(norm);
+    float[] normalized = new float[v.length];
+    for (int i = 0; i < v.length; i++) {
+      normalized[i] = (float) (v[i] / norm);
+    }
+    return normalized;
+  }
+}
@@ -59,10 +59,16 @@ import org.apache.lucene.index.SerialMergeScheduler;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.search.BooleanClause.Occur;
 import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.BitDocIdSet;
+import org.apache.lucene.util.BitSetIterator;
+import org.apache.lucene.util.Bits;
 import org.apache.lucene.util.Constants;
+import org.apache.lucene.util.FixedBitSet;
 import org.apache.lucene.util.IOUtils;
 import org.apache.lucene.util.LuceneTestCase;
 import org.apache.lucene.util.RamUsageTester;
+import org.apache.lucene.util.RoaringDocIdSet;
+import org.apache.lucene.util.SparseFixedBitSet;
 import org.apache.lucene.util.TestUtil;
 
 import static org.apache.lucene.util.RamUsageEstimator.HASHTABLE_RAM_BYTES_PER_ENTRY;
@@ -493,6 +499,78 @@ public class TestLRUQueryCache extends LuceneTestCase {
     dir.close();
   }
 
+  public void testCacheImplAdaptsToDensity() throws IOException {
+    final LRUQueryCache queryCache = new LRUQueryCache(1, 10000000, context -> true, Float.POSITIVE_INFINITY);
+
+    // dense
+    final int maxDoc = 1 << 22;
+    FixedBitSet docs = new FixedBitSet(maxDoc);
+    for (int doc = random().nextInt(10); doc < maxDoc; doc += 1 + random().nextInt(20)) {
+      docs.set(doc);
+    }
+    DocIdSet set = cacheImpl(queryCache, docs, docs.cardinality());
+    assertTrue(set instanceof BitDocIdSet);
+    assertTrue(((BitDocIdSet) set).bits() instanceof FixedBitSet);
+    // the cost under-estimates the number of matches
+    set = cacheImpl(queryCache, docs, 1);
+    assertTrue(set instanceof BitDocIdSet);
+    assertTrue(((BitDocIdSet) set).bits() instanceof FixedBitSet);
+
+    // sparse, the cost over-estimates the number of matches, e.g. on a multi-valued field
+    docs = new FixedBitSet(maxDoc);
+    for (int i = 0; i < maxDoc / 500; ++i) {
+      docs.set(random().nextInt(maxDoc));
+    }
+    set = cacheImpl(queryCache, docs, maxDoc);
+    assertTrue(set instanceof RoaringDocIdSet);
+    assertTrue(set.ramBytesUsed() < docs.ramBytesUsed());
+
+    // sparse and clustered: a short run of consecutive docs in every block of 4096 docs
+    docs = new FixedBitSet(maxDoc);
+    for (int block = 0; block < maxDoc; block += 4096) {
+      final int start = block + 64 * random().nextInt(63);
+      docs.set(start, start + 24);
+    }
+    set = cacheImpl(queryCache, docs, docs.cardinality());
+    assertTrue(set instanceof BitDocIdSet);
+    assertTrue(((BitDocIdSet) set).bits() instanceof SparseFixedBitSet);
+
+    // empty
+    cacheImpl(queryCache, new FixedBitSet(1 + random().nextInt(1000)), random().nextInt(2));
+  }
+
+  // Cache the given docs through the given cache, and check the cached set
+  private static DocIdSet cacheImpl(LRUQueryCache queryCache, FixedBitSet docs, long cost) throws IOException {
+    final BulkScorer scorer = new BulkScorer() {
+      @Override
+      public int score(LeafCollector collector, Bits acceptDocs, int min, int max) throws IOException {
+        final DocIdSetIterator iterator = new BitSetIterator(docs, docs.cardinality());
+        for (int doc = iterator.advance(min); doc < max; doc = iterator.nextDoc()) {
+          collector.collect(doc);
+        }
+        return DocIdSetIterator.NO_MORE_DOCS;
+      }
+
+      @Override
+      public long cost() {
+        return cost;
+      }
+    };
+    final DocIdSet set = queryCache.cacheImpl(scorer, docs.length());
+    final DocIdSetIterator expected = new BitSetIterator(docs, docs.cardinality());
+    final DocIdSetIterator actual = set.iterator();
+    if (actual == null) {
+      assertEquals(DocIdSetIterator.NO_MORE_DOCS, expected.nextDoc());
+    } else {
+      assertEquals(docs.cardinality(), actual.cost());
+      for (int doc = expected.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = expected.nextDoc()) {
+        assertEquals(doc, actual.nextDoc());
+      }
+      assertEquals(DocIdSetIterator.NO_MORE_DOCS, actual.nextDoc());
+    }
+    return set;
+  }
+
   public void testOnUse() throws IOException {
     final LRUQueryCache queryCache = new LRUQueryCache(1 + random().nextInt(5), 1 + random().nextInt(1000), context -> random().nextBoolean(), Float.POSITIVE_INFINITY);
 
@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.search;
+
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.carrotsearch.randomizedtesting.generators.RandomPicks;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field.Store;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.RandomIndexWriter;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.LuceneTestCase;
+import org.apache.lucene.util.TestUtil;
+
+public class TestShardedLRUQueryCache extends LuceneTestCase {
+
+  private static final QueryCachingPolicy ALWAYS_CACHE = new QueryCachingPolicy() {
+
+    @Override
+    public void onUse(Query query) {}
+
+    @Override
+    public boolean shouldCache(Query query) throws IOException {
+      return true;
+    }
+
+  };
+
+  private static final String[] COLORS = new String[] {"blue", "red", "green", "yellow"};
+
+  public void testIllegalNumShards() {
+    IllegalArgumentException e = expectThrows(IllegalArgumentException.class,
+        () -> new ShardedLRUQueryCache(0, 10, 10000));
+    assertEquals("numShards must be at least 1, got 0", e.getMessage());
+  }
+
+  public void testStats() throws IOException {
+    final ShardedLRUQueryCache queryCache = new ShardedLRUQueryCache(TestUtil.nextInt(random(), 1, 8), 100, 10000000, context -> true, 1);
+
+    Directory dir = newDirectory();
+    final RandomIndexWriter w = new RandomIndexWriter(random(), dir);
+    Document doc = new Document();
+    StringField f = new StringField("color", "", Store.NO);
+    doc.add(f);
+    for (int i = 0; i < 10; ++i) {
+      f.setStringValue(RandomPicks.randomFrom(random(), COLORS));
+      w.addDocument(doc);
+      if (random().nextBoolean()) {
+        w.getReader().close();
+      }
+    }
+
+    final DirectoryReader reader = w.getReader();
+    final int segmentCount = reader.leaves().size();
+    final IndexSearcher searcher = new IndexSearcher(reader);
+    searcher.setQueryCache(queryCache);
+    searcher.setQueryCachingPolicy(ALWAYS_CACHE);
+
+    // the first lookup of every query misses, the next ones hit
+    for (int i = 0; i < 10; ++i) {
+      for (String color : COLORS) {
+        searcher.search(new ConstantScoreQuery(new TermQuery(new Term("color", color))), 1);
+      }
+    }
+    assertEquals(40 * segmentCount, queryCache.getTotalCount());
+    assertEquals(36 * segmentCount, queryCache.getHitCount());
+    assertEquals(4 * segmentCount, queryCache.getMissCount());
+    assertEquals(4 * segmentCount, queryCache.getCacheCount());
+    assertEquals(4 * segmentCount, queryCache.getCacheSize());
+    assertEquals(0, queryCache.getEvictionCount());
+    assertEquals(0, queryCache.getContentionCount());
+    queryCache.assertConsistent();
+
+    // all entries of a query go to the same shard
+    for (String color : COLORS) {
+      Query query = new TermQuery(new Term("color", color));
+      LRUQueryCache shard = queryCache.shard(query);
+      assertTrue(shard.cachedQueries().contains(query));
+      assertSame(shard, queryCache.shard(new TermQuery(new Term("color", color))));
+    }
+
+    Query red = new TermQuery(new Term("color", "red"));
+    queryCache.clearQuery(red);
+    assertFalse(queryCache.shard(red).cachedQueries().contains(red));
+    assertEquals(3 * segmentCount, queryCache.getCacheSize());
+    queryCache.assertConsistent();
+
+    // closing the reader evicts all entries
+    reader.close();
+    w.close();
+    assertEquals(0, queryCache.getCacheSize());
+    assertEquals(4 * segmentCount, queryCache.getEvictionCount());
+    queryCache.assertConsistent();
+
+    dir.close();
+  }
+
+  public void testConcurrency() throws Throwable {
+    final ShardedLRUQueryCache queryCache = new ShardedLRUQueryCache(TestUtil.nextInt(random(), 1, 4), 1 + random().nextInt(20),
+        1 + random().nextInt(10000), context -> true, Float.POSITIVE_INFINITY);
+    Directory dir = newDirectory();
+    final RandomIndexWriter w = new RandomIndexWriter(random(), dir);
+    Document doc = new Document();
+    StringField f = new StringField("color", "", Store.NO);
+    doc.add(f);
+    final int numDocs = atLeast(100);
+    for (int i = 0; i < numDocs; ++i) {
+      f.setStringValue(RandomPicks.randomFrom(random(), COLORS));
+      w.addDocument(doc);
+    }
+    final DirectoryReader reader = w.getReader();
+    w.close();
+    final IndexSearcher searcher = new IndexSearcher(reader);
+    searcher.setQueryCache(queryCache);
+    searcher.setQueryCachingPolicy(ALWAYS_CACHE);
+    final IndexSearcher uncachedSearcher = new IndexSearcher(reader);
+    uncachedSearcher.setQueryCache(null);
+
+    final AtomicReference<Throwable> error = new AtomicReference<>();
+    Thread[] threads = new Thread[3];
+    for (int i = 0; i < threads.length; ++i) {
+      threads[i] = new Thread() {
+        @Override
+        public void run() {
+          try {
+            for (int iter = 0; iter < 100; ++iter) {
+              final Query q = new TermQuery(new Term("color", RandomPicks.randomFrom(random(), COLORS)));
+              TotalHitCountCollector collector = new TotalHitCountCollector();
+              searcher.search(q, collector); // will use the cache
+              TotalHitCountCollector uncachedCollector = new TotalHitCountCollector();
+              uncachedSearcher.search(q, uncachedCollector);
+              assertEquals(uncachedCollector.getTotalHits(), collector.getTotalHits());
+            }
+          } catch (Throwable t) {
+            error.compareAndSet(null, t);
+          }
+        }
+      };
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    try {
+      if (error.get() != null) {
+        throw error.get();
+      }
+      queryCache.assertConsistent();
+    } finally {
+      reader.close();
+      dir.close();
+      queryCache.assertConsistent();
+    }
+  }
+}
@@ -17,6 +17,7 @@
 package org.apache.lucene.store;
 
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Random;
@@ -409,4 +410,54 @@ public class TestMultiMMap extends BaseDirectoryTestCase {
     }
   }
 
+  public void testManyLittleEndianLongsCrossBoundaries() throws Exception {
+    final int chunkSize = 1 << TestUtil.nextInt(random(), 4, 6);
+    try (Directory dir = new MMapDirectory(createTempDir("testManyLittleEndianLongsCrossBoundaries"), chunkSize)) {
+      final int numLongs = TestUtil.nextInt(random(), 20, 100);
+      final int startOffset = random().nextInt(Long.BYTES);
+      final long[] expected = new long[numLongs];
+      try (IndexOutput out = dir.createOutput("littleEndianLongs", newIOContext(random()))) {
+        for (int i = 0; i < startOffset; ++i) {
+          out.writeByte((byte) i);
+        }
+        for (int i = 0; i < numLongs; ++i) {
+          expected[i] = random().nextLong();
+          out.writeLong(Long.reverseBytes(expected[i]));
+        }
+      }
+      try (IndexInput input = dir.openInput("littleEndianLongs", newIOContext(random()))) {
+        input.seek(startOffset);
+        long[] l = new long[numLongs];
+        input.readLELongs(l, 0, numLongs);
+        assertArrayEquals(expected, l);
+        assertEquals(startOffset + numLongs * Long.BYTES, input.getFilePointer());
+
+        input.seek(startOffset);
+        expectThrows(EOFException.class, () -> input.readLELongs(new long[numLongs + 1], 0, numLongs + 1));
+      }
+    }
+  }
+
+  public void testRandomAccessCrossBoundaries() throws Exception {
+    try (Directory dir = new MMapDirectory(createTempDir("testRandomAccessCrossBoundaries"), 16)) {
+      try (IndexOutput out = dir.createOutput("values", newIOContext(random()))) {
+        for (int i = 0; i < 64; ++i) {
+          out.writeByte((byte) i);
+        }
+      }
+      try (IndexInput input = dir.openInput("values", newIOContext(random()))) {
+        assertTrue(input instanceof ByteBufferIndexInput.MultiBufferImpl);
+        RandomAccessInput slice = (RandomAccessInput) input;
+        input.seek(3);
+        // values that straddle the boundary at 16
+        assertEquals(0x0F10, slice.readShort(15));
+        assertEquals(0x0E0F1011, slice.readInt(14));
+        assertEquals(0x0C0D0E0F10111213L, slice.readLong(12));
+        // random-access reads across boundaries do not move the input
+        assertEquals(3, input.getFilePointer());
+        assertEquals(3, input.readByte());
+        expectThrows(EOFException.class, () -> slice.readLong(60));
+      }
+    }
+  }
 }
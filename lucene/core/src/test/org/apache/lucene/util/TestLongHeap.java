@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.util;
+
+import java.util.Random;
+
+public class TestLongHeap extends LuceneTestCase {
+
+  public void testPQ() {
+    testPQ(atLeast(10000), random());
+  }
+
+  public static void testPQ(int count, Random gen) {
+    LongHeap pq = LongHeap.create(LongHeap.Order.MIN, count);
+    long sum = 0, sum2 = 0;
+
+    for (int i = 0; i < count; i++) {
+      long next = gen.nextLong();
+      sum += next;
+      pq.push(next);
+    }
+
+    long last = Long.MIN_VALUE;
+    for (long i = 0; i < count; i++) {
+      long next = pq.pop();
+      assertTrue(next >= last);
+      last = next;
+      sum2 += last;
+    }
+
+    assertEquals(sum, sum2);
+  }
+
+  public void testClear() {
+    LongHeap pq = LongHeap.create(LongHeap.Order.MIN, 3);
+    pq.push(2);
+    pq.push(3);
+    pq.push(1);
+    assertEquals(3, pq.size());
+    pq.clear();
+    assertEquals(0, pq.size());
+  }
+
+  public void testExceedBounds() {
+    LongHeap pq = LongHeap.create(LongHeap.Order.MIN, 1);
+    pq.push(2);
+    pq.push(0);
+    // the heap grows beyond its initial size when pushing
+    assertEquals(2, pq.size());
+    assertEquals(0, pq.top());
+  }
+
+  public void testFixedSize() {
+    LongHeap pq = LongHeap.create(LongHeap.Order.MIN, 3);
+    pq.insertWithOverflow(2);
+    pq.insertWithOverflow(3);
+    pq.insertWithOverflow(1);
+    pq.insertWithOverflow(5);
+    pq.insertWithOverflow(7);
+    pq.insertWithOverflow(1);
+    assertEquals(3, pq.size());
+    assertEquals(3, pq.top());
+  }
+
+  public void testFixedSizeMax() {
+    LongHeap pq = LongHeap.create(LongHeap.Order.MAX, 3);
+    pq.insertWithOverflow(2);
+    pq.insertWithOverflow(3);
+    pq.insertWithOverflow(1);
+    pq.insertWithOverflow(5);
+    pq.insertWithOverflow(7);
+    pq.insertWithOverflow(1);
+    assertEquals(3, pq.size());
+    assertEquals(2, pq.top());
+  }
+}
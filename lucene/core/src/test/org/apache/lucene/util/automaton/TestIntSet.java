@@ -17,6 +17,7 @@
 package org.apache.lucene.util.automaton;
 
 import org.apache.lucene.util.LuceneTestCase;
+import org.apache.lucene.util.TestUtil;
 import org.junit.Test;
 
 public class TestIntSet extends LuceneTestCase {
@@ -31,14 +32,13 @@ public class TestIntSet extends LuceneTestCase {
     }
 
     private void testFreezeEquality(int size) {
-        SortedIntSet sortedSet = new SortedIntSet(0);
+        StateSet sortedSet = new StateSet(0);
 
         for (int i = 0; i < size; i++) {
             // Some duplicates is nice but not critical
             sortedSet.incr(random().nextInt(i + 1));
         }
 
-        sortedSet.computeHash();
         IntSet frozen0 = sortedSet.freeze(0);
 
         assertEquals("Frozen set not equal to origin sorted set.", sortedSet, frozen0);
@@ -50,45 +50,76 @@ public class TestIntSet extends LuceneTestCase {
     }
 
     @Test
-    public void testMapCutover() {
-        SortedIntSet set = new SortedIntSet(10);
+    public void testGrowAndShrink() {
+        StateSet set = new StateSet(10);
         for (int i = 0; i < 35; i++) {
-            // No duplicates so there are enough elements to trigger impl cutover
+            // No duplicates so that the hash table needs to grow
             set.incr(i);
         }
+        assertEquals(35, set.size());
 
-        set.computeHash();
-        assertTrue(set.size() > 32);
+        StateSet other = new StateSet(1);
+        for (int i = 34; i >= 0; i--) {
+            other.incr(i);
+        }
+        assertEquals("Insertion order must not matter", set, other);
+        assertEquals(set.hashCode(), other.hashCode());
 
         for (int i = 0; i < 35; i++) {
-            // This is pretty much the worst case, perf wise
+            // Removing in insertion order shifts entries of the hash table back
             set.decr(i);
         }
+        assertEquals(0, set.size());
+        assertEquals(new StateSet(10).hashCode(), set.hashCode());
+    }
 
-        set.computeHash();
-        assertTrue(set.size() == 0);
+    @Test
+    public void testRandomIncrDecr() {
+        StateSet set = new StateSet(random().nextInt(10));
+        int[] counts = new int[TestUtil.nextInt(random(), 1, 1000)];
+        int iters = atLeast(1000);
+        for (int iter = 0; iter < iters; iter++) {
+            int state = random().nextInt(counts.length);
+            if (counts[state] > 0 && random().nextBoolean()) {
+                set.decr(state);
+                counts[state]--;
+            } else {
+                set.incr(state);
+                counts[state]++;
+            }
+            if (random().nextInt(50) == 0) {
+                int expectedSize = 0;
+                for (int count : counts) {
+                    expectedSize += count > 0 ? 1 : 0;
+                }
+                assertEquals(expectedSize, set.size());
+                int[] values = set.getArray();
+                for (int i = 0, upto = 0; i < counts.length; i++) {
+                    if (counts[i] > 0) {
+                        assertEquals(i, values[upto++]);
+                    }
+                }
+                assertEquals(set, set.freeze(0));
+            }
+        }
     }
 
     @Test
     public void testModify() {
-        SortedIntSet set = new SortedIntSet(2);
+        StateSet set = new StateSet(2);
         set.incr(1);
         set.incr(2);
-        set.computeHash();
 
         FrozenIntSet set2 = set.freeze(0);
         assertEquals(set, set2);
 
         set.incr(1);
-        set.computeHash();
         assertEquals(set, set2);
 
         set.decr(1);
-        set.computeHash();
         assertEquals(set, set2);
 
         set.decr(1);
-        set.computeHash();
         assertNotEquals(set, set2);
     }
 }
\ No newline at end of file
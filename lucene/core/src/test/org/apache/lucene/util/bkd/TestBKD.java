@@ -24,6 +24,9 @@ import java.util.Arrays;
 import java.util.BitSet;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.lucene.codecs.MutablePointValues;
 import org.apache.lucene.index.CorruptIndexException;
@@ -43,6 +46,7 @@ import org.apache.lucene.store.MockDirectoryWrapper;
 import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.IOUtils;
 import org.apache.lucene.util.LuceneTestCase;
+import org.apache.lucene.util.NamedThreadFactory;
 import org.apache.lucene.util.NumericUtils;
 import org.apache.lucene.util.TestUtil;
 
@@ -1114,6 +1118,54 @@ public class TestBKD extends LuceneTestCase {
     }
   }
 
+  public void testConcurrentBuild() throws Exception {
+    final int numDocs = atLeast(20000);
+    final int numIndexDims = TestUtil.nextInt(random(), 1, 4);
+    final int numDataDims = TestUtil.nextInt(random(), numIndexDims, 6);
+    final int numBytesPerDim = TestUtil.nextInt(random(), 1, 4);
+    final int maxPointsInLeafNode = TestUtil.nextInt(random(), 16, 200);
+    // sometimes force the first partitions offline
+    final double maxMB = random().nextBoolean() ? BKDWriter.DEFAULT_MAX_MB_SORT_IN_HEAP : 0.1 + random().nextDouble();
+    final BKDConfig config = new BKDConfig(numDataDims, numIndexDims, numBytesPerDim, maxPointsInLeafNode);
+
+    final byte[][] values = new byte[numDocs][];
+    for (int docID = 0; docID < numDocs; ++docID) {
+      if (docID > 0 && random().nextInt(10) == 0) {
+        values[docID] = values[random().nextInt(docID)];
+      } else {
+        values[docID] = new byte[config.packedBytesLength];
+        random().nextBytes(values[docID]);
+      }
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(TestUtil.nextInt(random(), 1, 4), new NamedThreadFactory("TestBKD"));
+    try (Directory dir = newDirectory()) {
+      for (int i = 0; i < 2; ++i) {
+        BKDWriter w = new BKDWriter(numDocs, dir, "_" + i, config, maxMB, numDocs, i == 0 ? null : executor);
+        for (int docID = 0; docID < numDocs; ++docID) {
+          w.add(values[docID], docID);
+        }
+        try (IndexOutput out = dir.createOutput("bkd" + i, IOContext.DEFAULT)) {
+          Runnable finalizer = w.finish(out, out, out);
+          finalizer.run();
+          w.close();
+        }
+      }
+
+      // the tree must be the same as if it had been built sequentially
+      try (IndexInput sequential = dir.openInput("bkd0", IOContext.DEFAULT);
+           IndexInput concurrent = dir.openInput("bkd1", IOContext.DEFAULT)) {
+        assertEquals(sequential.length(), concurrent.length());
+        for (long fp = 0; fp < sequential.length(); ++fp) {
+          assertEquals("fp=" + fp, sequential.readByte(), concurrent.readByte());
+        }
+      }
+    } finally {
+      executor.shutdown();
+      assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+    }
+  }
+
   public void testCheckDataDimOptimalOrder() throws IOException {
     Directory dir = newDirectory();
     final int numValues = atLeast(5000);
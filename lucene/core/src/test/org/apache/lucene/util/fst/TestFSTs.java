@@ -53,6 +53,7 @@ import org.apache.lucene.index.Terms;
 import org.apache.lucene.index.TermsEnum;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.ByteBuffersDataOutput;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.FSDirectory;
 import org.apache.lucene.store.IOContext;
@@ -1661,4 +1662,89 @@ public class TestFSTs extends LuceneTestCase {
     assertEquals(5, (long) Util.get(fst, ac));
     assertEquals(7, (long) Util.get(fst, bd));
   }
+
+  private static List<BytesRef> randomSortedTerms(int numTerms) {
+    Set<BytesRef> terms = new HashSet<>();
+    while (terms.size() < numTerms) {
+      terms.add(new BytesRef(TestUtil.randomSimpleString(random(), 1, 10)));
+    }
+    List<BytesRef> termsList = new ArrayList<>(terms);
+    Collections.sort(termsList);
+    return termsList;
+  }
+
+  public void testWriteToDataOutput() throws Exception {
+    List<BytesRef> terms = randomSortedTerms(atLeast(1000));
+    PositiveIntOutputs outputs = PositiveIntOutputs.getSingleton();
+
+    FSTCompiler<Long> heapCompiler = new FSTCompiler<>(FST.INPUT_TYPE.BYTE1, outputs);
+    ByteBuffersDataOutput dataOut = new ByteBuffersDataOutput();
+    FSTCompiler<Long> streamCompiler = new FSTCompiler.Builder<>(FST.INPUT_TYPE.BYTE1, outputs).dataOutput(dataOut).build();
+    IntsRefBuilder input = new IntsRefBuilder();
+    for (int i = 0; i < terms.size(); ++i) {
+      Util.toIntsRef(terms.get(i), input);
+      heapCompiler.add(input.get(), (long) i);
+      streamCompiler.add(input.get(), (long) i);
+    }
+    FST<Long> heapFST = heapCompiler.compile();
+    FST<Long> streamFST = streamCompiler.compile();
+    expectThrows(IllegalStateException.class, streamFST::getBytesReader);
+    expectThrows(IllegalStateException.class, () -> streamFST.save(new ByteBuffersDataOutput(), new ByteBuffersDataOutput()));
+    expectThrows(IllegalStateException.class, () -> heapFST.saveMetadata(new ByteBuffersDataOutput()));
+
+    // streaming the FST produces the same bytes as building it in memory
+    ByteBuffersDataOutput heapMetaOut = new ByteBuffersDataOutput();
+    ByteBuffersDataOutput heapDataOut = new ByteBuffersDataOutput();
+    heapFST.save(heapMetaOut, heapDataOut);
+    ByteBuffersDataOutput streamMetaOut = new ByteBuffersDataOutput();
+    streamFST.saveMetadata(streamMetaOut);
+    assertArrayEquals(heapMetaOut.toArrayCopy(), streamMetaOut.toArrayCopy());
+    assertArrayEquals(heapDataOut.toArrayCopy(), dataOut.toArrayCopy());
+
+    FST<Long> loaded = new FST<>(streamMetaOut.toDataInput(), dataOut.toDataInput(), outputs);
+    for (int i = 0; i < terms.size(); ++i) {
+      assertEquals(i, (long) Util.get(loaded, terms.get(i)));
+    }
+  }
+
+  public void testSuffixRAMLimit() throws Exception {
+    List<BytesRef> terms = randomSortedTerms(atLeast(5000));
+    PositiveIntOutputs outputs = PositiveIntOutputs.getSingleton();
+    final boolean stream = random().nextBoolean();
+    ByteBuffersDataOutput dataOut = new ByteBuffersDataOutput();
+    FSTCompiler.Builder<Long> builder = new FSTCompiler.Builder<>(FST.INPUT_TYPE.BYTE1, outputs)
+        .suffixRAMLimitMB(TestUtil.nextInt(random(), 1, 100) / 1024.);
+    if (stream) {
+      builder.dataOutput(dataOut);
+    }
+    FSTCompiler<Long> fstCompiler = builder.build();
+    IntsRefBuilder input = new IntsRefBuilder();
+    for (int i = 0; i < terms.size(); ++i) {
+      Util.toIntsRef(terms.get(i), input);
+      fstCompiler.add(input.get(), (long) i);
+    }
+    FST<Long> fst = fstCompiler.compile();
+
+    ByteBuffersDataOutput metaOut = new ByteBuffersDataOutput();
+    if (stream) {
+      fst.saveMetadata(metaOut);
+    } else {
+      fst.save(metaOut, dataOut);
+    }
+    FST<Long> loaded = new FST<>(metaOut.toDataInput(), dataOut.toDataInput(), outputs);
+
+    // the FST may not be minimal, but it must still map all terms to their outputs
+    for (int i = 0; i < terms.size(); ++i) {
+      assertEquals(i, (long) Util.get(loaded, terms.get(i)));
+    }
+    BytesRefFSTEnum<Long> fstEnum = new BytesRefFSTEnum<>(loaded);
+    for (int i = 0; i < terms.size(); ++i) {
+      InputOutput<Long> next = fstEnum.next();
+      assertEquals(terms.get(i), next.input);
+      assertEquals(i, (long) next.output);
+    }
+    assertNull(fstEnum.next());
+
+    expectThrows(IllegalArgumentException.class, () -> new FSTCompiler.Builder<>(FST.INPUT_TYPE.BYTE1, outputs).suffixRAMLimitMB(0));
+  }
 }
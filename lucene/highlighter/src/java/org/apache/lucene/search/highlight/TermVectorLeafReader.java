@@ -35,6 +35,7 @@ import org.apache.lucene.index.SortedNumericDocValues;
 import org.apache.lucene.index.SortedSetDocValues;
 import org.apache.lucene.index.StoredFieldVisitor;
 import org.apache.lucene.index.Terms;
+import org.apache.lucene.index.VectorValues;
 import org.apache.lucene.util.Bits;
 import org.apache.lucene.util.Version;
 
@@ -139,6 +140,11 @@ public class TermVectorLeafReader extends LeafReader {
     return null;
   }
 
+  @Override
+  public VectorValues getVectorValues(String field) {
+    return null;
+  }
+
   @Override
   public void checkIntegrity() throws IOException {
   }
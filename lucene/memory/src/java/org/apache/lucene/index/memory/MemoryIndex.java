@@ -1241,6 +1241,11 @@ public class MemoryIndex {
       return new MemoryIndexPointValues(info);
     }
 
+    @Override
+    public VectorValues getVectorValues(String fieldName) {
+      return null;
+    }
+
     @Override
     public void checkIntegrity() throws IOException {
       // no-op
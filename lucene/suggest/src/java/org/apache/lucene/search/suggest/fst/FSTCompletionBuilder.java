@@ -144,6 +144,11 @@ public class FSTCompletionBuilder {
    */
   private final int shareMaxTailLength;
 
+  /**
+   * Max RAM used by the suffix hash while building the automaton.
+   */
+  private final double suffixRAMLimitMB;
+
   /**
    * Creates an {@link FSTCompletion} with default options: 10 buckets, exact match
    * promoted to first position and {@link InMemorySorter} with a comparator obtained from
@@ -175,6 +180,21 @@ public class FSTCompletionBuilder {
    *          For minimal automata, set it to {@link Integer#MAX_VALUE}.
    */
   public FSTCompletionBuilder(int buckets, BytesRefSorter sorter, int shareMaxTailLength) {
+    this(buckets, sorter, shareMaxTailLength, Double.POSITIVE_INFINITY);
+  }
+
+  /**
+   * Creates an FSTCompletion with the specified options.
+   *
+   * @param suffixRAMLimitMB
+   *          Approximate max RAM, in MB, used to share suffixes while building
+   *          the automaton. Once exceeded, the least recently used suffixes are
+   *          forgotten so the automaton may no longer be minimal. See
+   *          {@link org.apache.lucene.util.fst.FSTCompiler.Builder#suffixRAMLimitMB(double)}.
+   *
+   * @see #FSTCompletionBuilder(int, BytesRefSorter, int)
+   */
+  public FSTCompletionBuilder(int buckets, BytesRefSorter sorter, int shareMaxTailLength, double suffixRAMLimitMB) {
     if (buckets < 1 || buckets > 255) {
       throw new IllegalArgumentException("Buckets must be >= 1 and <= 255: "
           + buckets);
@@ -186,6 +206,7 @@ public class FSTCompletionBuilder {
     this.sorter = sorter;
     this.buckets = buckets;
     this.shareMaxTailLength = shareMaxTailLength;
+    this.suffixRAMLimitMB = suffixRAMLimitMB;
   }
 
   /**
@@ -235,7 +256,7 @@ public class FSTCompletionBuilder {
     final Outputs<Object> outputs = NoOutputs.getSingleton();
     final Object empty = outputs.getNoOutput();
     final FSTCompiler<Object> fstCompiler = new FSTCompiler.Builder<>(FST.INPUT_TYPE.BYTE1, outputs)
-        .shareMaxTailLength(shareMaxTailLength).build();
+        .shareMaxTailLength(shareMaxTailLength).suffixRAMLimitMB(suffixRAMLimitMB).build();
 
     BytesRefBuilder scratch = new BytesRefBuilder();
     BytesRef entry;
@@ -41,6 +41,20 @@ public class AssertingCodec extends FilterCodec {
     }
   }
 
+  /**
+   * Merge instances are acquired by the merging thread, but may be consumed by
+   * another thread when the merge uses an intra-merge executor. They must still
+   * be consumed by a single thread: the one that consumed them first.
+   * Returns the thread that is expected to consume the instance from now on.
+   */
+  static Thread assertMergeThread(String object, Thread consumerThread) {
+    if (consumerThread == null) {
+      return Thread.currentThread();
+    }
+    assertThread(object, consumerThread);
+    return consumerThread;
+  }
+
   private final PostingsFormat postings = new PerFieldPostingsFormat() {
     @Override
     public PostingsFormat getPostingsFormatForField(String field) {
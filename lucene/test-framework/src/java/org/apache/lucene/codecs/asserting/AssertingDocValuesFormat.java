@@ -220,13 +220,12 @@ public class AssertingDocValuesFormat extends DocValuesFormat {
     private final DocValuesProducer in;
     private final int maxDoc;
     private final boolean merging;
-    private final Thread creationThread;
+    private volatile Thread mergeThread;
     
     AssertingDocValuesProducer(DocValuesProducer in, int maxDoc, boolean merging) {
       this.in = in;
       this.maxDoc = maxDoc;
       this.merging = merging;
-      this.creationThread = Thread.currentThread();
       // do a few simple checks on init
       assert toString() != null;
       assert ramBytesUsed() >= 0;
@@ -236,7 +235,7 @@ public class AssertingDocValuesFormat extends DocValuesFormat {
     @Override
     public NumericDocValues getNumeric(FieldInfo field) throws IOException {
       if (merging) {
-        AssertingCodec.assertThread("DocValuesProducer", creationThread);
+        mergeThread = AssertingCodec.assertMergeThread("DocValuesProducer", mergeThread);
       }
       assert field.getDocValuesType() == DocValuesType.NUMERIC;
       NumericDocValues values = in.getNumeric(field);
@@ -247,7 +246,7 @@ public class AssertingDocValuesFormat extends DocValuesFormat {
     @Override
     public BinaryDocValues getBinary(FieldInfo field) throws IOException {
       if (merging) {
-        AssertingCodec.assertThread("DocValuesProducer", creationThread);
+        mergeThread = AssertingCodec.assertMergeThread("DocValuesProducer", mergeThread);
       }
       assert field.getDocValuesType() == DocValuesType.BINARY;
       BinaryDocValues values = in.getBinary(field);
@@ -258,7 +257,7 @@ public class AssertingDocValuesFormat extends DocValuesFormat {
     @Override
     public SortedDocValues getSorted(FieldInfo field) throws IOException {
       if (merging) {
-        AssertingCodec.assertThread("DocValuesProducer", creationThread);
+        mergeThread = AssertingCodec.assertMergeThread("DocValuesProducer", mergeThread);
       }
       assert field.getDocValuesType() == DocValuesType.SORTED;
       SortedDocValues values = in.getSorted(field);
@@ -269,7 +268,7 @@ public class AssertingDocValuesFormat extends DocValuesFormat {
     @Override
     public SortedNumericDocValues getSortedNumeric(FieldInfo field) throws IOException {
       if (merging) {
-        AssertingCodec.assertThread("DocValuesProducer", creationThread);
+        mergeThread = AssertingCodec.assertMergeThread("DocValuesProducer", mergeThread);
       }
       assert field.getDocValuesType() == DocValuesType.SORTED_NUMERIC;
       SortedNumericDocValues values = in.getSortedNumeric(field);
@@ -280,7 +279,7 @@ public class AssertingDocValuesFormat extends DocValuesFormat {
     @Override
     public SortedSetDocValues getSortedSet(FieldInfo field) throws IOException {
       if (merging) {
-        AssertingCodec.assertThread("DocValuesProducer", creationThread);
+        mergeThread = AssertingCodec.assertMergeThread("DocValuesProducer", mergeThread);
       }
       assert field.getDocValuesType() == DocValuesType.SORTED_SET;
       SortedSetDocValues values = in.getSortedSet(field);
@@ -89,13 +89,12 @@ public class AssertingNormsFormat extends NormsFormat {
     private final NormsProducer in;
     private final int maxDoc;
     private final boolean merging;
-    private final Thread creationThread;
+    private volatile Thread mergeThread;
     
     AssertingNormsProducer(NormsProducer in, int maxDoc, boolean merging) {
       this.in = in;
       this.maxDoc = maxDoc;
       this.merging = merging;
-      this.creationThread = Thread.currentThread();
       // do a few simple checks on init
       assert toString() != null;
       assert ramBytesUsed() >= 0;
@@ -105,7 +104,7 @@ public class AssertingNormsFormat extends NormsFormat {
     @Override
     public NumericDocValues getNorms(FieldInfo field) throws IOException {
       if (merging) {
-        AssertingCodec.assertThread("NormsProducer", creationThread);
+        mergeThread = AssertingCodec.assertMergeThread("NormsProducer", mergeThread);
       }
       assert field.hasNorms();
       NumericDocValues values = in.getNorms(field);
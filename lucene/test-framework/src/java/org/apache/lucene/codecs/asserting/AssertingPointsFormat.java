@@ -68,13 +68,12 @@ public final class AssertingPointsFormat extends PointsFormat {
     private final PointsReader in;
     private final int maxDoc;
     private final boolean merging;
-    private final Thread creationThread;
+    private volatile Thread mergeThread;
     
     AssertingPointsReader(int maxDoc, PointsReader in, boolean merging) {
       this.in = in;
       this.maxDoc = maxDoc;
       this.merging = merging;
-      this.creationThread = Thread.currentThread();
       // do a few simple checks on init
       assert toString() != null;
       assert ramBytesUsed() >= 0;
@@ -90,7 +89,7 @@ public final class AssertingPointsFormat extends PointsFormat {
     @Override
     public PointValues getValues(String field) throws IOException {
       if (merging) {
-        AssertingCodec.assertThread("PointsReader", creationThread);
+        mergeThread = AssertingCodec.assertMergeThread("PointsReader", mergeThread);
       }
       PointValues values = this.in.getValues(field);
       if (values == null) {
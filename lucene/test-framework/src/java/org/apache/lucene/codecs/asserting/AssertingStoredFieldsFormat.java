@@ -17,6 +17,7 @@
 package org.apache.lucene.codecs.asserting;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collection;
 
 import org.apache.lucene.codecs.StoredFieldsFormat;
@@ -53,6 +54,7 @@ public class AssertingStoredFieldsFormat extends StoredFieldsFormat {
     private final int maxDoc;
     private final boolean merging;
     private final Thread creationThread;
+    private volatile Thread mergeThread;
     
     AssertingStoredFieldsReader(StoredFieldsReader in, int maxDoc, boolean merging) {
       this.in = in;
@@ -73,11 +75,30 @@ public class AssertingStoredFieldsFormat extends StoredFieldsFormat {
 
     @Override
     public void visitDocument(int n, StoredFieldVisitor visitor) throws IOException {
-      AssertingCodec.assertThread("StoredFieldsReader", creationThread);
+      assertThread();
       assert n >= 0 && n < maxDoc;
       in.visitDocument(n, visitor);
     }
 
+    @Override
+    public void prefetch(int[] docIDs) throws IOException {
+      assertThread();
+      final int[] copy = docIDs.clone();
+      for (int docID : docIDs) {
+        assert docID >= 0 && docID < maxDoc;
+      }
+      in.prefetch(docIDs);
+      assert Arrays.equals(copy, docIDs) : "docIDs were modified";
+    }
+
+    private void assertThread() {
+      if (merging) {
+        mergeThread = AssertingCodec.assertMergeThread("StoredFieldsReader", mergeThread);
+      } else {
+        AssertingCodec.assertThread("StoredFieldsReader", creationThread);
+      }
+    }
+
     @Override
     public StoredFieldsReader clone() {
       assert merging == false : "Merge instances do not support cloning";
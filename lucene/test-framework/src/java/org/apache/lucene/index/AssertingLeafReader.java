@@ -631,6 +631,25 @@ public class AssertingLeafReader extends FilterLeafReader {
       return in.longValue();
     }    
 
+    @Override
+    public void longValues(int size, int[] docs, long[] values, long defaultValue) throws IOException {
+      assertThread("Numeric doc values", creationThread);
+      assert size >= 0;
+      assert size <= docs.length;
+      assert size <= values.length;
+      for (int i = 0; i < size; ++i) {
+        assert docs[i] >= 0;
+        assert docs[i] < maxDoc;
+        assert i == 0 ? docs[i] >= in.docID() : docs[i] > docs[i - 1];
+      }
+      in.longValues(size, docs, values, defaultValue);
+      if (size > 0) {
+        assert in.docID() == docs[size - 1];
+        lastDocID = docs[size - 1];
+      }
+      exists = false;
+    }
+
     @Override
     public String toString() {
       return "AssertingNumericDocValues(" + in + ")";
@@ -58,6 +58,7 @@ import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.ArrayUtil;
 import org.apache.lucene.util.BitSet;
 import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.BytesRefBuilder;
@@ -1303,9 +1304,41 @@ public abstract class BaseDocValuesFormatTestCase extends BaseIndexFileFormatTes
     writer.close();
     // compare
     assertDVIterate(dir);
+    assertDVBulk(dir);
     dir.close();
   }
 
+  // Asserts equality of stored value vs. DocValue when retrieving values in bulk
+  private void assertDVBulk(Directory dir) throws IOException {
+    DirectoryReader ir = DirectoryReader.open(dir);
+    for (LeafReaderContext context : ir.leaves()) {
+      LeafReader r = context.reader();
+      NumericDocValues docValues = DocValues.getNumeric(r, "dv");
+      int[] docs = new int[r.maxDoc()];
+      int size = 0;
+      for (int doc = random().nextInt(3); doc < r.maxDoc(); doc += 1 + random().nextInt(3)) {
+        docs[size++] = doc;
+      }
+      final long missingValue = random().nextLong();
+      long[] values = new long[size];
+      int upTo = 0;
+      while (upTo < size) {
+        int batchSize = TestUtil.nextInt(random(), 1, size - upTo);
+        int[] batch = ArrayUtil.copyOfSubArray(docs, upTo, upTo + batchSize);
+        long[] batchValues = new long[batchSize];
+        docValues.longValues(batchSize, batch, batchValues, missingValue);
+        System.arraycopy(batchValues, 0, values, upTo, batchSize);
+        upTo += batchSize;
+      }
+      for (int i = 0; i < size; ++i) {
+        String storedValue = r.document(docs[i]).get("stored");
+        long expected = storedValue == null ? missingValue : Long.parseLong(storedValue);
+        assertEquals(expected, values[i]);
+      }
+    }
+    ir.close();
+  }
+
   // Asserts equality of stored value vs. DocValue by iterating DocValues one at a time
   protected void assertDVIterate(Directory dir) throws IOException {
     DirectoryReader ir = DirectoryReader.open(dir);
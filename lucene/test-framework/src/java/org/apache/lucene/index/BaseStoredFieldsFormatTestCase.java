@@ -369,6 +369,49 @@ public abstract class BaseStoredFieldsFormatTestCase extends BaseIndexFileFormat
     iw.close();
     dir.close();
   }
+
+  public void testPrefetch() throws IOException {
+    Directory dir = newDirectory();
+    IndexWriterConfig iwConf = newIndexWriterConfig(new MockAnalyzer(random()));
+    iwConf.setMaxBufferedDocs(RandomNumbers.randomIntBetween(random(), 2, 30));
+    RandomIndexWriter iw = new RandomIndexWriter(random(), dir, iwConf);
+
+    final int numDocs = atLeast(500);
+    final String[] values = new String[numDocs];
+    for (int i = 0; i < numDocs; ++i) {
+      Document doc = new Document();
+      values[i] = TestUtil.randomSimpleString(random(), 1, 200);
+      doc.add(new StoredField("id", i));
+      doc.add(new StoredField("value", values[i]));
+      iw.addDocument(doc);
+    }
+    iw.commit();
+
+    final DirectoryReader reader = maybeWrapWithMergingReader(DirectoryReader.open(dir));
+    reader.prefetchDocuments(new int[0]);
+    for (int iter = 0; iter < 10; ++iter) {
+      // hints may come in any order, and may contain duplicates
+      final int[] docIDs = new int[TestUtil.nextInt(random(), 1, 50)];
+      for (int j = 0; j < docIDs.length; ++j) {
+        docIDs[j] = random().nextInt(reader.maxDoc());
+      }
+      final int[] copy = docIDs.clone();
+      reader.prefetchDocuments(docIDs);
+      assertArrayEquals(copy, docIDs);
+      for (int docID : docIDs) {
+        final Document doc = reader.document(docID);
+        final int id = doc.getField("id").numericValue().intValue();
+        assertEquals(values[id], doc.get("value"));
+      }
+    }
+
+    expectThrows(IllegalArgumentException.class, () -> {
+      reader.prefetchDocuments(new int[] { reader.maxDoc() });
+    });
+    reader.close();
+    iw.close();
+    dir.close();
+  }
   
   public void testEmptyDocs() throws IOException {
     Directory dir = newDirectory();
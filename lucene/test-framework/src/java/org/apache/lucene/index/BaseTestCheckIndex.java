@@ -160,4 +160,52 @@ public class BaseTestCheckIndex extends LuceneTestCase {
     
     iw.close();
   }
+
+  public void testThreadCount(Directory dir) throws IOException {
+    LineFileDocs lf = new LineFileDocs(random());
+    MockAnalyzer analyzer = new MockAnalyzer(random());
+    IndexWriter iw = new IndexWriter(dir, newIndexWriterConfig(analyzer).setMergePolicy(NoMergePolicy.INSTANCE));
+    final int numSegments = TestUtil.nextInt(random(), 2, 6);
+    for (int i = 0; i < numSegments; i++) {
+      final int numDocs = TestUtil.nextInt(random(), 1, 50);
+      for (int j = 0; j < numDocs; j++) {
+        iw.addDocument(lf.nextDoc());
+      }
+      iw.commit();
+    }
+    iw.close();
+    lf.close();
+
+    CheckIndex checker = new CheckIndex(dir);
+    expectThrows(IllegalArgumentException.class, () -> checker.setThreadCount(0));
+    assertEquals(1, checker.getThreadCount());
+
+    ByteArrayOutputStream sequentialBytes = new ByteArrayOutputStream(1024);
+    checker.setInfoStream(new PrintStream(sequentialBytes, false, IOUtils.UTF_8));
+    CheckIndex.Status sequentialStatus = checker.checkIndex();
+    assertTrue(sequentialStatus.clean);
+
+    checker.setThreadCount(TestUtil.nextInt(random(), 2, 8));
+    ByteArrayOutputStream concurrentBytes = new ByteArrayOutputStream(1024);
+    checker.setInfoStream(new PrintStream(concurrentBytes, false, IOUtils.UTF_8));
+    CheckIndex.Status concurrentStatus = checker.checkIndex();
+    assertTrue(concurrentStatus.clean);
+    checker.close();
+    analyzer.close();
+
+    assertEquals(numSegments, concurrentStatus.segmentInfos.size());
+    for (int i = 0; i < numSegments; i++) {
+      CheckIndex.Status.SegmentInfoStatus expected = sequentialStatus.segmentInfos.get(i);
+      CheckIndex.Status.SegmentInfoStatus actual = concurrentStatus.segmentInfos.get(i);
+      assertEquals(expected.name, actual.name);
+      assertEquals(expected.termIndexStatus.termCount, actual.termIndexStatus.termCount);
+      assertEquals(expected.storedFieldStatus.totFields, actual.storedFieldStatus.totFields);
+      assertEquals(expected.docValuesStatus.totalValueFields, actual.docValuesStatus.totalValueFields);
+    }
+
+    // messages are printed in the same order, only timings differ
+    String sequentialOutput = sequentialBytes.toString(IOUtils.UTF_8).replaceAll("[0-9.]+ sec", "X sec");
+    String concurrentOutput = concurrentBytes.toString(IOUtils.UTF_8).replaceAll("[0-9.]+ sec", "X sec");
+    assertEquals(sequentialOutput, concurrentOutput);
+  }
 }
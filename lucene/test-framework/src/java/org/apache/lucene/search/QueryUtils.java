@@ -35,6 +35,7 @@ import org.apache.lucene.index.SortedNumericDocValues;
 import org.apache.lucene.index.SortedSetDocValues;
 import org.apache.lucene.index.StoredFieldVisitor;
 import org.apache.lucene.index.Terms;
+import org.apache.lucene.index.VectorValues;
 import org.apache.lucene.util.Bits;
 import org.apache.lucene.util.LuceneTestCase;
 import org.apache.lucene.util.Version;
@@ -223,6 +224,11 @@ public class QueryUtils {
         return null;
       }
 
+      @Override
+      public VectorValues getVectorValues(String field) {
+        return null;
+      }
+
       @Override
       public void checkIntegrity() throws IOException {}
 
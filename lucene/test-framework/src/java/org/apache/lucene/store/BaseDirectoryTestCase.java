@@ -1024,6 +1024,41 @@ public abstract class BaseDirectoryTestCase extends LuceneTestCase {
     }
   }
   
+  public void testPrefetch() throws Exception {
+    try (Directory dir = getDirectory(createTempDir("prefetch"))) {
+      final int num = TestUtil.nextInt(random(), 10000, 50000);
+      byte bytes[] = new byte[num];
+      random().nextBytes(bytes);
+      try (IndexOutput output = dir.createOutput("bytes", newIOContext(random()))) {
+        output.writeBytes(bytes, bytes.length);
+      }
+
+      try (IndexInput input = dir.openInput("bytes", newIOContext(random()))) {
+        final int offset = random().nextInt(num);
+        final IndexInput slice = input.slice("slice", offset, num - offset);
+        final RandomAccessInput randomAccessSlice = input.randomAccessSlice(offset, num - offset);
+        for (int iter = 0; iter < 10; ++iter) {
+          final long fp = TestUtil.nextLong(random(), 0, input.length());
+          input.seek(fp);
+          final long prefetchOffset = TestUtil.nextLong(random(), 0, slice.length());
+          final long prefetchLength = TestUtil.nextLong(random(), 0, slice.length() - prefetchOffset);
+          input.prefetch(prefetchOffset, prefetchLength);
+          slice.prefetch(prefetchOffset, prefetchLength);
+          randomAccessSlice.prefetch(prefetchOffset, prefetchLength);
+          // prefetching must not move the file pointer
+          assertEquals(fp, input.getFilePointer());
+          if (fp < input.length()) {
+            assertEquals(bytes[(int) fp], input.readByte());
+          }
+          assertEquals(0, slice.getFilePointer());
+          if (prefetchOffset < slice.length()) {
+            assertEquals(bytes[(int) (offset + prefetchOffset)], randomAccessSlice.readByte(prefetchOffset));
+          }
+        }
+      }
+    }
+  }
+
   /** 
    * This test that writes larger than the size of the buffer output
    * will correctly increment the file pointer.
@@ -230,6 +230,13 @@ public class SolrConfig extends XmlConfigFile implements MapSerializable {
     enableLazyFieldLoading = getBool("query/enableLazyFieldLoading", false);
     
     filterCacheConfig = CacheConfig.getConfig(this, "query/filterCache");
+    if (getNode("query/segmentFilterCache", false) != null) {
+      segmentFilterCacheSize = getInt("query/segmentFilterCache/@size", 1024);
+      segmentFilterCacheMaxRamMB = getInt("query/segmentFilterCache/@maxRamMB", 256);
+    } else {
+      segmentFilterCacheSize = 0;
+      segmentFilterCacheMaxRamMB = 0;
+    }
     queryResultCacheConfig = CacheConfig.getConfig(this, "query/queryResultCache");
     documentCacheConfig = CacheConfig.getConfig(this, "query/documentCache");
     CacheConfig conf = CacheConfig.getConfig(this, "query/fieldValueCache");
@@ -519,6 +526,9 @@ public class SolrConfig extends XmlConfigFile implements MapSerializable {
   public final CacheConfig documentCacheConfig;
   public final CacheConfig fieldValueCacheConfig;
   public final Map<String, CacheConfig> userCacheConfigs;
+  // per-segment results of filterCache misses, disabled if the size is 0
+  public final int segmentFilterCacheSize;
+  public final int segmentFilterCacheMaxRamMB;
   // SolrIndexSearcher - more...
   public final boolean useFilterForSortedQuery;
   public final int queryResultWindowSize;
@@ -873,6 +883,12 @@ public class SolrConfig extends XmlConfigFile implements MapSerializable {
     m.put("queryResultMaxDocsCached", queryResultMaxDocsCached);
     m.put("enableLazyFieldLoading", enableLazyFieldLoading);
     m.put("maxBooleanClauses", booleanQueryMaxClauseCount);
+    if (segmentFilterCacheSize > 0) {
+      Map<String, Object> segmentFilterCache = new LinkedHashMap<>();
+      segmentFilterCache.put("size", segmentFilterCacheSize);
+      segmentFilterCache.put("maxRamMB", segmentFilterCacheMaxRamMB);
+      m.put("segmentFilterCache", segmentFilterCache);
+    }
 
     for (SolrPluginInfo plugin : plugins) {
       List<PluginInfo> infos = getPluginInfos(plugin.clazz.getName());
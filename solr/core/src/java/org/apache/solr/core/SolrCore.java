@@ -70,6 +70,7 @@ import org.apache.lucene.index.IndexDeletionPolicy;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.LRUQueryCache;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.IOContext;
 import org.apache.lucene.store.IndexInput;
@@ -109,6 +110,7 @@ import org.apache.solr.handler.SolrConfigHandler;
 import org.apache.solr.handler.component.HighlightComponent;
 import org.apache.solr.handler.component.SearchComponent;
 import org.apache.solr.logging.MDCLoggingContext;
+import org.apache.solr.metrics.MetricsMap;
 import org.apache.solr.metrics.SolrCoreMetricManager;
 import org.apache.solr.metrics.SolrMetricProducer;
 import org.apache.solr.metrics.SolrMetricsContext;
@@ -320,6 +322,25 @@ public final class SolrCore implements SolrInfoBean, Closeable {
     return solrConfig;
   }
 
+  /**
+   * Returns the cache of per-segment filter results that searchers of this core share, or
+   * null if it is not configured. Entries are keyed by the core of a segment, so they remain
+   * valid across commits until the segment is merged away.
+   * @lucene.internal
+   */
+  public LRUQueryCache getSegmentFilterCache() {
+    return segmentFilterCache;
+  }
+
+  private static LRUQueryCache initSegmentFilterCache(SolrConfig config) {
+    if (config.segmentFilterCacheSize <= 0) {
+      return null;
+    }
+    // all segments are cached, even small ones, since they are the ones that commits create
+    return new LRUQueryCache(config.segmentFilterCacheSize, config.segmentFilterCacheMaxRamMB * 1024L * 1024L,
+        context -> true, Float.POSITIVE_INFINITY);
+  }
+
   /**
    * Gets the schema resource name used by this core instance.
    *
@@ -954,6 +975,7 @@ public final class SolrCore implements SolrInfoBean, Closeable {
       coreProvider = new Provider(coreContainer, getName(), uniqueId);
 
       this.solrConfig = configSet.getSolrConfig();
+      this.segmentFilterCache = initSegmentFilterCache(solrConfig);
       this.resourceLoader = configSet.getSolrConfig().getResourceLoader();
       IndexSchema schema = configSet.getIndexSchema();
 
@@ -1236,6 +1258,15 @@ public final class SolrCore implements SolrInfoBean, Closeable {
         return true;
       }
     }, true, "spins", Category.CORE.toString(), "fs");
+    if (segmentFilterCache != null) {
+      parentContext.gauge(new MetricsMap(map -> {
+        map.put("lookups", segmentFilterCache.getTotalCount());
+        map.put("hits", segmentFilterCache.getHitCount());
+        map.put("size", segmentFilterCache.getCacheSize());
+        map.put("evictions", segmentFilterCache.getEvictionCount());
+        map.put("ramBytesUsed", segmentFilterCache.ramBytesUsed());
+      }), true, "segmentFilterCache", Category.CACHE.toString());
+    }
   }
 
   public String getMetricTag() {
@@ -1871,6 +1902,7 @@ public final class SolrCore implements SolrInfoBean, Closeable {
   private ReentrantLock openSearcherLock = new ReentrantLock(true);     // used to serialize opens/reopens for absolute ordering
   private final int maxWarmingSearchers;  // max number of on-deck searchers allowed
   private final int slowQueryThresholdMillis;  // threshold above which a query is considered slow
+  private final LRUQueryCache segmentFilterCache;  // shared by searchers, may be null
 
   private RefCounted<SolrIndexSearcher> realtimeSearcher;
   private Callable<DirectoryReader> newReaderCreator;
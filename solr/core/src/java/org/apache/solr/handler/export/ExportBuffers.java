@@ -58,17 +58,19 @@ class ExportBuffers {
   final IteratorWriter.ItemWriter writer;
   final CyclicBarrier barrier;
   final int totalHits;
+  final List<ExportWriter.LeafSlice> slices;
   Buffer fillBuffer;
   Buffer outputBuffer;
   Runnable filler;
   ExecutorService service;
+  ExecutorService sliceService;
   Throwable error;
   LongAdder outputCounter = new LongAdder();
   volatile boolean shutDown = false;
 
   ExportBuffers(ExportWriter exportWriter, List<LeafReaderContext> leaves, SolrIndexSearcher searcher,
                 OutputStream os, IteratorWriter.ItemWriter rawWriter, Sort sort, int queueSize, int totalHits,
-                Timer writeOutputBufferTimer, Timer fillerWaitTimer, Timer writerWaitTimer) throws IOException {
+                int numThreads, Timer writeOutputBufferTimer, Timer fillerWaitTimer, Timer writerWaitTimer) throws IOException {
     this.exportWriter = exportWriter;
     this.leaves = leaves;
     this.os = os;
@@ -92,6 +94,8 @@ class ExportBuffers {
     SortDoc writerSortDoc = exportWriter.getSortDoc(searcher, sort.getSort());
     bufferOne.initialize(writerSortDoc);
     bufferTwo.initialize(writerSortDoc);
+    // null if the docs to export are identified by the filler thread alone
+    slices = exportWriter.getLeafSlices(leaves, searcher, sort, queueSize, numThreads);
     barrier = new CyclicBarrier(2, () -> swapBuffers());
     filler = () -> {
       try {
@@ -99,10 +103,15 @@ class ExportBuffers {
         SortDoc sortDoc = exportWriter.getSortDoc(searcher, sort.getSort());
         Buffer buffer = getFillBuffer();
         SortQueue queue = new SortQueue(queueSize, sortDoc);
+        ExecutorService sliceExecutor = sliceService;
         long lastOutputCounter = 0;
         for (int count = 0; count < totalHits; ) {
           // log.debug("--- filler fillOutDocs in {}", fillBuffer);
-          exportWriter.fillOutDocs(leaves, sortDoc, queue, buffer);
+          if (slices == null) {
+            exportWriter.fillOutDocs(leaves, sortDoc, queue, buffer);
+          } else {
+            exportWriter.fillOutDocs(leaves, slices, sliceExecutor, queue, buffer);
+          }
           count += (buffer.outDocsIndex + 1);
           // log.debug("--- filler count={}, exchange buffer from {}", count, buffer);
           Timer.Context timerContext = getFillerWaitTimer().time();
@@ -197,6 +206,10 @@ class ExportBuffers {
       service.shutdownNow();
       service = null;
     }
+    if (sliceService != null) {
+      sliceService.shutdownNow();
+      sliceService = null;
+    }
     shutDown = true;
   }
 
@@ -212,6 +225,10 @@ class ExportBuffers {
    */
   public void run(Callable<Boolean> writer) throws IOException {
     service = ExecutorUtil.newMDCAwareFixedThreadPool(1, new SolrNamedThreadFactory("ExportBuffers"));
+    if (slices != null) {
+      // the filler thread takes care of one of the slices
+      sliceService = ExecutorUtil.newMDCAwareFixedThreadPool(slices.size() - 1, new SolrNamedThreadFactory("ExportBuffers-slice"));
+    }
     try {
       CompletableFuture.runAsync(filler, service);
       writer.call();
@@ -24,7 +24,12 @@ import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.lang.invoke.MethodHandles;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import com.codahale.metrics.Timer;
 import org.apache.lucene.index.LeafReader;
@@ -93,12 +98,19 @@ import static org.apache.solr.common.util.Utils.makeMap;
  * <p>
  * This streaming approach is light on memory (only up to 2x batch size documents are ever stored in memory at
  * once), and it allows {@link ExportWriter} to scale well with regard to numDocs.
+ * <p>
+ * With {@link #NUM_THREADS_PARAM} greater than 1, the segments are split into up to that many slices of similar
+ * sizes and the smallest docs of each slice are identified concurrently, in one queue per slice. The queues are then
+ * merged in sort order into the batch that is exported. This uses up to 1x batch size more documents in memory per
+ * additional thread.
  */
 public class ExportWriter implements SolrCore.RawWriter, Closeable {
   private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
   public static final String BATCH_SIZE_PARAM = "batchSize";
   public static final int DEFAULT_BATCH_SIZE = 30000;
+  public static final String NUM_THREADS_PARAM = "numThreads";
+  public static final int DEFAULT_NUM_THREADS = 1;
 
   private OutputStreamWriter respWriter;
   final SolrQueryRequest req;
@@ -107,6 +119,7 @@ public class ExportWriter implements SolrCore.RawWriter, Closeable {
   final SolrMetricsContext solrMetricsContext;
   final String metricsPath;
   final int batchSize;
+  final int numThreads;
   StreamExpression streamExpression;
   StreamContext streamContext;
   FieldWriter[] fieldWriters;
@@ -131,6 +144,9 @@ public class ExportWriter implements SolrCore.RawWriter, Closeable {
     this.solrMetricsContext = solrMetricsContext;
     this.metricsPath = metricsPath;
     this.batchSize = req.getParams().getInt(BATCH_SIZE_PARAM, DEFAULT_BATCH_SIZE);
+    // more threads than cores would only add contention
+    this.numThreads = Math.max(1, Math.min(req.getParams().getInt(NUM_THREADS_PARAM, DEFAULT_NUM_THREADS),
+        Runtime.getRuntime().availableProcessors()));
     identifyLowestSortingDocTimer = solrMetricsContext.timer("identifyLowestSortingDoc", metricsPath);
     transferBatchToBufferTimer = solrMetricsContext.timer("transferBatchToBuffer", metricsPath);
     writeOutputBufferTimer = solrMetricsContext.timer("writeOutputBuffer", metricsPath);
@@ -308,14 +324,65 @@ public class ExportWriter implements SolrCore.RawWriter, Closeable {
       queue.reset();
       SortDoc top = queue.top();
       for (int i = 0; i < leaves.size(); i++) {
-        sortDoc.setNextReader(leaves.get(i));
-        DocIdSetIterator it = new BitSetIterator(sets[i], 0); // cost is not useful here
-        int docId;
-        while ((docId = it.nextDoc()) != DocIdSetIterator.NO_MORE_DOCS) {
-          sortDoc.setValues(docId);
-          if (top.lessThan(sortDoc)) {
-            top.setValues(sortDoc);
-            top = queue.updateTop();
+        top = addLowestSortingUnexportedDocs(leaves.get(i), sortDoc, queue, top);
+      }
+    } finally {
+      timerContext.stop();
+    }
+  }
+
+  private void identifyLowestSortingUnexportedDocs(List<LeafSlice> slices, ExecutorService executor, SortQueue queue) throws IOException {
+    Timer.Context timerContext = identifyLowestSortingDocTimer.time();
+    try {
+      List<Future<?>> futures = new ArrayList<>(slices.size() - 1);
+      for (int i = 1; i < slices.size(); i++) {
+        LeafSlice slice = slices.get(i);
+        futures.add(executor.submit(() -> {
+          identifyLowestSortingUnexportedDocs(slice.leaves, slice.sortDoc, slice.queue);
+          return null;
+        }));
+      }
+      // the current thread takes care of the first slice
+      Throwable error = null;
+      try {
+        identifyLowestSortingUnexportedDocs(slices.get(0).leaves, slices.get(0).sortDoc, slices.get(0).queue);
+      } catch (Throwable t) {
+        error = t;
+      }
+      // wait for all slices, even if one of them failed, since they are reused for the next batch
+      for (Future<?> future : futures) {
+        try {
+          future.get();
+        } catch (ExecutionException e) {
+          if (error == null) {
+            error = e.getCause();
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          if (error == null) {
+            error = e;
+          }
+          break;
+        }
+      }
+      if (error != null) {
+        if (error instanceof IOException) {
+          throw (IOException) error;
+        }
+        throw new IOException(error);
+      }
+
+      // merge the smallest docs of all slices
+      queue.reset();
+      SortDoc top = queue.top();
+      for (LeafSlice slice : slices) {
+        for (SortDoc s = slice.queue.pop(); s != null; s = slice.queue.pop()) {
+          if (s.docId > -1) {
+            if (top.lessThan(s)) {
+              top.setValues(s);
+              top = queue.updateTop();
+            }
+            s.reset(); // reuse
           }
         }
       }
@@ -324,6 +391,77 @@ public class ExportWriter implements SolrCore.RawWriter, Closeable {
     }
   }
 
+  private SortDoc addLowestSortingUnexportedDocs(LeafReaderContext leaf, SortDoc sortDoc, SortQueue queue, SortDoc top) throws IOException {
+    sortDoc.setNextReader(leaf);
+    DocIdSetIterator it = new BitSetIterator(sets[leaf.ord], 0); // cost is not useful here
+    int docId;
+    while ((docId = it.nextDoc()) != DocIdSetIterator.NO_MORE_DOCS) {
+      sortDoc.setValues(docId);
+      if (top.lessThan(sortDoc)) {
+        top.setValues(sortDoc);
+        top = queue.updateTop();
+      }
+    }
+    return top;
+  }
+
+  /**
+   * A subset of the segments whose smallest unexported docs are identified by a single thread.
+   */
+  static final class LeafSlice {
+    final List<LeafReaderContext> leaves = new ArrayList<>();
+    final SortDoc sortDoc;
+    final SortQueue queue;
+    long numDocs;
+
+    LeafSlice(SortDoc sortDoc, int queueSize) {
+      this.sortDoc = sortDoc;
+      this.queue = new SortQueue(queueSize, sortDoc);
+    }
+  }
+
+  /**
+   * Splits the segments that have matching docs into at most {@code maxSlices} slices with similar numbers of
+   * matching docs. Returns {@code null} if there is no point in identifying the docs to export concurrently.
+   */
+  List<LeafSlice> getLeafSlices(List<LeafReaderContext> leaves, SolrIndexSearcher searcher, Sort sort,
+                                int queueSize, int maxSlices) throws IOException {
+    if (maxSlices <= 1 || sets == null) {
+      return null;
+    }
+    int[] numDocs = new int[leaves.size()];
+    List<LeafReaderContext> sortedLeaves = new ArrayList<>();
+    for (LeafReaderContext leaf : leaves) {
+      numDocs[leaf.ord] = sets[leaf.ord].cardinality();
+      if (numDocs[leaf.ord] > 0) {
+        sortedLeaves.add(leaf);
+      }
+    }
+    if (sortedLeaves.size() <= 1) {
+      return null;
+    }
+    // assign the largest segments first, each to the slice that has the fewest docs so far
+    sortedLeaves.sort(Comparator.comparingInt((LeafReaderContext leaf) -> numDocs[leaf.ord]).reversed());
+    List<LeafSlice> slices = new ArrayList<>();
+    for (LeafReaderContext leaf : sortedLeaves) {
+      LeafSlice slice;
+      if (slices.size() < maxSlices) {
+        slice = new LeafSlice(getSortDoc(searcher, sort.getSort()), queueSize);
+        slices.add(slice);
+      } else {
+        slice = slices.get(0);
+        for (LeafSlice s : slices) {
+          if (s.numDocs < slice.numDocs) {
+            slice = s;
+          }
+        }
+      }
+      slice.leaves.add(leaf);
+      slice.numDocs += numDocs[leaf.ord];
+    }
+    return slices;
+  }
+
   private void transferBatchToBufferForOutput(SortQueue queue,
                                                 List<LeafReaderContext> leaves,
                                                 ExportBuffers.Buffer destination) throws IOException {
@@ -356,7 +494,7 @@ public class ExportWriter implements SolrCore.RawWriter, Closeable {
     final int queueSize = Math.min(batchSize, totalHits);
 
     ExportBuffers buffers = new ExportBuffers(this, leaves, req.getSearcher(), os, writer, sort, queueSize, totalHits,
-        writeOutputBufferTimer, fillerWaitTimer, writerWaitTimer);
+        numThreads, writeOutputBufferTimer, fillerWaitTimer, writerWaitTimer);
 
     if (streamExpression != null) {
       streamContext.put(ExportBuffers.EXPORT_BUFFERS_KEY, buffers);
@@ -441,6 +579,12 @@ public class ExportWriter implements SolrCore.RawWriter, Closeable {
     transferBatchToBufferForOutput(sortQueue, leaves, buffer);
   }
 
+  void fillOutDocs(List<LeafReaderContext> leaves, List<LeafSlice> slices, ExecutorService executor,
+                   SortQueue sortQueue, ExportBuffers.Buffer buffer) throws IOException {
+    identifyLowestSortingUnexportedDocs(slices, executor, sortQueue);
+    transferBatchToBufferForOutput(sortQueue, leaves, buffer);
+  }
+
   void writeDoc(SortDoc sortDoc,
                           List<LeafReaderContext> leaves,
                           EntryWriter ew, FieldWriter[] writers) throws IOException {
@@ -79,6 +79,13 @@ public class DocsStreamer implements Iterator<SolrDocument> {
     docFetcher = rctx.getSearcher().getDocFetcher();
     solrReturnFields = (SolrReturnFields)rctx.getReturnFields();
 
+    try {
+      // a single hint for the whole page, before any document is loaded
+      docFetcher.prefetch(docs);
+    } catch (IOException e) {
+      throw new SolrException(SolrException.ErrorCode.SERVER_ERROR, "Error prefetching documents", e);
+    }
+
     if (transformer != null) transformer.setContext(rctx);
   }
 
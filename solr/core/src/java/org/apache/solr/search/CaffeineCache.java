@@ -19,17 +19,23 @@ package org.apache.solr.search;
 import java.io.IOException;
 import java.lang.invoke.MethodHandles;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 
@@ -38,8 +44,11 @@ import com.github.benmanes.caffeine.cache.RemovalListener;
 import org.apache.lucene.util.Accountable;
 import org.apache.lucene.util.RamUsageEstimator;
 import org.apache.solr.common.SolrException;
+import org.apache.solr.common.util.ExecutorUtil;
+import org.apache.solr.common.util.SolrNamedThreadFactory;
 import org.apache.solr.metrics.MetricsMap;
 import org.apache.solr.metrics.SolrMetricsContext;
+import org.apache.solr.request.SolrRequestInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -81,6 +90,7 @@ public class CaffeineCache<K, V> extends SolrCacheBase implements SolrCache<K, V
   private LongAdder inserts;
   private Cache<K,V> cache;
   private long warmupTime;
+  private long warmupSkipped;
   private int maxSize;
   private long maxRamBytes;
   private int initialSize;
@@ -308,23 +318,105 @@ public class CaffeineCache<K, V> extends SolrCacheBase implements SolrCache<K, V
       hottest = policy.hottest(size);
     }
 
-    for (Entry<K, V> entry : hottest.entrySet()) {
+    // hottest entries come first, so that they are the ones that get regenerated
+    // if the time limit is reached
+    Iterator<Entry<K, V>> entries = hottest.entrySet().iterator();
+    long deadline = autowarmTimeLimitMs < 0 ? Long.MAX_VALUE
+        : warmingStartTime + TimeUnit.MILLISECONDS.toNanos(autowarmTimeLimitMs);
+    AtomicBoolean stop = new AtomicBoolean();
+    LongAdder regenerated = new LongAdder();
+    int numThreads = Math.min(autowarmThreads, hottest.size());
+    if (numThreads <= 1) {
+      regenerateEntries(searcher, old, entries, deadline, stop, regenerated);
+    } else {
+      warmConcurrently(searcher, old, entries, deadline, stop, regenerated, numThreads);
+    }
+
+    warmupSkipped = hottest.size() - regenerated.sum();
+    if (warmupSkipped > 0 && deadline != Long.MAX_VALUE && System.nanoTime() - deadline >= 0
+        && log.isInfoEnabled()) {
+      log.info("Autowarming of {} reached its time limit of {}ms, skipped {} of {} entries",
+          name(), autowarmTimeLimitMs, warmupSkipped, hottest.size());
+    }
+
+    inserts.reset();
+    priorStats = other.cache.stats().plus(other.priorStats);
+    priorInserts = other.inserts.sum() + other.priorInserts;
+    warmupTime = TimeUnit.MILLISECONDS.convert(System.nanoTime() - warmingStartTime, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Regenerates entries until there are none left, the regenerator asks to stop or the
+   * deadline is reached. Several threads may share the same iterator.
+   */
+  private void regenerateEntries(SolrIndexSearcher searcher, SolrCache<K,V> old, Iterator<Entry<K, V>> entries,
+                                 long deadline, AtomicBoolean stop, LongAdder regenerated) {
+    while (stop.get() == false) {
+      Entry<K, V> entry;
+      synchronized (entries) {
+        if (entries.hasNext() == false) {
+          return;
+        }
+        entry = entries.next();
+      }
+      if (deadline != Long.MAX_VALUE && System.nanoTime() - deadline >= 0) {
+        stop.set(true);
+        return;
+      }
       try {
         boolean continueRegen = regenerator.regenerateItem(
             searcher, this, old, entry.getKey(), entry.getValue());
+        regenerated.increment();
         if (!continueRegen) {
-          break;
+          stop.set(true);
         }
       }
       catch (Exception e) {
         SolrException.log(log, "Error during auto-warming of key:" + entry.getKey(), e);
       }
     }
+  }
 
-    inserts.reset();
-    priorStats = other.cache.stats().plus(other.priorStats);
-    priorInserts = other.inserts.sum() + other.priorInserts;
-    warmupTime = TimeUnit.MILLISECONDS.convert(System.nanoTime() - warmingStartTime, TimeUnit.NANOSECONDS);
+  /**
+   * Regenerates entries on {@code numThreads} threads: the current one and a pool that
+   * only lives as long as this warming.
+   */
+  private void warmConcurrently(SolrIndexSearcher searcher, SolrCache<K,V> old, Iterator<Entry<K, V>> entries,
+                                long deadline, AtomicBoolean stop, LongAdder regenerated, int numThreads) {
+    // regenerators may rely on the request that SolrIndexSearcher#warm sets up
+    final SolrRequestInfo requestInfo = SolrRequestInfo.getRequestInfo();
+    ExecutorService warmExecutor = ExecutorUtil.newMDCAwareFixedThreadPool(numThreads - 1,
+        new SolrNamedThreadFactory("autowarm-" + name()));
+    try {
+      List<Future<?>> futures = new ArrayList<>(numThreads - 1);
+      for (int i = 1; i < numThreads; i++) {
+        futures.add(warmExecutor.submit(() -> {
+          if (requestInfo != null) {
+            SolrRequestInfo.setRequestInfo(new SolrRequestInfo(requestInfo.getReq(), requestInfo.getRsp()));
+          }
+          try {
+            regenerateEntries(searcher, old, entries, deadline, stop, regenerated);
+          } finally {
+            if (requestInfo != null) {
+              SolrRequestInfo.clearRequestInfo();
+            }
+          }
+        }));
+      }
+      regenerateEntries(searcher, old, entries, deadline, stop, regenerated);
+      for (Future<?> future : futures) {
+        try {
+          future.get();
+        } catch (ExecutionException e) {
+          SolrException.log(log, "Error during auto-warming of " + name(), e.getCause());
+        }
+      }
+    } catch (InterruptedException e) {
+      stop.set(true);
+      Thread.currentThread().interrupt();
+    } finally {
+      ExecutorUtil.shutdownAndAwaitTermination(warmExecutor);
+    }
   }
 
   /** Returns the description of this cache. */
@@ -376,6 +468,7 @@ public class CaffeineCache<K, V> extends SolrCacheBase implements SolrCache<K, V
         map.put(EVICTIONS_PARAM, stats.evictionCount());
         map.put(SIZE_PARAM, cache.asMap().size());
         map.put("warmupTime", warmupTime);
+        map.put("warmupSkipped", warmupSkipped);
         map.put(RAM_BYTES_USED_PARAM, ramBytesUsed());
         map.put(MAX_RAM_MB_PARAM, getMaxRamMB());
 
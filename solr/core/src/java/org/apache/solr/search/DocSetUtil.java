@@ -250,6 +250,22 @@ public class DocSetUtil {
     return new SortedIntDocSet(docs);
   }
 
+  /**
+   * Returns a {@link RoaringDocSet} with the same documents as the given set if it is a {@link BitDocSet}
+   * that would take at least a quarter less memory as a RoaringDocSet, and the given set otherwise.
+   * Worth it for sets that are kept around for a while, like cached filters: on large indexes a BitDocSet
+   * takes maxDoc/8 bytes, even for medium sets that only have documents in a few regions of the index.
+   */
+  public static DocSet toCompactSet(DocSet docs) {
+    if (docs instanceof BitDocSet) {
+      FixedBitSet bits = ((BitDocSet) docs).getBits();
+      if (RoaringDocSet.estimateRamBytesUsed(bits) < docs.ramBytesUsed() / 4 * 3) {
+        return RoaringDocSet.fromBitSet(bits);
+      }
+    }
+    return docs;
+  }
+
   public static void collectSortedDocSet(DocSet docs, IndexReader reader, Collector collector) throws IOException {
     // TODO add SortedDocSet sub-interface and take that.
     // TODO collectUnsortedDocSet: iterate segment, then all docSet per segment.
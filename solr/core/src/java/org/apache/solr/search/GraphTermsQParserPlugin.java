@@ -280,7 +280,8 @@ public class GraphTermsQParserPlugin extends QParserPlugin {
 
         @Override
         public boolean isCacheable(LeafReaderContext ctx) {
-          return true;
+          // terms are selected by their docFreq across the whole index
+          return false;
         }
 
       };
@@ -584,7 +585,8 @@ abstract class PointSetQuery extends Query implements DocSetProducer, Accountabl
 
       @Override
       public boolean isCacheable(LeafReaderContext ctx) {
-        return true;
+        // points are selected by their doc count across the whole index
+        return false;
       }
     };
   }
@@ -387,8 +387,11 @@ class JoinQuery extends Query {
               } else {
                 if (toTermSet instanceof BitDocSet) {
                   resultBits = ((BitDocSet)toTermSet).getBits().clone();
-                } else {
+                } else if (toTermSet instanceof SortedIntDocSet) {
                   resultList.add(toTermSet);
+                } else {
+                  resultBits = new FixedBitSet(toSearcher.maxDoc());
+                  toTermSet.addAllTo(resultBits);
                 }
               }
             } else {
@@ -0,0 +1,930 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.solr.search;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.DocIdSet;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.util.Accountable;
+import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.FixedBitSet;
+import org.apache.lucene.util.RamUsageEstimator;
+
+/**
+ * A compressed implementation of a {@link DocSet}, in the spirit of
+ * <a href="https://arxiv.org/abs/1402.6407">Roaring bitmaps</a>. The doc id
+ * space is split into blocks of 2<sup>16</sup> documents, and each block that
+ * has documents stores them either as a sorted array of 16-bit doc ids, if it
+ * has at most 4096 documents, or as a bitmap otherwise. Blocks that have no
+ * documents take no memory, and neither do blocks that have all documents.
+ * <p>
+ * Good for medium sets that don't fill most blocks, or that are clustered,
+ * for which a {@link BitDocSet} would spend most of its memory on unset bits.
+ * Intersections, unions and differences with other RoaringDocSets and with
+ * BitDocSets are computed block by block, and never materialize a bit set
+ * over all documents.
+ *
+ * @see DocSetUtil#toCompactSet(DocSet)
+ * @lucene.experimental
+ */
+public class RoaringDocSet extends DocSet {
+  private static final long BASE_RAM_BYTES_USED = RamUsageEstimator.shallowSizeOfInstance(RoaringDocSet.class);
+
+  private static final int BLOCK_BITS = 16;
+  private static final int BLOCK_SIZE = 1 << BLOCK_BITS;
+  private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+  private static final int BLOCK_WORDS = BLOCK_SIZE >>> 6;
+  // above this many documents, a bitmap is smaller than an array
+  private static final int MAX_ARRAY_LENGTH = BLOCK_SIZE >>> 4;
+
+  // shared by all blocks that have all documents, never modified
+  private static final long[] FULL_BLOCK = new long[BLOCK_WORDS];
+  static {
+    Arrays.fill(FULL_BLOCK, -1L);
+  }
+
+  private final int maxDoc;
+  // for each block, either the sorted array of its doc ids minus the first doc id
+  // of the block, or its bitmap, or neither if the block has no documents
+  private final short[][] arrays;
+  private final long[][] bitmaps;
+  private final int size;
+  private final long ramBytesUsed;
+
+  private RoaringDocSet(int maxDoc, short[][] arrays, long[][] bitmaps, int size) {
+    assert arrays.length == numBlocks(maxDoc) && bitmaps.length == arrays.length;
+    this.maxDoc = maxDoc;
+    this.arrays = arrays;
+    this.bitmaps = bitmaps;
+    this.size = size;
+    long ramBytesUsed = BASE_RAM_BYTES_USED + RamUsageEstimator.shallowSizeOf(arrays) + RamUsageEstimator.shallowSizeOf(bitmaps);
+    for (int block = 0; block < arrays.length; block++) {
+      if (arrays[block] != null) {
+        ramBytesUsed += RamUsageEstimator.sizeOf(arrays[block]);
+      } else if (bitmaps[block] != null && bitmaps[block] != FULL_BLOCK) {
+        ramBytesUsed += RamUsageEstimator.sizeOf(bitmaps[block]);
+      }
+    }
+    this.ramBytesUsed = ramBytesUsed;
+  }
+
+  /**
+   * Creates a set of the documents that are set in the given bits, which are
+   * not modified. Documents may be up to {@link FixedBitSet#length()}.
+   */
+  public static RoaringDocSet fromBitSet(FixedBitSet bits) {
+    final int maxDoc = bits.length();
+    final long[] words = bits.getBits();
+    final int numWords = FixedBitSet.bits2words(maxDoc);
+    final int numBlocks = numBlocks(maxDoc);
+    final short[][] arrays = new short[numBlocks][];
+    final long[][] bitmaps = new long[numBlocks][];
+    int size = 0;
+    for (int block = 0; block < numBlocks; block++) {
+      final int from = block * BLOCK_WORDS;
+      final int to = Math.min(from + BLOCK_WORDS, numWords);
+      int card = 0;
+      for (int i = from; i < to; i++) {
+        card += Long.bitCount(words[i]);
+      }
+      if (card == 0) {
+        continue;
+      } else if (card <= MAX_ARRAY_LENGTH) {
+        arrays[block] = toArray(words, from, to, card);
+      } else if (card == BLOCK_SIZE) {
+        bitmaps[block] = FULL_BLOCK;
+      } else {
+        // pads the last block with zeros
+        bitmaps[block] = Arrays.copyOfRange(words, from, from + BLOCK_WORDS);
+      }
+      size += card;
+    }
+    return new RoaringDocSet(maxDoc, arrays, bitmaps, size);
+  }
+
+  /**
+   * Returns the memory that {@link #fromBitSet(FixedBitSet)} would use for
+   * the given bits, without creating the set.
+   */
+  public static long estimateRamBytesUsed(FixedBitSet bits) {
+    final int maxDoc = bits.length();
+    final long[] words = bits.getBits();
+    final int numWords = FixedBitSet.bits2words(maxDoc);
+    final int numBlocks = numBlocks(maxDoc);
+    final long blocksBytesUsed = RamUsageEstimator.alignObjectSize(
+        RamUsageEstimator.NUM_BYTES_ARRAY_HEADER + (long) RamUsageEstimator.NUM_BYTES_OBJECT_REF * numBlocks);
+    long ramBytesUsed = BASE_RAM_BYTES_USED + 2 * blocksBytesUsed;
+    for (int block = 0; block < numBlocks; block++) {
+      final int from = block * BLOCK_WORDS;
+      final int to = Math.min(from + BLOCK_WORDS, numWords);
+      int card = 0;
+      for (int i = from; i < to; i++) {
+        card += Long.bitCount(words[i]);
+      }
+      if (card == 0 || card == BLOCK_SIZE) {
+        continue;
+      } else if (card <= MAX_ARRAY_LENGTH) {
+        ramBytesUsed += RamUsageEstimator.alignObjectSize(RamUsageEstimator.NUM_BYTES_ARRAY_HEADER + ((long) card << 1));
+      } else {
+        ramBytesUsed += RamUsageEstimator.alignObjectSize(RamUsageEstimator.NUM_BYTES_ARRAY_HEADER + ((long) BLOCK_WORDS << 3));
+      }
+    }
+    return ramBytesUsed;
+  }
+
+  private static int numBlocks(int maxDoc) {
+    // avoids overflows for maxDoc close to Integer.MAX_VALUE
+    return maxDoc == 0 ? 0 : ((maxDoc - 1) >>> BLOCK_BITS) + 1;
+  }
+
+  // the doc ids in words[from:to], relative to the doc id of words[from]
+  private static short[] toArray(long[] words, int from, int to, int card) {
+    final short[] array = new short[card];
+    int upto = 0;
+    for (int i = from; i < to; i++) {
+      long word = words[i];
+      while (word != 0) {
+        array[upto++] = (short) (((i - from) << 6) | Long.numberOfTrailingZeros(word));
+        word &= word - 1;
+      }
+    }
+    assert upto == card;
+    return array;
+  }
+
+  // stores the given bitmap as the given block, the bitmap may be kept
+  private static void setBlock(int block, long[] words, int card, short[][] arrays, long[][] bitmaps) {
+    if (card == 0) {
+      return;
+    } else if (card <= MAX_ARRAY_LENGTH) {
+      arrays[block] = toArray(words, 0, BLOCK_WORDS, card);
+    } else if (card == BLOCK_SIZE) {
+      bitmaps[block] = FULL_BLOCK;
+    } else {
+      bitmaps[block] = words;
+    }
+  }
+
+  private static int cardinality(long[] words) {
+    if (words == FULL_BLOCK) {
+      return BLOCK_SIZE;
+    }
+    int card = 0;
+    for (long word : words) {
+      card += Long.bitCount(word);
+    }
+    return card;
+  }
+
+  // the index of the first value in array[from:] that is greater than or equal to the key
+  private static int lowerBound(short[] array, int from, int key) {
+    int lo = from;
+    int hi = array.length;
+    while (lo < hi) {
+      final int mid = (lo + hi) >>> 1;
+      if ((array[mid] & 0xFFFF) < key) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+    return lo;
+  }
+
+  // whether the bit of the given 16-bit doc id is set in words[offset:numWords]
+  private static boolean get(long[] words, int offset, int numWords, int low) {
+    final int i = offset + (low >>> 6);
+    return i < numWords && (words[i] & (1L << low)) != 0;
+  }
+
+  private static short[] trim(short[] array, int length) {
+    return length == 0 ? null : length == array.length ? array : Arrays.copyOf(array, length);
+  }
+
+  // the values of array that are set, or clear if keepSet is false, in words[offset:numWords]
+  private static short[] filter(short[] array, long[] words, int offset, int numWords, boolean keepSet) {
+    final short[] result = new short[array.length];
+    int upto = 0;
+    for (short value : array) {
+      if (get(words, offset, numWords, value & 0xFFFF) == keepSet) {
+        result[upto++] = value;
+      }
+    }
+    return trim(result, upto);
+  }
+
+  private static int count(short[] array, long[] words, int offset, int numWords) {
+    int count = 0;
+    for (short value : array) {
+      if (get(words, offset, numWords, value & 0xFFFF)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private static int intersectionCount(short[] a, short[] b) {
+    int count = 0;
+    for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+      final int va = a[i] & 0xFFFF;
+      final int vb = b[j] & 0xFFFF;
+      if (va < vb) {
+        i++;
+      } else if (va > vb) {
+        j++;
+      } else {
+        count++;
+        i++;
+        j++;
+      }
+    }
+    return count;
+  }
+
+  private static short[] intersection(short[] a, short[] b) {
+    final short[] result = new short[Math.min(a.length, b.length)];
+    int upto = 0;
+    for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+      final int va = a[i] & 0xFFFF;
+      final int vb = b[j] & 0xFFFF;
+      if (va < vb) {
+        i++;
+      } else if (va > vb) {
+        j++;
+      } else {
+        result[upto++] = a[i];
+        i++;
+        j++;
+      }
+    }
+    return trim(result, upto);
+  }
+
+  private static short[] andNot(short[] a, short[] b) {
+    final short[] result = new short[a.length];
+    int upto = 0;
+    int j = 0;
+    for (short value : a) {
+      final int va = value & 0xFFFF;
+      while (j < b.length && (b[j] & 0xFFFF) < va) {
+        j++;
+      }
+      if (j == b.length || (b[j] & 0xFFFF) != va) {
+        result[upto++] = value;
+      }
+    }
+    return trim(result, upto);
+  }
+
+  private static final int AND = 0, AND_NOT = 1, OR = 2;
+
+  // combines a bitmap with words[offset:numWords] of another set, stores the result as the given block
+  // and returns its cardinality
+  private static int combine(long[] bitmap, long[] words, int offset, int numWords, int op,
+                             int block, short[][] arrays, long[][] bitmaps) {
+    final long[] result = new long[BLOCK_WORDS];
+    final int n = Math.max(0, Math.min(BLOCK_WORDS, numWords - offset));
+    int card = 0;
+    for (int i = 0; i < BLOCK_WORDS; i++) {
+      final long word = i < n ? words[offset + i] : 0L;
+      final long r;
+      switch (op) {
+        case AND: r = bitmap[i] & word; break;
+        case AND_NOT: r = bitmap[i] & ~word; break;
+        case OR: r = bitmap[i] | word; break;
+        default: throw new AssertionError();
+      }
+      result[i] = r;
+      card += Long.bitCount(r);
+    }
+    setBlock(block, result, card, arrays, bitmaps);
+    return card;
+  }
+
+  private static int intersectionCount(long[] bitmap, long[] words, int offset, int numWords) {
+    final int n = Math.max(0, Math.min(BLOCK_WORDS, numWords - offset));
+    int count = 0;
+    for (int i = 0; i < n; i++) {
+      count += Long.bitCount(bitmap[i] & words[offset + i]);
+    }
+    return count;
+  }
+
+  private static int size(short[] array) {
+    return array == null ? 0 : array.length;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean exists(int doc) {
+    final int block = doc >>> BLOCK_BITS;
+    if (block >= arrays.length) {
+      return false;
+    }
+    final int low = doc & BLOCK_MASK;
+    final short[] array = arrays[block];
+    if (array != null) {
+      final int i = lowerBound(array, 0, low);
+      return i < array.length && (array[i] & 0xFFFF) == low;
+    }
+    final long[] bitmap = bitmaps[block];
+    return bitmap != null && (bitmap[low >>> 6] & (1L << low)) != 0;
+  }
+
+  /** An iterator over all documents of this set. */
+  private class RoaringIterator extends DocIdSetIterator {
+    private int doc = -1;
+    // the block of the array that arrayIndex points into
+    private int arrayBlock = -1;
+    // the index of the first value of the array after the current doc
+    private int arrayIndex;
+
+    @Override
+    public int docID() {
+      return doc;
+    }
+
+    @Override
+    public int nextDoc() {
+      return doc == NO_MORE_DOCS ? NO_MORE_DOCS : advance(doc + 1);
+    }
+
+    @Override
+    public int advance(int target) {
+      int low = target & BLOCK_MASK;
+      for (int block = target >>> BLOCK_BITS; block < arrays.length; block++, low = 0) {
+        final short[] array = arrays[block];
+        if (array != null) {
+          int i = block == arrayBlock ? arrayIndex : 0;
+          if (i < array.length && (array[i] & 0xFFFF) < low) {
+            i = lowerBound(array, i, low);
+          }
+          if (i < array.length) {
+            arrayBlock = block;
+            arrayIndex = i + 1;
+            return doc = (block << BLOCK_BITS) | (array[i] & 0xFFFF);
+          }
+        } else if (bitmaps[block] != null) {
+          final long[] bitmap = bitmaps[block];
+          int i = low >>> 6;
+          long word = bitmap[i] & (-1L << low);
+          while (true) {
+            if (word != 0) {
+              return doc = (block << BLOCK_BITS) | (i << 6) | Long.numberOfTrailingZeros(word);
+            }
+            if (++i == BLOCK_WORDS) {
+              break;
+            }
+            word = bitmap[i];
+          }
+        }
+      }
+      return doc = NO_MORE_DOCS;
+    }
+
+    @Override
+    public long cost() {
+      return size;
+    }
+  }
+
+  @Override
+  public DocIterator iterator() {
+    return new DocIterator() {
+      private final RoaringIterator iter = new RoaringIterator();
+      private int pos = iter.nextDoc();
+
+      @Override
+      public boolean hasNext() {
+        return pos != DocIdSetIterator.NO_MORE_DOCS;
+      }
+
+      @Override
+      public Integer next() {
+        return nextDoc();
+      }
+
+      @Override
+      public int nextDoc() {
+        int old = pos;
+        pos = iter.nextDoc();
+        return old;
+      }
+
+      @Override
+      public float score() {
+        return 0.0f;
+      }
+    };
+  }
+
+  @Override
+  public DocSet intersection(DocSet other) {
+    final short[][] newArrays = new short[arrays.length][];
+    final long[][] newBitmaps = new long[arrays.length][];
+    int newSize = 0;
+    if (other instanceof RoaringDocSet) {
+      final RoaringDocSet o = (RoaringDocSet) other;
+      for (int block = 0, numBlocks = Math.min(arrays.length, o.arrays.length); block < numBlocks; block++) {
+        final short[] a1 = arrays[block], a2 = o.arrays[block];
+        final long[] b1 = bitmaps[block], b2 = o.bitmaps[block];
+        if ((a1 == null && b1 == null) || (a2 == null && b2 == null)) {
+          continue;
+        }
+        if (a1 != null && a2 != null) {
+          newArrays[block] = intersection(a1, a2);
+        } else if (a1 != null) {
+          newArrays[block] = filter(a1, b2, 0, BLOCK_WORDS, true);
+        } else if (a2 != null) {
+          newArrays[block] = filter(a2, b1, 0, BLOCK_WORDS, true);
+        } else {
+          newSize += combine(b1, b2, 0, BLOCK_WORDS, AND, block, newArrays, newBitmaps);
+          continue;
+        }
+        newSize += size(newArrays[block]);
+      }
+    } else if (other instanceof BitDocSet) {
+      final FixedBitSet bits = ((BitDocSet) other).getBits();
+      final long[] words = bits.getBits();
+      final int numWords = FixedBitSet.bits2words(bits.length());
+      for (int block = 0; block < arrays.length; block++) {
+        final int offset = block * BLOCK_WORDS;
+        if (arrays[block] != null) {
+          newArrays[block] = filter(arrays[block], words, offset, numWords, true);
+          newSize += size(newArrays[block]);
+        } else if (bitmaps[block] != null) {
+          newSize += combine(bitmaps[block], words, offset, numWords, AND, block, newArrays, newBitmaps);
+        }
+      }
+    } else {
+      // intersection is cheaper from the smaller set
+      return other.intersection(this);
+    }
+    return new RoaringDocSet(maxDoc, newArrays, newBitmaps, newSize);
+  }
+
+  @Override
+  public int intersectionSize(DocSet other) {
+    return intersectionSize(other, false);
+  }
+
+  @Override
+  public boolean intersects(DocSet other) {
+    if (!(other instanceof RoaringDocSet) && !(other instanceof BitDocSet)) {
+      // they had better not call us back!
+      return other.intersects(this);
+    }
+    return intersectionSize(other, true) > 0;
+  }
+
+  // if any is true, returns as soon as there is a common document
+  private int intersectionSize(DocSet other, boolean any) {
+    int count = 0;
+    if (other instanceof RoaringDocSet) {
+      final RoaringDocSet o = (RoaringDocSet) other;
+      for (int block = 0, numBlocks = Math.min(arrays.length, o.arrays.length); block < numBlocks; block++) {
+        final short[] a1 = arrays[block], a2 = o.arrays[block];
+        final long[] b1 = bitmaps[block], b2 = o.bitmaps[block];
+        if ((a1 == null && b1 == null) || (a2 == null && b2 == null)) {
+          continue;
+        }
+        if (a1 != null && a2 != null) {
+          count += intersectionCount(a1, a2);
+        } else if (a1 != null) {
+          count += count(a1, b2, 0, BLOCK_WORDS);
+        } else if (a2 != null) {
+          count += count(a2, b1, 0, BLOCK_WORDS);
+        } else {
+          count += intersectionCount(b1, b2, 0, BLOCK_WORDS);
+        }
+        if (any && count > 0) {
+          break;
+        }
+      }
+    } else if (other instanceof BitDocSet) {
+      final FixedBitSet bits = ((BitDocSet) other).getBits();
+      final long[] words = bits.getBits();
+      final int numWords = FixedBitSet.bits2words(bits.length());
+      for (int block = 0; block < arrays.length; block++) {
+        final int offset = block * BLOCK_WORDS;
+        if (arrays[block] != null) {
+          count += count(arrays[block], words, offset, numWords);
+        } else if (bitmaps[block] != null) {
+          count += intersectionCount(bitmaps[block], words, offset, numWords);
+        }
+        if (any && count > 0) {
+          break;
+        }
+      }
+    } else {
+      // they had better not call us back!
+      count = other.intersectionSize(this);
+    }
+    return count;
+  }
+
+  @Override
+  public DocSet andNot(DocSet other) {
+    if (!(other instanceof RoaringDocSet) && !(other instanceof BitDocSet)) {
+      // typically a small set, only the blocks that it has documents in change
+      final Builder builder = new Builder(maxDoc);
+      for (DocIterator iter = other.iterator(); iter.hasNext(); ) {
+        final int doc = iter.nextDoc();
+        if (doc >= maxDoc) {
+          break;
+        }
+        builder.add(doc);
+      }
+      other = builder.build();
+    }
+
+    final short[][] newArrays = new short[arrays.length][];
+    final long[][] newBitmaps = new long[arrays.length][];
+    int newSize = 0;
+    if (other instanceof RoaringDocSet) {
+      final RoaringDocSet o = (RoaringDocSet) other;
+      for (int block = 0; block < arrays.length; block++) {
+        final short[] a1 = arrays[block], a2 = block < o.arrays.length ? o.arrays[block] : null;
+        final long[] b1 = bitmaps[block], b2 = block < o.arrays.length ? o.bitmaps[block] : null;
+        if (a1 == null && b1 == null) {
+          continue;
+        }
+        if (a2 == null && b2 == null) {
+          // blocks are never modified, so they can be shared
+          newArrays[block] = a1;
+          newBitmaps[block] = b1;
+          newSize += a1 != null ? a1.length : cardinality(b1);
+        } else if (a1 != null) {
+          newArrays[block] = a2 != null ? andNot(a1, a2) : filter(a1, b2, 0, BLOCK_WORDS, false);
+          newSize += size(newArrays[block]);
+        } else if (a2 != null) {
+          final long[] words = b1.clone();
+          int card = cardinality(b1);
+          for (short value : a2) {
+            final int low = value & 0xFFFF;
+            final long mask = 1L << low;
+            if ((words[low >>> 6] & mask) != 0) {
+              words[low >>> 6] &= ~mask;
+              card--;
+            }
+          }
+          setBlock(block, words, card, newArrays, newBitmaps);
+          newSize += card;
+        } else {
+          newSize += combine(b1, b2, 0, BLOCK_WORDS, AND_NOT, block, newArrays, newBitmaps);
+        }
+      }
+    } else {
+      final FixedBitSet bits = ((BitDocSet) other).getBits();
+      final long[] words = bits.getBits();
+      final int numWords = FixedBitSet.bits2words(bits.length());
+      for (int block = 0; block < arrays.length; block++) {
+        final int offset = block * BLOCK_WORDS;
+        if (arrays[block] != null) {
+          newArrays[block] = filter(arrays[block], words, offset, numWords, false);
+          newSize += size(newArrays[block]);
+        } else if (bitmaps[block] != null) {
+          newSize += combine(bitmaps[block], words, offset, numWords, AND_NOT, block, newArrays, newBitmaps);
+        }
+      }
+    }
+    return new RoaringDocSet(maxDoc, newArrays, newBitmaps, newSize);
+  }
+
+  @Override
+  public DocSet union(DocSet other) {
+    if (!(other instanceof RoaringDocSet)) {
+      FixedBitSet newbits = FixedBitSet.ensureCapacity(other.getFixedBitSetClone(), maxDoc);
+      addAllTo(newbits);
+      return new BitDocSet(newbits);
+    }
+
+    final RoaringDocSet o = (RoaringDocSet) other;
+    final int newMaxDoc = Math.max(maxDoc, o.maxDoc);
+    final int numBlocks = numBlocks(newMaxDoc);
+    final short[][] newArrays = new short[numBlocks][];
+    final long[][] newBitmaps = new long[numBlocks][];
+    int newSize = 0;
+    for (int block = 0; block < numBlocks; block++) {
+      final short[] a1 = block < arrays.length ? arrays[block] : null;
+      final long[] b1 = block < arrays.length ? bitmaps[block] : null;
+      final short[] a2 = block < o.arrays.length ? o.arrays[block] : null;
+      final long[] b2 = block < o.arrays.length ? o.bitmaps[block] : null;
+      if (a2 == null && b2 == null) {
+        // blocks are never modified, so they can be shared
+        newArrays[block] = a1;
+        newBitmaps[block] = b1;
+        newSize += a1 != null ? a1.length : b1 != null ? cardinality(b1) : 0;
+      } else if (a1 == null && b1 == null) {
+        newArrays[block] = a2;
+        newBitmaps[block] = b2;
+        newSize += a2 != null ? a2.length : cardinality(b2);
+      } else if (b1 != null && b2 != null) {
+        newSize += combine(b1, b2, 0, BLOCK_WORDS, OR, block, newArrays, newBitmaps);
+      } else {
+        // at least one of the blocks is an array, add its values to the other block
+        final short[] array = a1 != null ? a1 : a2;
+        final long[] words;
+        int card;
+        if (b1 != null || b2 != null) {
+          words = (b1 != null ? b1 : b2).clone();
+          card = cardinality(words);
+        } else {
+          if (a1.length + a2.length - intersectionCount(a1, a2) <= MAX_ARRAY_LENGTH) {
+            newArrays[block] = union(a1, a2);
+            newSize += newArrays[block].length;
+            continue;
+          }
+          words = new long[BLOCK_WORDS];
+          for (short value : a2) {
+            final int low = value & 0xFFFF;
+            words[low >>> 6] |= 1L << low;
+          }
+          card = a2.length;
+        }
+        for (short value : array) {
+          final int low = value & 0xFFFF;
+          final long mask = 1L << low;
+          if ((words[low >>> 6] & mask) == 0) {
+            words[low >>> 6] |= mask;
+            card++;
+          }
+        }
+        setBlock(block, words, card, newArrays, newBitmaps);
+        newSize += card;
+      }
+    }
+    return new RoaringDocSet(newMaxDoc, newArrays, newBitmaps, newSize);
+  }
+
+  private static short[] union(short[] a, short[] b) {
+    final short[] result = new short[a.length + b.length];
+    int upto = 0;
+    int i = 0, j = 0;
+    while (i < a.length && j < b.length) {
+      final int va = a[i] & 0xFFFF;
+      final int vb = b[j] & 0xFFFF;
+      if (va < vb) {
+        result[upto++] = a[i++];
+      } else if (va > vb) {
+        result[upto++] = b[j++];
+      } else {
+        result[upto++] = a[i++];
+        j++;
+      }
+    }
+    while (i < a.length) {
+      result[upto++] = a[i++];
+    }
+    while (j < b.length) {
+      result[upto++] = b[j++];
+    }
+    return trim(result, upto);
+  }
+
+  @Override
+  public Filter getTopFilter() {
+    return new Filter() {
+      final RoaringDocSet docs = RoaringDocSet.this;
+
+      @Override
+      public DocIdSet getDocIdSet(final LeafReaderContext context, final Bits acceptDocs) {
+        LeafReader reader = context.reader();
+        // all Solr DocSets that are used as filters only include live docs
+        final Bits acceptDocs2 = acceptDocs == null ? null : (reader.getLiveDocs() == acceptDocs ? null : acceptDocs);
+
+        final int base = context.docBase;
+        final int max = base + reader.maxDoc();   // one past the max doc in this segment.
+
+        return BitsFilteredDocIdSet.wrap(new DocIdSet() {
+          @Override
+          public DocIdSetIterator iterator() {
+            return new DocIdSetIterator() {
+              final RoaringIterator iter = new RoaringIterator();
+              int adjustedDoc = -1;
+
+              @Override
+              public int docID() {
+                return adjustedDoc;
+              }
+
+              @Override
+              public int nextDoc() {
+                return advance(adjustedDoc + 1);
+              }
+
+              @Override
+              public int advance(int target) {
+                if (target >= max - base) {
+                  return adjustedDoc = NO_MORE_DOCS;
+                }
+                int doc = iter.advance(target + base);
+                return adjustedDoc = doc < max ? doc - base : NO_MORE_DOCS;
+              }
+
+              @Override
+              public long cost() {
+                // pro-rated for the segment
+                return maxDoc == 0 ? 0 : (long) (size * ((max - base) / (double) maxDoc));
+              }
+            };
+          }
+
+          @Override
+          public long ramBytesUsed() {
+            return docs.ramBytesUsed();
+          }
+
+          @Override
+          public Bits bits() {
+            return new Bits() {
+              @Override
+              public boolean get(int index) {
+                return docs.exists(index + base);
+              }
+
+              @Override
+              public int length() {
+                return max - base;
+              }
+            };
+          }
+
+        }, acceptDocs2);
+      }
+
+      @Override
+      public String toString(String field) {
+        return "RoaringDocTopFilter";
+      }
+
+      @Override
+      public boolean equals(Object other) {
+        return sameClassAs(other) &&
+               docs == getClass().cast(other).docs;
+      }
+
+      @Override
+      public int hashCode() {
+        return classHash() * 31 + System.identityHashCode(docs);
+      }
+    };
+  }
+
+  @Override
+  public void addAllTo(FixedBitSet target) {
+    final long[] words = target.getBits();
+    final int numWords = FixedBitSet.bits2words(target.length());
+    for (int block = 0; block < arrays.length; block++) {
+      final int offset = block * BLOCK_WORDS;
+      if (arrays[block] != null) {
+        final int base = block << BLOCK_BITS;
+        for (short value : arrays[block]) {
+          target.set(base | (value & 0xFFFF));
+        }
+      } else if (bitmaps[block] != null) {
+        final long[] bitmap = bitmaps[block];
+        for (int i = 0, n = Math.min(BLOCK_WORDS, numWords - offset); i < n; i++) {
+          words[offset + i] |= bitmap[i];
+        }
+      }
+    }
+  }
+
+  @Override
+  public RoaringDocSet clone() {
+    // blocks are never modified, so they can be shared
+    return new RoaringDocSet(maxDoc, arrays.clone(), bitmaps.clone(), size);
+  }
+
+  @Override
+  public Bits getBits() {
+    return new Bits() {
+      @Override
+      public boolean get(int index) {
+        return exists(index);
+      }
+
+      @Override
+      public int length() {
+        return maxDoc;
+      }
+    };
+  }
+
+  @Override
+  protected FixedBitSet getFixedBitSet() {
+    return getFixedBitSetClone();
+  }
+
+  @Override
+  protected FixedBitSet getFixedBitSetClone() {
+    FixedBitSet bits = new FixedBitSet(maxDoc);
+    addAllTo(bits);
+    return bits;
+  }
+
+  @Override
+  public long ramBytesUsed() {
+    return ramBytesUsed;
+  }
+
+  @Override
+  public Collection<Accountable> getChildResources() {
+    return Collections.emptyList();
+  }
+
+  @Override
+  public String toString() {
+    return "RoaringDocSet{" +
+        "size=" + size() +
+        ",ramUsed=" + RamUsageEstimator.humanReadableUnits(ramBytesUsed()) +
+        '}';
+  }
+
+  /** Builds a set from documents that are added in increasing order. */
+  private static class Builder {
+    private final int maxDoc;
+    private final short[][] arrays;
+    private final long[][] bitmaps;
+    private int size;
+    // the current block, whose documents are in the buffer until there are too many for an array
+    private int block = -1;
+    private final short[] buffer = new short[MAX_ARRAY_LENGTH];
+    private long[] words;
+    private int card;
+
+    Builder(int maxDoc) {
+      this.maxDoc = maxDoc;
+      final int numBlocks = numBlocks(maxDoc);
+      this.arrays = new short[numBlocks][];
+      this.bitmaps = new long[numBlocks][];
+    }
+
+    void add(int doc) {
+      assert doc < maxDoc;
+      final int b = doc >>> BLOCK_BITS;
+      if (b != block) {
+        flush();
+        block = b;
+      }
+      final int low = doc & BLOCK_MASK;
+      if (words == null) {
+        assert card == 0 || (buffer[card - 1] & 0xFFFF) < low : "docs must be added in increasing order";
+        if (card < MAX_ARRAY_LENGTH) {
+          buffer[card++] = (short) low;
+          return;
+        }
+        words = new long[BLOCK_WORDS];
+        for (int i = 0; i < card; i++) {
+          final int value = buffer[i] & 0xFFFF;
+          words[value >>> 6] |= 1L << value;
+        }
+      }
+      final long mask = 1L << low;
+      if ((words[low >>> 6] & mask) == 0) {
+        words[low >>> 6] |= mask;
+        card++;
+      }
+    }
+
+    private void flush() {
+      if (words != null) {
+        setBlock(block, words, card, arrays, bitmaps);
+      } else if (card > 0) {
+        arrays[block] = Arrays.copyOf(buffer, card);
+      }
+      size += card;
+      words = null;
+      card = 0;
+    }
+
+    RoaringDocSet build() {
+      flush();
+      return new RoaringDocSet(maxDoc, arrays, bitmaps, size);
+    }
+  }
+}
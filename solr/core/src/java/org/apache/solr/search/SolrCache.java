@@ -41,6 +41,8 @@ public interface SolrCache<K,V> extends SolrInfoBean {
   String INITIAL_SIZE_PARAM = "initialSize";
   String CLEANUP_THREAD_PARAM = "cleanupThread";
   String SHOW_ITEMS_PARAM = "showItems";
+  String AUTOWARM_THREADS_PARAM = "autowarmThreads";
+  String AUTOWARM_TIME_LIMIT_PARAM = "autowarmTimeLimit";
 
   /**
    * The initialization routine. Instance specific arguments are passed in
@@ -38,6 +38,12 @@ public abstract class SolrCacheBase {
   private String name;
   
   protected AutoWarmCountRef autowarm;
+
+  /** Number of threads that regenerate entries concurrently when autowarming. */
+  protected int autowarmThreads;
+
+  /** Maximum time in milliseconds spent autowarming, or -1 if unlimited. */
+  protected long autowarmTimeLimitMs;
   
   /**
    * Decides how many things to autowarm based on the size of another cache
@@ -110,11 +116,24 @@ public abstract class SolrCacheBase {
     state = State.CREATED;
     name = args.get(NAME);
     autowarm = new AutoWarmCountRef(args.get("autowarmCount"));
-    
+    String str = args.get(SolrCache.AUTOWARM_THREADS_PARAM);
+    autowarmThreads = str == null ? 1 : Integer.parseInt(str);
+    if (autowarmThreads < 1) {
+      throw new IllegalArgumentException(SolrCache.AUTOWARM_THREADS_PARAM + " must be >= 1, got " + autowarmThreads);
+    }
+    str = args.get(SolrCache.AUTOWARM_TIME_LIMIT_PARAM);
+    autowarmTimeLimitMs = str == null ? -1 : Long.parseLong(str);
   }
   
   protected String getAutowarmDescription() {
-    return "autowarmCount=" + autowarm + ", regenerator=" + regenerator;
+    StringBuilder sb = new StringBuilder("autowarmCount=").append(autowarm);
+    if (autowarmThreads > 1) {
+      sb.append(", ").append(SolrCache.AUTOWARM_THREADS_PARAM).append('=').append(autowarmThreads);
+    }
+    if (autowarmTimeLimitMs >= 0) {
+      sb.append(", ").append(SolrCache.AUTOWARM_TIME_LIMIT_PARAM).append('=').append(autowarmTimeLimitMs);
+    }
+    return sb.append(", regenerator=").append(regenerator).toString();
   }
   
   protected boolean isAutowarmingOn() {
@@ -244,6 +244,21 @@ public class SolrDocumentFetcher {
     }
   }
 
+  /**
+   * Hints that the stored fields of the given documents, e.g. a page of results, are about to be
+   * loaded. The document cache is not consulted so that its statistics only reflect actual loads.
+   *
+   * @see IndexReader#prefetchDocuments(int[])
+   */
+  public void prefetch(DocList docs) throws IOException {
+    final int[] docIds = new int[docs.size()];
+    final DocIterator it = docs.iterator();
+    for (int i = 0; i < docIds.length; ++i) {
+      docIds[i] = it.nextDoc();
+    }
+    searcher.getIndexReader().prefetchDocuments(docIds);
+  }
+
   private Document docNC(int i, Set<String> fields) throws IOException {
     final DirectoryReader reader = searcher.getIndexReader();
     final SolrDocumentStoredFieldVisitor visitor = new SolrDocumentStoredFieldVisitor(fields, reader, i);
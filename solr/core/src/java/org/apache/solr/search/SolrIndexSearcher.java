@@ -123,6 +123,8 @@ public class SolrIndexSearcher extends IndexSearcher implements Closeable, SolrI
 
   private final boolean cachingEnabled;
   private final SolrCache<Query,DocSet> filterCache;
+  // per-segment results of filterCache misses, shared with other searchers of the core
+  private final LRUQueryCache segmentFilterCache;
   private final SolrCache<QueryResultKey,DocList> queryResultCache;
   private final SolrCache<String,UnInvertedField> fieldValueCache;
 
@@ -285,6 +287,7 @@ public class SolrIndexSearcher extends IndexSearcher implements Closeable, SolrI
       if (fieldValueCache != null) clist.add(fieldValueCache);
       filterCache = solrConfig.filterCacheConfig == null ? null : solrConfig.filterCacheConfig.newInstance();
       if (filterCache != null) clist.add(filterCache);
+      segmentFilterCache = filterCache == null ? null : core.getSegmentFilterCache();
       queryResultCache = solrConfig.queryResultCacheConfig == null ? null
           : solrConfig.queryResultCacheConfig.newInstance();
       if (queryResultCache != null) clist.add(queryResultCache);
@@ -307,6 +310,7 @@ public class SolrIndexSearcher extends IndexSearcher implements Closeable, SolrI
       cacheList = clist.toArray(new SolrCache[clist.size()]);
     } else {
       this.filterCache = null;
+      this.segmentFilterCache = null;
       this.queryResultCache = null;
       this.fieldValueCache = null;
       this.cacheMap = NO_GENERIC_CACHES;
@@ -779,10 +783,7 @@ public class SolrIndexSearcher extends IndexSearcher implements Closeable, SolrI
       return (BitDocSet) answer;
     }
     FixedBitSet bs = new FixedBitSet(maxDoc());
-    DocIterator iter = answer.iterator();
-    while (iter.hasNext()) {
-      bs.set(iter.nextDoc());
-    }
+    answer.addAllTo(bs);
 
     return new BitDocSet(bs, answer.size());
   }
@@ -828,7 +829,7 @@ public class SolrIndexSearcher extends IndexSearcher implements Closeable, SolrI
       }
     }
 
-    DocSet absAnswer = getDocSetNC(absQ, null);
+    DocSet absAnswer = getFilterDocSetNC(absQ);
     DocSet answer = positive ? absAnswer : getLiveDocSet().andNot(absAnswer);
 
     if (filterCache != null) {
@@ -846,7 +847,7 @@ public class SolrIndexSearcher extends IndexSearcher implements Closeable, SolrI
       answer = filterCache.get(q);
       if (answer != null) return answer;
     }
-    answer = getDocSetNC(q, null);
+    answer = getFilterDocSetNC(q);
     if (filterCache != null) filterCache.put(q, answer);
     return answer;
   }
@@ -1173,6 +1174,42 @@ public class SolrIndexSearcher extends IndexSearcher implements Closeable, SolrI
     return DocSetUtil.createDocSet(this, query, filter);
   }
 
+  /**
+   * Computes the DocSet of a positive query that the filterCache missed. If the core has a
+   * per-segment filter cache, the query is only evaluated on segments that it has no result
+   * for, typically the ones that were added since the previous searcher was opened.
+   * Queries that produce their DocSet from the whole index are always evaluated.
+   * Answers that go to the filterCache are made compact, see {@link DocSetUtil#toCompactSet(DocSet)}.
+   */
+  private DocSet getFilterDocSetNC(Query query) throws IOException {
+    DocSet answer;
+    if (segmentFilterCache == null || query instanceof DocSetProducer || query instanceof MatchAllDocsQuery) {
+      answer = getDocSetNC(query, null);
+    } else {
+      Weight weight = createWeight(rewrite(query), ScoreMode.COMPLETE_NO_SCORES, 1f);
+      // the weight only uses per-segment results of segments it reports as cacheable
+      weight = segmentFilterCache.doCache(weight, ALWAYS_CACHE);
+      DocSetCollector collector = new DocSetCollector(maxDoc());
+      search(leafContexts, weight, collector);
+      answer = DocSetUtil.getDocSet(collector, this);
+    }
+    // the answer is going to be cached, but sets that match all live docs share the live docs instead
+    if (filterCache != null && answer.size() != numDocs()) {
+      answer = DocSetUtil.toCompactSet(answer);
+    }
+    return answer;
+  }
+
+  private static final QueryCachingPolicy ALWAYS_CACHE = new QueryCachingPolicy() {
+    @Override
+    public void onUse(Query query) {}
+
+    @Override
+    public boolean shouldCache(Query query) {
+      return true;
+    }
+  };
+
   /**
    * Returns the set of document ids matching both the query and the filter. This method is cache-aware and attempts to
    * retrieve the answer from the cache if possible. If the answer was not cached, it may have been inserted into the
@@ -1205,7 +1242,7 @@ public class SolrIndexSearcher extends IndexSearcher implements Closeable, SolrI
     if (filterCache != null) {
       first = filterCache.get(absQ);
       if (first == null) {
-        first = getDocSetNC(absQ, null);
+        first = getFilterDocSetNC(absQ);
         filterCache.put(absQ, first);
       }
       return positive ? first.intersection(filter) : filter.andNot(first);
@@ -2012,7 +2049,7 @@ public class SolrIndexSearcher extends IndexSearcher implements Closeable, SolrI
     }
 
     // bit of a hack to tell if a set is sorted - do it better in the future.
-    boolean inOrder = set instanceof BitDocSet || set instanceof SortedIntDocSet;
+    boolean inOrder = set instanceof BitDocSet || set instanceof SortedIntDocSet || set instanceof RoaringDocSet;
 
     @SuppressWarnings({"rawtypes"})
     TopDocsCollector topCollector = buildTopDocsCollector(nDocs, cmd);
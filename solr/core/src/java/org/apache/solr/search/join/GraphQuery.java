@@ -279,7 +279,8 @@ public class GraphQuery extends Query {
 
     @Override
     public boolean isCacheable(LeafReaderContext ctx) {
-      return true;
+      // the traversal follows edges across segments
+      return false;
     }
     
   }
@@ -78,6 +78,14 @@ public class TransactionLog implements Closeable {
   OutputStream os;
   FastOutputStream fos;    // all accesses to this stream should be synchronized on "this" (The TransactionLog)
   int numRecords;
+
+  // Group commit: while one thread fsyncs the log, other threads that need their
+  // records to be synced wait, and then one of them syncs all records that were
+  // written in the meantime at once.
+  private final Object syncLock = new Object();
+  private long syncedPosition;  // everything before this position has been synced, guarded by syncLock
+  private boolean syncing;      // guarded by syncLock
+  private long syncCount;       // guarded by syncLock
   boolean isBuffer;
 
   protected volatile boolean deleteOnClose = true;  // we can delete old tlogs since they are currently only used for real-time-get (and in the future, recovery)
@@ -564,22 +572,80 @@ public class TransactionLog implements Closeable {
 
   }
 
+  /**
+   * Flushes the records that were written to this log so far and, with {@link UpdateLog.SyncLevel#FSYNC},
+   * waits until they are synced to disk. Concurrent callers share fsyncs: a caller whose records were synced by
+   * another thread returns without syncing the log itself.
+   */
   public void finish(UpdateLog.SyncLevel syncLevel) {
     if (syncLevel == UpdateLog.SyncLevel.NONE) return;
+    try {
+      if (syncLevel == UpdateLog.SyncLevel.FSYNC) {
+        long pos;
+        synchronized (this) {
+          pos = fos.size();
+        }
+        // the thread that syncs the log also flushes the buffer
+        sync(pos);
+      } else {
+        synchronized (this) {
+          fos.flushBuffer();
+        }
+      }
+    } catch (IOException e) {
+      throw new SolrException(SolrException.ErrorCode.SERVER_ERROR, e);
+    }
+  }
+
+  /** Flushes and syncs the log, unless everything before {@code pos} was already synced by another thread. */
+  private void sync(long pos) throws IOException {
+    synchronized (syncLock) {
+      while (true) {
+        if (syncedPosition >= pos) {
+          return;
+        }
+        if (syncing == false) {
+          syncing = true;
+          break;
+        }
+        try {
+          syncLock.wait();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new SolrException(SolrException.ErrorCode.SERVER_ERROR, "Interrupted while waiting for tlog sync", e);
+        }
+      }
+    }
+
+    boolean success = false;
+    long syncPos = -1;
     try {
       synchronized (this) {
         fos.flushBuffer();
+        syncPos = fos.size();
       }
-
-      if (syncLevel == UpdateLog.SyncLevel.FSYNC) {
-        // Since fsync is outside of synchronized block, we can end up with a partial
-        // last record on power failure (which is OK, and does not represent an error...
-        // we just need to be aware of it when reading).
-        raf.getFD().sync();
+      // Since fsync is outside of synchronized block, we can end up with a partial
+      // last record on power failure (which is OK, and does not represent an error...
+      // we just need to be aware of it when reading).
+      raf.getFD().sync();
+      success = true;
+    } finally {
+      synchronized (syncLock) {
+        syncing = false;
+        if (success) {
+          syncedPosition = Math.max(syncedPosition, syncPos);
+          syncCount++;
+        }
+        // wake up waiting threads: they either return or the next of them syncs
+        syncLock.notifyAll();
       }
+    }
+  }
 
-    } catch (IOException e) {
-      throw new SolrException(SolrException.ErrorCode.SERVER_ERROR, e);
+  /** Returns the number of times this log was fsynced by {@link #finish(UpdateLog.SyncLevel)}. */
+  long getSyncCount() {
+    synchronized (syncLock) {
+      return syncCount;
     }
   }
 
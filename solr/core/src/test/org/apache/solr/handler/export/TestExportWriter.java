@@ -709,6 +709,35 @@ public class TestExportWriter extends SolrTestCaseJ4 {
     validateSort(numDocs);
   }
 
+  @Test
+  public void testConcurrentSlices() throws Exception {
+    assertU(delQ("*:*"));
+    assertU(commit());
+
+    int numDocs = atLeast(500);
+    for (int i = 0; i < numDocs; i++) {
+      assertU(adoc("id", String.valueOf(i),
+          "intdv", String.valueOf(random().nextInt(20)),
+          "stringdv", TestUtil.randomSimpleString(random(), 1, 2),
+          "longdv", String.valueOf(random().nextInt(1000))));
+      if (random().nextInt(50) == 0) {
+        assertU(commit());
+      }
+    }
+    assertU(commit());
+
+    String[] sorts = {"intdv asc", "stringdv desc,intdv asc", "longdv desc,stringdv asc,intdv desc"};
+    for (String sort : sorts) {
+      String batchSize = String.valueOf(TestUtil.nextInt(random(), 1, 100));
+      String expected = h.query(req("q", "*:*", "qt", "/export", "fl", "id,intdv,stringdv,longdv", "sort", sort,
+          "batchSize", batchSize));
+      // ties must be broken by index order across slices too
+      String actual = h.query(req("q", "*:*", "qt", "/export", "fl", "id,intdv,stringdv,longdv", "sort", sort,
+          "batchSize", batchSize, "numThreads", String.valueOf(TestUtil.nextInt(random(), 2, 8))));
+      assertJsonEquals(actual, expected);
+    }
+  }
+
   private void createLargeIndex() throws Exception {
     int BATCH_SIZE = 5000;
     int NUM_BATCHES = 20;
@@ -97,6 +97,82 @@ public class TestCaffeineCache extends SolrTestCase {
     assertEquals(102L, nl.get("cumulative_inserts"));
   }
 
+  @Test
+  @SuppressWarnings({"unchecked"})
+  public void testConcurrentAutowarm() throws IOException {
+    Map<String, String> params = new HashMap<>();
+    params.put("size", "100");
+    params.put("autowarmCount", "100%");
+    params.put(SolrCache.AUTOWARM_THREADS_PARAM, Integer.toString(TestUtil.nextInt(random(), 2, 8)));
+
+    CacheRegenerator regenerator = (newSearcher, newCache, oldCache, oldKey, oldVal) -> {
+      newCache.put(oldKey, oldVal);
+      return true;
+    };
+    CaffeineCache<Integer, String> cache = new CaffeineCache<>();
+    Object initObj = cache.init(params, null, regenerator);
+    for (int i = 0; i < 100; i++) {
+      cache.put(i, Integer.toString(i));
+    }
+
+    CaffeineCache<Integer, String> newCache = new CaffeineCache<>();
+    newCache.init(params, initObj, regenerator);
+    newCache.initializeMetrics(new SolrMetricsContext(metricManager, registry, "foo"), scope);
+    newCache.warm(null, cache);
+    assertEquals(100, newCache.size());
+    for (int i = 0; i < 100; i++) {
+      assertEquals(Integer.toString(i), newCache.get(i));
+    }
+    assertEquals(0L, newCache.getMetricsMap().getValue().get("warmupSkipped"));
+    cache.close();
+    newCache.close();
+  }
+
+  @Test
+  @SuppressWarnings({"unchecked"})
+  public void testAutowarmTimeLimit() throws IOException {
+    Map<String, String> params = new HashMap<>();
+    params.put("size", "100");
+    params.put("autowarmCount", "100%");
+    params.put(SolrCache.AUTOWARM_TIME_LIMIT_PARAM, "100");
+    if (random().nextBoolean()) {
+      params.put(SolrCache.AUTOWARM_THREADS_PARAM, "2");
+    }
+
+    CacheRegenerator regenerator = (newSearcher, newCache, oldCache, oldKey, oldVal) -> {
+      newCache.put(oldKey, oldVal);
+      try {
+        Thread.sleep(50);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return true;
+    };
+    CaffeineCache<Integer, String> cache = new CaffeineCache<>();
+    Object initObj = cache.init(params, null, regenerator);
+    for (int i = 0; i < 100; i++) {
+      cache.put(i, Integer.toString(i));
+    }
+
+    CaffeineCache<Integer, String> newCache = new CaffeineCache<>();
+    newCache.init(params, initObj, regenerator);
+    newCache.initializeMetrics(new SolrMetricsContext(metricManager, registry, "foo"), scope);
+    newCache.warm(null, cache);
+    // the time limit stops warming, but entries that were regenerated are kept
+    assertTrue(newCache.size() > 0);
+    assertTrue(newCache.size() < 100);
+    assertEquals(100L - newCache.size(), newCache.getMetricsMap().getValue().get("warmupSkipped"));
+    cache.close();
+    newCache.close();
+  }
+
+  @Test
+  public void testInvalidAutowarmThreads() {
+    Map<String, String> params = new HashMap<>();
+    params.put(SolrCache.AUTOWARM_THREADS_PARAM, "0");
+    expectThrows(IllegalArgumentException.class, () -> new CaffeineCache<>().init(params, null, new NoOpRegenerator()));
+  }
+
   @Test
   public void testTimeDecay() {
     Cache<Integer, String> cacheDecay = Caffeine.newBuilder()
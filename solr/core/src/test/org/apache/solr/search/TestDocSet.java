@@ -37,6 +37,7 @@ import org.apache.lucene.index.SortedNumericDocValues;
 import org.apache.lucene.index.SortedSetDocValues;
 import org.apache.lucene.index.StoredFieldVisitor;
 import org.apache.lucene.index.Terms;
+import org.apache.lucene.index.VectorValues;
 import org.apache.lucene.search.DocIdSet;
 import org.apache.lucene.search.DocIdSetIterator;
 import org.apache.lucene.search.TotalHits;
@@ -102,6 +103,10 @@ public class TestDocSet extends SolrTestCase {
     return new BitDocSet(bs);
   }
 
+  public DocSet getRoaringDocSet(FixedBitSet bs) {
+    return RoaringDocSet.fromBitSet(bs.clone());
+  }
+
   public DocSlice getDocSlice(FixedBitSet bs) {
     int len = bs.cardinality();
     int[] arr = new int[len+5];
@@ -120,7 +125,7 @@ public class TestDocSet extends SolrTestCase {
 
 
   public DocSet getDocSet(FixedBitSet bs) {
-    switch(rand.nextInt(9)) {
+    switch(rand.nextInt(11)) {
       case 0: case 1: case 2: case 3: return getBitDocSet(bs);
 
       case 4: return getIntDocSet(bs);
@@ -128,6 +133,8 @@ public class TestDocSet extends SolrTestCase {
       case 6: return getIntDocSet(bs);
       case 7: return getIntDocSet(bs);
       case 8: return getIntDocSet(bs);
+
+      case 9: case 10: return getRoaringDocSet(bs);
     }
     return null;
   }
@@ -204,6 +211,92 @@ public class TestDocSet extends SolrTestCase {
     // doMany(130, 1000000);
   }
 
+  // a set over several blocks of a RoaringDocSet, with regions of different densities
+  public FixedBitSet getRandomClusteredSet(int sz) {
+    FixedBitSet bs = new FixedBitSet(sz);
+    for (int start = 0; start < sz; ) {
+      int end = Math.min(sz, start + 1 + rand.nextInt(100000));
+      switch (rand.nextInt(5)) {
+        case 0: break;
+        case 1: bs.set(start, end); break;
+        default:
+          int density = 1 + rand.nextInt(100);
+          for (int i = start; i < end; i++) {
+            if (rand.nextInt(density) == 0) bs.set(i);
+          }
+      }
+      start = end;
+    }
+    return bs;
+  }
+
+  public void testRoaringDocSets() {
+    for (int iter = 0; iter < 20; iter++) {
+      int sz = 1 + rand.nextInt(300000);
+      FixedBitSet bs1 = getRandomClusteredSet(sz);
+      FixedBitSet bs2 = getRandomClusteredSet(sz);
+
+      RoaringDocSet a = RoaringDocSet.fromBitSet(bs1);
+      checkEqual(bs1, a);
+      iter(new BitDocSet(bs1), a);
+      iter(a, a.clone());
+      assertEquals(RoaringDocSet.estimateRamBytesUsed(bs1), a.ramBytesUsed());
+      FixedBitSet all = new FixedBitSet(sz);
+      a.addAllTo(all);
+      assertEquals(bs1, all);
+
+      FixedBitSet a_and = bs1.clone(); a_and.and(bs2);
+      FixedBitSet a_or = bs1.clone(); a_or.or(bs2);
+      FixedBitSet a_andn = bs1.clone(); a_andn.andNot(bs2);
+      FixedBitSet b_andn = bs2.clone(); b_andn.andNot(bs1);
+
+      for (DocSet b : new DocSet[] { getRoaringDocSet(bs2), getBitDocSet(bs2), getIntDocSet(bs2) }) {
+        checkEqual(a_and, a.intersection(b));
+        checkEqual(a_and, b.intersection(a));
+        checkEqual(a_or, a.union(b));
+        checkEqual(a_or, b.union(a));
+        checkEqual(a_andn, a.andNot(b));
+        checkEqual(b_andn, b.andNot(a));
+
+        assertEquals(a_and.cardinality(), a.intersectionSize(b));
+        assertEquals(a_and.cardinality(), b.intersectionSize(a));
+        assertEquals(a_and.cardinality() > 0, a.intersects(b));
+        assertEquals(a_and.cardinality() > 0, b.intersects(a));
+        assertEquals(a_or.cardinality(), a.unionSize(b));
+        assertEquals(a_andn.cardinality(), a.andNotSize(b));
+        assertEquals(b_andn.cardinality(), b.andNotSize(a));
+      }
+    }
+  }
+
+  public void testCompactSet() {
+    int maxDoc = 1 << 20;
+    // a few documents in every block
+    FixedBitSet sparse = new FixedBitSet(maxDoc);
+    for (int i = 0; i < maxDoc; i += 100) sparse.set(i);
+    DocSet compact = DocSetUtil.toCompactSet(new BitDocSet(sparse));
+    assertTrue(compact instanceof RoaringDocSet);
+    assertTrue(compact.ramBytesUsed() < new BitDocSet(sparse).ramBytesUsed() / 4);
+    iter(new BitDocSet(sparse), compact);
+
+    // all documents in a few blocks
+    FixedBitSet clustered = new FixedBitSet(maxDoc);
+    clustered.set(1 << 16, 1 << 18);
+    compact = DocSetUtil.toCompactSet(new BitDocSet(clustered));
+    assertTrue(compact instanceof RoaringDocSet);
+    assertTrue(compact.ramBytesUsed() < new BitDocSet(clustered).ramBytesUsed() / 4);
+    checkEqual(clustered, compact);
+
+    // many documents in every block
+    FixedBitSet dense = new FixedBitSet(maxDoc);
+    for (int i = 0; i < maxDoc; i += 3) dense.set(i);
+    BitDocSet bitSet = new BitDocSet(dense);
+    assertSame(bitSet, DocSetUtil.toCompactSet(bitSet));
+
+    DocSet intSet = getIntDocSet(sparse);
+    assertSame(intSet, DocSetUtil.toCompactSet(intSet));
+  }
+
   public DocSet getRandomDocSet(int n, int maxDoc) {
     FixedBitSet obs = new FixedBitSet(maxDoc);
     int[] a = new int[n];
@@ -343,6 +436,11 @@ public class TestDocSet extends SolrTestCase {
         return null;
       }
 
+      @Override
+      public VectorValues getVectorValues(String field) {
+        return null;
+      }
+
       @Override
       protected void doClose() {
       }
@@ -425,7 +523,7 @@ public class TestDocSet extends SolrTestCase {
     IndexReaderContext topLevelContext = reader.getContext();
     FixedBitSet bs = getRandomSet(reader.maxDoc(), rand.nextInt(reader.maxDoc()+1));
     DocSet a = new BitDocSet(bs);
-    DocSet b = getIntDocSet(bs);
+    DocSet b = rand.nextBoolean() ? getIntDocSet(bs) : getRoaringDocSet(bs);
 
     Filter fa = a.getTopFilter();
     Filter fb = b.getTopFilter();
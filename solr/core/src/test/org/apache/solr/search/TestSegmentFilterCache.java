@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.solr.search;
+
+import org.apache.lucene.search.LRUQueryCache;
+import org.apache.solr.SolrTestCaseJ4;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class TestSegmentFilterCache extends SolrTestCaseJ4 {
+
+  @BeforeClass
+  public static void beforeClass() throws Exception {
+    initCore("solrconfig-segmentfiltercache.xml", "schema.xml");
+  }
+
+  @Test
+  public void testFiltersSurviveCommits() throws Exception {
+    clearIndex();
+    LRUQueryCache segmentFilterCache = h.getCore().getSegmentFilterCache();
+    assertNotNull(segmentFilterCache);
+
+    for (int i = 0; i < 50; i++) {
+      assertU(adoc("id", Integer.toString(i), "foo_s", i % 2 == 0 ? "even" : "odd", "val_i", Integer.toString(i)));
+    }
+    assertU(commit());
+    assertJQ(req("q", "*:*", "fq", "foo_s:even", "fq", "val_i:[10 TO 55]"), "/response/numFound==20");
+
+    // autowarming only evaluates the filters on the new segment
+    long hits = segmentFilterCache.getHitCount();
+    for (int i = 50; i < 60; i++) {
+      assertU(adoc("id", Integer.toString(i), "foo_s", i % 2 == 0 ? "even" : "odd", "val_i", Integer.toString(i)));
+    }
+    assertU(commit());
+    assertTrue(segmentFilterCache.getHitCount() >= hits + 2);
+    assertJQ(req("q", "*:*", "fq", "foo_s:even", "fq", "val_i:[10 TO 55]"), "/response/numFound==23");
+
+    // deletes are applied on top of the cached results of a segment
+    assertU(delI("12"));
+    assertU(commit());
+    assertJQ(req("q", "*:*", "fq", "foo_s:even", "fq", "val_i:[10 TO 55]"), "/response/numFound==22");
+    assertJQ(req("q", "*:*", "fq", "-foo_s:even"), "/response/numFound==30");
+  }
+
+  @Test
+  public void testGraphTermsAcrossCommits() throws Exception {
+    clearIndex();
+    assertU(adoc("id", "1", "foo_s", "graph", "val_i", "1"));
+    assertU(adoc("id", "2", "foo_s", "graph", "val_i", "2"));
+    assertU(adoc("id", "3", "foo_s", "graph", "val_i", "2"));
+    assertU(commit());
+    // nested, so that the per-segment cache may see the graphTerms query
+    final String fq = "{!bool must=foo_s:graph must=$gt}";
+    final String gt = "{!graphTerms f=val_i maxDocFreq=2}1,2";
+    assertJQ(req("q", "*:*", "fq", fq, "gt", gt), "/response/numFound==3");
+
+    // the value 2 is now too frequent, including in the first segment
+    assertU(adoc("id", "4", "foo_s", "graph", "val_i", "2"));
+    assertU(commit());
+    assertJQ(req("q", "*:*", "fq", fq, "gt", gt), "/response/numFound==1");
+  }
+}
@@ -24,7 +24,9 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.UUID;
+import java.util.concurrent.CyclicBarrier;
 
+import org.apache.lucene.util.TestUtil;
 import org.apache.solr.SolrTestCase;
 import org.apache.solr.common.SolrInputDocument;
 import org.apache.solr.update.TransactionLog.LogReader;
@@ -72,4 +74,60 @@ public class TransactionLogTest extends SolrTestCase {
       assertEquals(uuid, (UUID) doc.getFieldValue("uuid"));
     }
   }
+
+  @Test
+  public void testGroupCommit() throws Exception {
+    String tlogFileName = String.format(Locale.ROOT, UpdateLog.LOG_FILENAME_PATTERN, UpdateLog.TLOG_NAME,
+        Long.MAX_VALUE);
+    Path path = createTempDir();
+    File logFile = new File(path.toFile(), tlogFileName);
+    final int numThreads = TestUtil.nextInt(random(), 2, 8);
+    final int numDocsPerThread = atLeast(50);
+    try (TransactionLog tlog = new TransactionLog(logFile, new ArrayList<>())) {
+      tlog.deleteOnClose = false;
+      CyclicBarrier barrier = new CyclicBarrier(numThreads);
+      Thread[] threads = new Thread[numThreads];
+      for (int t = 0; t < numThreads; t++) {
+        final int threadId = t;
+        threads[t] = new Thread(() -> {
+          try {
+            barrier.await();
+            for (int i = 0; i < numDocsPerThread; i++) {
+              AddUpdateCommand updateCommand = new AddUpdateCommand(null);
+              SolrInputDocument doc = new SolrInputDocument();
+              doc.addField("id", threadId + "_" + i);
+              updateCommand.solrDoc = doc;
+              long pos = tlog.write(updateCommand);
+              tlog.finish(UpdateLog.SyncLevel.FSYNC);
+              // the record must have been flushed
+              assertTrue(pos < logFile.length());
+            }
+          } catch (Exception e) {
+            throw new RuntimeException(e);
+          }
+        });
+        threads[t].start();
+      }
+      for (Thread thread : threads) {
+        thread.join();
+      }
+      long syncCount = tlog.getSyncCount();
+      assertTrue(syncCount > 0);
+      assertTrue(syncCount <= numThreads * numDocsPerThread);
+
+      // nothing left to sync
+      tlog.finish(UpdateLog.SyncLevel.FSYNC);
+      assertEquals(syncCount, tlog.getSyncCount());
+      assertEquals(tlog.position(), logFile.length());
+    }
+
+    try (TransactionLog tlog = new TransactionLog(logFile, new ArrayList<>(), true)) {
+      LogReader reader = tlog.getReader(0);
+      int numDocs = 0;
+      for (Object entry = reader.next(); entry != null; entry = reader.next()) {
+        numDocs++;
+      }
+      assertEquals(numThreads * numDocsPerThread, numDocs);
+    }
+  }
 }